@@ -0,0 +1,178 @@
+package client;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+
+/**
+ * This class is responsible for emitting product analytics events to Kafka without blocking request threads.
+ *
+ * Events are enqueued into a bounded buffer, and sent in batches by a single background thread, leaving batching and
+ * compression to the producer. When the buffer is full, events are dropped according to the {@link OverflowPolicy}.
+ */
+@Slf4j
+public class KafkaTrackingProducer implements AutoCloseable {
+
+  /**
+   * Which events to drop when the buffer is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Drop the event being enqueued.
+     */
+    DROP_NEWEST,
+    /**
+     * Drop the oldest buffered event to make room for the event being enqueued.
+     */
+    DROP_OLDEST
+  }
+
+  private static final long POLL_TIMEOUT_MS = 100;
+  private static final long CLOSE_TIMEOUT_MS = 5000;
+
+  private final Producer<String, String> producer;
+  private final String topic;
+  private final int maxBatchSize;
+  private final OverflowPolicy overflowPolicy;
+  private final BlockingQueue<ProducerRecord<String, String>> buffer;
+  private final Thread emitterThread;
+  private volatile boolean running = true;
+
+  private final Counter enqueuedCounter;
+  private final Counter droppedCounter;
+  private final Counter emittedCounter;
+  private final Counter failedCounter;
+
+  public KafkaTrackingProducer(
+      @Nonnull final Producer<String, String> producer,
+      @Nonnull final String topic,
+      final int capacity,
+      final int maxBatchSize,
+      @Nonnull final OverflowPolicy overflowPolicy,
+      @Nonnull final MetricRegistry metricRegistry) {
+    this.producer = Objects.requireNonNull(producer);
+    this.topic = Objects.requireNonNull(topic);
+    this.maxBatchSize = maxBatchSize;
+    this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+    this.buffer = new ArrayBlockingQueue<>(capacity);
+    this.emitterThread = new Thread(this::run, "tracking-producer");
+    this.emitterThread.setDaemon(true);
+
+    this.enqueuedCounter = metricRegistry.counter(MetricRegistry.name(KafkaTrackingProducer.class, "enqueued"));
+    this.droppedCounter = metricRegistry.counter(MetricRegistry.name(KafkaTrackingProducer.class, "dropped"));
+    this.emittedCounter = metricRegistry.counter(MetricRegistry.name(KafkaTrackingProducer.class, "emitted"));
+    this.failedCounter = metricRegistry.counter(MetricRegistry.name(KafkaTrackingProducer.class, "failed"));
+    metricRegistry.gauge(MetricRegistry.name(KafkaTrackingProducer.class, "bufferSize"),
+        () -> (Gauge<Integer>) buffer::size);
+  }
+
+  /**
+   * Start emitting buffered events in the background.
+   */
+  public void start() {
+    emitterThread.start();
+  }
+
+  /**
+   * Enqueue an event to be emitted, returning false if an event was dropped because the buffer is full.
+   */
+  public boolean enqueue(@Nullable final String actor, @Nonnull final String event) {
+    final ProducerRecord<String, String> record = new ProducerRecord<>(topic, actor, event);
+    if (buffer.offer(record)) {
+      enqueuedCounter.inc();
+      return true;
+    }
+    if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+      if (buffer.poll() != null) {
+        droppedCounter.inc();
+      }
+      if (buffer.offer(record)) {
+        enqueuedCounter.inc();
+      } else {
+        // Concurrent producers filled the freed slot, drop this event as well.
+        droppedCounter.inc();
+      }
+    } else {
+      droppedCounter.inc();
+    }
+    log.debug("Tracking buffer is full, dropped an event with policy {}", overflowPolicy);
+    return false;
+  }
+
+  /**
+   * Send the next batch of buffered events to the producer, waiting up to the given time for the first one.
+   *
+   * @return the number of events sent
+   */
+  int emitBatch(final long timeoutMs) throws InterruptedException {
+    final ProducerRecord<String, String> first = buffer.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return 0;
+    }
+    final List<ProducerRecord<String, String>> batch = new ArrayList<>(maxBatchSize);
+    batch.add(first);
+    buffer.drainTo(batch, maxBatchSize - 1);
+    for (ProducerRecord<String, String> record : batch) {
+      send(record);
+    }
+    return batch.size();
+  }
+
+  private void send(final ProducerRecord<String, String> record) {
+    try {
+      producer.send(record, (metadata, exception) -> {
+        if (exception == null) {
+          emittedCounter.inc();
+        } else {
+          failedCounter.inc();
+          log.error(String.format("Failed to emit product analytics event. actor: %s", record.key()), exception);
+        }
+      });
+    } catch (Exception e) {
+      failedCounter.inc();
+      log.error(String.format("Failed to emit product analytics event. actor: %s", record.key()), e);
+    }
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        emitBatch(POLL_TIMEOUT_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.error("Caught exception while emitting product analytics events", e);
+      }
+    }
+  }
+
+  /**
+   * Stop the background thread, then send the remaining buffered events and close the producer.
+   */
+  @Override
+  public void close() {
+    running = false;
+    try {
+      emitterThread.join(CLOSE_TIMEOUT_MS);
+      while (emitBatch(0) > 0) {
+        // Drain remaining events.
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    producer.close();
+  }
+}
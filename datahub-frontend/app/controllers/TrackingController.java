@@ -1,11 +1,11 @@
 package controllers;
 
+import client.KafkaTrackingProducer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.typesafe.config.Config;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.kafka.common.config.SslConfigs;
 import org.apache.kafka.common.security.auth.SecurityProtocol;
@@ -14,22 +14,28 @@ import org.slf4j.LoggerFactory;
 import auth.Authenticator;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
+import play.inject.ApplicationLifecycle;
 import play.mvc.Controller;
 import play.mvc.Result;
 import play.mvc.Security;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import utils.ConfigUtil;
+import utils.MetricUtil;
 
 import static auth.AuthUtils.*;
 
 
 // TODO: Migrate this to metadata-service.
+@Singleton
 public class TrackingController extends Controller {
 
     private final Logger _logger = LoggerFactory.getLogger(TrackingController.class.getName());
@@ -38,22 +44,41 @@ public class TrackingController extends Controller {
             Arrays.asList(SecurityProtocol.SSL.name(),SecurityProtocol.SASL_SSL.name(),
             SecurityProtocol.SASL_PLAINTEXT.name()));
 
+    private static final int DEFAULT_BUFFER_CAPACITY = 10000;
+    private static final int DEFAULT_BUFFER_BATCH_SIZE = 500;
+    private static final int DEFAULT_MAX_EVENTS_PER_REQUEST = 100;
+    private static final String DEFAULT_LINGER_MS = "100";
+    private static final String DEFAULT_COMPRESSION_TYPE = "lz4";
+
     private final Boolean _isEnabled;
     private final Config _config;
-    private final KafkaProducer<String, String> _producer;
-    private final String _topic;
+    private final KafkaTrackingProducer _producer;
+    private final int _maxEventsPerRequest;
 
     @Inject
-    public TrackingController(@Nonnull Config config) {
+    public TrackingController(@Nonnull Config config, @Nonnull ApplicationLifecycle lifecycle) {
         _config = config;
         _isEnabled = !config.hasPath("analytics.enabled") || config.getBoolean("analytics.enabled");
+        _maxEventsPerRequest =
+            ConfigUtil.getInt(config, "analytics.tracking.maxEventsPerRequest", DEFAULT_MAX_EVENTS_PER_REQUEST);
         if (_isEnabled) {
             _logger.debug("Analytics tracking is enabled");
-            _producer = createKafkaProducer();
-            _topic = config.getString("analytics.tracking.topic");
+            _producer = new KafkaTrackingProducer(
+                createKafkaProducer(),
+                config.getString("analytics.tracking.topic"),
+                ConfigUtil.getInt(config, "analytics.tracking.buffer.capacity", DEFAULT_BUFFER_CAPACITY),
+                ConfigUtil.getInt(config, "analytics.tracking.buffer.batchSize", DEFAULT_BUFFER_BATCH_SIZE),
+                KafkaTrackingProducer.OverflowPolicy.valueOf(ConfigUtil.getString(config,
+                    "analytics.tracking.buffer.overflowPolicy",
+                    KafkaTrackingProducer.OverflowPolicy.DROP_NEWEST.name())),
+                MetricUtil.get());
+            _producer.start();
+            lifecycle.addStopHook(() -> {
+                _producer.close();
+                return CompletableFuture.completedFuture(null);
+            });
         } else {
             _producer = null;
-            _topic = null;
         }
     }
 
@@ -65,31 +90,32 @@ public class TrackingController extends Controller {
             return status(200);
         }
 
-        JsonNode event;
+        JsonNode body;
         try {
-            event = request().body().asJson();
+            body = request().body().asJson();
         } catch (Exception e) {
             return badRequest();
         }
+        if (body == null) {
+            return badRequest();
+        }
+        // Accept either a single event, or a batch of events as an array.
+        if (body.isArray() && body.size() > _maxEventsPerRequest) {
+            return badRequest(String.format("At most %s events can be tracked per request", _maxEventsPerRequest));
+        }
         final String actor = ctx().session().get(ACTOR);
-        try {
-            _logger.debug(String.format("Emitting product analytics event. actor: %s, event: %s", actor, event));
-            final ProducerRecord<String, String> record = new ProducerRecord<>(
-                    _topic,
-                    actor,
-                    event.toString());
-             _producer.send(record);
-             _producer.flush();
-             return ok();
-        } catch(Exception e) {
-            _logger.error(String.format("Failed to emit product analytics event. actor: %s, event: %s", actor, event));
-            return internalServerError(e.getMessage());
+        final List<JsonNode> events = new ArrayList<>();
+        if (body.isArray()) {
+            body.forEach(events::add);
+        } else {
+            events.add(body);
         }
-    }
-
-    @Override
-    protected void finalize() {
-        _producer.close();
+        for (JsonNode event : events) {
+            _logger.debug(String.format("Enqueuing product analytics event. actor: %s, event: %s", actor, event));
+            // Events dropped because the buffer is full are counted by the producer, and not reported to the client.
+            _producer.enqueue(actor, event.toString());
+        }
+        return ok();
     }
 
     private void setConfig(Properties props, String key, String configKey) {
@@ -97,9 +123,13 @@ public class TrackingController extends Controller {
             .ifPresent(v -> props.put(key, v));
     }
 
-    private KafkaProducer createKafkaProducer() {
+    private KafkaProducer<String, String> createKafkaProducer() {
         final Properties props = new Properties();
         props.put(ProducerConfig.CLIENT_ID_CONFIG, "datahub-frontend");
+        props.put(ProducerConfig.LINGER_MS_CONFIG,
+            ConfigUtil.getString(_config, "analytics.kafka.producer.lingerMs", DEFAULT_LINGER_MS));
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG,
+            ConfigUtil.getString(_config, "analytics.kafka.producer.compressionType", DEFAULT_COMPRESSION_TYPE));
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, _config.getString("analytics.kafka.bootstrap.server"));
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer"); // Actor urn.
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer"); // JSON object.
@@ -131,6 +161,6 @@ public class TrackingController extends Controller {
             }
         }
 
-        return new KafkaProducer(props);
+        return new KafkaProducer<>(props);
     }
 }
@@ -0,0 +1,23 @@
+package utils;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.codahale.metrics.jmx.JmxReporter;
+
+
+public class MetricUtil {
+  private MetricUtil() {
+  }
+
+  public static final String NAME = "default";
+  private static final MetricRegistry REGISTRY = SharedMetricRegistries.getOrCreate(NAME);
+
+  static {
+    final JmxReporter reporter = JmxReporter.forRegistry(REGISTRY).build();
+    reporter.start();
+  }
+
+  public static MetricRegistry get() {
+    return REGISTRY;
+  }
+}
@@ -0,0 +1,114 @@
+package client;
+
+import com.codahale.metrics.MetricRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class KafkaTrackingProducerTest {
+
+  private static final String TOPIC = "DataHubUsageEvent_v1";
+
+  private static List<String> values(MockProducer<String, String> producer) {
+    return producer.history().stream().map(ProducerRecord::value).collect(Collectors.toList());
+  }
+
+  private static long count(MetricRegistry registry, String name) {
+    return registry.counter(MetricRegistry.name(KafkaTrackingProducer.class, name)).getCount();
+  }
+
+  @Test
+  public void testEmitBatch() throws Exception {
+    MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+    MetricRegistry registry = new MetricRegistry();
+    KafkaTrackingProducer trackingProducer =
+        new KafkaTrackingProducer(producer, TOPIC, 10, 2, KafkaTrackingProducer.OverflowPolicy.DROP_NEWEST, registry);
+
+    assertTrue(trackingProducer.enqueue("urn:li:corpuser:datahub", "{\"type\":\"PageViewEvent\"}"));
+    assertTrue(trackingProducer.enqueue("urn:li:corpuser:datahub", "{\"type\":\"SearchEvent\"}"));
+    assertTrue(trackingProducer.enqueue("urn:li:corpuser:datahub", "{\"type\":\"EntityViewEvent\"}"));
+    // Nothing is sent, nor flushed, on enqueue
+    assertTrue(producer.history().isEmpty());
+
+    assertEquals(2, trackingProducer.emitBatch(0));
+    assertEquals(1, trackingProducer.emitBatch(0));
+    assertEquals(0, trackingProducer.emitBatch(0));
+    assertEquals(3, producer.history().size());
+    assertEquals(TOPIC, producer.history().get(0).topic());
+    assertEquals("urn:li:corpuser:datahub", producer.history().get(0).key());
+    assertEquals(3, count(registry, "enqueued"));
+    assertEquals(3, count(registry, "emitted"));
+    assertEquals(0, count(registry, "dropped"));
+  }
+
+  @Test
+  public void testDropNewest() throws Exception {
+    MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+    MetricRegistry registry = new MetricRegistry();
+    KafkaTrackingProducer trackingProducer =
+        new KafkaTrackingProducer(producer, TOPIC, 2, 10, KafkaTrackingProducer.OverflowPolicy.DROP_NEWEST, registry);
+
+    assertTrue(trackingProducer.enqueue(null, "1"));
+    assertTrue(trackingProducer.enqueue(null, "2"));
+    assertFalse(trackingProducer.enqueue(null, "3"));
+    assertEquals(2,
+        registry.getGauges().get(MetricRegistry.name(KafkaTrackingProducer.class, "bufferSize")).getValue());
+
+    trackingProducer.emitBatch(0);
+    assertEquals(Arrays.asList("1", "2"), values(producer));
+    assertEquals(2, count(registry, "enqueued"));
+    assertEquals(1, count(registry, "dropped"));
+  }
+
+  @Test
+  public void testDropOldest() throws Exception {
+    MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+    MetricRegistry registry = new MetricRegistry();
+    KafkaTrackingProducer trackingProducer =
+        new KafkaTrackingProducer(producer, TOPIC, 2, 10, KafkaTrackingProducer.OverflowPolicy.DROP_OLDEST, registry);
+
+    trackingProducer.enqueue(null, "1");
+    trackingProducer.enqueue(null, "2");
+    assertFalse(trackingProducer.enqueue(null, "3"));
+
+    trackingProducer.emitBatch(0);
+    assertEquals(Arrays.asList("2", "3"), values(producer));
+    // The oldest event was dropped, and the newest accepted
+    assertEquals(3, count(registry, "enqueued"));
+    assertEquals(1, count(registry, "dropped"));
+  }
+
+  @Test
+  public void testFailedSend() throws Exception {
+    MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+    MetricRegistry registry = new MetricRegistry();
+    KafkaTrackingProducer trackingProducer =
+        new KafkaTrackingProducer(producer, TOPIC, 10, 10, KafkaTrackingProducer.OverflowPolicy.DROP_NEWEST, registry);
+
+    trackingProducer.enqueue(null, "1");
+    trackingProducer.emitBatch(0);
+    producer.errorNext(new RuntimeException("Broker unavailable"));
+    assertEquals(1, count(registry, "failed"));
+    assertEquals(0, count(registry, "emitted"));
+  }
+
+  @Test
+  public void testCloseEmitsBufferedEvents() {
+    MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+    KafkaTrackingProducer trackingProducer = new KafkaTrackingProducer(producer, TOPIC, 10, 10,
+        KafkaTrackingProducer.OverflowPolicy.DROP_NEWEST, new MetricRegistry());
+    trackingProducer.start();
+    trackingProducer.enqueue(null, "1");
+    trackingProducer.enqueue(null, "2");
+    trackingProducer.close();
+    assertEquals(Arrays.asList("1", "2"), values(producer));
+    assertTrue(producer.closed());
+  }
+}
@@ -57,6 +57,12 @@ import com.linkedin.datahub.graphql.resolvers.mutate.AddLinkResolver;
 import com.linkedin.datahub.graphql.resolvers.mutate.AddOwnerResolver;
 import com.linkedin.datahub.graphql.resolvers.mutate.AddTagResolver;
 import com.linkedin.datahub.graphql.resolvers.mutate.AddTermResolver;
+import com.linkedin.datahub.graphql.resolvers.mutate.BatchAddOwnersResolver;
+import com.linkedin.datahub.graphql.resolvers.mutate.BatchAddTagsResolver;
+import com.linkedin.datahub.graphql.resolvers.mutate.BatchAddTermsResolver;
+import com.linkedin.datahub.graphql.loader.DataLoaderSettings;
+import com.linkedin.datahub.graphql.loader.LoadableTypeDataLoaders;
+import com.linkedin.datahub.graphql.loader.SharedLoadableTypeCache;
 import com.linkedin.datahub.graphql.resolvers.mutate.MutableTypeResolver;
 import com.linkedin.datahub.graphql.resolvers.mutate.RemoveLinkResolver;
 import com.linkedin.datahub.graphql.resolvers.mutate.RemoveOwnerResolver;
@@ -93,6 +99,7 @@ import com.linkedin.datahub.graphql.resolvers.browse.BrowsePathsResolver;
 import com.linkedin.datahub.graphql.resolvers.browse.BrowseResolver;
 import com.linkedin.datahub.graphql.resolvers.search.AutoCompleteResolver;
 import com.linkedin.datahub.graphql.resolvers.search.AutoCompleteForMultipleResolver;
+import com.linkedin.datahub.graphql.resolvers.search.AutocompleteUtils;
 import com.linkedin.datahub.graphql.resolvers.search.SearchResolver;
 import com.linkedin.datahub.graphql.resolvers.type.EntityInterfaceTypeResolver;
 import com.linkedin.datahub.graphql.resolvers.type.PlatformSchemaUnionTypeResolver;
@@ -155,6 +162,9 @@ public class GmsGraphQLEngine {
     private final EntityRegistry entityRegistry;
     private final TokenService tokenService;
     private final GitVersion gitVersion;
+    private final Map<String, DataLoaderSettings> dataLoaderSettings;
+    private final SharedLoadableTypeCache sharedLoadableTypeCache;
+    private final long autoCompleteLatencyBudgetMs;
 
     private final DatasetType datasetType;
     private final CorpUserType corpUserType;
@@ -224,6 +234,25 @@ public class GmsGraphQLEngine {
         final EntityRegistry entityRegistry,
         final GitVersion gitVersion
         ) {
+        this(entityClient, graphClient, usageClient, analyticsService, entityService, recommendationsService,
+            tokenService, entityRegistry, gitVersion, Collections.emptyMap(), new SharedLoadableTypeCache(),
+            AutocompleteUtils.DEFAULT_LATENCY_BUDGET_MS);
+    }
+
+    public GmsGraphQLEngine(
+        final EntityClient entityClient,
+        final GraphClient graphClient,
+        final UsageClient usageClient,
+        final AnalyticsService analyticsService,
+        final EntityService entityService,
+        final RecommendationsService recommendationsService,
+        final TokenService tokenService,
+        final EntityRegistry entityRegistry,
+        final GitVersion gitVersion,
+        final Map<String, DataLoaderSettings> dataLoaderSettings,
+        final SharedLoadableTypeCache sharedLoadableTypeCache,
+        final long autoCompleteLatencyBudgetMs
+        ) {
 
         this.entityClient = entityClient;
         this.graphClient = graphClient;
@@ -235,6 +264,9 @@ public class GmsGraphQLEngine {
         this.tokenService = tokenService;
         this.entityRegistry = entityRegistry;
         this.gitVersion = gitVersion;
+        this.dataLoaderSettings = dataLoaderSettings;
+        this.sharedLoadableTypeCache = sharedLoadableTypeCache;
+        this.autoCompleteLatencyBudgetMs = autoCompleteLatencyBudgetMs;
 
         this.datasetType = new DatasetType(entityClient);
         this.corpUserType = new CorpUserType(entityClient);
@@ -413,7 +445,7 @@ public class GmsGraphQLEngine {
             .dataFetcher("autoComplete", new AuthenticatedResolver<>(
                     new AutoCompleteResolver(searchableTypes)))
             .dataFetcher("autoCompleteForMultiple", new AuthenticatedResolver<>(
-                    new AutoCompleteForMultipleResolver(searchableTypes)))
+                    new AutoCompleteForMultipleResolver(searchableTypes, autoCompleteLatencyBudgetMs)))
             .dataFetcher("browse", new AuthenticatedResolver<>(
                     new BrowseResolver(browsableTypes)))
             .dataFetcher("browsePaths", new AuthenticatedResolver<>(
@@ -495,6 +527,9 @@ public class GmsGraphQLEngine {
             .dataFetcher("removeOwner", new RemoveOwnerResolver(entityService))
             .dataFetcher("addLink", new AddLinkResolver(entityService))
             .dataFetcher("removeLink", new RemoveLinkResolver(entityService))
+            .dataFetcher("batchAddTags", new AuthenticatedResolver<>(new BatchAddTagsResolver(entityService)))
+            .dataFetcher("batchAddTerms", new AuthenticatedResolver<>(new BatchAddTermsResolver(entityService)))
+            .dataFetcher("batchAddOwners", new BatchAddOwnersResolver(entityService))
             .dataFetcher("addGroupMembers", new AddGroupMembersResolver(this.entityClient))
             .dataFetcher("removeGroupMembers", new RemoveGroupMembersResolver(this.entityClient))
             .dataFetcher("createGroup", new CreateGroupResolver(this.entityClient))
@@ -884,18 +919,16 @@ public class GmsGraphQLEngine {
     }
 
 
+    /**
+     * Returns the cache holding entities shared across requests, used to evict entities by urn after they change.
+     */
+    public SharedLoadableTypeCache getSharedLoadableTypeCache() {
+        return sharedLoadableTypeCache;
+    }
+
     private <T> DataLoader<String, DataFetcherResult<T>> createDataLoader(final LoadableType<T> graphType, final QueryContext queryContext) {
-        BatchLoaderContextProvider contextProvider = () -> queryContext;
-        DataLoaderOptions loaderOptions = DataLoaderOptions.newOptions().setBatchLoaderContextProvider(contextProvider);
-        return DataLoader.newDataLoader((keys, context) -> CompletableFuture.supplyAsync(() -> {
-            try {
-                log.debug(String.format("Batch loading entities of type: %s, keys: %s", graphType.name(), keys));
-                return graphType.batchLoad(keys, context.getContext());
-            } catch (Exception e) {
-                log.error(String.format("Failed to load Entities of type: %s, keys: %s", graphType.name(), keys) + " " + e.getMessage());
-                throw new RuntimeException(String.format("Failed to retrieve entities of type %s", graphType.name()), e);
-            }
-        }), loaderOptions);
+        return LoadableTypeDataLoaders.create(graphType, queryContext,
+            dataLoaderSettings.getOrDefault(graphType.name(), DataLoaderSettings.DEFAULT), sharedLoadableTypeCache);
     }
 
     private DataLoader<VersionedAspectKey, DataFetcherResult<Aspect>> createAspectLoader(final QueryContext queryContext) {
@@ -4,6 +4,10 @@ import com.linkedin.datahub.graphql.exception.DataHubDataFetcherExceptionHandler
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.SchemaGenerator;
@@ -14,6 +18,7 @@ import org.dataloader.DataLoaderRegistry;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,7 +44,9 @@ public class GraphQLEngine {
 
     private GraphQLEngine(@Nonnull final List<String> schemas,
                           @Nonnull final RuntimeWiring runtimeWiring,
-                          @Nonnull final Map<String, Function<QueryContext, DataLoader<?, ?>>> dataLoaderSuppliers) {
+                          @Nonnull final Map<String, Function<QueryContext, DataLoader<?, ?>>> dataLoaderSuppliers,
+                          @Nonnull final PreparsedDocumentProvider preparsedDocumentProvider,
+                          @Nonnull final List<Instrumentation> instrumentations) {
 
         _dataLoaderSuppliers = dataLoaderSuppliers;
 
@@ -61,12 +68,26 @@ public class GraphQLEngine {
          */
         _graphQL = new GraphQL.Builder(graphQLSchema)
             .defaultDataFetcherExceptionHandler(new DataHubDataFetcherExceptionHandler())
+            .preparsedDocumentProvider(preparsedDocumentProvider)
+            .instrumentation(new ChainedInstrumentation(instrumentations))
             .build();
     }
 
     public ExecutionResult execute(@Nonnull final String query,
                                    @Nullable final Map<String, Object> variables,
                                    @Nonnull final QueryContext context) {
+        return execute(query, null, variables, null, context);
+    }
+
+    /**
+     * Executes a query, optionally carrying the request extensions, e.g. the persistedQuery extension of the
+     * Automatic Persisted Queries protocol.
+     */
+    public ExecutionResult execute(@Nonnull final String query,
+                                   @Nullable final String operationName,
+                                   @Nullable final Map<String, Object> variables,
+                                   @Nullable final Map<String, Object> extensions,
+                                   @Nonnull final QueryContext context) {
         /*
          * Init DataLoaderRegistry - should be created for each request.
          */
@@ -77,7 +98,9 @@ public class GraphQLEngine {
          */
         ExecutionInput executionInput = ExecutionInput.newExecutionInput()
             .query(query)
-            .variables(variables)
+            .operationName(operationName)
+            .variables(variables != null ? variables : Collections.emptyMap())
+            .extensions(extensions != null ? extensions : Collections.emptyMap())
             .dataLoaderRegistry(register)
             .context(context)
             .build();
@@ -104,6 +127,8 @@ public class GraphQLEngine {
         private final List<String> _schemas = new ArrayList<>();
         private final Map<String, Function<QueryContext, DataLoader<?, ?>>> _loaderSuppliers = new HashMap<>();
         private final RuntimeWiring.Builder _runtimeWiringBuilder = newRuntimeWiring();
+        private PreparsedDocumentProvider _preparsedDocumentProvider = NoOpPreparsedDocumentProvider.INSTANCE;
+        private final List<Instrumentation> _instrumentations = new ArrayList<>();
 
         /**
          * Used to add a schema file containing the GQL types resolved by the engine.
@@ -151,11 +176,32 @@ public class GraphQLEngine {
             return this;
         }
 
+        /**
+         * Used to configure the {@link PreparsedDocumentProvider} responsible for caching parsed & validated queries.
+         *
+         * By default, every query is parsed and validated on each execution.
+         */
+        public Builder setPreparsedDocumentProvider(final PreparsedDocumentProvider preparsedDocumentProvider) {
+            _preparsedDocumentProvider = preparsedDocumentProvider;
+            return this;
+        }
+
+        /**
+         * Used to register an {@link Instrumentation}, e.g. for limiting the cost of queries.
+         *
+         * If multiple instrumentations are registered, they are chained in the order they were added.
+         */
+        public Builder addInstrumentation(final Instrumentation instrumentation) {
+            _instrumentations.add(instrumentation);
+            return this;
+        }
+
         /**
          * Builds a {@link GraphQLEngine}.
          */
         public GraphQLEngine build() {
-            return new GraphQLEngine(_schemas, _runtimeWiringBuilder.build(), _loaderSuppliers);
+            return new GraphQLEngine(_schemas, _runtimeWiringBuilder.build(), _loaderSuppliers, _preparsedDocumentProvider,
+                _instrumentations);
         }
     }
 
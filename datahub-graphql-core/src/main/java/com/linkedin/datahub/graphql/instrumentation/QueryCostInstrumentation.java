@@ -0,0 +1,192 @@
+package com.linkedin.datahub.graphql.instrumentation;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import graphql.ExecutionResult;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.analysis.QueryVisitorStub;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * An {@link graphql.execution.instrumentation.Instrumentation} estimating the depth & cost of each operation before it
+ * is executed, and rejecting operations exceeding the configured budgets.
+ *
+ * <p>Each field costs its configured weight (1 by default) plus the cost of its selections. Selections of weighted
+ * fields, e.g. relationships or search, are multiplied by the number of results requested through their 'count' or
+ * 'limit' argument (or 'input.count', 'input.limit'), falling back to a default count when none is provided.
+ *
+ * <p>Costs and rejections are accounted per actor for the {@value #TOP_ACTORS} actors with the highest totals only,
+ * exposed as the 'topActorCosts' and 'topActorRejections' gauges, so that the number of metrics remains bounded.
+ *
+ * <p>The estimation runs on every execution, rather than during validation, since validation is skipped for documents
+ * served from the parsed document cache and since the requested counts usually come from variables.
+ */
+@Slf4j
+public class QueryCostInstrumentation extends SimpleInstrumentation {
+
+  private static final String COUNT_ARG = "count";
+  private static final String LIMIT_ARG = "limit";
+  private static final String INPUT_ARG = "input";
+  private static final int TOP_ACTORS = 20;
+
+  private static final TopActorCosts ACTOR_COSTS = new TopActorCosts(TOP_ACTORS);
+  private static final TopActorCosts ACTOR_REJECTIONS = new TopActorCosts(TOP_ACTORS);
+
+  static {
+    MetricUtils.get().gauge(MetricRegistry.name(QueryCostInstrumentation.class, "topActorCosts"),
+        () -> (Gauge<Map<String, Long>>) ACTOR_COSTS::getTop);
+    MetricUtils.get().gauge(MetricRegistry.name(QueryCostInstrumentation.class, "topActorRejections"),
+        () -> (Gauge<Map<String, Long>>) ACTOR_REJECTIONS::getTop);
+  }
+
+  private final int _maxDepth;
+  private final long _maxCost;
+  private final Map<String, Integer> _fieldWeights;
+  private final int _defaultCount;
+
+  /**
+   * @param maxDepth the max depth of an operation, or 0 for unlimited.
+   * @param maxCost the max estimated cost of an operation, or 0 for unlimited.
+   * @param fieldWeights the weights of fields returning multiple results, by field name.
+   * @param defaultCount the number of results assumed for weighted fields which do not provide a count.
+   */
+  public QueryCostInstrumentation(final int maxDepth, final long maxCost, @Nonnull final Map<String, Integer> fieldWeights,
+      final int defaultCount) {
+    _maxDepth = maxDepth;
+    _maxCost = maxCost;
+    _fieldWeights = fieldWeights;
+    _defaultCount = defaultCount;
+  }
+
+  @Override
+  public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+      final InstrumentationExecuteOperationParameters parameters) {
+    final ExecutionContext executionContext = parameters.getExecutionContext();
+    final QueryCost queryCost = estimate(executionContext);
+    final String actor = getActorId(executionContext);
+
+    MetricUtils.histogram(QueryCostInstrumentation.class, "cost").update(queryCost.getCost());
+    ACTOR_COSTS.add(actor, queryCost.getCost());
+    log.debug("GraphQL query issued by {} has depth {} and estimated cost {}", actor, queryCost.getDepth(),
+        queryCost.getCost());
+
+    if (_maxDepth > 0 && queryCost.getDepth() > _maxDepth) {
+      reject(actor, String.format("Query depth %s exceeds the maximum allowed depth %s", queryCost.getDepth(), _maxDepth));
+    }
+    if (_maxCost > 0 && queryCost.getCost() > _maxCost) {
+      reject(actor, String.format("Query cost %s exceeds the maximum allowed cost %s", queryCost.getCost(), _maxCost));
+    }
+    return super.beginExecuteOperation(parameters);
+  }
+
+  /**
+   * Estimates the depth & cost of the operation about to be executed.
+   */
+  @Nonnull
+  public QueryCost estimate(@Nonnull final ExecutionContext executionContext) {
+    return estimate(executionContext.getGraphQLSchema(), executionContext.getDocument(),
+        executionContext.getOperationDefinition().getName(), executionContext.getVariables());
+  }
+
+  /**
+   * Estimates the depth & cost of an operation of a document.
+   */
+  @Nonnull
+  public QueryCost estimate(@Nonnull final GraphQLSchema schema, @Nonnull final Document document,
+      @Nullable final String operationName, @Nonnull final Map<String, Object> variables) {
+    final QueryTraverser queryTraverser = QueryTraverser.newQueryTraverser()
+        .schema(schema)
+        .document(document)
+        .operationName(operationName)
+        .variables(variables)
+        .build();
+
+    final Map<QueryVisitorFieldEnvironment, Long> selectionCosts = new HashMap<>();
+    final long[] totals = new long[2]; // [cost, depth]
+    queryTraverser.visitPostOrder(new QueryVisitorStub() {
+      @Override
+      public void visitField(final QueryVisitorFieldEnvironment env) {
+        if (env.isTypeNameIntrospectionField()) {
+          return;
+        }
+        final long cost = fieldCost(env, selectionCosts.getOrDefault(env, 0L));
+        final QueryVisitorFieldEnvironment parent = env.getParentEnvironment();
+        if (parent == null) {
+          totals[0] += cost;
+        } else {
+          selectionCosts.merge(parent, cost, Long::sum);
+        }
+        totals[1] = Math.max(totals[1], depth(env));
+      }
+    });
+    return new QueryCost((int) totals[1], totals[0]);
+  }
+
+  private long fieldCost(@Nonnull final QueryVisitorFieldEnvironment env, final long selectionCost) {
+    final Integer weight = _fieldWeights.get(env.getField().getName());
+    if (weight == null) {
+      return 1 + selectionCost;
+    }
+    return weight + requestedCount(env.getArguments()) * selectionCost;
+  }
+
+  @SuppressWarnings("unchecked")
+  private long requestedCount(@Nonnull final Map<String, Object> arguments) {
+    Object count = getCount(arguments);
+    if (count == null && arguments.get(INPUT_ARG) instanceof Map) {
+      count = getCount((Map<String, Object>) arguments.get(INPUT_ARG));
+    }
+    return count instanceof Number ? Math.max(((Number) count).longValue(), 1) : _defaultCount;
+  }
+
+  @Nullable
+  private static Object getCount(@Nonnull final Map<String, Object> arguments) {
+    final Object count = arguments.get(COUNT_ARG);
+    return count != null ? count : arguments.get(LIMIT_ARG);
+  }
+
+  private static int depth(@Nonnull final QueryVisitorFieldEnvironment env) {
+    int depth = 0;
+    for (QueryVisitorFieldEnvironment current = env; current != null; current = current.getParentEnvironment()) {
+      depth++;
+    }
+    return depth;
+  }
+
+  private static String getActorId(@Nonnull final ExecutionContext executionContext) {
+    final Object context = executionContext.getContext();
+    if (context instanceof QueryContext && ((QueryContext) context).getAuthentication() != null) {
+      return ((QueryContext) context).getActor().getId();
+    }
+    return "unknown";
+  }
+
+  private static void reject(@Nonnull final String actor, @Nonnull final String message) {
+    log.warn("Rejecting GraphQL query issued by {}. {}", actor, message);
+    MetricUtils.counter(QueryCostInstrumentation.class, "rejected").inc();
+    ACTOR_REJECTIONS.add(actor, 1);
+    throw new AbortExecutionException(message);
+  }
+
+  @Value
+  public static class QueryCost {
+    int depth;
+    long cost;
+  }
+}
@@ -0,0 +1,67 @@
+package com.linkedin.datahub.graphql.instrumentation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Accumulates a value, e.g. a query cost, per actor while only keeping track of the actors with the highest totals, so
+ * that the memory used and the metrics exposed remain bounded whatever the number of actors.
+ *
+ * <p>Implements the Space-Saving algorithm: when all slots are taken, an unknown actor replaces the actor with the
+ * lowest total, and inherits that total. The totals of the reported actors are therefore upper bounds, over-estimated
+ * by at most the lowest total, and any actor whose actual total exceeds the lowest total is reported.
+ */
+public class TopActorCosts {
+
+  private final int _capacity;
+  private final Map<String, Long> _totals;
+
+  /**
+   * @param capacity the max number of actors tracked.
+   */
+  public TopActorCosts(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity must be positive");
+    }
+    _capacity = capacity;
+    _totals = new HashMap<>(capacity * 2);
+  }
+
+  public synchronized void add(@Nonnull final String actor, final long value) {
+    final Long total = _totals.get(actor);
+    if (total != null) {
+      _totals.put(actor, total + value);
+      return;
+    }
+    if (_totals.size() < _capacity) {
+      _totals.put(actor, value);
+      return;
+    }
+    Map.Entry<String, Long> lowest = null;
+    for (Map.Entry<String, Long> entry : _totals.entrySet()) {
+      if (lowest == null || entry.getValue() < lowest.getValue()) {
+        lowest = entry;
+      }
+    }
+    final long lowestTotal = lowest.getValue();
+    _totals.remove(lowest.getKey());
+    _totals.put(actor, lowestTotal + value);
+  }
+
+  /**
+   * Returns the tracked actors and their totals, from the highest total to the lowest.
+   */
+  @Nonnull
+  public synchronized Map<String, Long> getTop() {
+    final List<Map.Entry<String, Long>> entries = new ArrayList<>(_totals.entrySet());
+    entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+    final Map<String, Long> top = new LinkedHashMap<>();
+    entries.forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+    return top;
+  }
+}
@@ -0,0 +1,90 @@
+package com.linkedin.datahub.graphql.loader;
+
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.types.LoadableType;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import graphql.execution.DataFetcherResult;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A {@link LoadableType} decorator serving previously loaded entities from a cache shared across requests, and only
+ * delegating the urns that are missing from it.
+ *
+ * <p>Only non-null results are cached, so that entities created after a miss are picked up on the next load. Cached
+ * entities are copied into and out of the cache, so that resolvers mutating the entities of their request do not
+ * change those of other requests.
+ *
+ * @param <T> the generated GraphQL POJO corresponding to the resolved type.
+ */
+public class CachingLoadableType<T> implements LoadableType<T> {
+
+  private final LoadableType<T> _delegate;
+  private final Cache<String, DataFetcherResult<?>> _cache;
+  private final Counter _hitCounter;
+  private final Counter _missCounter;
+
+  public CachingLoadableType(@Nonnull final LoadableType<T> delegate,
+      @Nonnull final Cache<String, DataFetcherResult<?>> cache) {
+    _delegate = delegate;
+    _cache = cache;
+    _hitCounter = MetricUtils.counter(CachingLoadableType.class, delegate.name() + "_cache_hit");
+    _missCounter = MetricUtils.counter(CachingLoadableType.class, delegate.name() + "_cache_miss");
+  }
+
+  @Override
+  public Class<T> objectClass() {
+    return _delegate.objectClass();
+  }
+
+  @Override
+  public String name() {
+    return _delegate.name();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<DataFetcherResult<T>> batchLoad(@Nonnull final List<String> urns, @Nonnull final QueryContext context)
+      throws Exception {
+    final List<DataFetcherResult<T>> results = new ArrayList<>(urns.size());
+    final List<String> missingUrns = new ArrayList<>();
+    final List<Integer> missingIndices = new ArrayList<>();
+
+    for (int i = 0; i < urns.size(); i++) {
+      final DataFetcherResult<T> cached = (DataFetcherResult<T>) _cache.getIfPresent(urns.get(i));
+      results.add(cached == null ? null : copyOf(cached));
+      if (cached == null) {
+        missingUrns.add(urns.get(i));
+        missingIndices.add(i);
+      }
+    }
+    _hitCounter.inc(urns.size() - missingUrns.size());
+    _missCounter.inc(missingUrns.size());
+
+    if (missingUrns.isEmpty()) {
+      return results;
+    }
+
+    final List<DataFetcherResult<T>> loaded = _delegate.batchLoad(missingUrns, context);
+    for (int i = 0; i < missingUrns.size(); i++) {
+      final DataFetcherResult<T> result = loaded.get(i);
+      results.set(missingIndices.get(i), result);
+      if (result != null && result.getData() != null && !result.hasErrors()) {
+        _cache.put(missingUrns.get(i), copyOf(result));
+      }
+    }
+    return results;
+  }
+
+  @Nonnull
+  private static <T> DataFetcherResult<T> copyOf(@Nonnull final DataFetcherResult<T> result) {
+    return DataFetcherResult.<T>newResult()
+        .data(GeneratedModelCopier.copy(result.getData()))
+        .localContext(result.getLocalContext())
+        .build();
+  }
+}
@@ -0,0 +1,39 @@
+package com.linkedin.datahub.graphql.loader;
+
+import lombok.Builder;
+import lombok.Value;
+
+
+/**
+ * Per-{@link com.linkedin.datahub.graphql.types.LoadableType} settings used when constructing the
+ * {@link org.dataloader.DataLoader} for a type.
+ *
+ * <p>Disabling batching loads every key on its own, as soon as it is requested. A non-positive maxBatchSize leaves
+ * batches unbounded. When bounded, the keys collected for a single dispatch are split into several batches, each of
+ * which is loaded asynchronously so that large batches are fetched in parallel.
+ *
+ * <p>A positive sharedCacheTtlSeconds enables a cross-request cache of loaded results for the type, see
+ * {@link SharedLoadableTypeCache}.
+ */
+@Value
+@Builder
+public class DataLoaderSettings {
+
+  public static final DataLoaderSettings DEFAULT = DataLoaderSettings.builder().build();
+
+  @Builder.Default
+  boolean batchingEnabled = true;
+
+  @Builder.Default
+  int maxBatchSize = 0;
+
+  @Builder.Default
+  long sharedCacheTtlSeconds = 0;
+
+  @Builder.Default
+  long sharedCacheMaxSize = 10000;
+
+  public boolean isSharedCacheEnabled() {
+    return sharedCacheTtlSeconds > 0 && sharedCacheMaxSize > 0;
+  }
+}
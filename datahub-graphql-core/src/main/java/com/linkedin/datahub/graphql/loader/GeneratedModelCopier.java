@@ -0,0 +1,73 @@
+package com.linkedin.datahub.graphql.loader;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+
+/**
+ * Deep copies the generated GraphQL POJOs, so that objects shared across requests are never handed out, and mutated,
+ * as is.
+ *
+ * <p>Generated objects are copied field by field, and lists and maps element by element. Any other value, such as
+ * strings, numbers and enums, is immutable and shared.
+ */
+public class GeneratedModelCopier {
+
+  private static final String GENERATED_PACKAGE = "com.linkedin.datahub.graphql.generated.";
+
+  private static final ClassValue<List<Field>> FIELDS = new ClassValue<List<Field>>() {
+    @Override
+    protected List<Field> computeValue(Class<?> type) {
+      final List<Field> fields = new ArrayList<>();
+      for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          if (!Modifier.isStatic(field.getModifiers())) {
+            field.setAccessible(true);
+            fields.add(field);
+          }
+        }
+      }
+      return Collections.unmodifiableList(fields);
+    }
+  };
+
+  private GeneratedModelCopier() {
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public static <T> T copy(@Nullable final T value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof List) {
+      final List<Object> copy = new ArrayList<>(((List<?>) value).size());
+      ((List<?>) value).forEach(element -> copy.add(copy(element)));
+      return (T) copy;
+    }
+    if (value instanceof Map) {
+      final Map<Object, Object> copy = new LinkedHashMap<>();
+      ((Map<?, ?>) value).forEach((key, element) -> copy.put(key, copy(element)));
+      return (T) copy;
+    }
+    final Class<?> type = value.getClass();
+    if (type.isEnum() || !type.getName().startsWith(GENERATED_PACKAGE)) {
+      return value;
+    }
+    try {
+      final Object copy = type.getDeclaredConstructor().newInstance();
+      for (Field field : FIELDS.get(type)) {
+        field.set(copy, copy(field.get(value)));
+      }
+      return (T) copy;
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(String.format("Failed to copy %s", type.getName()), e);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.linkedin.datahub.graphql.loader;
+
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.types.LoadableType;
+import graphql.execution.DataFetcherResult;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.BatchLoaderContextProvider;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+
+
+/**
+ * Creates the per-request {@link DataLoader}s of {@link LoadableType}s, configured by their {@link DataLoaderSettings}.
+ */
+@Slf4j
+public class LoadableTypeDataLoaders {
+
+  private LoadableTypeDataLoaders() {
+  }
+
+  @Nonnull
+  public static <T> DataLoader<String, DataFetcherResult<T>> create(@Nonnull final LoadableType<T> graphType,
+      @Nonnull final QueryContext queryContext, @Nonnull final DataLoaderSettings settings,
+      @Nonnull final SharedLoadableTypeCache sharedLoadableTypeCache) {
+    final LoadableType<T> loadableType = settings.isSharedCacheEnabled()
+        ? new CachingLoadableType<>(graphType, sharedLoadableTypeCache.getOrCreate(graphType.name(), settings))
+        : graphType;
+    final BatchLoaderContextProvider contextProvider = () -> queryContext;
+    final DataLoaderOptions loaderOptions = DataLoaderOptions.newOptions()
+        .setBatchLoaderContextProvider(contextProvider)
+        .setBatchingEnabled(settings.isBatchingEnabled());
+    if (settings.getMaxBatchSize() > 0) {
+      // Each batch is loaded asynchronously, so splitting large batches dispatches them in parallel.
+      loaderOptions.setMaxBatchSize(settings.getMaxBatchSize());
+    }
+    return DataLoader.newDataLoader((keys, context) -> CompletableFuture.supplyAsync(() -> {
+      try {
+        log.debug(String.format("Batch loading entities of type: %s, keys: %s", graphType.name(), keys));
+        return loadableType.batchLoad(keys, context.getContext());
+      } catch (Exception e) {
+        log.error(String.format("Failed to load Entities of type: %s, keys: %s", graphType.name(), keys) + " "
+            + e.getMessage());
+        throw new RuntimeException(String.format("Failed to retrieve entities of type %s", graphType.name()), e);
+      }
+    }), loaderOptions);
+  }
+}
@@ -0,0 +1,71 @@
+package com.linkedin.datahub.graphql.loader;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import graphql.execution.DataFetcherResult;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Holds the second-level, cross-request result caches of the {@link com.linkedin.datahub.graphql.types.LoadableType}s
+ * that opted into sharing results between requests (e.g. rarely changing entities such as DataPlatform).
+ *
+ * <p>Each type gets its own bounded cache with its own TTL. Entries are invalidated by urn across all types, so that
+ * writers can evict an entity without knowing which GraphQL type it was loaded through. In GMS, the cache is evicted
+ * from {@link com.linkedin.metadata.entity.EntityService#addChangeListener}, i.e. on every write committed by the
+ * entity service of the same process. Writes committed by any other process, such as another GMS replica, or a
+ * standalone consumer or upgrade job writing with its own entity service, are only picked up once the entry expires,
+ * so the TTL bounds how stale a cached entity can be.
+ */
+@Slf4j
+public class SharedLoadableTypeCache {
+
+  private final Map<String, Cache<String, DataFetcherResult<?>>> _caches = new ConcurrentHashMap<>();
+  private final Ticker _ticker;
+
+  public SharedLoadableTypeCache() {
+    this(Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  SharedLoadableTypeCache(@Nonnull final Ticker ticker) {
+    _ticker = ticker;
+  }
+
+  /**
+   * Returns the cache associated with a type, creating it from the provided settings if it does not exist yet.
+   */
+  @Nonnull
+  public Cache<String, DataFetcherResult<?>> getOrCreate(@Nonnull final String typeName,
+      @Nonnull final DataLoaderSettings settings) {
+    return _caches.computeIfAbsent(typeName, name -> {
+      log.info("Creating shared GraphQL loader cache for type {} with ttl {}s and max size {}", name,
+          settings.getSharedCacheTtlSeconds(), settings.getSharedCacheMaxSize());
+      return CacheBuilder.newBuilder()
+          .expireAfterWrite(settings.getSharedCacheTtlSeconds(), TimeUnit.SECONDS)
+          .maximumSize(settings.getSharedCacheMaxSize())
+          .ticker(_ticker)
+          .build();
+    });
+  }
+
+  /**
+   * Evicts the entity with the given urn from every type cache.
+   */
+  public void invalidate(@Nonnull final String urn) {
+    _caches.values().forEach(cache -> cache.invalidate(urn));
+  }
+
+  /**
+   * Evicts every cached entity.
+   */
+  public void invalidateAll() {
+    _caches.values().forEach(Cache::invalidateAll);
+  }
+}
@@ -0,0 +1,40 @@
+package com.linkedin.datahub.graphql.preparsed;
+
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+
+/**
+ * A {@link graphql.execution.preparsed.PreparsedDocumentProvider} implementing the Automatic Persisted Queries
+ * protocol, where clients may send the sha256 hash of a query in place of its text.
+ *
+ * <p>Unlike {@link ApolloPersistedQuerySupport}, queries sent without a hash are keyed by the sha256 of their text,
+ * so that every parsed & validated document is served from the {@link LruPersistedQueryCache}.
+ */
+public class CachingPersistedQuerySupport extends ApolloPersistedQuerySupport {
+
+  public CachingPersistedQuerySupport(@Nonnull final LruPersistedQueryCache persistedQueryCache) {
+    super(persistedQueryCache);
+  }
+
+  @Override
+  protected Optional<Object> getPersistedQueryId(@Nonnull final ExecutionInput executionInput) {
+    final Optional<Object> persistedQueryId = super.getPersistedQueryId(executionInput);
+    if (persistedQueryId.isPresent()) {
+      return persistedQueryId;
+    }
+    final String query = executionInput.getQuery();
+    if (query == null || query.trim().isEmpty() || PERSISTED_QUERY_MARKER.equals(query)) {
+      return Optional.empty();
+    }
+    return Optional.of(sha256(query));
+  }
+
+  public static String sha256(@Nonnull final String query) {
+    return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+  }
+}
@@ -0,0 +1,77 @@
+package com.linkedin.datahub.graphql.preparsed;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import lombok.Value;
+
+
+/**
+ * A bounded, least-recently-used {@link PersistedQueryCache} holding parsed & validated GraphQL documents keyed by the
+ * sha256 hash of the query text.
+ *
+ * <p>Only documents which parsed and validated without errors are cached. The time spent parsing & validating each
+ * document is remembered, so that the time saved by every cache hit can be reported.
+ */
+public class LruPersistedQueryCache implements PersistedQueryCache {
+
+  private final Cache<Object, CachedDocument> _cache;
+  private final Counter _hitCounter = MetricUtils.counter(LruPersistedQueryCache.class, "hit");
+  private final Counter _missCounter = MetricUtils.counter(LruPersistedQueryCache.class, "miss");
+  private final Counter _timeSavedCounter = MetricUtils.counter(LruPersistedQueryCache.class, "parseTimeSavedNanos");
+  private final Timer _parseTimer = MetricUtils.timer(LruPersistedQueryCache.class, "parseAndValidate");
+
+  public LruPersistedQueryCache(final long maxSize) {
+    _cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  @Override
+  public PreparsedDocumentEntry getPersistedQueryDocument(@Nonnull final Object persistedQueryId,
+      @Nonnull final ExecutionInput executionInput, @Nonnull final PersistedQueryCacheMiss onCacheMiss)
+      throws PersistedQueryNotFound {
+    final CachedDocument cached = _cache.getIfPresent(persistedQueryId);
+    if (cached != null) {
+      _hitCounter.inc();
+      _timeSavedCounter.inc(cached.getParseNanos());
+      return cached.getEntry();
+    }
+    _missCounter.inc();
+
+    final String query = executionInput.getQuery();
+    if (query == null || query.trim().isEmpty() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+      // The client sent a hash we do not know about. It is expected to retry with the full query text.
+      throw new PersistedQueryNotFound(persistedQueryId);
+    }
+    if (!persistedQueryId.equals(CachingPersistedQuerySupport.sha256(query))) {
+      return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+          .message("Provided sha256Hash does not match the query")
+          .build());
+    }
+
+    final long startNanos = System.nanoTime();
+    final PreparsedDocumentEntry entry = onCacheMiss.apply(query);
+    final long parseNanos = System.nanoTime() - startNanos;
+    _parseTimer.update(parseNanos, TimeUnit.NANOSECONDS);
+    if (!entry.hasErrors()) {
+      _cache.put(persistedQueryId, new CachedDocument(entry, parseNanos));
+    }
+    return entry;
+  }
+
+  @Value
+  private static class CachedDocument {
+    PreparsedDocumentEntry entry;
+    long parseNanos;
+  }
+}
@@ -0,0 +1,71 @@
+package com.linkedin.datahub.graphql.resolvers.mutate;
+
+import com.linkedin.common.urn.CorpuserUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.exception.AuthorizationException;
+import com.linkedin.datahub.graphql.generated.BatchAddOwnersInput;
+import com.linkedin.datahub.graphql.generated.BatchMutationResult;
+import com.linkedin.datahub.graphql.generated.OwnerInput;
+import com.linkedin.datahub.graphql.generated.ResourceRefInput;
+import com.linkedin.datahub.graphql.resolvers.mutate.util.BatchPatchUtils;
+import com.linkedin.datahub.graphql.resolvers.mutate.util.OwnerUtils;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.EntityService;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.linkedin.datahub.graphql.resolvers.ResolverUtils.*;
+
+
+/**
+ * Resolver adding owners to many entities at once, writing the ownership of each entity once.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BatchAddOwnersResolver implements DataFetcher<CompletableFuture<List<BatchMutationResult>>> {
+
+  private final EntityService _entityService;
+
+  @Override
+  public CompletableFuture<List<BatchMutationResult>> get(DataFetchingEnvironment environment) throws Exception {
+    final BatchAddOwnersInput input = bindArgument(environment.getArgument("input"), BatchAddOwnersInput.class);
+    final QueryContext context = environment.getContext();
+    final List<Urn> ownerUrns = new ArrayList<>();
+    for (OwnerInput owner : input.getOwners()) {
+      ownerUrns.add(Urn.createFromString(owner.getOwnerUrn()));
+    }
+
+    if (!BatchPatchUtils.isAuthorizedToUpdateResources(input.getResources(),
+        (targetUrn, subResource) -> OwnerUtils.isAuthorizedToUpdateOwners(context, targetUrn))) {
+      throw new AuthorizationException("Unauthorized to perform this action. Please contact your DataHub administrator.");
+    }
+
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        OwnerUtils.validateOwners(input.getOwners());
+
+        log.debug("Adding Owners to {} resources. owners: {}", input.getResources().size(), ownerUrns);
+        Urn actor = CorpuserUrn.createFromString(context.getActorUrn());
+        final BatchPatchUtils.BatchPatch batch = new BatchPatchUtils.BatchPatch();
+        final List<ResourceRefInput> resources =
+            BatchPatchUtils.validateResources(input.getResources(), false, batch, _entityService);
+        for (ResourceRefInput resource : resources) {
+          OwnerUtils.addOwnersToPatch(
+              batch.getPatch(Urn.createFromString(resource.getResourceUrn()), Constants.OWNERSHIP_ASPECT_NAME, resource),
+              ownerUrns
+          );
+        }
+        return BatchPatchUtils.applyBatchPatch(batch, actor, _entityService);
+      } catch (Exception e) {
+        log.error("Failed to add owners to resources with input {}, {}", input.toString(), e.getMessage());
+        throw new RuntimeException(String.format("Failed to add owners to resources with input %s", input.toString()), e);
+      }
+    });
+  }
+}
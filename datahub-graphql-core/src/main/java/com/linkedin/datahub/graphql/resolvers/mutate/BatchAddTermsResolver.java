@@ -0,0 +1,73 @@
+package com.linkedin.datahub.graphql.resolvers.mutate;
+
+import com.linkedin.common.urn.CorpuserUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.exception.AuthorizationException;
+import com.linkedin.datahub.graphql.generated.BatchAddTermsInput;
+import com.linkedin.datahub.graphql.generated.BatchMutationResult;
+import com.linkedin.datahub.graphql.generated.ResourceRefInput;
+import com.linkedin.datahub.graphql.resolvers.mutate.util.BatchPatchUtils;
+import com.linkedin.datahub.graphql.resolvers.mutate.util.LabelUtils;
+import com.linkedin.metadata.entity.EntityService;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.linkedin.datahub.graphql.resolvers.ResolverUtils.*;
+
+
+/**
+ * Resolver adding glossary terms to many entities or sub resources at once, writing each aspect of each entity once.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BatchAddTermsResolver implements DataFetcher<CompletableFuture<List<BatchMutationResult>>> {
+  private final EntityService _entityService;
+
+  @Override
+  public CompletableFuture<List<BatchMutationResult>> get(DataFetchingEnvironment environment) throws Exception {
+    final BatchAddTermsInput input = bindArgument(environment.getArgument("input"), BatchAddTermsInput.class);
+    final QueryContext context = environment.getContext();
+    final List<Urn> termUrns = new ArrayList<>();
+    for (String termUrn : input.getTermUrns()) {
+      termUrns.add(Urn.createFromString(termUrn));
+    }
+
+    if (!BatchPatchUtils.isAuthorizedToUpdateResources(input.getResources(),
+        (targetUrn, subResource) -> LabelUtils.isAuthorizedToUpdateTerms(context, targetUrn, subResource))) {
+      throw new AuthorizationException("Unauthorized to perform this action. Please contact your DataHub administrator.");
+    }
+
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        LabelUtils.validateLabels(termUrns, "glossaryTerm", _entityService);
+
+        log.debug("Adding Terms to {} resources. terms: {}", input.getResources().size(), input.getTermUrns());
+        Urn actor = CorpuserUrn.createFromString(context.getActorUrn());
+        final BatchPatchUtils.BatchPatch batch = new BatchPatchUtils.BatchPatch();
+        final List<ResourceRefInput> resources =
+            BatchPatchUtils.validateResources(input.getResources(), true, batch, _entityService);
+        for (ResourceRefInput resource : resources) {
+          LabelUtils.addTermsToPatch(
+              batch.getPatch(
+                  Urn.createFromString(resource.getResourceUrn()),
+                  LabelUtils.getTermsAspectName(resource.getSubResource()),
+                  resource),
+              termUrns,
+              resource.getSubResource(),
+              actor
+          );
+        }
+        return BatchPatchUtils.applyBatchPatch(batch, actor, _entityService);
+      } catch (Exception e) {
+        log.error("Failed to perform batch update against input {}, {}", input.toString(), e.getMessage());
+        throw new RuntimeException(String.format("Failed to perform batch update against input %s", input.toString()), e);
+      }
+    });
+  }
+}
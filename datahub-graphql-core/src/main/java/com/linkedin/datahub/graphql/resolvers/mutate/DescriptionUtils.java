@@ -10,12 +10,12 @@ import com.linkedin.datahub.graphql.authorization.DisjunctivePrivilegeGroup;
 import com.linkedin.datahub.graphql.generated.SubResourceType;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.metadata.entity.EntityService;
-import com.linkedin.schema.EditableSchemaFieldInfo;
-import com.linkedin.schema.EditableSchemaMetadata;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
 import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+import static com.linkedin.metadata.utils.AspectPatchBuilder.*;
 
 
 @Slf4j
@@ -35,14 +35,14 @@ public class DescriptionUtils {
       Urn actor,
       EntityService entityService
   ) {
-      EditableSchemaMetadata editableSchemaMetadata =
-          (EditableSchemaMetadata) getAspectFromEntity(
-              resourceUrn.toString(), EDITABLE_SCHEMA_METADATA, entityService, new EditableSchemaMetadata());
-      EditableSchemaFieldInfo editableFieldInfo = getFieldInfoFromSchema(editableSchemaMetadata, fieldPath);
-
-      editableFieldInfo.setDescription(newDescription);
-
-      persistAspect(resourceUrn, editableSchemaMetadata, actor, entityService);
+      patchAspect(
+          resourceUrn,
+          EDITABLE_SCHEMA_METADATA,
+          new AspectPatchBuilder()
+              .set(path("editableSchemaFieldInfo", selector("fieldPath", fieldPath), "description"), newDescription)
+              .build(),
+          actor,
+          entityService);
   }
 
   public static Boolean validateFieldDescriptionInput(
@@ -7,14 +7,20 @@ import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.datahub.graphql.authorization.ConjunctivePrivilegeGroup;
 import com.linkedin.datahub.graphql.generated.SubResourceType;
 import com.linkedin.entity.Entity;
+import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.resources.entity.AspectUtils;
 import com.linkedin.metadata.snapshot.Snapshot;
+import com.linkedin.metadata.utils.GenericAspectUtils;
+import com.linkedin.mxe.AspectPatch;
+import com.linkedin.mxe.MetadataChangeProposal;
 import com.linkedin.schema.EditableSchemaFieldInfo;
 import com.linkedin.schema.EditableSchemaFieldInfoArray;
 import com.linkedin.schema.EditableSchemaMetadata;
 import com.linkedin.schema.SchemaField;
 import com.linkedin.schema.SchemaMetadata;
+import java.util.List;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,6 +41,23 @@ public class MutationUtils {
     entityService.ingestEntity(entityToPersist, getAuditStamp(actor));
   }
 
+  /**
+   * Applies a patch to the latest value of an aspect in a single write, without reading the aspect first. Like any
+   * proposal, it also writes the default aspects of the entity missing so far, e.g. its key.
+   */
+  public static void patchAspect(Urn urn, String aspectName, AspectPatch patch, Urn actor, EntityService entityService) {
+    final MetadataChangeProposal proposal = new MetadataChangeProposal();
+    proposal.setEntityUrn(urn);
+    proposal.setEntityType(urn.getEntityType());
+    proposal.setAspectName(aspectName);
+    proposal.setAspect(GenericAspectUtils.serializeAspect(patch));
+    proposal.setChangeType(ChangeType.PATCH);
+    final AuditStamp auditStamp = getAuditStamp(actor);
+    final List<MetadataChangeProposal> additionalChanges = AspectUtils.getAdditionalChanges(proposal, entityService);
+    entityService.ingestProposal(proposal, auditStamp);
+    additionalChanges.forEach(additionalChange -> entityService.ingestProposal(additionalChange, auditStamp));
+  }
+
   public static RecordTemplate getAspectFromEntity(String entityUrn, String aspectName, EntityService entityService, RecordTemplate defaultValue) {
     try {
       RecordTemplate aspect = entityService.getAspect(
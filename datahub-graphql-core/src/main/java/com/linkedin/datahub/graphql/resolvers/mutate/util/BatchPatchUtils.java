@@ -0,0 +1,205 @@
+package com.linkedin.datahub.graphql.resolvers.mutate.util;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.datahub.graphql.generated.BatchMutationResult;
+import com.linkedin.datahub.graphql.generated.ResourceRefInput;
+import com.linkedin.datahub.graphql.generated.SubResourceType;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
+import com.linkedin.schema.SchemaField;
+import com.linkedin.schema.SchemaMetadata;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+
+
+/**
+ * Applies the changes of a batch mutation, grouped per entity and aspect, so that each aspect is written once
+ * regardless of how many of its resources are targeted.
+ */
+@Slf4j
+public class BatchPatchUtils {
+
+  private BatchPatchUtils() { }
+
+  /**
+   * The patches of a batch mutation, along with the resources each of them updates.
+   */
+  public static class BatchPatch {
+    private final Map<AspectKey, AspectPatchBuilder> _patches = new LinkedHashMap<>();
+    private final Map<AspectKey, List<ResourceRefInput>> _resources = new LinkedHashMap<>();
+    private final List<BatchMutationResult> _results = new ArrayList<>();
+
+    /**
+     * Returns the patch of an aspect of an entity, recording that it updates the given resource.
+     */
+    public AspectPatchBuilder getPatch(Urn urn, String aspectName, ResourceRefInput resource) {
+      final AspectKey key = new AspectKey(urn, aspectName);
+      _resources.computeIfAbsent(key, k -> new ArrayList<>()).add(resource);
+      return _patches.computeIfAbsent(key, k -> new AspectPatchBuilder());
+    }
+
+    /**
+     * Records that a resource is not updated by the batch.
+     */
+    public void fail(ResourceRefInput resource, String error) {
+      _results.add(buildResult(resource, false, error));
+    }
+  }
+
+  /**
+   * Returns whether the actor is authorized to update all the resources, checking each entity and whether its sub
+   * resources are targeted once.
+   *
+   * @param isAuthorized checks whether the actor is authorized to update an entity, or sub resources of the entity
+   */
+  public static boolean isAuthorizedToUpdateResources(
+      List<ResourceRefInput> resources,
+      BiPredicate<Urn, String> isAuthorized
+  ) throws URISyntaxException {
+    final Set<String> checked = new HashSet<>();
+    for (ResourceRefInput resource : resources) {
+      final String subResource = isTargetingSubResource(resource) ? resource.getSubResource() : null;
+      if (!checked.add(resource.getResourceUrn() + (subResource == null ? "" : "#subResource"))) {
+        continue;
+      }
+      if (!isAuthorized.test(Urn.createFromString(resource.getResourceUrn()), subResource)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Validates the targets of a batch mutation, failing the invalid ones in the batch. The existence and schema of each
+   * entity are read once.
+   *
+   * @return the valid resources
+   */
+  public static List<ResourceRefInput> validateResources(
+      List<ResourceRefInput> resources,
+      boolean allowSubResources,
+      BatchPatch batch,
+      EntityService entityService
+  ) {
+    final Map<Urn, Boolean> exists = new HashMap<>();
+    final Map<Urn, Set<String>> fieldPaths = new HashMap<>();
+    final List<ResourceRefInput> validResources = new ArrayList<>();
+    for (ResourceRefInput resource : resources) {
+      try {
+        final Urn targetUrn = Urn.createFromString(resource.getResourceUrn());
+        if (!exists.computeIfAbsent(targetUrn, entityService::exists)) {
+          throw new IllegalArgumentException(String.format("Failed to update %s. %s does not exist.", targetUrn, targetUrn));
+        }
+        final String subResource = resource.getSubResource();
+        final SubResourceType subResourceType = resource.getSubResourceType();
+        if ((subResource != null && subResource.length() > 0) || subResourceType != null) {
+          if (!allowSubResources) {
+            throw new IllegalArgumentException(String.format(
+                "Failed to update %s. Sub resources are not supported.", targetUrn));
+          }
+          if (subResource == null || subResource.length() == 0) {
+            throw new IllegalArgumentException(String.format(
+                "Failed to update %s. SubResourceType (%s) provided without a subResource.", targetUrn, subResourceType));
+          }
+          if (subResourceType == null) {
+            throw new IllegalArgumentException(String.format(
+                "Failed to update %s. SubResource (%s) provided without a subResourceType.", targetUrn, subResource));
+          }
+          if (!fieldPaths.computeIfAbsent(targetUrn, urn -> getFieldPaths(urn, entityService)).contains(subResource)) {
+            throw new IllegalArgumentException(String.format(
+                "Failed to update %s & field %s. Field %s does not exist in the datasets schema.",
+                targetUrn, subResource, subResource));
+          }
+        }
+        validResources.add(resource);
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        batch.fail(resource, e.getMessage());
+      }
+    }
+    return validResources;
+  }
+
+  public static boolean isTargetingSubResource(ResourceRefInput resource) {
+    return resource.getSubResource() != null && resource.getSubResource().length() > 0;
+  }
+
+  /**
+   * Applies each patch of the batch in its own transaction, so that a failure only fails the resources of that patch.
+   *
+   * @return the result of each resource of the batch
+   */
+  public static List<BatchMutationResult> applyBatchPatch(BatchPatch batch, Urn actor, EntityService entityService) {
+    final List<BatchMutationResult> results = new ArrayList<>(batch._results);
+    for (Map.Entry<AspectKey, AspectPatchBuilder> entry : batch._patches.entrySet()) {
+      final AspectKey key = entry.getKey();
+      String error = null;
+      try {
+        patchAspect(key._urn, key._aspectName, entry.getValue().build(), actor, entityService);
+      } catch (Exception e) {
+        log.error("Failed to patch aspect {} of {}, {}", key._aspectName, key._urn, e.getMessage());
+        error = String.format("Failed to update %s: %s", key._urn, e.getMessage());
+      }
+      for (ResourceRefInput resource : batch._resources.get(key)) {
+        results.add(buildResult(resource, error == null, error));
+      }
+    }
+    return results;
+  }
+
+  private static Set<String> getFieldPaths(Urn targetUrn, EntityService entityService) {
+    final SchemaMetadata schemaMetadata = (SchemaMetadata) entityService.getAspect(targetUrn, SCHEMA_ASPECT_NAME, 0);
+    if (schemaMetadata == null) {
+      return Collections.emptySet();
+    }
+    return schemaMetadata.getFields().stream().map(SchemaField::getFieldPath).collect(Collectors.toSet());
+  }
+
+  private static BatchMutationResult buildResult(ResourceRefInput resource, boolean success, String error) {
+    final BatchMutationResult result = new BatchMutationResult();
+    result.setResourceUrn(resource.getResourceUrn());
+    result.setSubResource(resource.getSubResource());
+    result.setSuccess(success);
+    result.setError(error);
+    return result;
+  }
+
+  private static class AspectKey {
+    private final Urn _urn;
+    private final String _aspectName;
+
+    private AspectKey(Urn urn, String aspectName) {
+      _urn = urn;
+      _aspectName = aspectName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final AspectKey other = (AspectKey) o;
+      return _urn.equals(other._urn) && _aspectName.equals(other._aspectName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_urn, _aspectName);
+    }
+  }
+}
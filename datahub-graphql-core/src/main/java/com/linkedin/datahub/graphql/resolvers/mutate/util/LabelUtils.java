@@ -3,12 +3,8 @@ package com.linkedin.datahub.graphql.resolvers.mutate.util;
 import com.google.common.collect.ImmutableList;
 
 
-import com.linkedin.common.GlobalTags;
 import com.linkedin.common.GlossaryTermAssociation;
-import com.linkedin.common.GlossaryTermAssociationArray;
-import com.linkedin.common.GlossaryTerms;
 import com.linkedin.common.TagAssociation;
-import com.linkedin.common.TagAssociationArray;
 import com.linkedin.common.urn.GlossaryTermUrn;
 import com.linkedin.common.urn.TagUrn;
 import com.linkedin.common.urn.Urn;
@@ -17,16 +13,16 @@ import com.linkedin.datahub.graphql.authorization.AuthorizationUtils;
 import com.linkedin.datahub.graphql.authorization.ConjunctivePrivilegeGroup;
 import com.linkedin.datahub.graphql.authorization.DisjunctivePrivilegeGroup;
 import com.linkedin.datahub.graphql.generated.SubResourceType;
-import com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.metadata.entity.EntityService;
-import com.linkedin.schema.EditableSchemaFieldInfo;
-import com.linkedin.schema.EditableSchemaMetadata;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
 import java.net.URISyntaxException;
+import java.util.List;
 import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+import static com.linkedin.metadata.utils.AspectPatchBuilder.*;
 
 
 @Slf4j
@@ -41,32 +37,34 @@ public class LabelUtils {
   public static final String EDITABLE_SCHEMA_METADATA = "editableSchemaMetadata";
   public static final String TAGS_ASPECT_NAME = "globalTags";
 
+  private static final String TAGS_FIELD = "tags";
+  private static final String TAG_FIELD = "tag";
+  private static final String TERMS_FIELD = "terms";
+  private static final String URN_FIELD = "urn";
+  private static final String AUDIT_STAMP_FIELD = "auditStamp";
+  private static final String GLOBAL_TAGS_FIELD = "globalTags";
+  private static final String GLOSSARY_TERMS_FIELD = "glossaryTerms";
+  private static final String EDITABLE_SCHEMA_FIELD_INFO_FIELD = "editableSchemaFieldInfo";
+  private static final String FIELD_PATH_FIELD = "fieldPath";
+
   public static void removeTermFromTarget(
       Urn labelUrn,
       Urn targetUrn,
       String subResource,
       Urn actor,
       EntityService entityService
-  ) {
+  ) throws URISyntaxException {
+    GlossaryTermAssociation association = new GlossaryTermAssociation();
+    association.setUrn(GlossaryTermUrn.createFromUrn(labelUrn));
     if (subResource == null || subResource.equals("")) {
-      com.linkedin.common.GlossaryTerms terms =
-          (com.linkedin.common.GlossaryTerms) MutationUtils.getAspectFromEntity(
-              targetUrn.toString(), GLOSSARY_TERM_ASPECT_NAME, entityService, new GlossaryTerms());
-      terms.setAuditStamp(getAuditStamp(actor));
-
-      removeTermIfExists(terms, labelUrn);
-      persistAspect(targetUrn, terms, actor, entityService);
+      patchAspect(targetUrn, GLOSSARY_TERM_ASPECT_NAME, new AspectPatchBuilder()
+          .set(path(AUDIT_STAMP_FIELD), getAuditStamp(actor))
+          .remove(path(TERMS_FIELD), association, URN_FIELD)
+          .build(), actor, entityService);
     } else {
-      com.linkedin.schema.EditableSchemaMetadata editableSchemaMetadata =
-          (com.linkedin.schema.EditableSchemaMetadata) getAspectFromEntity(
-              targetUrn.toString(), EDITABLE_SCHEMA_METADATA, entityService, new EditableSchemaMetadata());
-      EditableSchemaFieldInfo editableFieldInfo = getFieldInfoFromSchema(editableSchemaMetadata, subResource);
-      if (!editableFieldInfo.hasGlossaryTerms()) {
-        editableFieldInfo.setGlossaryTerms(new GlossaryTerms());
-      }
-
-      removeTermIfExists(editableFieldInfo.getGlossaryTerms(), labelUrn);
-      persistAspect(targetUrn, editableSchemaMetadata, actor, entityService);
+      patchAspect(targetUrn, EDITABLE_SCHEMA_METADATA, new AspectPatchBuilder()
+          .remove(fieldInfoPath(subResource, GLOSSARY_TERMS_FIELD, TERMS_FIELD), association, URN_FIELD)
+          .build(), actor, entityService);
     }
   }
 
@@ -76,27 +74,17 @@ public class LabelUtils {
       String subResource,
       Urn actor,
       EntityService entityService
-  ) {
+  ) throws URISyntaxException {
+    TagAssociation association = new TagAssociation();
+    association.setTag(TagUrn.createFromUrn(labelUrn));
     if (subResource == null || subResource.equals("")) {
-      com.linkedin.common.GlobalTags tags =
-          (com.linkedin.common.GlobalTags) getAspectFromEntity(targetUrn.toString(), TAGS_ASPECT_NAME, entityService, new GlobalTags());
-
-      if (!tags.hasTags()) {
-        tags.setTags(new TagAssociationArray());
-      }
-      removeTagIfExists(tags, labelUrn);
-      persistAspect(targetUrn, tags, actor, entityService);
+      patchAspect(targetUrn, TAGS_ASPECT_NAME, new AspectPatchBuilder()
+          .remove(path(TAGS_FIELD), association, TAG_FIELD)
+          .build(), actor, entityService);
     } else {
-      com.linkedin.schema.EditableSchemaMetadata editableSchemaMetadata =
-          (com.linkedin.schema.EditableSchemaMetadata) getAspectFromEntity(
-              targetUrn.toString(), EDITABLE_SCHEMA_METADATA, entityService, new EditableSchemaMetadata());
-      EditableSchemaFieldInfo editableFieldInfo = getFieldInfoFromSchema(editableSchemaMetadata, subResource);
-
-      if (!editableFieldInfo.hasGlobalTags()) {
-        editableFieldInfo.setGlobalTags(new GlobalTags());
-      }
-      removeTagIfExists(editableFieldInfo.getGlobalTags(), labelUrn);
-      persistAspect(targetUrn, editableSchemaMetadata, actor, entityService);
+      patchAspect(targetUrn, EDITABLE_SCHEMA_METADATA, new AspectPatchBuilder()
+          .remove(fieldInfoPath(subResource, GLOBAL_TAGS_FIELD, TAGS_FIELD), association, TAG_FIELD)
+          .build(), actor, entityService);
     }
   }
 
@@ -107,28 +95,9 @@ public class LabelUtils {
       Urn actor,
       EntityService entityService
   ) throws URISyntaxException {
-    if (subResource == null || subResource.equals("")) {
-      com.linkedin.common.GlobalTags tags =
-          (com.linkedin.common.GlobalTags) getAspectFromEntity(targetUrn.toString(), TAGS_ASPECT_NAME, entityService, new GlobalTags());
-
-      if (!tags.hasTags()) {
-        tags.setTags(new TagAssociationArray());
-      }
-      addTagIfNotExists(tags, labelUrn);
-      persistAspect(targetUrn, tags, actor, entityService);
-    } else {
-      com.linkedin.schema.EditableSchemaMetadata editableSchemaMetadata =
-          (com.linkedin.schema.EditableSchemaMetadata) getAspectFromEntity(
-              targetUrn.toString(), EDITABLE_SCHEMA_METADATA, entityService, new EditableSchemaMetadata());
-      EditableSchemaFieldInfo editableFieldInfo = getFieldInfoFromSchema(editableSchemaMetadata, subResource);
-
-      if (!editableFieldInfo.hasGlobalTags()) {
-        editableFieldInfo.setGlobalTags(new GlobalTags());
-      }
-
-      addTagIfNotExists(editableFieldInfo.getGlobalTags(), labelUrn);
-      persistAspect(targetUrn, editableSchemaMetadata, actor, entityService);
-    }
+    AspectPatchBuilder patch = new AspectPatchBuilder();
+    addTagsToPatch(patch, ImmutableList.of(labelUrn), subResource);
+    patchAspect(targetUrn, getTagsAspectName(subResource), patch.build(), actor, entityService);
   }
 
   public static void addTermToTarget(
@@ -138,89 +107,79 @@ public class LabelUtils {
       Urn actor,
       EntityService entityService
   ) throws URISyntaxException {
-    if (subResource == null || subResource.equals("")) {
-      com.linkedin.common.GlossaryTerms terms =
-          (com.linkedin.common.GlossaryTerms) getAspectFromEntity(targetUrn.toString(), GLOSSARY_TERM_ASPECT_NAME, entityService, new GlossaryTerms());
-      terms.setAuditStamp(getAuditStamp(actor));
-
-      if (!terms.hasTerms()) {
-        terms.setTerms(new GlossaryTermAssociationArray());
-      }
-
-      addTermIfNotExistsToEntity(terms, labelUrn);
-      persistAspect(targetUrn, terms, actor, entityService);
-    } else {
-      com.linkedin.schema.EditableSchemaMetadata editableSchemaMetadata =
-          (com.linkedin.schema.EditableSchemaMetadata) getAspectFromEntity(
-              targetUrn.toString(), EDITABLE_SCHEMA_METADATA, entityService, new EditableSchemaMetadata());
-
-      EditableSchemaFieldInfo editableFieldInfo = getFieldInfoFromSchema(editableSchemaMetadata, subResource);
-      if (!editableFieldInfo.hasGlossaryTerms()) {
-        editableFieldInfo.setGlossaryTerms(new GlossaryTerms());
-      }
-
-      editableFieldInfo.getGlossaryTerms().setAuditStamp(getAuditStamp(actor));
-
-      addTermIfNotExistsToEntity(editableFieldInfo.getGlossaryTerms(), labelUrn);
-      persistAspect(targetUrn, editableSchemaMetadata, actor, entityService);
-    }
+    AspectPatchBuilder patch = new AspectPatchBuilder();
+    addTermsToPatch(patch, ImmutableList.of(labelUrn), subResource, actor);
+    patchAspect(targetUrn, getTermsAspectName(subResource), patch.build(), actor, entityService);
   }
 
-  private static void addTermIfNotExistsToEntity(GlossaryTerms terms, Urn termUrn)
-      throws URISyntaxException {
-    if (!terms.hasTerms()) {
-      terms.setTerms(new GlossaryTermAssociationArray());
-    }
-
-    GlossaryTermAssociationArray termArray = terms.getTerms();
-
-    // if term exists, do not add it again
-    if (termArray.stream().anyMatch(association -> association.getUrn().equals(termUrn))) {
-      return;
-    }
-
-    GlossaryTermAssociation newAssociation = new GlossaryTermAssociation();
-    newAssociation.setUrn(GlossaryTermUrn.createFromUrn(termUrn));
-    termArray.add(newAssociation);
+  /**
+   * Returns the name of the aspect holding the tags of an entity, or of one of its sub resources.
+   */
+  public static String getTagsAspectName(String subResource) {
+    return subResource == null || subResource.equals("") ? TAGS_ASPECT_NAME : EDITABLE_SCHEMA_METADATA;
   }
 
-  private static TagAssociationArray removeTagIfExists(GlobalTags tags, Urn tagUrn) {
-    if (!tags.hasTags()) {
-      tags.setTags(new TagAssociationArray());
-    }
-
-    TagAssociationArray tagAssociationArray = tags.getTags();
-
-    tagAssociationArray.removeIf(association -> association.getTag().equals(tagUrn));
-    return tagAssociationArray;
+  /**
+   * Returns the name of the aspect holding the glossary terms of an entity, or of one of its sub resources.
+   */
+  public static String getTermsAspectName(String subResource) {
+    return subResource == null || subResource.equals("") ? GLOSSARY_TERM_ASPECT_NAME : EDITABLE_SCHEMA_METADATA;
   }
 
-  private static GlossaryTermAssociationArray removeTermIfExists(GlossaryTerms terms, Urn termUrn) {
-    if (!terms.hasTerms()) {
-      terms.setTerms(new GlossaryTermAssociationArray());
+  /**
+   * Adds operations adding the tags to an entity, or one of its sub resources, to a patch of the aspect named by
+   * {@link #getTagsAspectName(String)}.
+   */
+  public static void addTagsToPatch(
+      AspectPatchBuilder patch,
+      List<Urn> labelUrns,
+      String subResource
+  ) throws URISyntaxException {
+    final String tagsPath = subResource == null || subResource.equals("")
+        ? path(TAGS_FIELD)
+        : fieldInfoPath(subResource, GLOBAL_TAGS_FIELD, TAGS_FIELD);
+    for (Urn labelUrn : labelUrns) {
+      TagAssociation newAssociation = new TagAssociation();
+      newAssociation.setTag(TagUrn.createFromUrn(labelUrn));
+      // if tag exists, do not add it again
+      patch.add(tagsPath, newAssociation, TAG_FIELD);
     }
-
-    GlossaryTermAssociationArray termArray = terms.getTerms();
-
-    termArray.removeIf(association -> association.getUrn().equals(termUrn));
-    return termArray;
   }
 
-  private static void addTagIfNotExists(GlobalTags tags, Urn tagUrn) throws URISyntaxException {
-    if (!tags.hasTags()) {
-      tags.setTags(new TagAssociationArray());
-    }
-
-    TagAssociationArray tagAssociationArray = tags.getTags();
-
-    // if tag exists, do not add it again
-    if (tagAssociationArray.stream().anyMatch(association -> association.getTag().equals(tagUrn))) {
-      return;
+  /**
+   * Adds operations adding the glossary terms to an entity, or one of its sub resources, to a patch of the aspect
+   * named by {@link #getTermsAspectName(String)}.
+   */
+  public static void addTermsToPatch(
+      AspectPatchBuilder patch,
+      List<Urn> labelUrns,
+      String subResource,
+      Urn actor
+  ) throws URISyntaxException {
+    final boolean isTargetingSchema = subResource != null && !subResource.equals("");
+    patch.set(isTargetingSchema
+        ? fieldInfoPath(subResource, GLOSSARY_TERMS_FIELD, AUDIT_STAMP_FIELD)
+        : path(AUDIT_STAMP_FIELD), getAuditStamp(actor));
+    final String termsPath = isTargetingSchema
+        ? fieldInfoPath(subResource, GLOSSARY_TERMS_FIELD, TERMS_FIELD)
+        : path(TERMS_FIELD);
+    for (Urn labelUrn : labelUrns) {
+      GlossaryTermAssociation newAssociation = new GlossaryTermAssociation();
+      newAssociation.setUrn(GlossaryTermUrn.createFromUrn(labelUrn));
+      // if term exists, do not add it again
+      patch.add(termsPath, newAssociation, URN_FIELD);
     }
+  }
 
-    TagAssociation newAssociation = new TagAssociation();
-    newAssociation.setTag(TagUrn.createFromUrn(tagUrn));
-    tagAssociationArray.add(newAssociation);
+  /**
+   * Returns the path to a field of the editable schema field info of the given field path, which is created if missing.
+   */
+  private static String fieldInfoPath(String fieldPath, String... fields) {
+    String[] segments = new String[fields.length + 2];
+    segments[0] = EDITABLE_SCHEMA_FIELD_INFO_FIELD;
+    segments[1] = selector(FIELD_PATH_FIELD, fieldPath);
+    System.arraycopy(fields, 0, segments, 2, fields.length);
+    return path(segments);
   }
 
   public static boolean isAuthorizedToUpdateTags(@Nonnull QueryContext context, Urn targetUrn, String subResource) {
@@ -265,6 +224,25 @@ public class LabelUtils {
         orPrivilegeGroups);
   }
 
+  /**
+   * Validates the labels added by a batch update, which must all exist.
+   */
+  public static Boolean validateLabels(
+      List<Urn> labelUrns,
+      String labelEntityType,
+      EntityService entityService
+  ) {
+    for (Urn labelUrn : labelUrns) {
+      if (!labelUrn.getEntityType().equals(labelEntityType)) {
+        throw new IllegalArgumentException(String.format("Failed to add %s. Was expecting a %s.", labelUrn, labelEntityType));
+      }
+      if (!entityService.exists(labelUrn)) {
+        throw new IllegalArgumentException(String.format("Failed to add %s. %s does not exist.", labelUrn, labelUrn));
+      }
+    }
+    return true;
+  }
+
   public static Boolean validateInput(
       Urn labelUrn,
       Urn targetUrn,
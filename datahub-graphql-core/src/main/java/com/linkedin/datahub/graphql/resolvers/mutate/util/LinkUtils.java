@@ -2,23 +2,22 @@ package com.linkedin.datahub.graphql.resolvers.mutate.util;
 
 import com.google.common.collect.ImmutableList;
 
-import com.linkedin.common.InstitutionalMemory;
 import com.linkedin.common.InstitutionalMemoryMetadata;
-import com.linkedin.common.InstitutionalMemoryMetadataArray;
 import com.linkedin.common.url.Url;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.datahub.graphql.QueryContext;
 import com.linkedin.datahub.graphql.authorization.AuthorizationUtils;
 import com.linkedin.datahub.graphql.authorization.ConjunctivePrivilegeGroup;
 import com.linkedin.datahub.graphql.authorization.DisjunctivePrivilegeGroup;
-import com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
 import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+import static com.linkedin.metadata.utils.AspectPatchBuilder.*;
 
 
 @Slf4j
@@ -27,6 +26,9 @@ public class LinkUtils {
       PoliciesConfig.EDIT_ENTITY_PRIVILEGE.getType()
   ));
 
+  private static final String ELEMENTS_FIELD = "elements";
+  private static final String URL_FIELD = "url";
+
   private LinkUtils() { }
 
   public static void addLink(
@@ -36,13 +38,18 @@ public class LinkUtils {
       Urn actor,
       EntityService entityService
   ) {
-    InstitutionalMemory institutionalMemoryAspect = (InstitutionalMemory) getAspectFromEntity(
-        resourceUrn.toString(),
+    InstitutionalMemoryMetadata newLink = new InstitutionalMemoryMetadata();
+    newLink.setUrl(new Url(linkUrl));
+    newLink.setCreateStamp(getAuditStamp(actor));
+    newLink.setDescription(linkLabel); // We no longer support, this is really a label.
+
+    // if link exists, do not add it again
+    patchAspect(
+        resourceUrn,
         Constants.INSTITUTIONAL_MEMORY_ASPECT_NAME,
-        entityService,
-        new InstitutionalMemory());
-    addLink(institutionalMemoryAspect, linkUrl, linkLabel, actor);
-    persistAspect(resourceUrn, institutionalMemoryAspect, actor, entityService);
+        new AspectPatchBuilder().add(path(ELEMENTS_FIELD), newLink, URL_FIELD).build(),
+        actor,
+        entityService);
   }
 
   public static void removeLink(
@@ -51,41 +58,14 @@ public class LinkUtils {
       Urn actor,
       EntityService entityService
   ) {
-    InstitutionalMemory institutionalMemoryAspect = (InstitutionalMemory) MutationUtils.getAspectFromEntity(
-        resourceUrn.toString(),
+    patchAspect(
+        resourceUrn,
         Constants.INSTITUTIONAL_MEMORY_ASPECT_NAME,
-        entityService,
-        new InstitutionalMemory());
-    removeLink(institutionalMemoryAspect, linkUrl);
-    persistAspect(resourceUrn, institutionalMemoryAspect, actor, entityService);
-  }
-
-  private static void addLink(InstitutionalMemory institutionalMemoryAspect, String linkUrl, String linkLabel, Urn actor) {
-    if (!institutionalMemoryAspect.hasElements()) {
-      institutionalMemoryAspect.setElements(new InstitutionalMemoryMetadataArray());
-    }
-
-    InstitutionalMemoryMetadataArray linksArray = institutionalMemoryAspect.getElements();
-
-    // if link exists, do not add it again
-    if (linksArray.stream().anyMatch(link -> link.getUrl().toString().equals(linkUrl))) {
-      return;
-    }
-
-    InstitutionalMemoryMetadata newLink = new InstitutionalMemoryMetadata();
-    newLink.setUrl(new Url(linkUrl));
-    newLink.setCreateStamp(getAuditStamp(actor));
-    newLink.setDescription(linkLabel); // We no longer support, this is really a label.
-    linksArray.add(newLink);
-  }
-
-  private static void removeLink(InstitutionalMemory institutionalMemoryAspect, String linkUrl) {
-    if (!institutionalMemoryAspect.hasElements()) {
-      institutionalMemoryAspect.setElements(new InstitutionalMemoryMetadataArray());
-    }
-
-    InstitutionalMemoryMetadataArray elementsArray = institutionalMemoryAspect.getElements();
-    elementsArray.removeIf(link -> link.getUrl().toString().equals(linkUrl));
+        new AspectPatchBuilder()
+            .remove(path(ELEMENTS_FIELD), new InstitutionalMemoryMetadata().setUrl(new Url(linkUrl)), URL_FIELD)
+            .build(),
+        actor,
+        entityService);
   }
 
   public static boolean isAuthorizedToUpdateLinks(@Nonnull QueryContext context, Urn resourceUrn) {
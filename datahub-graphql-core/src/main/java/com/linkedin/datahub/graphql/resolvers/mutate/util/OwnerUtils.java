@@ -3,8 +3,6 @@ package com.linkedin.datahub.graphql.resolvers.mutate.util;
 import com.google.common.collect.ImmutableList;
 
 import com.linkedin.common.Owner;
-import com.linkedin.common.OwnerArray;
-import com.linkedin.common.Ownership;
 import com.linkedin.common.OwnershipSource;
 import com.linkedin.common.OwnershipSourceType;
 import com.linkedin.common.OwnershipType;
@@ -14,14 +12,18 @@ import com.linkedin.datahub.graphql.authorization.AuthorizationUtils;
 import com.linkedin.datahub.graphql.authorization.ConjunctivePrivilegeGroup;
 import com.linkedin.datahub.graphql.authorization.DisjunctivePrivilegeGroup;
 import com.linkedin.datahub.graphql.generated.OwnerEntityType;
-import com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils;
+import com.linkedin.datahub.graphql.generated.OwnerInput;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
+import java.net.URISyntaxException;
+import java.util.List;
 import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 
 import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+import static com.linkedin.metadata.utils.AspectPatchBuilder.*;
 
 
 @Slf4j
@@ -30,6 +32,10 @@ public class OwnerUtils {
       PoliciesConfig.EDIT_ENTITY_PRIVILEGE.getType()
   ));
 
+  private static final String OWNERS_FIELD = "owners";
+  private static final String OWNER_FIELD = "owner";
+  private static final String LAST_MODIFIED_FIELD = "lastModified";
+
   private OwnerUtils() { }
 
   public static void addOwner(
@@ -38,13 +44,24 @@ public class OwnerUtils {
       Urn actor,
       EntityService entityService
   ) {
-    Ownership ownershipAspect = (Ownership) getAspectFromEntity(
-        resourceUrn.toString(),
-        Constants.OWNERSHIP_ASPECT_NAME,
-        entityService,
-        new Ownership());
-    addOwner(ownershipAspect, ownerUrn);
-    persistAspect(resourceUrn, ownershipAspect, actor, entityService);
+    AspectPatchBuilder patch = new AspectPatchBuilder();
+    addOwnersToPatch(patch, ImmutableList.of(ownerUrn));
+    patchAspect(resourceUrn, Constants.OWNERSHIP_ASPECT_NAME, patch.build(), actor, entityService);
+  }
+
+  /**
+   * Adds operations adding the owners to a patch of the ownership aspect.
+   */
+  public static void addOwnersToPatch(AspectPatchBuilder patch, List<Urn> ownerUrns) {
+    for (Urn ownerUrn : ownerUrns) {
+      Owner newOwner = new Owner();
+      newOwner.setType(OwnershipType.DATAOWNER);
+      newOwner.setSource(new OwnershipSource().setType(OwnershipSourceType.MANUAL));
+      newOwner.setOwner(ownerUrn);
+
+      // if owner exists, do not add it again
+      patch.add(path(OWNERS_FIELD), newOwner, OWNER_FIELD);
+    }
   }
 
   public static void removeOwner(
@@ -53,42 +70,15 @@ public class OwnerUtils {
       Urn actor,
       EntityService entityService
   ) {
-    Ownership ownershipAspect = (Ownership) MutationUtils.getAspectFromEntity(
-        resourceUrn.toString(),
+    patchAspect(
+        resourceUrn,
         Constants.OWNERSHIP_ASPECT_NAME,
-        entityService,
-        new Ownership());
-    ownershipAspect.setLastModified(getAuditStamp(actor));
-    removeOwner(ownershipAspect, ownerUrn);
-    persistAspect(resourceUrn, ownershipAspect, actor, entityService);
-  }
-
-  private static void addOwner(Ownership ownershipAspect, Urn ownerUrn) {
-    if (!ownershipAspect.hasOwners()) {
-      ownershipAspect.setOwners(new OwnerArray());
-    }
-
-    OwnerArray ownerArray = ownershipAspect.getOwners();
-
-    // if owner exists, do not add it again
-    if (ownerArray.stream().anyMatch(association -> association.getOwner().equals(ownerUrn))) {
-      return;
-    }
-
-    Owner newOwner = new Owner();
-    newOwner.setType(OwnershipType.DATAOWNER);
-    newOwner.setSource(new OwnershipSource().setType(OwnershipSourceType.MANUAL));
-    newOwner.setOwner(ownerUrn);
-    ownerArray.add(newOwner);
-  }
-
-  private static void removeOwner(Ownership ownership, Urn ownerUrn) {
-    if (!ownership.hasOwners()) {
-      ownership.setOwners(new OwnerArray());
-    }
-
-    OwnerArray ownerArray = ownership.getOwners();
-    ownerArray.removeIf(owner -> owner.getOwner().equals(ownerUrn));
+        new AspectPatchBuilder()
+            .set(path(LAST_MODIFIED_FIELD), getAuditStamp(actor))
+            .remove(path(OWNERS_FIELD), new Owner().setOwner(ownerUrn), OWNER_FIELD)
+            .build(),
+        actor,
+        entityService);
   }
 
   public static boolean isAuthorizedToUpdateOwners(@Nonnull QueryContext context, Urn resourceUrn) {
@@ -127,6 +117,22 @@ public class OwnerUtils {
     return true;
   }
 
+  /**
+   * Validates the owners added by a batch update.
+   */
+  public static Boolean validateOwners(List<OwnerInput> owners) throws URISyntaxException {
+    for (OwnerInput owner : owners) {
+      Urn ownerUrn = Urn.createFromString(owner.getOwnerUrn());
+      if (OwnerEntityType.CORP_GROUP.equals(owner.getOwnerEntityType()) && !Constants.CORP_GROUP_ENTITY_NAME.equals(ownerUrn.getEntityType())) {
+        throw new IllegalArgumentException(String.format("Failed to add owner %s. Expected a corp group urn.", ownerUrn));
+      }
+      if (OwnerEntityType.CORP_USER.equals(owner.getOwnerEntityType()) && !Constants.CORP_USER_ENTITY_NAME.equals(ownerUrn.getEntityType())) {
+        throw new IllegalArgumentException(String.format("Failed to add owner %s. Expected a corp user urn.", ownerUrn));
+      }
+    }
+    return true;
+  }
+
   public static Boolean validateRemoveInput(
       Urn resourceUrn,
       EntityService entityService
@@ -29,9 +29,20 @@ public class AutoCompleteForMultipleResolver implements DataFetcher<CompletableF
 
     private final List<SearchableEntityType<?>> _searchableEntities;
     private final Map<EntityType, SearchableEntityType<?>> _typeToEntity;
+    private final long _latencyBudgetMs;
 
     public AutoCompleteForMultipleResolver(@Nonnull final List<SearchableEntityType<?>> searchableEntities) {
+        this(searchableEntities, AutocompleteUtils.DEFAULT_LATENCY_BUDGET_MS);
+    }
+
+    /**
+     * @param latencyBudgetMs the time after which the suggestions of the entity types still being autocompleted are
+     *                        left out
+     */
+    public AutoCompleteForMultipleResolver(@Nonnull final List<SearchableEntityType<?>> searchableEntities,
+        final long latencyBudgetMs) {
         _searchableEntities = searchableEntities;
+        _latencyBudgetMs = latencyBudgetMs;
         _typeToEntity = searchableEntities.stream().collect(Collectors.toMap(
             SearchableEntityType::type,
             entity -> entity
@@ -52,9 +63,10 @@ public class AutoCompleteForMultipleResolver implements DataFetcher<CompletableF
         List<EntityType> types = input.getTypes();
         if (types != null && types.size() > 0) {
             return AutocompleteUtils.batchGetAutocompleteResults(types.stream().map(type -> _typeToEntity.get(type)).collect(
-                Collectors.toList()), sanitizedQuery, input, environment);
+                Collectors.toList()), sanitizedQuery, input, environment, _latencyBudgetMs);
         }
 
-        return AutocompleteUtils.batchGetAutocompleteResults(_searchableEntities, sanitizedQuery, input, environment);
+        return AutocompleteUtils.batchGetAutocompleteResults(_searchableEntities, sanitizedQuery, input, environment,
+            _latencyBudgetMs);
     }
 }
@@ -7,10 +7,11 @@ import com.linkedin.datahub.graphql.generated.AutoCompleteResults;
 import com.linkedin.datahub.graphql.types.SearchableEntityType;
 import graphql.schema.DataFetchingEnvironment;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,6 +20,16 @@ public class AutocompleteUtils {
   private static final Logger _logger = LoggerFactory.getLogger(AutocompleteUtils.class.getName());
 
   private static final int DEFAULT_LIMIT = 5;
+  // Suggestions of entity types taking longer than the latency budget are left out, so that one slow index does not
+  // hold up the search bar
+  public static final long DEFAULT_LATENCY_BUDGET_MS = 500;
+  // Completes the results of the requests exceeding their latency budget, without blocking a thread meanwhile
+  private static final ScheduledExecutorService TIMEOUT_EXECUTOR =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "autocomplete-timeout");
+        thread.setDaemon(true);
+        return thread;
+      });
 
   private AutocompleteUtils() { }
 
@@ -26,7 +37,8 @@ public class AutocompleteUtils {
       List<SearchableEntityType<?>> entities,
       String sanitizedQuery,
       AutoCompleteMultipleInput input,
-      DataFetchingEnvironment environment
+      DataFetchingEnvironment environment,
+      long latencyBudgetMs
   ) {
     final int limit = input.getLimit() != null ? input.getLimit() : DEFAULT_LIMIT;
 
@@ -55,17 +67,34 @@ public class AutocompleteUtils {
         }
       });
     }).toArray(CompletableFuture[]::new);
-    return CompletableFuture.allOf(autoCompletesFuture)
-        .thenApplyAsync((res) -> {
-          AutoCompleteMultipleResults result = new AutoCompleteMultipleResults(sanitizedQuery, new ArrayList<>());
-          result.setSuggestions(Arrays.stream(autoCompletesFuture)
-              .map(CompletableFuture::join)
-              .filter(
-                  autoCompleteResultForEntity ->
-                      autoCompleteResultForEntity.getSuggestions() != null && autoCompleteResultForEntity.getSuggestions().size() > 0
-              )
-              .collect(Collectors.toList()));
-          return result;
-        });
+    final CompletableFuture<AutoCompleteMultipleResults> results = new CompletableFuture<>();
+    CompletableFuture.allOf(autoCompletesFuture)
+        .thenRun(() -> results.complete(getCompletedResults(autoCompletesFuture, sanitizedQuery)));
+    TIMEOUT_EXECUTOR.schedule(() -> {
+      if (results.complete(getCompletedResults(autoCompletesFuture, sanitizedQuery))) {
+        _logger.warn(String.format("Autocomplete all exceeded its latency budget of %sms, query %s", latencyBudgetMs,
+            input.getQuery()));
+      }
+    }, latencyBudgetMs, TimeUnit.MILLISECONDS);
+    return results;
+  }
+
+  /**
+   * Returns the non empty suggestions of the entity types whose autocomplete has completed.
+   */
+  private static AutoCompleteMultipleResults getCompletedResults(
+      CompletableFuture<AutoCompleteResultForEntity>[] autoCompletesFuture, String sanitizedQuery) {
+    final List<AutoCompleteResultForEntity> suggestions = new ArrayList<>();
+    for (CompletableFuture<AutoCompleteResultForEntity> future : autoCompletesFuture) {
+      if (!future.isDone() || future.isCompletedExceptionally()) {
+        continue;
+      }
+      final AutoCompleteResultForEntity autoCompleteResultForEntity = future.join();
+      if (autoCompleteResultForEntity.getSuggestions() != null
+          && autoCompleteResultForEntity.getSuggestions().size() > 0) {
+        suggestions.add(autoCompleteResultForEntity);
+      }
+    }
+    return new AutoCompleteMultipleResults(sanitizedQuery, suggestions);
   }
 }
@@ -0,0 +1,134 @@
+package com.linkedin.datahub.graphql.instrumentation;
+
+import com.google.common.collect.ImmutableMap;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import java.util.Collections;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class QueryCostInstrumentationTest {
+
+  private static final String SCHEMA = "type Query {\n"
+      + "  dataset(urn: String!): Dataset\n"
+      + "  search(input: SearchInput!): SearchResults\n"
+      + "}\n"
+      + "type Dataset {\n"
+      + "  urn: String!\n"
+      + "  name: String\n"
+      + "  relationships(count: Int): Relationships\n"
+      + "  profiles(limit: Int): [Profile]\n"
+      + "}\n"
+      + "type Relationships {\n"
+      + "  total: Int\n"
+      + "  items: [Relationship]\n"
+      + "}\n"
+      + "type Relationship {\n"
+      + "  type: String\n"
+      + "  entity: Dataset\n"
+      + "}\n"
+      + "type Profile {\n"
+      + "  rowCount: Int\n"
+      + "}\n"
+      + "input SearchInput {\n"
+      + "  query: String!\n"
+      + "  count: Int\n"
+      + "}\n"
+      + "type SearchResults {\n"
+      + "  total: Int\n"
+      + "  entities: [Dataset]\n"
+      + "}\n";
+
+  private static final GraphQLSchema GRAPHQL_SCHEMA = new SchemaGenerator().makeExecutableSchema(
+      new SchemaParser().parse(SCHEMA), RuntimeWiring.newRuntimeWiring().build());
+
+  private static final QueryCostInstrumentation INSTRUMENTATION = new QueryCostInstrumentation(0, 0,
+      ImmutableMap.of("relationships", 10, "search", 5, "profiles", 2), 20);
+
+  @Test
+  public void testUnweightedFields() {
+    QueryCostInstrumentation.QueryCost cost = estimate("{ dataset(urn: \"urn\") { urn name } }");
+
+    // dataset (1) + urn (1) + name (1)
+    assertEquals(cost.getCost(), 3);
+    assertEquals(cost.getDepth(), 2);
+  }
+
+  @Test
+  public void testCountMultipliesSelections() {
+    QueryCostInstrumentation.QueryCost cost =
+        estimate("{ dataset(urn: \"urn\") { relationships(count: 5) { total items { type } } } }");
+
+    // dataset (1) + relationships (10 + 5 * (total (1) + items (1) + type (1)))
+    assertEquals(cost.getCost(), 26);
+    assertEquals(cost.getDepth(), 4);
+  }
+
+  @Test
+  public void testLimitMultipliesSelections() {
+    QueryCostInstrumentation.QueryCost cost = estimate("{ dataset(urn: \"urn\") { profiles(limit: 7) { rowCount } } }");
+
+    // dataset (1) + profiles (2 + 7 * rowCount (1))
+    assertEquals(cost.getCost(), 10);
+  }
+
+  @Test
+  public void testDefaultCount() {
+    QueryCostInstrumentation.QueryCost cost = estimate("{ dataset(urn: \"urn\") { relationships { total } } }");
+
+    // dataset (1) + relationships (10 + 20 * total (1))
+    assertEquals(cost.getCost(), 31);
+  }
+
+  @Test
+  public void testZeroCountCountsAsOne() {
+    QueryCostInstrumentation.QueryCost cost =
+        estimate("{ dataset(urn: \"urn\") { relationships(count: 0) { total } } }");
+
+    // dataset (1) + relationships (10 + 1 * total (1))
+    assertEquals(cost.getCost(), 12);
+  }
+
+  @Test
+  public void testNestedConnections() {
+    QueryCostInstrumentation.QueryCost cost = estimate("{ dataset(urn: \"urn\") { relationships(count: 5) { "
+        + "items { entity { relationships(count: 2) { total } } } } } }");
+
+    // inner relationships: 10 + 2 * 1 = 12, entity: 13, items: 14, outer relationships: 10 + 5 * 14 = 80
+    assertEquals(cost.getCost(), 81);
+    assertEquals(cost.getDepth(), 6);
+  }
+
+  @Test
+  public void testInputCountFromVariables() {
+    QueryCostInstrumentation.QueryCost cost = estimate(
+        "query search($count: Int) { search(input: { query: \"*\", count: $count }) { total entities { urn } } }",
+        "search", ImmutableMap.of("count", 50));
+
+    // search (5 + 50 * (total (1) + entities (1) + urn (1)))
+    assertEquals(cost.getCost(), 155);
+    assertEquals(cost.getDepth(), 3);
+  }
+
+  @Test
+  public void testTypeNameIsFree() {
+    QueryCostInstrumentation.QueryCost cost = estimate("{ dataset(urn: \"urn\") { __typename urn } }");
+
+    assertEquals(cost.getCost(), 2);
+  }
+
+  private static QueryCostInstrumentation.QueryCost estimate(String query) {
+    return estimate(query, null, Collections.emptyMap());
+  }
+
+  private static QueryCostInstrumentation.QueryCost estimate(String query, String operationName,
+      Map<String, Object> variables) {
+    return INSTRUMENTATION.estimate(GRAPHQL_SCHEMA, new Parser().parseDocument(query), operationName, variables);
+  }
+}
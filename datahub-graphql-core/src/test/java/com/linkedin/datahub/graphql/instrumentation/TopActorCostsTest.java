@@ -0,0 +1,35 @@
+package com.linkedin.datahub.graphql.instrumentation;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class TopActorCostsTest {
+
+  @Test
+  public void testAccumulatesPerActor() {
+    TopActorCosts costs = new TopActorCosts(3);
+    costs.add("a", 5);
+    costs.add("b", 10);
+    costs.add("a", 7);
+
+    assertEquals(costs.getTop(), ImmutableMap.of("a", 12L, "b", 10L));
+    assertEquals(new ArrayList<>(costs.getTop().keySet()).get(0), "a");
+  }
+
+  @Test
+  public void testBoundedAndKeepsHeavyHitters() {
+    TopActorCosts costs = new TopActorCosts(10);
+    costs.add("heavy", 1000);
+    for (int i = 0; i < 1000; i++) {
+      costs.add("actor" + i, 1);
+    }
+
+    assertEquals(costs.getTop().size(), 10);
+    assertTrue(costs.getTop().containsKey("heavy"));
+    assertEquals((long) costs.getTop().get("heavy"), 1000L);
+  }
+}
@@ -0,0 +1,105 @@
+package com.linkedin.datahub.graphql.loader;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.generated.DataPlatform;
+import graphql.execution.DataFetcherResult;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class CachingLoadableTypeTest {
+
+  private static final DataLoaderSettings SETTINGS = DataLoaderSettings.builder().sharedCacheTtlSeconds(60).build();
+
+  private final AtomicLong _nanos = new AtomicLong();
+  private TestPlatformType _delegate;
+  private SharedLoadableTypeCache _sharedCache;
+  private CachingLoadableType<DataPlatform> _type;
+
+  @BeforeMethod
+  public void setup() {
+    _nanos.set(0);
+    _delegate = new TestPlatformType();
+    _sharedCache = new SharedLoadableTypeCache(new Ticker() {
+      @Override
+      public long read() {
+        return _nanos.get();
+      }
+    });
+    _type = new CachingLoadableType<>(_delegate, _sharedCache.getOrCreate(_delegate.name(), SETTINGS));
+  }
+
+  @Test
+  public void testOnlyLoadsMissingUrns() throws Exception {
+    assertEquals(load("a", "b"), ImmutableList.of("a", "b"));
+    assertEquals(load("b", "c", "a"), ImmutableList.of("b", "c", "a"));
+
+    assertEquals(_delegate.batches, ImmutableList.of(ImmutableList.of("a", "b"), ImmutableList.of("c")));
+  }
+
+  @Test
+  public void testDoesNotCacheMissingEntities() throws Exception {
+    final List<DataFetcherResult<DataPlatform>> results =
+        _type.batchLoad(ImmutableList.of(TestPlatformType.MISSING_URN), mock(QueryContext.class));
+    assertNull(results.get(0));
+    _type.batchLoad(ImmutableList.of(TestPlatformType.MISSING_URN), mock(QueryContext.class));
+
+    assertEquals(_delegate.batches.size(), 2);
+  }
+
+  @Test
+  public void testReloadsExpiredEntities() throws Exception {
+    load("a");
+    _nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+    load("a");
+    assertEquals(_delegate.batches.size(), 1);
+
+    _nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    load("a");
+    assertEquals(_delegate.batches.size(), 2);
+  }
+
+  @Test
+  public void testReloadsInvalidatedEntities() throws Exception {
+    load("a", "b");
+    // As evicted on a write of the entity
+    _sharedCache.invalidate("a");
+    load("a", "b");
+    assertEquals(_delegate.batches.get(1), ImmutableList.of("a"));
+
+    _sharedCache.invalidateAll();
+    load("a", "b");
+    assertEquals(_delegate.batches.get(2), ImmutableList.of("a", "b"));
+  }
+
+  @Test
+  public void testRequestsDoNotShareEntities() throws Exception {
+    final DataPlatform loaded = _type.batchLoad(ImmutableList.of("a"), mock(QueryContext.class)).get(0).getData();
+    loaded.getProperties().setDisplayName("changed");
+
+    final DataPlatform cached = _type.batchLoad(ImmutableList.of("a"), mock(QueryContext.class)).get(0).getData();
+    assertEquals(cached.getProperties().getDisplayName(), "a");
+    cached.getProperties().setDisplayName("changed");
+
+    final DataPlatform cachedAgain = _type.batchLoad(ImmutableList.of("a"), mock(QueryContext.class)).get(0).getData();
+    assertNotSame(cachedAgain, cached);
+    assertEquals(cachedAgain.getProperties().getDisplayName(), "a");
+    assertEquals(_delegate.batches.size(), 1);
+  }
+
+  private List<String> load(String... urns) throws Exception {
+    return _type.batchLoad(ImmutableList.copyOf(urns), mock(QueryContext.class))
+        .stream()
+        .map(result -> result.getData().getName())
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,80 @@
+package com.linkedin.datahub.graphql.loader;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.generated.DataPlatform;
+import graphql.execution.DataFetcherResult;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class LoadableTypeDataLoadersTest {
+
+  private TestPlatformType _type;
+  private SharedLoadableTypeCache _sharedCache;
+
+  @BeforeMethod
+  public void setup() {
+    _type = new TestPlatformType();
+    _sharedCache = new SharedLoadableTypeCache();
+  }
+
+  @Test
+  public void testBatchesKeysOfRequest() {
+    final DataLoader<String, DataFetcherResult<DataPlatform>> loader = create(DataLoaderSettings.DEFAULT);
+
+    assertEquals(load(loader, "a", "b", "c", "a"), ImmutableList.of("a", "b", "c", "a"));
+    assertEquals(_type.batches, ImmutableList.of(ImmutableList.of("a", "b", "c")));
+  }
+
+  @Test
+  public void testSplitsBatchesLargerThanMaxBatchSize() {
+    final DataLoader<String, DataFetcherResult<DataPlatform>> loader =
+        create(DataLoaderSettings.builder().maxBatchSize(2).build());
+
+    assertEquals(load(loader, "a", "b", "c"), ImmutableList.of("a", "b", "c"));
+    assertEquals(_type.batches.size(), 2);
+    assertEquals(_type.batches.stream().mapToInt(List::size).sum(), 3);
+  }
+
+  @Test
+  public void testLoadsEveryKeyOnItsOwnWithoutBatching() {
+    final DataLoader<String, DataFetcherResult<DataPlatform>> loader =
+        create(DataLoaderSettings.builder().batchingEnabled(false).build());
+
+    assertEquals(load(loader, "a", "b"), ImmutableList.of("a", "b"));
+    assertEquals(_type.batches.size(), 2);
+  }
+
+  @Test
+  public void testSharesCacheAcrossRequests() {
+    final DataLoaderSettings settings = DataLoaderSettings.builder().sharedCacheTtlSeconds(60).build();
+
+    assertEquals(load(create(settings), "a", "b"), ImmutableList.of("a", "b"));
+    // The data loader of another request only loads the urns missing from the shared cache
+    assertEquals(load(create(settings), "a", "c"), ImmutableList.of("a", "c"));
+
+    assertEquals(_type.batches, ImmutableList.of(ImmutableList.of("a", "b"), ImmutableList.of("c")));
+  }
+
+  private DataLoader<String, DataFetcherResult<DataPlatform>> create(DataLoaderSettings settings) {
+    return LoadableTypeDataLoaders.create(_type, mock(QueryContext.class), settings, _sharedCache);
+  }
+
+  // Loads the keys and returns the names of the loaded platforms
+  private static List<String> load(DataLoader<String, DataFetcherResult<DataPlatform>> loader, String... keys) {
+    final List<CompletableFuture<DataFetcherResult<DataPlatform>>> futures = ImmutableList.copyOf(keys)
+        .stream()
+        .map(loader::load)
+        .collect(Collectors.toList());
+    loader.dispatchAndJoin();
+    return futures.stream().map(future -> future.join().getData().getName()).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,47 @@
+package com.linkedin.datahub.graphql.loader;
+
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.generated.DataPlatform;
+import com.linkedin.datahub.graphql.generated.DataPlatformProperties;
+import com.linkedin.datahub.graphql.types.LoadableType;
+import graphql.execution.DataFetcherResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Loads a platform named after its urn for every urn but "missing", recording the batches it loads.
+ */
+class TestPlatformType implements LoadableType<DataPlatform> {
+
+  static final String MISSING_URN = "missing";
+
+  final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  public Class<DataPlatform> objectClass() {
+    return DataPlatform.class;
+  }
+
+  @Override
+  public List<DataFetcherResult<DataPlatform>> batchLoad(@Nonnull List<String> urns, @Nonnull QueryContext context) {
+    batches.add(new ArrayList<>(urns));
+    return urns.stream()
+        .map(urn -> MISSING_URN.equals(urn) ? null
+            : DataFetcherResult.<DataPlatform>newResult().data(platform(urn)).build())
+        .collect(Collectors.toList());
+  }
+
+  static DataPlatform platform(String urn) {
+    final DataPlatform platform = new DataPlatform();
+    platform.setUrn(urn);
+    platform.setName(urn);
+    final DataPlatformProperties properties = new DataPlatformProperties();
+    properties.setDisplayName(urn);
+    platform.setProperties(properties);
+    return platform;
+  }
+}
@@ -0,0 +1,125 @@
+package com.linkedin.datahub.graphql.preparsed;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.graphql.GraphQLEngine;
+import com.linkedin.datahub.graphql.QueryContext;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.parser.Parser;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class PersistedQueryTest {
+
+  private static final String SCHEMA = "type Query {\n  hello: String\n  world: String\n}\n";
+  private static final String QUERY = "{ hello }";
+
+  private GraphQLEngine _engine;
+
+  @BeforeMethod
+  public void setup() {
+    _engine = GraphQLEngine.builder()
+        .addSchema(SCHEMA)
+        .configureRuntimeWiring(builder -> builder.type("Query", typeWiring -> typeWiring
+            .dataFetcher("hello", environment -> "hi")
+            .dataFetcher("world", environment -> "earth")))
+        .setPreparsedDocumentProvider(new CachingPersistedQuerySupport(new LruPersistedQueryCache(10)))
+        .build();
+  }
+
+  @Test
+  public void testRegistersHashOfQuery() {
+    ExecutionResult result = execute(QUERY, CachingPersistedQuerySupport.sha256(QUERY));
+    assertTrue(result.getErrors().isEmpty());
+
+    // Later requests only send the hash
+    result = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, CachingPersistedQuerySupport.sha256(QUERY));
+    assertTrue(result.getErrors().isEmpty());
+    assertEquals(result.<Map<String, Object>>getData(), ImmutableMap.of("hello", "hi"));
+  }
+
+  @Test
+  public void testUnknownHashIsNotFound() {
+    final ExecutionResult result =
+        execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, CachingPersistedQuerySupport.sha256(QUERY));
+
+    assertEquals(result.getErrors().size(), 1);
+    // Apollo clients retry with the query text on this message
+    assertEquals(result.getErrors().get(0).getMessage(), "PersistedQueryNotFound");
+  }
+
+  @Test
+  public void testRejectsHashOfAnotherQuery() {
+    final String otherHash = CachingPersistedQuerySupport.sha256("{ world }");
+    ExecutionResult result = execute(QUERY, otherHash);
+    assertEquals(result.getErrors().size(), 1);
+    assertEquals(result.getErrors().get(0).getMessage(), "Provided sha256Hash does not match the query");
+
+    // The query was not registered under the hash
+    result = execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, otherHash);
+    assertEquals(result.getErrors().get(0).getMessage(), "PersistedQueryNotFound");
+  }
+
+  @Test
+  public void testQueriesWithoutHashAreCached() {
+    _engine.execute(QUERY, null, mock(QueryContext.class));
+
+    final ExecutionResult result =
+        execute(PersistedQuerySupport.PERSISTED_QUERY_MARKER, CachingPersistedQuerySupport.sha256(QUERY));
+    assertTrue(result.getErrors().isEmpty());
+  }
+
+  @Test
+  public void testReusesParsedDocuments() throws Exception {
+    final LruPersistedQueryCache cache = new LruPersistedQueryCache(10);
+    final AtomicInteger parses = new AtomicInteger();
+
+    final PreparsedDocumentEntry entry = getDocument(cache, QUERY, parses);
+
+    assertSame(getDocument(cache, QUERY, parses), entry);
+    assertEquals(parses.get(), 1);
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsedDocuments() throws Exception {
+    final LruPersistedQueryCache cache = new LruPersistedQueryCache(2);
+    final AtomicInteger parses = new AtomicInteger();
+    getDocument(cache, "{ a }", parses);
+    getDocument(cache, "{ b }", parses);
+    // Uses a, so that b is the least recently used document
+    getDocument(cache, "{ a }", parses);
+    getDocument(cache, "{ c }", parses);
+    assertEquals(parses.get(), 3);
+
+    getDocument(cache, "{ a }", parses);
+    getDocument(cache, "{ c }", parses);
+    assertEquals(parses.get(), 3);
+    getDocument(cache, "{ b }", parses);
+    assertEquals(parses.get(), 4);
+  }
+
+  private ExecutionResult execute(String query, String hash) {
+    return _engine.execute(query, null, null,
+        ImmutableMap.of("persistedQuery", ImmutableMap.of("version", 1, "sha256Hash", hash)),
+        mock(QueryContext.class));
+  }
+
+  private static PreparsedDocumentEntry getDocument(LruPersistedQueryCache cache, String query, AtomicInteger parses)
+      throws Exception {
+    final PersistedQueryCacheMiss onCacheMiss = queryText -> {
+      parses.incrementAndGet();
+      return new PreparsedDocumentEntry(new Parser().parseDocument(queryText));
+    };
+    return cache.getPersistedQueryDocument(CachingPersistedQuerySupport.sha256(query),
+        ExecutionInput.newExecutionInput().query(query).build(), onCacheMiss);
+  }
+}
@@ -0,0 +1,55 @@
+package com.linkedin.datahub.graphql.resolvers.mutate;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.schema.EditableSchemaFieldInfo;
+import com.linkedin.schema.EditableSchemaFieldInfoArray;
+import com.linkedin.schema.EditableSchemaMetadata;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationTestUtils.*;
+import static org.testng.Assert.*;
+
+
+public class DescriptionUtilsTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+  private static final String ACTOR_URN = "urn:li:corpuser:test";
+
+  private EntityService _entityService;
+
+  @BeforeMethod
+  public void setup() {
+    _entityService = mockEntityService();
+  }
+
+  @Test
+  public void testUpdateFieldDescriptionOnlyChangesField() throws Exception {
+    DescriptionUtils.updateFieldDescription("new", Urn.createFromString(DATASET_URN), "a",
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final EditableSchemaMetadata schema = new EditableSchemaMetadata().setEditableSchemaFieldInfo(
+        new EditableSchemaFieldInfoArray(new EditableSchemaFieldInfo().setFieldPath("a").setDescription("old"),
+            new EditableSchemaFieldInfo().setFieldPath("b").setDescription("other")));
+    final EditableSchemaMetadata result = applyProposedPatch(_entityService, DescriptionUtils.EDITABLE_SCHEMA_METADATA,
+        schema, EditableSchemaMetadata.class);
+
+    assertEquals(result.getEditableSchemaFieldInfo().size(), 2);
+    assertEquals(result.getEditableSchemaFieldInfo().get(0).getDescription(), "new");
+    assertEquals(result.getEditableSchemaFieldInfo().get(1).getDescription(), "other");
+  }
+
+  @Test
+  public void testUpdateFieldDescriptionCreatesMissingField() throws Exception {
+    DescriptionUtils.updateFieldDescription("new", Urn.createFromString(DATASET_URN), "a",
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final EditableSchemaMetadata result = applyProposedPatch(_entityService, DescriptionUtils.EDITABLE_SCHEMA_METADATA,
+        null, EditableSchemaMetadata.class);
+
+    assertEquals(result.getEditableSchemaFieldInfo().size(), 1);
+    assertEquals(result.getEditableSchemaFieldInfo().get(0).getFieldPath(), "a");
+    assertEquals(result.getEditableSchemaFieldInfo().get(0).getDescription(), "new");
+  }
+}
@@ -0,0 +1,74 @@
+package com.linkedin.datahub.graphql.resolvers.mutate;
+
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.entity.AspectPatchUtils;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.key.DatasetKey;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.utils.GenericAspectUtils;
+import com.linkedin.mxe.AspectPatch;
+import com.linkedin.mxe.MetadataChangeProposal;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+/**
+ * Helpers for tests of mutations, which write through a mocked {@link EntityService}.
+ */
+public class MutationTestUtils {
+
+  private MutationTestUtils() { }
+
+  /**
+   * Returns an entity service mock on which dataset aspects can be proposed.
+   */
+  @Nonnull
+  public static EntityService mockEntityService() {
+    final EntityService entityService = mock(EntityService.class);
+    final AspectSpec keyAspectSpec = mock(AspectSpec.class);
+    when(keyAspectSpec.getPegasusSchema()).thenReturn(new DatasetKey().schema());
+    when(entityService.getKeyAspectSpec(anyString())).thenReturn(keyAspectSpec);
+    when(entityService.generateDefaultAspectsIfMissing(any(), any())).thenReturn(Collections.emptyList());
+    return entityService;
+  }
+
+  /**
+   * Returns the patches proposed to the entity service, in order.
+   */
+  @Nonnull
+  public static List<MetadataChangeProposal> getProposedPatches(@Nonnull EntityService entityService) {
+    final ArgumentCaptor<MetadataChangeProposal> captor = ArgumentCaptor.forClass(MetadataChangeProposal.class);
+    verify(entityService, atLeast(0)).ingestProposal(captor.capture(), any());
+    return captor.getAllValues()
+        .stream()
+        .filter(proposal -> proposal.getChangeType() == ChangeType.PATCH)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Applies the single patch proposed to the entity service to the given value of its aspect, as the entity service
+   * would, and returns the patched value.
+   */
+  @Nonnull
+  public static <T extends RecordTemplate> T applyProposedPatch(@Nonnull EntityService entityService,
+      @Nonnull String aspectName, @Nullable T value, @Nonnull Class<T> type) {
+    final List<MetadataChangeProposal> patches = getProposedPatches(entityService);
+    assertEquals(patches.size(), 1);
+    final MetadataChangeProposal proposal = patches.get(0);
+    assertEquals(proposal.getAspectName(), aspectName);
+    // The aspect is patched in a single write, without being read first
+    verify(entityService, never()).getAspect(any(), any(), anyLong());
+    final AspectPatch patch = GenericAspectUtils.deserializeAspect(proposal.getAspect().getValue(),
+        proposal.getAspect().getContentType(), AspectPatch.class);
+    return AspectPatchUtils.applyPatch(value, patch, type);
+  }
+}
@@ -0,0 +1,156 @@
+package com.linkedin.datahub.graphql.resolvers.mutate.util;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.datahub.graphql.generated.BatchMutationResult;
+import com.linkedin.datahub.graphql.generated.ResourceRefInput;
+import com.linkedin.datahub.graphql.generated.SubResourceType;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.schema.SchemaField;
+import com.linkedin.schema.SchemaFieldArray;
+import com.linkedin.schema.SchemaMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationTestUtils.*;
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class BatchPatchUtilsTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+  private static final String OTHER_DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,other,PROD)";
+  private static final String ACTOR_URN = "urn:li:corpuser:test";
+  private static final String TAG_URN = "urn:li:tag:pii";
+
+  private EntityService _entityService;
+
+  @BeforeMethod
+  public void setup() {
+    _entityService = mockEntityService();
+    when(_entityService.exists(any())).thenReturn(true);
+    when(_entityService.getAspect(any(), eq(SCHEMA_ASPECT_NAME), anyLong())).thenReturn(
+        new SchemaMetadata().setFields(new SchemaFieldArray(new SchemaField().setFieldPath("a"),
+            new SchemaField().setFieldPath("b"))));
+  }
+
+  @Test
+  public void testGroupsPatchesPerEntityAndAspect() throws Exception {
+    final List<ResourceRefInput> resources = ImmutableList.of(resource(DATASET_URN, null),
+        resource(DATASET_URN, "a"), resource(DATASET_URN, "b"), resource(OTHER_DATASET_URN, null));
+
+    final List<BatchMutationResult> results = addTags(resources);
+
+    // The tags of the dataset, the editable schema of the dataset, and the tags of the other dataset
+    final List<MetadataChangeProposal> patches = getProposedPatches(_entityService);
+    assertEquals(patches.stream().map(patch -> patch.getEntityUrn() + " " + patch.getAspectName())
+        .collect(Collectors.toList()), ImmutableList.of(
+            DATASET_URN + " " + LabelUtils.TAGS_ASPECT_NAME,
+            DATASET_URN + " " + LabelUtils.EDITABLE_SCHEMA_METADATA,
+            OTHER_DATASET_URN + " " + LabelUtils.TAGS_ASPECT_NAME));
+    assertEquals(results.size(), 4);
+    assertTrue(results.stream().allMatch(result -> result.getSuccess()));
+    // Each entity and its schema are read once
+    verify(_entityService, times(1)).exists(Urn.createFromString(DATASET_URN));
+    verify(_entityService, times(1)).getAspect(Urn.createFromString(DATASET_URN), SCHEMA_ASPECT_NAME, 0);
+  }
+
+  @Test
+  public void testFailedPatchOnlyFailsItsResources() throws Exception {
+    final Urn datasetUrn = Urn.createFromString(DATASET_URN);
+    doThrow(new RuntimeException("write failed")).when(_entityService)
+        .ingestProposal(argThat(proposal -> proposal.getChangeType() == ChangeType.PATCH
+            && proposal.getEntityUrn().equals(datasetUrn)
+            && proposal.getAspectName().equals(LabelUtils.EDITABLE_SCHEMA_METADATA)), any());
+    final List<ResourceRefInput> resources = ImmutableList.of(resource(DATASET_URN, "a"), resource(DATASET_URN, null),
+        resource(DATASET_URN, "b"));
+
+    final List<BatchMutationResult> results = addTags(resources);
+
+    assertEquals(results.size(), 3);
+    for (BatchMutationResult result : results) {
+      final boolean isField = result.getSubResource() != null;
+      assertEquals((boolean) result.getSuccess(), !isField);
+      if (isField) {
+        assertTrue(result.getError().contains("write failed"));
+      } else {
+        assertNull(result.getError());
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidResourcesFailWithoutBeingPatched() throws Exception {
+    when(_entityService.exists(Urn.createFromString(OTHER_DATASET_URN))).thenReturn(false);
+    final ResourceRefInput missingField = resource(DATASET_URN, "c");
+    final ResourceRefInput missingEntity = resource(OTHER_DATASET_URN, null);
+    final ResourceRefInput missingType = resource(DATASET_URN, "a");
+    missingType.setSubResourceType(null);
+    final List<ResourceRefInput> resources = ImmutableList.of(missingField, missingEntity, missingType,
+        resource(DATASET_URN, "a"));
+
+    final List<BatchMutationResult> results = addTags(resources);
+
+    assertEquals(results.size(), 4);
+    assertEquals(results.stream().filter(result -> !result.getSuccess()).count(), 3);
+    assertEquals(getProposedPatches(_entityService).size(), 1);
+
+    final BatchPatchUtils.BatchPatch batch = new BatchPatchUtils.BatchPatch();
+    assertTrue(BatchPatchUtils.validateResources(ImmutableList.of(resource(DATASET_URN, "a")), false, batch,
+        _entityService).isEmpty());
+  }
+
+  @Test
+  public void testChecksAuthorizationOncePerEntityAndSubResources() throws Exception {
+    final List<ResourceRefInput> resources = ImmutableList.of(resource(DATASET_URN, null), resource(DATASET_URN, "a"),
+        resource(DATASET_URN, null), resource(DATASET_URN, "b"), resource(OTHER_DATASET_URN, "a"));
+    final List<String> checks = new ArrayList<>();
+
+    assertTrue(BatchPatchUtils.isAuthorizedToUpdateResources(resources, (urn, subResource) -> {
+      checks.add(urn + " " + (subResource != null));
+      return true;
+    }));
+
+    // Whether the actor can update the sub resources of an entity does not depend on which of them is targeted
+    assertEquals(checks, ImmutableList.of(DATASET_URN + " false", DATASET_URN + " true", OTHER_DATASET_URN + " true"));
+  }
+
+  @Test
+  public void testUnauthorizedOnAnyResource() throws Exception {
+    final List<ResourceRefInput> resources = ImmutableList.of(resource(DATASET_URN, null),
+        resource(OTHER_DATASET_URN, null));
+
+    assertFalse(BatchPatchUtils.isAuthorizedToUpdateResources(resources,
+        (urn, subResource) -> !urn.toString().equals(OTHER_DATASET_URN)));
+  }
+
+  private List<BatchMutationResult> addTags(List<ResourceRefInput> resources) throws Exception {
+    final BatchPatchUtils.BatchPatch batch = new BatchPatchUtils.BatchPatch();
+    for (ResourceRefInput resource : BatchPatchUtils.validateResources(resources, true, batch, _entityService)) {
+      LabelUtils.addTagsToPatch(
+          batch.getPatch(Urn.createFromString(resource.getResourceUrn()),
+              LabelUtils.getTagsAspectName(resource.getSubResource()), resource),
+          ImmutableList.of(Urn.createFromString(TAG_URN)),
+          resource.getSubResource());
+    }
+    return BatchPatchUtils.applyBatchPatch(batch, Urn.createFromString(ACTOR_URN), _entityService);
+  }
+
+  private static ResourceRefInput resource(String urn, String subResource) {
+    final ResourceRefInput resource = new ResourceRefInput();
+    resource.setResourceUrn(urn);
+    if (subResource != null) {
+      resource.setSubResource(subResource);
+      resource.setSubResourceType(SubResourceType.DATASET_FIELD);
+    }
+    return resource;
+  }
+}
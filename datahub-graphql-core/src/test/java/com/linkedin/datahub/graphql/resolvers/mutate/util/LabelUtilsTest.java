@@ -0,0 +1,132 @@
+package com.linkedin.datahub.graphql.resolvers.mutate.util;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.common.GlobalTags;
+import com.linkedin.common.GlossaryTermAssociation;
+import com.linkedin.common.GlossaryTermAssociationArray;
+import com.linkedin.common.GlossaryTerms;
+import com.linkedin.common.TagAssociation;
+import com.linkedin.common.TagAssociationArray;
+import com.linkedin.common.urn.GlossaryTermUrn;
+import com.linkedin.common.urn.TagUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.schema.EditableSchemaFieldInfo;
+import com.linkedin.schema.EditableSchemaFieldInfoArray;
+import com.linkedin.schema.EditableSchemaMetadata;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationTestUtils.*;
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class LabelUtilsTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+  private static final String ACTOR_URN = "urn:li:corpuser:test";
+  private static final String TAG_URN = "urn:li:tag:pii";
+  private static final String OTHER_TAG_URN = "urn:li:tag:gold";
+  private static final String TERM_URN = "urn:li:glossaryTerm:term";
+
+  private EntityService _entityService;
+
+  @BeforeMethod
+  public void setup() {
+    _entityService = mockEntityService();
+  }
+
+  @Test
+  public void testAddTagSkipsExistingTag() throws Exception {
+    LabelUtils.addTagToTarget(Urn.createFromString(TAG_URN), Urn.createFromString(DATASET_URN), null,
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final GlobalTags tags = new GlobalTags().setTags(new TagAssociationArray(tag(TAG_URN), tag(OTHER_TAG_URN)));
+    final GlobalTags result = applyProposedPatch(_entityService, LabelUtils.TAGS_ASPECT_NAME, tags, GlobalTags.class);
+
+    assertEquals(getTagUrns(result), ImmutableList.of(TAG_URN, OTHER_TAG_URN));
+  }
+
+  @Test
+  public void testRemoveTag() throws Exception {
+    LabelUtils.removeTagFromTarget(Urn.createFromString(TAG_URN), Urn.createFromString(DATASET_URN), "",
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final GlobalTags tags = new GlobalTags().setTags(new TagAssociationArray(tag(TAG_URN), tag(OTHER_TAG_URN)));
+    final GlobalTags result = applyProposedPatch(_entityService, LabelUtils.TAGS_ASPECT_NAME, tags, GlobalTags.class);
+
+    assertEquals(getTagUrns(result), ImmutableList.of(OTHER_TAG_URN));
+  }
+
+  @Test
+  public void testAddTagToField() throws Exception {
+    LabelUtils.addTagToTarget(Urn.createFromString(TAG_URN), Urn.createFromString(DATASET_URN), "a/b",
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final EditableSchemaMetadata result = applyProposedPatch(_entityService, LabelUtils.EDITABLE_SCHEMA_METADATA,
+        null, EditableSchemaMetadata.class);
+
+    assertEquals(result.getEditableSchemaFieldInfo().size(), 1);
+    final EditableSchemaFieldInfo fieldInfo = result.getEditableSchemaFieldInfo().get(0);
+    assertEquals(fieldInfo.getFieldPath(), "a/b");
+    assertEquals(getTagUrns(fieldInfo.getGlobalTags()), ImmutableList.of(TAG_URN));
+  }
+
+  @Test
+  public void testAddTermSetsAuditStamp() throws Exception {
+    LabelUtils.addTermToTarget(Urn.createFromString(TERM_URN), Urn.createFromString(DATASET_URN), null,
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final GlossaryTerms terms = new GlossaryTerms()
+        .setTerms(new GlossaryTermAssociationArray(
+            new GlossaryTermAssociation().setUrn(GlossaryTermUrn.createFromString(TERM_URN))))
+        .setAuditStamp(getAuditStamp(Urn.createFromString("urn:li:corpuser:other")));
+    final GlossaryTerms result = applyProposedPatch(_entityService, LabelUtils.GLOSSARY_TERM_ASPECT_NAME, terms,
+        GlossaryTerms.class);
+
+    assertEquals(result.getTerms().size(), 1);
+    assertEquals(result.getAuditStamp().getActor().toString(), ACTOR_URN);
+  }
+
+  @Test
+  public void testRemoveTermFromField() throws Exception {
+    LabelUtils.removeTermFromTarget(Urn.createFromString(TERM_URN), Urn.createFromString(DATASET_URN), "a",
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final GlossaryTerms terms = new GlossaryTerms()
+        .setTerms(new GlossaryTermAssociationArray(
+            new GlossaryTermAssociation().setUrn(GlossaryTermUrn.createFromString(TERM_URN))))
+        .setAuditStamp(getAuditStamp(Urn.createFromString(ACTOR_URN)));
+    final EditableSchemaMetadata schema = new EditableSchemaMetadata().setEditableSchemaFieldInfo(
+        new EditableSchemaFieldInfoArray(new EditableSchemaFieldInfo().setFieldPath("a").setGlossaryTerms(terms),
+            new EditableSchemaFieldInfo().setFieldPath("b").setGlossaryTerms(terms)));
+    final EditableSchemaMetadata result = applyProposedPatch(_entityService, LabelUtils.EDITABLE_SCHEMA_METADATA,
+        schema, EditableSchemaMetadata.class);
+
+    assertEquals(result.getEditableSchemaFieldInfo().get(0).getGlossaryTerms().getTerms().size(), 0);
+    assertEquals(result.getEditableSchemaFieldInfo().get(1).getGlossaryTerms().getTerms().size(), 1);
+  }
+
+  @Test
+  public void testValidateLabelsRejectsMissingLabel() throws Exception {
+    when(_entityService.exists(Urn.createFromString(TAG_URN))).thenReturn(true);
+    final List<Urn> labels = ImmutableList.of(Urn.createFromString(TAG_URN), Urn.createFromString(OTHER_TAG_URN));
+
+    assertThrows(IllegalArgumentException.class, () -> LabelUtils.validateLabels(labels, "tag", _entityService));
+    assertThrows(IllegalArgumentException.class,
+        () -> LabelUtils.validateLabels(ImmutableList.of(Urn.createFromString(TERM_URN)), "tag", _entityService));
+    assertTrue(LabelUtils.validateLabels(labels.subList(0, 1), "tag", _entityService));
+  }
+
+  private static TagAssociation tag(String urn) throws Exception {
+    return new TagAssociation().setTag(TagUrn.createFromString(urn));
+  }
+
+  private static List<String> getTagUrns(GlobalTags tags) {
+    return tags.getTags().stream().map(tag -> tag.getTag().toString()).collect(Collectors.toList());
+  }
+}
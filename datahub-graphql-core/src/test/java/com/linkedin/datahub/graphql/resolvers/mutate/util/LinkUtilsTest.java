@@ -0,0 +1,76 @@
+package com.linkedin.datahub.graphql.resolvers.mutate.util;
+
+import com.linkedin.common.InstitutionalMemory;
+import com.linkedin.common.InstitutionalMemoryMetadata;
+import com.linkedin.common.InstitutionalMemoryMetadataArray;
+import com.linkedin.common.url.Url;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.EntityService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationTestUtils.*;
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationUtils.*;
+import static org.testng.Assert.*;
+
+
+public class LinkUtilsTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+  private static final String ACTOR_URN = "urn:li:corpuser:test";
+
+  private EntityService _entityService;
+
+  @BeforeMethod
+  public void setup() {
+    _entityService = mockEntityService();
+  }
+
+  @Test
+  public void testAddLinkSkipsExistingUrl() throws Exception {
+    LinkUtils.addLink("https://example.com/a", "new label", Urn.createFromString(DATASET_URN),
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final InstitutionalMemory withLink = new InstitutionalMemory().setElements(
+        new InstitutionalMemoryMetadataArray(link("https://example.com/a", "label")));
+    final InstitutionalMemory result = applyProposedPatch(_entityService, Constants.INSTITUTIONAL_MEMORY_ASPECT_NAME,
+        withLink, InstitutionalMemory.class);
+
+    assertEquals(result.getElements().size(), 1);
+    assertEquals(result.getElements().get(0).getDescription(), "label");
+  }
+
+  @Test
+  public void testAddLinkToMissingAspect() throws Exception {
+    LinkUtils.addLink("https://example.com/a", "label", Urn.createFromString(DATASET_URN),
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final InstitutionalMemory result = applyProposedPatch(_entityService, Constants.INSTITUTIONAL_MEMORY_ASPECT_NAME,
+        null, InstitutionalMemory.class);
+
+    assertEquals(result.getElements().size(), 1);
+    assertEquals(result.getElements().get(0).getUrl().toString(), "https://example.com/a");
+    assertEquals(result.getElements().get(0).getCreateStamp().getActor().toString(), ACTOR_URN);
+  }
+
+  @Test
+  public void testRemoveLinkByUrl() throws Exception {
+    LinkUtils.removeLink("https://example.com/a", Urn.createFromString(DATASET_URN), Urn.createFromString(ACTOR_URN),
+        _entityService);
+
+    final InstitutionalMemory links = new InstitutionalMemory().setElements(new InstitutionalMemoryMetadataArray(
+        link("https://example.com/a", "label"), link("https://example.com/b", "label")));
+    final InstitutionalMemory result = applyProposedPatch(_entityService, Constants.INSTITUTIONAL_MEMORY_ASPECT_NAME,
+        links, InstitutionalMemory.class);
+
+    assertEquals(result.getElements().size(), 1);
+    assertEquals(result.getElements().get(0).getUrl().toString(), "https://example.com/b");
+  }
+
+  private static InstitutionalMemoryMetadata link(String url, String label) throws Exception {
+    return new InstitutionalMemoryMetadata().setUrl(new Url(url))
+        .setDescription(label)
+        .setCreateStamp(getAuditStamp(Urn.createFromString(ACTOR_URN)));
+  }
+}
@@ -0,0 +1,74 @@
+package com.linkedin.datahub.graphql.resolvers.mutate.util;
+
+import com.linkedin.common.Owner;
+import com.linkedin.common.OwnerArray;
+import com.linkedin.common.Ownership;
+import com.linkedin.common.OwnershipType;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.EntityService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.datahub.graphql.resolvers.mutate.MutationTestUtils.*;
+import static org.testng.Assert.*;
+
+
+public class OwnerUtilsTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+  private static final String ACTOR_URN = "urn:li:corpuser:test";
+  private static final String OWNER_URN = "urn:li:corpuser:owner";
+  private static final String OTHER_OWNER_URN = "urn:li:corpGroup:other";
+
+  private EntityService _entityService;
+
+  @BeforeMethod
+  public void setup() {
+    _entityService = mockEntityService();
+  }
+
+  @Test
+  public void testAddOwnerSkipsExistingOwner() throws Exception {
+    OwnerUtils.addOwner(Urn.createFromString(OWNER_URN), Urn.createFromString(DATASET_URN),
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    // The existing owner keeps its type
+    final Ownership ownership = new Ownership().setOwners(new OwnerArray(
+        new Owner().setOwner(Urn.createFromString(OWNER_URN)).setType(OwnershipType.PRODUCER)));
+    final Ownership result = applyProposedPatch(_entityService, Constants.OWNERSHIP_ASPECT_NAME, ownership,
+        Ownership.class);
+
+    assertEquals(result.getOwners().size(), 1);
+    assertEquals(result.getOwners().get(0).getType(), OwnershipType.PRODUCER);
+  }
+
+  @Test
+  public void testAddOwnerToMissingAspect() throws Exception {
+    OwnerUtils.addOwner(Urn.createFromString(OWNER_URN), Urn.createFromString(DATASET_URN),
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final Ownership result = applyProposedPatch(_entityService, Constants.OWNERSHIP_ASPECT_NAME, null,
+        Ownership.class);
+
+    assertEquals(result.getOwners().size(), 1);
+    assertEquals(result.getOwners().get(0).getOwner().toString(), OWNER_URN);
+    assertEquals(result.getOwners().get(0).getType(), OwnershipType.DATAOWNER);
+  }
+
+  @Test
+  public void testRemoveOwnerByUrn() throws Exception {
+    OwnerUtils.removeOwner(Urn.createFromString(OWNER_URN), Urn.createFromString(DATASET_URN),
+        Urn.createFromString(ACTOR_URN), _entityService);
+
+    final Ownership ownership = new Ownership().setOwners(new OwnerArray(
+        new Owner().setOwner(Urn.createFromString(OWNER_URN)).setType(OwnershipType.DATAOWNER),
+        new Owner().setOwner(Urn.createFromString(OTHER_OWNER_URN)).setType(OwnershipType.DATAOWNER)));
+    final Ownership result = applyProposedPatch(_entityService, Constants.OWNERSHIP_ASPECT_NAME, ownership,
+        Ownership.class);
+
+    assertEquals(result.getOwners().size(), 1);
+    assertEquals(result.getOwners().get(0).getOwner().toString(), OTHER_OWNER_URN);
+    assertEquals(result.getLastModified().getActor().toString(), ACTOR_URN);
+  }
+}
@@ -0,0 +1,121 @@
+package com.linkedin.datahub.upgrade;
+
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+
+/**
+ * An {@link UpgradeStep} whose work is split into partitions, which are executed concurrently on a bounded pool of
+ * threads. The step succeeds if every partition succeeds.
+ *
+ * @param <P> the description of a partition, e.g. the range of keys it processes.
+ */
+public abstract class PartitionedUpgradeStep<P> implements UpgradeStep {
+
+  /**
+   * Splits the work of the step into partitions. Called once per execution of the step, before any partition is
+   * executed, and handed the partitions it returns, so that steps keep no state between splitting and executing.
+   */
+  protected abstract List<P> partitions(UpgradeContext context);
+
+  /**
+   * Returns the max number of partitions executed concurrently.
+   */
+  protected abstract int parallelism(UpgradeContext context);
+
+  /**
+   * Executes a single partition of the step, reporting the number of items it processed to the given progress.
+   */
+  protected abstract UpgradeStepResult.Result executePartition(UpgradeContext context, P partition,
+      PartitionProgress progress);
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return (context) -> {
+      final List<P> partitions = partitions(context);
+      final int numPartitions = partitions.size();
+      final int parallelism = Math.max(1, Math.min(parallelism(context), numPartitions));
+      context.report()
+          .addLine(String.format("Executing %s in %d partitions with %d threads", id(), numPartitions, parallelism));
+
+      final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+      final List<Future<UpgradeStepResult.Result>> futures = new ArrayList<>();
+      final List<PartitionProgress> progresses = new ArrayList<>();
+      try {
+        for (int i = 0; i < numPartitions; i++) {
+          final P partition = partitions.get(i);
+          final PartitionProgress progress = new PartitionProgress(context, i, numPartitions);
+          progresses.add(progress);
+          futures.add(executor.submit(() -> executePartition(context, partition, progress)));
+        }
+        UpgradeStepResult.Result result = UpgradeStepResult.Result.SUCCEEDED;
+        for (int i = 0; i < numPartitions; i++) {
+          try {
+            if (UpgradeStepResult.Result.FAILED.equals(futures.get(i).get())) {
+              result = UpgradeStepResult.Result.FAILED;
+            }
+          } catch (ExecutionException e) {
+            context.report()
+                .addLine(String.format("Partition %d/%d of %s failed: %s", i + 1, numPartitions, id(), e.getCause()));
+            result = UpgradeStepResult.Result.FAILED;
+          }
+          progresses.get(i).report("completed");
+        }
+        return new DefaultUpgradeStepResult(id(), result);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(String.format("Thread interrupted while executing %s.", id()), e);
+      } finally {
+        executor.shutdownNow();
+      }
+    };
+  }
+
+  /**
+   * Tracks the progress & throughput of a partition, in the upgrade report and in metrics.
+   */
+  public class PartitionProgress {
+    private final UpgradeContext _context;
+    private final int _partition;
+    private final int _numPartitions;
+    private final AtomicLong _processed = new AtomicLong();
+    private final long _startTimeNanos = System.nanoTime();
+
+    private PartitionProgress(UpgradeContext context, int partition, int numPartitions) {
+      _context = context;
+      _partition = partition;
+      _numPartitions = numPartitions;
+    }
+
+    /**
+     * Records that the partition processed the given number of additional items, and reports its progress.
+     */
+    public void add(long count) {
+      _processed.addAndGet(count);
+      MetricUtils.counter(PartitionedUpgradeStep.this.getClass(), String.format("partition%d_processed", _partition))
+          .inc(count);
+      report("in progress");
+    }
+
+    public long getProcessed() {
+      return _processed.get();
+    }
+
+    private void report(String status) {
+      final long processed = _processed.get();
+      final long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - _startTimeNanos));
+      _context.report()
+          .addLine(String.format("Partition %d/%d of %s %s: processed %d items in %ds (%d items/s)", _partition + 1,
+              _numPartitions, id(), status, processed, TimeUnit.MILLISECONDS.toSeconds(elapsedMillis),
+              processed * 1000 / elapsedMillis));
+    }
+  }
+}
@@ -1,10 +1,12 @@
 package com.linkedin.datahub.upgrade;
 
+import com.linkedin.datahub.upgrade.createbackup.CreateBackup;
 import com.linkedin.datahub.upgrade.impl.DefaultUpgradeManager;
 import com.linkedin.datahub.upgrade.nocode.NoCodeUpgrade;
 import com.linkedin.datahub.upgrade.nocodecleanup.NoCodeCleanupUpgrade;
 import com.linkedin.datahub.upgrade.restorebackup.RestoreBackup;
 import com.linkedin.datahub.upgrade.restoreindices.RestoreIndices;
+import com.linkedin.datahub.upgrade.searchfeatures.ComputeSearchFeatures;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -44,12 +46,22 @@ public class UpgradeCli implements CommandLineRunner {
   @Named("restoreBackup")
   private RestoreBackup restoreBackup;
 
+  @Inject
+  @Named("createBackup")
+  private CreateBackup createBackup;
+
+  @Inject
+  @Named("computeSearchFeatures")
+  private ComputeSearchFeatures computeSearchFeatures;
+
   @Override
   public void run(String... cmdLineArgs) {
     _upgradeManager.register(noCodeUpgrade);
     _upgradeManager.register(noCodeCleanup);
     _upgradeManager.register(restoreIndices);
     _upgradeManager.register(restoreBackup);
+    _upgradeManager.register(createBackup);
+    _upgradeManager.register(computeSearchFeatures);
 
     final Args args = new Args();
     new CommandLine(args).setCaseInsensitiveEnumValuesAllowed(true).parseArgs(cmdLineArgs);
@@ -4,7 +4,8 @@ import java.util.List;
 
 
 /**
- * A human-readable record of upgrade progress + status.
+ * A human-readable record of upgrade progress + status. Implementations must be thread-safe, since concurrent steps
+ * and step partitions report to the same report.
  */
 public interface UpgradeReport {
 
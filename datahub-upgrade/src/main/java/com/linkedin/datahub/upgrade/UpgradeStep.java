@@ -1,5 +1,7 @@
 package com.linkedin.datahub.upgrade;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 
 
@@ -32,6 +34,15 @@ public interface UpgradeStep {
     return false;
   }
 
+  /**
+   * Returns the ids of the steps which must complete before this step executes. Steps with no declared dependencies
+   * depend on the step preceding them in the upgrade, so that steps execute sequentially unless stated otherwise.
+   * Steps whose dependencies have completed execute concurrently.
+   */
+  default Optional<List<String>> dependsOn() {
+    return Optional.empty();
+  }
+
   /**
    * Returns whether or not to skip the step based on the UpgradeContext
    */
@@ -0,0 +1,183 @@
+package com.linkedin.datahub.upgrade.common;
+
+import com.linkedin.metadata.entity.ebean.EbeanAspectV1;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import io.ebean.EbeanServer;
+import io.ebean.Expr;
+import io.ebean.ExpressionList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * Splits the rows of the aspect table into urn ranges holding about as many rows each, and pages through them with
+ * keyset pagination over the primary key, so that reading stays cheap however deep into the table it gets.
+ *
+ * <p>The rows read can be restricted by a filter, e.g. to the latest versions only, which is applied to every query.
+ * Both the aspect v2 table and the legacy aspect table can be read, as they share the same primary key.
+ */
+public class AspectTableRanges {
+
+  private AspectTableRanges() {
+  }
+
+  /**
+   * Describes how to query and read the primary key of the rows of an aspect table.
+   */
+  public static class AspectTable<T> {
+
+    // The aspect v2 table maps the columns of its primary key to properties of their own
+    public static final AspectTable<EbeanAspectV2> V2 =
+        new AspectTable<>(EbeanAspectV2.class, "", row -> row.getKey().getUrn(), row -> row.getKey().getAspect(),
+            row -> row.getKey().getVersion());
+
+    public static final AspectTable<EbeanAspectV1> V1 =
+        new AspectTable<>(EbeanAspectV1.class, EbeanAspectV1.KEY_ID + ".", row -> row.getKey().getUrn(),
+            row -> row.getKey().getAspect(), row -> row.getKey().getVersion());
+
+    private final Class<T> _rowClass;
+    private final String _urnProperty;
+    private final String _aspectProperty;
+    private final String _versionProperty;
+    private final Function<T, String> _urn;
+    private final Function<T, String> _aspect;
+    private final ToLongFunction<T> _version;
+
+    private AspectTable(Class<T> rowClass, String keyPrefix, Function<T, String> urn, Function<T, String> aspect,
+        ToLongFunction<T> version) {
+      _rowClass = rowClass;
+      _urnProperty = keyPrefix + EbeanAspectV2.URN_COLUMN;
+      _aspectProperty = keyPrefix + EbeanAspectV2.ASPECT_COLUMN;
+      _versionProperty = keyPrefix + EbeanAspectV2.VERSION_COLUMN;
+      _urn = urn;
+      _aspect = aspect;
+      _version = version;
+    }
+  }
+
+  @Value
+  public static class UrnRange {
+    // Inclusive, unbounded if null
+    @Nullable
+    String lowerUrn;
+    // Exclusive, unbounded if null
+    @Nullable
+    String upperUrn;
+  }
+
+  /**
+   * Splits the urns of the rows matching the filter into at most the given number of ranges of about as many rows. The
+   * rows of a urn always belong to the same range.
+   *
+   * <p>The boundaries are found by reading the keys of the rows in order, page by page, rather than by skipping rows
+   * with offsets, which databases implement by reading every skipped row.
+   */
+  @Nonnull
+  public static <T> List<UrnRange> split(@Nonnull final EbeanServer server, @Nonnull final AspectTable<T> table,
+      @Nonnull final UnaryOperator<ExpressionList<T>> filter, final int numRanges, final int pageSize) {
+    final List<UrnRange> ranges = new ArrayList<>();
+    final int rowCount = filter.apply(server.find(table._rowClass).where()).findCount();
+    final UrnRange all = new UrnRange(null, null);
+    String lowerUrn = null;
+    // The urn of the first row of the current range
+    String firstUrn = null;
+    int boundary = 1;
+    long position = 0;
+    T last = null;
+    List<T> keys;
+    do {
+      keys = getRowsAfter(server, table, all, filter, last, pageSize, table._urnProperty);
+      for (T key : keys) {
+        final String urn = table._urn.apply(key);
+        if (firstUrn == null) {
+          firstUrn = urn;
+        }
+        // Splits before the row at each multiple of rowCount / numRanges, like an offset would
+        while (boundary < numRanges && position == (long) rowCount * boundary / numRanges) {
+          // Keys are read in order, so boundaries falling within the rows of the first urn of the current range would
+          // make an empty range, and are merged with the next boundary
+          if (!urn.equals(firstUrn)) {
+            ranges.add(new UrnRange(lowerUrn, urn));
+            lowerUrn = urn;
+            firstUrn = urn;
+          }
+          boundary++;
+        }
+        position++;
+      }
+      if (!keys.isEmpty()) {
+        last = keys.get(keys.size() - 1);
+      }
+    } while (boundary < numRanges && keys.size() == pageSize);
+    ranges.add(new UrnRange(lowerUrn, null));
+    return ranges;
+  }
+
+  /**
+   * Splits the urns of the rows of the aspect v2 table matching the filter, as {@link #split(EbeanServer, AspectTable,
+   * UnaryOperator, int, int)} does.
+   */
+  @Nonnull
+  public static List<UrnRange> split(@Nonnull final EbeanServer server,
+      @Nonnull final UnaryOperator<ExpressionList<EbeanAspectV2>> filter, final int numRanges, final int pageSize) {
+    return split(server, AspectTable.V2, filter, numRanges, pageSize);
+  }
+
+  /**
+   * Returns the next page of rows of the given urn range matching the filter, ordered by primary key, after the given
+   * row, or from the start of the range if null.
+   */
+  @Nonnull
+  public static <T> List<T> getRowsAfter(@Nonnull final EbeanServer server, @Nonnull final AspectTable<T> table,
+      @Nonnull final UrnRange range, @Nonnull final UnaryOperator<ExpressionList<T>> filter, @Nullable final T last,
+      final int pageSize) {
+    return getRowsAfter(server, table, range, filter, last, pageSize, EbeanAspectV2.ALL_COLUMNS);
+  }
+
+  /**
+   * Returns the next page of rows of the aspect v2 table, as {@link #getRowsAfter(EbeanServer, AspectTable, UrnRange,
+   * UnaryOperator, Object, int)} does.
+   */
+  @Nonnull
+  public static List<EbeanAspectV2> getRowsAfter(@Nonnull final EbeanServer server, @Nonnull final UrnRange range,
+      @Nonnull final UnaryOperator<ExpressionList<EbeanAspectV2>> filter, @Nullable final EbeanAspectV2 last,
+      final int pageSize) {
+    return getRowsAfter(server, AspectTable.V2, range, filter, last, pageSize);
+  }
+
+  @Nonnull
+  private static <T> List<T> getRowsAfter(@Nonnull final EbeanServer server, @Nonnull final AspectTable<T> table,
+      @Nonnull final UrnRange range, @Nonnull final UnaryOperator<ExpressionList<T>> filter, @Nullable final T last,
+      final int pageSize, @Nonnull final String columns) {
+    final ExpressionList<T> query = filter.apply(server.find(table._rowClass).select(columns).where());
+    if (range.getUpperUrn() != null) {
+      query.lt(table._urnProperty, range.getUpperUrn());
+    }
+    if (last == null) {
+      if (range.getLowerUrn() != null) {
+        query.ge(table._urnProperty, range.getLowerUrn());
+      }
+    } else {
+      final String urn = table._urn.apply(last);
+      final String aspect = table._aspect.apply(last);
+      query.add(Expr.or(Expr.gt(table._urnProperty, urn),
+          Expr.or(Expr.and(Expr.eq(table._urnProperty, urn), Expr.gt(table._aspectProperty, aspect)),
+              Expr.and(Expr.and(Expr.eq(table._urnProperty, urn), Expr.eq(table._aspectProperty, aspect)),
+                  Expr.gt(table._versionProperty, table._version.applyAsLong(last))))));
+    }
+    return query.orderBy()
+        .asc(table._urnProperty)
+        .orderBy()
+        .asc(table._aspectProperty)
+        .orderBy()
+        .asc(table._versionProperty)
+        .setMaxRows(pageSize)
+        .findList();
+  }
+}
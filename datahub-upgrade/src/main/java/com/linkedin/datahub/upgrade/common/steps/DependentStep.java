@@ -0,0 +1,54 @@
+package com.linkedin.datahub.upgrade.common.steps;
+
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+
+/**
+ * Declares the dependencies of a step within a given upgrade, e.g. to execute it concurrently with the steps preceding
+ * it when it does not depend on them.
+ */
+public class DependentStep implements UpgradeStep {
+
+  private final UpgradeStep _step;
+  private final List<String> _dependsOn;
+
+  public DependentStep(final UpgradeStep step, final List<String> dependsOn) {
+    _step = step;
+    _dependsOn = dependsOn;
+  }
+
+  @Override
+  public String id() {
+    return _step.id();
+  }
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return _step.executable();
+  }
+
+  @Override
+  public int retryCount() {
+    return _step.retryCount();
+  }
+
+  @Override
+  public boolean isOptional() {
+    return _step.isOptional();
+  }
+
+  @Override
+  public Optional<List<String>> dependsOn() {
+    return Optional.of(_dependsOn);
+  }
+
+  @Override
+  public boolean skip(UpgradeContext context) {
+    return _step.skip(context);
+  }
+}
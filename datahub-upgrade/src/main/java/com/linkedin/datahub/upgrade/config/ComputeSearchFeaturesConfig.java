@@ -0,0 +1,36 @@
+package com.linkedin.datahub.upgrade.config;
+
+import com.linkedin.datahub.upgrade.searchfeatures.ComputeSearchFeatures;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import javax.annotation.Nonnull;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+import static com.linkedin.gms.factory.common.IndexConventionFactory.INDEX_CONVENTION_BEAN;
+import static com.linkedin.gms.factory.timeseries.TimeseriesIndexPartitionerFactory.TIMESERIES_INDEX_PARTITIONER_BEAN;
+
+
+@Configuration
+public class ComputeSearchFeaturesConfig {
+  @Autowired
+  ApplicationContext applicationContext;
+
+  @Bean(name = "computeSearchFeatures")
+  @DependsOn({"elasticSearchRestHighLevelClient", INDEX_CONVENTION_BEAN, "entityRegistry",
+      TIMESERIES_INDEX_PARTITIONER_BEAN})
+  @Nonnull
+  public ComputeSearchFeatures createInstance() {
+    final RestHighLevelClient searchClient = applicationContext.getBean(RestHighLevelClient.class);
+    final IndexConvention indexConvention = applicationContext.getBean(IndexConvention.class);
+    final EntityRegistry entityRegistry = applicationContext.getBean(EntityRegistry.class);
+    final TimeseriesIndexPartitioner partitioner = applicationContext.getBean(TimeseriesIndexPartitioner.class);
+
+    return new ComputeSearchFeatures(searchClient, indexConvention, entityRegistry, partitioner);
+  }
+}
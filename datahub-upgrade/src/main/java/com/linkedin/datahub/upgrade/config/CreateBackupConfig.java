@@ -0,0 +1,26 @@
+package com.linkedin.datahub.upgrade.config;
+
+import com.linkedin.datahub.upgrade.createbackup.CreateBackup;
+import io.ebean.EbeanServer;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+
+@Configuration
+public class CreateBackupConfig {
+  @Autowired
+  ApplicationContext applicationContext;
+
+  @Bean(name = "createBackup")
+  @DependsOn({"ebeanServer"})
+  @Nonnull
+  public CreateBackup createInstance() {
+    final EbeanServer ebeanServer = applicationContext.getBean(EbeanServer.class);
+
+    return new CreateBackup(ebeanServer);
+  }
+}
@@ -0,0 +1,41 @@
+package com.linkedin.datahub.upgrade.createbackup;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.datahub.upgrade.Upgrade;
+import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import io.ebean.EbeanServer;
+import java.util.List;
+
+
+/**
+ * Backs up the aspect table into parquet files which can be restored by the RestoreBackup upgrade.
+ */
+public class CreateBackup implements Upgrade {
+  public static final String BACKUP_DIR_PATH_ARG_NAME = "BACKUP_DIR_PATH";
+  public static final String SINCE_CREATED_ON_ARG_NAME = "SINCE_CREATED_ON";
+  public static final String BATCH_SIZE_ARG_NAME = "BATCH_SIZE";
+  public static final String NUM_THREADS_ARG_NAME = "NUM_THREADS";
+  public static final String ROWS_PER_FILE_ARG_NAME = "ROWS_PER_FILE";
+
+  private final List<UpgradeStep> _steps;
+
+  public CreateBackup(final EbeanServer server) {
+    _steps = ImmutableList.of(new CreateBackupStep(server));
+  }
+
+  @Override
+  public String id() {
+    return "CreateBackup";
+  }
+
+  @Override
+  public List<UpgradeStep> steps() {
+    return _steps;
+  }
+
+  @Override
+  public List<UpgradeCleanupStep> cleanupSteps() {
+    return ImmutableList.of();
+  }
+}
@@ -0,0 +1,195 @@
+package com.linkedin.datahub.upgrade.createbackup;
+
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges.UrnRange;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupManifest;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import io.ebean.EbeanServer;
+import io.ebean.ExpressionList;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Streams the aspect table into a directory of parquet files, and writes the {@link BackupManifest} describing them.
+ *
+ * <p>The urn space is split into ranges holding about as many rows each, and every range is read by its own thread
+ * with keyset pagination over the primary key, so that reading stays cheap however deep into the table it gets.
+ *
+ * <p>Incremental backups only hold the rows created, or overwritten as the latest version, since the watermark: rows
+ * deleted since then, e.g. by a rollback or a deletion of their urn, leave no trace in them. Only a full backup
+ * reflects deletes.
+ */
+public class CreateBackupStep implements UpgradeStep {
+
+  private static final int DEFAULT_BATCH_SIZE = 5000;
+  private static final int DEFAULT_NUM_THREADS = 4;
+  private static final long DEFAULT_ROWS_PER_FILE = 1000000;
+  private static final int REPORT_BATCH_SIZE = 100000;
+  // Rows get their createdOn before their transaction commits, so rows committed after their urn range was read may
+  // be created before the latest row backed up. The watermark of the next incremental backup overlaps this one by
+  // this much so that it picks them up, as long as no transaction lasts longer.
+  private static final long WATERMARK_OVERLAP_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  private final EbeanServer _server;
+
+  public CreateBackupStep(final EbeanServer server) {
+    _server = server;
+  }
+
+  @Override
+  public String id() {
+    return "CreateBackupStep";
+  }
+
+  @Override
+  public int retryCount() {
+    return 0;
+  }
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return (context) -> {
+
+      final Map<String, Optional<String>> parsedArgs = context.parsedArgs();
+      final Optional<String> path = parsedArgs.getOrDefault(CreateBackup.BACKUP_DIR_PATH_ARG_NAME, Optional.empty());
+      if (!path.isPresent()) {
+        context.report()
+            .addLine(String.format("%s must be set to create a backup", CreateBackup.BACKUP_DIR_PATH_ARG_NAME));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      final File directory = new File(path.get());
+      final String[] existingFiles = directory.list();
+      if (existingFiles != null && existingFiles.length > 0) {
+        context.report().addLine(String.format("Backup directory %s is not empty", directory));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        context.report().addLine(String.format("Failed to create backup directory %s", directory));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+
+      final int batchSize = (int) getLongArg(parsedArgs, CreateBackup.BATCH_SIZE_ARG_NAME, DEFAULT_BATCH_SIZE);
+      final int numThreads = (int) getLongArg(parsedArgs, CreateBackup.NUM_THREADS_ARG_NAME, DEFAULT_NUM_THREADS);
+      final long rowsPerFile = getLongArg(parsedArgs, CreateBackup.ROWS_PER_FILE_ARG_NAME, DEFAULT_ROWS_PER_FILE);
+      final Long sinceCreatedOn = parsedArgs.getOrDefault(CreateBackup.SINCE_CREATED_ON_ARG_NAME, Optional.empty())
+          .map(Long::parseLong)
+          .orElse(null);
+
+      final BackupManifest manifest = new BackupManifest();
+      manifest.setCreatedAtMillis(System.currentTimeMillis());
+      manifest.setSinceCreatedOnMillis(sinceCreatedOn);
+
+      final List<UrnRange> ranges =
+          AspectTableRanges.split(_server, query -> filter(query, sinceCreatedOn), numThreads, batchSize);
+      context.report()
+          .addLine(String.format("Backing up the aspect table into %s with %d readers%s", directory, ranges.size(),
+              sinceCreatedOn == null ? "" : String.format(", since createdOn %d", sinceCreatedOn)));
+
+      final AtomicLong numRows = new AtomicLong();
+      final AtomicLong maxCreatedOn = new AtomicLong(sinceCreatedOn == null ? Long.MIN_VALUE : sinceCreatedOn);
+      final ExecutorService executor = Executors.newFixedThreadPool(ranges.size());
+      try {
+        final List<Future<List<BackupManifest.BackupFile>>> futures = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+          final ParquetBackupWriter writer =
+              new ParquetBackupWriter(directory, String.format("part-%03d", i), rowsPerFile);
+          final UrnRange range = ranges.get(i);
+          futures.add(executor.submit(
+              () -> backupRange(context, range, sinceCreatedOn, batchSize, writer, numRows, maxCreatedOn)));
+        }
+        for (Future<List<BackupManifest.BackupFile>> future : futures) {
+          manifest.getFiles().addAll(future.get());
+        }
+      } catch (ExecutionException e) {
+        context.report().addLine(String.format("Failed to create backup: %s", e.getCause()));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Thread interrupted while creating backup.");
+      } finally {
+        executor.shutdownNow();
+      }
+
+      manifest.setRowCount(numRows.get());
+      manifest.setMaxCreatedOnMillis(maxCreatedOn.get() == Long.MIN_VALUE ? null
+          : getWatermark(maxCreatedOn.get(), manifest.getCreatedAtMillis(), sinceCreatedOn));
+      try {
+        // Written last, so that only complete backups have a manifest
+        manifest.write(directory);
+      } catch (IOException e) {
+        context.report().addLine(String.format("Failed to write backup manifest: %s", e));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      context.report()
+          .addLine(String.format("Backed up %d rows into %d files. Next incremental backup watermark: %s",
+              manifest.getRowCount(), manifest.getFiles().size(), manifest.getMaxCreatedOnMillis()));
+      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
+    };
+  }
+
+  private List<BackupManifest.BackupFile> backupRange(final UpgradeContext context, final UrnRange range,
+      @Nullable final Long sinceCreatedOn, final int batchSize, final ParquetBackupWriter writer,
+      final AtomicLong numRows, final AtomicLong maxCreatedOn) throws IOException {
+    try (ParquetBackupWriter ignored = writer) {
+      EbeanAspectV2 last = null;
+      List<EbeanAspectV2> rows;
+      do {
+        rows = AspectTableRanges.getRowsAfter(_server, range, query -> filter(query, sinceCreatedOn), last, batchSize);
+        for (EbeanAspectV2 row : rows) {
+          writer.write(row);
+          maxCreatedOn.accumulateAndGet(row.getCreatedOn().getTime(), Math::max);
+        }
+        if (!rows.isEmpty()) {
+          last = rows.get(rows.size() - 1);
+          final long total = numRows.addAndGet(rows.size());
+          if (total / REPORT_BATCH_SIZE != (total - rows.size()) / REPORT_BATCH_SIZE) {
+            context.report().addLine(String.format("Backed up %d rows", total));
+          }
+        }
+      } while (rows.size() == batchSize);
+    }
+    return writer.getFiles();
+  }
+
+  /**
+   * Returns the watermark to take the next incremental backup from, which overlaps this backup so that rows committed
+   * late are not missed, without going back past the watermark this backup was taken from.
+   */
+  static long getWatermark(final long maxCreatedOn, final long createdAt, @Nullable final Long sinceCreatedOn) {
+    final long watermark = Math.min(maxCreatedOn, createdAt) - WATERMARK_OVERLAP_MILLIS;
+    return sinceCreatedOn == null ? watermark : Math.max(watermark, sinceCreatedOn);
+  }
+
+  @Nonnull
+  private static ExpressionList<EbeanAspectV2> filter(final ExpressionList<EbeanAspectV2> query,
+      @Nullable final Long sinceCreatedOn) {
+    return sinceCreatedOn == null ? query : query.gt(EbeanAspectV2.CREATED_ON_COLUMN, new Timestamp(sinceCreatedOn));
+  }
+
+  private long getLongArg(final Map<String, Optional<String>> parsedArgs, final String argName,
+      final long defaultValue) {
+    long resolvedValue = defaultValue;
+    if (parsedArgs.containsKey(argName) && parsedArgs.get(argName).isPresent()) {
+      resolvedValue = Long.parseLong(parsedArgs.get(argName).get());
+    }
+    return resolvedValue;
+  }
+}
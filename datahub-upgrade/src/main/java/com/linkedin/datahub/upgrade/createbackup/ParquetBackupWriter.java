@@ -0,0 +1,112 @@
+package com.linkedin.datahub.upgrade.createbackup;
+
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupManifest;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.ParquetEbeanAspectBackupIterator;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+
+/**
+ * Writes EbeanAspectV2 rows into snappy-compressed parquet files, in the format read by
+ * {@link ParquetEbeanAspectBackupIterator}. A new file is started every given number of rows.
+ */
+public class ParquetBackupWriter implements Closeable {
+
+  public static final Schema SCHEMA = SchemaBuilder.record("metadata_aspect_v2")
+      .fields()
+      .requiredString("urn")
+      .requiredString("aspect")
+      .requiredLong("version")
+      .requiredString("metadata")
+      .optionalString("systemmetadata")
+      .name("createdon")
+      .type(LogicalTypes.timestampMicros().addToSchema(Schema.create(Schema.Type.LONG)))
+      .noDefault()
+      .requiredString("createdby")
+      .optionalString("createdfor")
+      .endRecord();
+
+  private final File _directory;
+  private final String _prefix;
+  private final long _rowsPerFile;
+  private final List<BackupManifest.BackupFile> _files = new ArrayList<>();
+
+  private ParquetWriter<GenericRecord> _writer;
+  private File _file;
+  private long _fileRowCount;
+
+  /**
+   * @param directory the directory the files are written into.
+   * @param prefix the prefix of the names of the files, which must be unique within the directory.
+   * @param rowsPerFile the max number of rows per file.
+   */
+  public ParquetBackupWriter(@Nonnull File directory, @Nonnull String prefix, long rowsPerFile) {
+    _directory = directory;
+    _prefix = prefix;
+    _rowsPerFile = rowsPerFile;
+  }
+
+  public void write(@Nonnull EbeanAspectV2 aspect) throws IOException {
+    if (_writer == null) {
+      _file = new File(_directory, String.format("%s-%05d.parquet", _prefix, _files.size()));
+      _writer = AvroParquetWriter.<GenericRecord>builder(new Path(_file.getPath()))
+          .withSchema(SCHEMA)
+          .withCompressionCodec(CompressionCodecName.SNAPPY)
+          .build();
+      _fileRowCount = 0;
+    }
+    _writer.write(toRecord(aspect));
+    if (++_fileRowCount >= _rowsPerFile) {
+      closeFile();
+    }
+  }
+
+  /**
+   * Returns the complete files written so far.
+   */
+  @Nonnull
+  public List<BackupManifest.BackupFile> getFiles() {
+    return _files;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (_writer != null) {
+      closeFile();
+    }
+  }
+
+  private void closeFile() throws IOException {
+    _writer.close();
+    _writer = null;
+    _files.add(new BackupManifest.BackupFile(_file.getName(), _fileRowCount, BackupManifest.checksum(_file)));
+  }
+
+  @Nonnull
+  private static GenericRecord toRecord(@Nonnull EbeanAspectV2 aspect) {
+    final GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("urn", aspect.getKey().getUrn());
+    record.put("aspect", aspect.getKey().getAspect());
+    record.put("version", aspect.getKey().getVersion());
+    record.put("metadata", aspect.getMetadata());
+    record.put("systemmetadata", aspect.getSystemMetadata());
+    record.put("createdon", ParquetEbeanAspectBackupIterator.toCreatedOnMicros(aspect.getCreatedOn()));
+    record.put("createdby", aspect.getCreatedBy());
+    record.put("createdfor", aspect.getCreatedFor());
+    return record;
+  }
+}
@@ -9,9 +9,19 @@ import com.linkedin.datahub.upgrade.UpgradeResult;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeStepResult;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nonnull;
 
 
@@ -34,7 +44,8 @@ public class DefaultUpgradeManager implements UpgradeManager {
 
   private UpgradeResult executeInternal(Upgrade upgrade, List<String> args) {
     final UpgradeReport upgradeReport = new DefaultUpgradeReport();
-    final UpgradeContext context = new DefaultUpgradeContext(upgrade, upgradeReport, new ArrayList<>(), args);
+    final UpgradeContext context =
+        new DefaultUpgradeContext(upgrade, upgradeReport, Collections.synchronizedList(new ArrayList<>()), args);
     upgradeReport.addLine(String.format("Starting upgrade with id %s...", upgrade.id()));
     UpgradeResult result = executeInternal(context);
     upgradeReport.addLine(
@@ -50,53 +61,152 @@ public class DefaultUpgradeManager implements UpgradeManager {
     final List<UpgradeStepResult> stepResults = context.stepResults();
     final UpgradeReport upgradeReport = context.report();
 
-    for (int i = 0; i < steps.size(); i++) {
-      final UpgradeStep step = steps.get(i);
-
-      if (step.skip(context)) {
-        upgradeReport.addLine(
-            String.format(String.format("Skipping Step %s/%s: %s...", i + 1, steps.size(), step.id()), upgrade.id()));
-        continue;
-      }
+    final Map<String, Set<String>> dependencies;
+    try {
+      dependencies = getDependencies(steps);
+    } catch (IllegalArgumentException e) {
+      upgradeReport.addLine(String.format("Invalid steps for upgrade %s: %s", upgrade.id(), e.getMessage()));
+      return new DefaultUpgradeResult(UpgradeResult.Result.FAILED, upgradeReport);
+    }
 
-      upgradeReport.addLine(
-          String.format(String.format("Executing Step %s/%s: %s...", i + 1, steps.size(), step.id()), upgrade.id()));
+    // Steps are started by this thread as soon as their dependencies have completed, and run on the executor.
+    final Set<String> startedSteps = new HashSet<>();
+    final Set<String> completedSteps = new HashSet<>();
+    final Map<Future<UpgradeStepResult>, Integer> runningSteps = new HashMap<>();
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    final CompletionService<UpgradeStepResult> completionService = new ExecutorCompletionService<>(executor);
+    UpgradeResult.Result failure = null;
+    try {
+      while (true) {
+        boolean startedStep = failure == null;
+        while (startedStep) {
+          startedStep = false;
+          for (int i = 0; i < steps.size(); i++) {
+            final UpgradeStep step = steps.get(i);
+            if (startedSteps.contains(step.id()) || !completedSteps.containsAll(dependencies.get(step.id()))) {
+              continue;
+            }
+            startedSteps.add(step.id());
+            startedStep = true;
+
+            if (step.skip(context)) {
+              upgradeReport.addLine(
+                  String.format(String.format("Skipping Step %s/%s: %s...", i + 1, steps.size(), step.id()),
+                      upgrade.id()));
+              completedSteps.add(step.id());
+              continue;
+            }
+
+            upgradeReport.addLine(
+                String.format(String.format("Executing Step %s/%s: %s...", i + 1, steps.size(), step.id()),
+                    upgrade.id()));
+            runningSteps.put(completionService.submit(() -> executeStepInternal(context, step)), i);
+          }
+        }
+        if (runningSteps.isEmpty()) {
+          break;
+        }
 
-      final UpgradeStepResult stepResult = executeStepInternal(context, step);
-      stepResults.add(stepResult);
+        final Future<UpgradeStepResult> future = completionService.take();
+        final int i = runningSteps.remove(future);
+        final UpgradeStep step = steps.get(i);
+        final UpgradeStepResult stepResult = future.get();
+        stepResults.add(stepResult);
 
-      // Apply Actions
-      if (UpgradeStepResult.Action.ABORT.equals(stepResult.action())) {
-        upgradeReport.addLine(
-            String.format("Step with id %s requested an abort of the in-progress update. Aborting the upgrade...",
-                step.id()));
-        return new DefaultUpgradeResult(UpgradeResult.Result.ABORTED, upgradeReport);
-      }
+        // Apply Actions
+        if (UpgradeStepResult.Action.ABORT.equals(stepResult.action())) {
+          upgradeReport.addLine(
+              String.format("Step with id %s requested an abort of the in-progress update. Aborting the upgrade...",
+                  step.id()));
+          failure = UpgradeResult.Result.ABORTED;
+          // Unlike a failure, an abort does not wait for the steps already running: they are interrupted.
+          runningSteps.keySet().forEach(runningStep -> runningStep.cancel(true));
+          runningSteps.clear();
+          continue;
+        }
 
-      // Handle Results
-      if (UpgradeStepResult.Result.FAILED.equals(stepResult.result())) {
-        if (step.isOptional()) {
+        // Handle Results
+        if (UpgradeStepResult.Result.FAILED.equals(stepResult.result())) {
+          if (step.isOptional()) {
+            upgradeReport.addLine(
+                String.format("Failed Step %s/%s: %s. Step marked as optional. Proceeding with upgrade...", i + 1,
+                    steps.size(), step.id()));
+            completedSteps.add(step.id());
+            continue;
+          }
+
+          // Required step failed. Fail the entire upgrade process, once the steps already running complete.
           upgradeReport.addLine(
-              String.format("Failed Step %s/%s: %s. Step marked as optional. Proceeding with upgrade...", i + 1,
-                  steps.size(), step.id()));
+              String.format("Failed Step %s/%s: %s. Failed after %s retries.", i + 1, steps.size(), step.id(),
+                  step.retryCount()));
+          if (failure == null) {
+            failure = UpgradeResult.Result.FAILED;
+          }
           continue;
         }
 
-        // Required step failed. Fail the entire upgrade process.
-        upgradeReport.addLine(
-            String.format("Failed Step %s/%s: %s. Failed after %s retries.", i + 1, steps.size(), step.id(),
-                step.retryCount()));
-        upgradeReport.addLine(String.format("Exiting upgrade %s with failure.", upgrade.id()));
-        return new DefaultUpgradeResult(UpgradeResult.Result.FAILED, upgradeReport);
+        upgradeReport.addLine(String.format("Completed Step %s/%s: %s successfully.", i + 1, steps.size(), step.id()));
+        completedSteps.add(step.id());
       }
+    } catch (InterruptedException e) {
+      throw new RuntimeException("Thread interrupted while executing upgrade steps.", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to execute upgrade step.", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
 
-      upgradeReport.addLine(String.format("Completed Step %s/%s: %s successfully.", i + 1, steps.size(), step.id()));
+    if (UpgradeResult.Result.ABORTED.equals(failure)) {
+      return new DefaultUpgradeResult(UpgradeResult.Result.ABORTED, upgradeReport);
+    }
+    if (UpgradeResult.Result.FAILED.equals(failure)) {
+      upgradeReport.addLine(String.format("Exiting upgrade %s with failure.", upgrade.id()));
+      return new DefaultUpgradeResult(UpgradeResult.Result.FAILED, upgradeReport);
     }
 
     upgradeReport.addLine(String.format("Success! Completed upgrade with id %s successfully.", upgrade.id()));
     return new DefaultUpgradeResult(UpgradeResult.Result.SUCCEEDED, upgradeReport);
   }
 
+  /**
+   * Returns the ids of the steps each step depends on, and verifies that they form a DAG.
+   */
+  private Map<String, Set<String>> getDependencies(List<UpgradeStep> steps) {
+    final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+    for (int i = 0; i < steps.size(); i++) {
+      final UpgradeStep step = steps.get(i);
+      final Set<String> stepDependencies = step.dependsOn()
+          .<Set<String>>map(HashSet::new)
+          .orElse(i == 0 ? Collections.emptySet() : Collections.singleton(steps.get(i - 1).id()));
+      if (dependencies.put(step.id(), stepDependencies) != null) {
+        throw new IllegalArgumentException(String.format("Duplicate step id %s", step.id()));
+      }
+    }
+    dependencies.forEach((stepId, stepDependencies) -> stepDependencies.stream()
+        .filter(dependency -> !dependencies.containsKey(dependency))
+        .findAny()
+        .ifPresent(dependency -> {
+          throw new IllegalArgumentException(String.format("Step %s depends on unknown step %s", stepId, dependency));
+        }));
+
+    // Repeatedly resolve the steps whose dependencies are resolved. Steps left unresolved are part of a cycle.
+    final Set<String> resolved = new HashSet<>();
+    boolean resolvedStep = true;
+    while (resolvedStep) {
+      resolvedStep = false;
+      for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+        if (!resolved.contains(entry.getKey()) && resolved.containsAll(entry.getValue())) {
+          resolved.add(entry.getKey());
+          resolvedStep = true;
+        }
+      }
+    }
+    if (resolved.size() < dependencies.size()) {
+      throw new IllegalArgumentException("Step dependencies form a cycle");
+    }
+    return dependencies;
+  }
+
   private UpgradeStepResult executeStepInternal(UpgradeContext context, UpgradeStep step) {
     int retryCount = step.retryCount();
     UpgradeStepResult result = null;
@@ -10,13 +10,13 @@ public class DefaultUpgradeReport implements UpgradeReport {
   private final List<String> reportLines = new ArrayList<>();
 
   @Override
-  public void addLine(String line) {
+  public synchronized void addLine(String line) {
     System.out.println(line); // TODO: Change to logging.
     reportLines.add(line);
   }
 
   @Override
-  public List<String> lines() {
-    return reportLines;
+  public synchronized List<String> lines() {
+    return new ArrayList<>(reportLines);
   }
 }
@@ -1,13 +1,15 @@
 package com.linkedin.datahub.upgrade.nocode;
 
-import com.linkedin.common.AuditStamp;
 import com.linkedin.common.BrowsePaths;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.RecordTemplate;
-import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.datahub.upgrade.PartitionedUpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeContext;
-import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges.AspectTable;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges.UrnRange;
+import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
@@ -16,30 +18,47 @@ import com.datahub.util.RecordUtils;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.ebean.EbeanAspectV1;
 import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.entity.ebean.EbeanUtils;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.search.utils.BrowsePathUtils;
+import com.linkedin.mxe.SystemMetadata;
 import io.ebean.EbeanServer;
-import io.ebean.PagedList;
+import io.ebean.Transaction;
 import java.net.URISyntaxException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
-
-
-public class DataMigrationStep implements UpgradeStep {
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import lombok.Value;
+
+
+/**
+ * Migrates the rows of the legacy aspect table into the aspect v2 table.
+ *
+ * <p>The legacy table is split into urn ranges by {@link AspectTableRanges}, one per partition. Each partition iterates
+ * its range by primary key and inserts every batch of converted rows into the v2 table in a single transaction. MAEs
+ * for the latest versions are produced after each batch, unless deferred to a RestoreIndices run.
+ *
+ * <p>Rows already in the v2 table, e.g. migrated by a previous run which did not complete, are left as they are, so
+ * that the step can be run again. No MAE is produced for them.
+ */
+public class DataMigrationStep extends PartitionedUpgradeStep<UrnRange> {
 
   private static final int DEFAULT_BATCH_SIZE = 1000;
   private static final long DEFAULT_BATCH_DELAY_MS = 250;
+  private static final int DEFAULT_NUM_THREADS = 1;
 
   private static final String BROWSE_PATHS_ASPECT_NAME = PegasusUtils.getAspectNameFromSchema(new BrowsePaths().schema());
 
   private final EbeanServer _server;
   private final EntityService _entityService;
   private final EntityRegistry _entityRegistry;
-  private final Set<Urn> urnsWithBrowsePath = new HashSet<>();
 
   public DataMigrationStep(
       final EbeanServer server,
@@ -50,6 +69,16 @@ public class DataMigrationStep implements UpgradeStep {
     _entityRegistry = entityRegistry;
   }
 
+  @Value
+  private static class MigratedAspect {
+    Urn urn;
+    String entityName;
+    AspectSpec aspectSpec;
+    RecordTemplate aspectRecord;
+    SystemMetadata systemMetadata;
+    EbeanAspectV2 row;
+  }
+
   @Override
   public String id() {
     return "DataMigrationStep";
@@ -61,154 +90,181 @@ public class DataMigrationStep implements UpgradeStep {
   }
 
   @Override
-  public Function<UpgradeContext, UpgradeStepResult> executable() {
-    return (context) -> {
-
-      context.report().addLine("Starting data migration...");
-      final int rowCount = _server.find(EbeanAspectV1.class).findCount();
-      context.report().addLine(String.format("Found %s rows in legacy aspects table", rowCount));
-
-      int totalRowsMigrated = 0;
-      int start = 0;
-      int count = getBatchSize(context.parsedArgs());
-      while (start < rowCount) {
-
-        context.report().addLine(String.format("Reading rows %s through %s from legacy aspects table.", start, start + count));
-        PagedList<EbeanAspectV1> rows = getPagedAspects(start, count);
-
-        for (EbeanAspectV1 oldAspect : rows.getList()) {
-
-          final String oldAspectName = oldAspect.getKey().getAspect();
-
-          // 1. Instantiate the RecordTemplate class associated with the aspect.
-          final RecordTemplate aspectRecord;
-          try {
-            aspectRecord = RecordUtils.toRecordTemplate(
-                Class.forName(oldAspectName).asSubclass(RecordTemplate.class),
-                oldAspect.getMetadata());
-          } catch (Exception e) {
-            context.report().addLine(String.format("Failed to convert aspect with name %s into a RecordTemplate class: %s", oldAspectName, e.getMessage()));
-            return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-          }
-
-          // 2. Extract an Entity type from the entity Urn
-          Urn urn;
-          try {
-            urn = Urn.createFromString(oldAspect.getKey().getUrn());
-          } catch (Exception e) {
-            throw new RuntimeException(String.format("Failed to bind Urn with value %s into Urn object", oldAspect.getKey().getUrn(), e));
-          }
-
-          // 3. Verify that the entity associated with the aspect is found in the registry.
-          final String entityName = urn.getEntityType();
-          final EntitySpec entitySpec;
-          try {
-            entitySpec = _entityRegistry.getEntitySpec(entityName);
-          } catch (Exception e) {
-            context.report().addLine(String.format("Failed to find Entity with name %s in Entity Registry: %s", entityName, e.toString()));
-            return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-          }
+  protected List<UrnRange> partitions(UpgradeContext context) {
+    context.report().addLine("Starting data migration...");
+    final int rowCount = _server.find(EbeanAspectV1.class).findCount();
+    context.report().addLine(String.format("Found %s rows in legacy aspects table", rowCount));
+    return AspectTableRanges.split(_server, AspectTable.V1, UnaryOperator.identity(),
+        getNumThreads(context.parsedArgs()), getBatchSize(context.parsedArgs()));
+  }
 
-          // 4. Extract new aspect name from Aspect schema
-          final String newAspectName;
-          try {
-            newAspectName = PegasusUtils.getAspectNameFromSchema(aspectRecord.schema());
-          } catch (Exception e) {
-            context.report().addLine(String.format("Failed to retrieve @Aspect name from schema %s, urn %s: %s",
-                aspectRecord.schema().getFullName(),
-                entityName,
-                e.toString()));
-            return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-          }
+  @Override
+  protected int parallelism(UpgradeContext context) {
+    return getNumThreads(context.parsedArgs());
+  }
 
-          // 5. Verify that the aspect is a valid aspect associated with the entity
-          AspectSpec aspectSpec;
-          try {
-            aspectSpec = entitySpec.getAspectSpec(newAspectName);
-          } catch (Exception e) {
-            context.report().addLine(String.format("Failed to find aspect spec with name %s associated with entity named %s",
-                newAspectName,
-                entityName,
-                e.toString()));
-            return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+  @Override
+  protected UpgradeStepResult.Result executePartition(UpgradeContext context, UrnRange range,
+      PartitionProgress progress) {
+    final int count = getBatchSize(context.parsedArgs());
+    final boolean deferMae = context.parsedArgs().containsKey(NoCodeUpgrade.DEFER_MAE_ARG_NAME);
+
+    // Rows are read in urn order, so the browse paths of a urn are added once all of its rows have been read.
+    Urn currentUrn = null;
+    boolean currentUrnHasBrowsePaths = false;
+    EbeanAspectV1 last = null;
+    List<EbeanAspectV1> rows;
+    do {
+      rows = AspectTableRanges.getRowsAfter(_server, AspectTable.V1, range, UnaryOperator.identity(), last, count);
+      final List<MigratedAspect> batch = new ArrayList<>(rows.size());
+      for (EbeanAspectV1 oldAspect : rows) {
+        final MigratedAspect migratedAspect = migrate(oldAspect);
+        if (!migratedAspect.getUrn().equals(currentUrn)) {
+          if (currentUrn != null && !currentUrnHasBrowsePaths) {
+            buildBrowsePaths(currentUrn).ifPresent(batch::add);
           }
+          currentUrn = migratedAspect.getUrn();
+          currentUrnHasBrowsePaths = false;
+        }
+        currentUrnHasBrowsePaths |= BROWSE_PATHS_ASPECT_NAME.equals(migratedAspect.getRow().getAspect());
+        batch.add(migratedAspect);
+      }
+      if (rows.size() < count && currentUrn != null && !currentUrnHasBrowsePaths) {
+        buildBrowsePaths(currentUrn).ifPresent(batch::add);
+      }
+      if (rows.isEmpty() && batch.isEmpty()) {
+        break;
+      }
 
-          // 6. Write the row back using the EntityService
-          boolean emitMae = oldAspect.getKey().getVersion() == 0L;
-          _entityService.updateAspect(
-              urn,
-              entityName,
-              newAspectName,
-              aspectSpec,
-              aspectRecord,
-              toAuditStamp(oldAspect),
-              oldAspect.getKey().getVersion(),
-              emitMae
-          );
-
-          // 7. If necessary, emit a browse path aspect.
-          if (entitySpec.getAspectSpecMap().containsKey(BROWSE_PATHS_ASPECT_NAME) && !urnsWithBrowsePath.contains(urn)) {
-            // Emit a browse path aspect.
-            final BrowsePaths browsePaths;
-            try {
-              browsePaths = BrowsePathUtils.buildBrowsePath(urn, _entityService.getEntityRegistry());
-
-              final AuditStamp browsePathsStamp = new AuditStamp();
-              browsePathsStamp.setActor(Urn.createFromString(Constants.SYSTEM_ACTOR));
-              browsePathsStamp.setTime(System.currentTimeMillis());
-
-              _entityService.ingestAspect(urn, BROWSE_PATHS_ASPECT_NAME, browsePaths, browsePathsStamp, null);
-              urnsWithBrowsePath.add(urn);
-
-            } catch (URISyntaxException e) {
-              throw new RuntimeException("Failed to ingest Browse Path", e);
-            }
-          }
+      // 6. Write the batch into the aspect v2 table, then emit the MAEs of the latest versions
+      final List<MigratedAspect> inserted = insert(batch);
+      if (!deferMae) {
+        inserted.stream()
+            .filter(migratedAspect -> migratedAspect.getRow().getVersion() == 0L)
+            .forEach(migratedAspect -> _entityService.produceMetadataChangeLog(migratedAspect.getUrn(),
+                migratedAspect.getEntityName(), migratedAspect.getRow().getAspect(), migratedAspect.getAspectSpec(),
+                null, migratedAspect.getAspectRecord(), null, migratedAspect.getSystemMetadata(), ChangeType.UPSERT));
+      }
 
-          totalRowsMigrated++;
-        }
-        context.report().addLine(String.format("Successfully migrated %s rows", totalRowsMigrated));
-        start = start + count;
-        try {
-          TimeUnit.MILLISECONDS.sleep(getBatchDelayMs(context.parsedArgs()));
-        } catch (InterruptedException e) {
-          throw new RuntimeException("Thread interrupted while sleeping after successful batch migration.");
-        }
+      progress.add(rows.size());
+      if (!rows.isEmpty()) {
+        last = rows.get(rows.size() - 1);
       }
-      if (totalRowsMigrated != rowCount) {
-        context.report().addLine(String.format("Number of rows migrated %s does not equal the number of input rows %s...",
-            totalRowsMigrated,
-            rowCount));
-        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      try {
+        TimeUnit.MILLISECONDS.sleep(getBatchDelayMs(context.parsedArgs()));
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Thread interrupted while sleeping after successful batch migration.");
       }
-      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
-    };
+    } while (rows.size() == count);
+    return UpgradeStepResult.Result.SUCCEEDED;
   }
 
-  private AuditStamp toAuditStamp(final EbeanAspectV1 aspect) {
-    final AuditStamp auditStamp = new AuditStamp();
-    auditStamp.setTime(aspect.getCreatedOn().getTime());
+  /**
+   * Converts a legacy row into a row of the aspect v2 table, verifying that it is a valid aspect of its entity.
+   */
+  private MigratedAspect migrate(final EbeanAspectV1 oldAspect) {
+    final String oldAspectName = oldAspect.getKey().getAspect();
 
+    // 1. Instantiate the RecordTemplate class associated with the aspect.
+    final RecordTemplate aspectRecord;
     try {
-      auditStamp.setActor(new Urn(aspect.getCreatedBy()));
-      if (aspect.getCreatedFor() != null) {
-        auditStamp.setImpersonator(new Urn(aspect.getCreatedFor()));
-      }
-    } catch (URISyntaxException e) {
-      throw new RuntimeException(e);
+      aspectRecord = RecordUtils.toRecordTemplate(
+          Class.forName(oldAspectName).asSubclass(RecordTemplate.class),
+          oldAspect.getMetadata());
+    } catch (Exception e) {
+      throw new IllegalStateException(String.format("Failed to convert aspect with name %s into a RecordTemplate class: %s", oldAspectName, e.getMessage()));
     }
-    return auditStamp;
+
+    // 2. Extract an Entity type from the entity Urn
+    Urn urn;
+    try {
+      urn = Urn.createFromString(oldAspect.getKey().getUrn());
+    } catch (Exception e) {
+      throw new RuntimeException(String.format("Failed to bind Urn with value %s into Urn object", oldAspect.getKey().getUrn()), e);
+    }
+
+    // 3. Verify that the entity associated with the aspect is found in the registry.
+    final String entityName = urn.getEntityType();
+    final EntitySpec entitySpec;
+    try {
+      entitySpec = _entityRegistry.getEntitySpec(entityName);
+    } catch (Exception e) {
+      throw new IllegalStateException(String.format("Failed to find Entity with name %s in Entity Registry: %s", entityName, e.toString()));
+    }
+
+    // 4. Extract new aspect name from Aspect schema
+    final String newAspectName;
+    try {
+      newAspectName = PegasusUtils.getAspectNameFromSchema(aspectRecord.schema());
+    } catch (Exception e) {
+      throw new IllegalStateException(String.format("Failed to retrieve @Aspect name from schema %s, urn %s: %s",
+          aspectRecord.schema().getFullName(),
+          entityName,
+          e.toString()));
+    }
+
+    // 5. Verify that the aspect is a valid aspect associated with the entity
+    final AspectSpec aspectSpec;
+    try {
+      aspectSpec = entitySpec.getAspectSpec(newAspectName);
+    } catch (Exception e) {
+      throw new IllegalStateException(String.format("Failed to find aspect spec with name %s associated with entity named %s: %s",
+          newAspectName,
+          entityName,
+          e.toString()));
+    }
+
+    final SystemMetadata systemMetadata = new SystemMetadata().setLastObserved(System.currentTimeMillis());
+    final EbeanAspectV2 row = new EbeanAspectV2(urn.toString(), newAspectName, oldAspect.getKey().getVersion(),
+        EbeanUtils.toJsonAspect(aspectRecord), oldAspect.getCreatedOn(), oldAspect.getCreatedBy(),
+        oldAspect.getCreatedFor(), EbeanUtils.toJsonAspect(systemMetadata));
+    return new MigratedAspect(urn, entityName, aspectSpec, aspectRecord, systemMetadata, row);
   }
 
+  /**
+   * Builds the browse paths of the given urn, for entities which have browse paths.
+   */
+  private Optional<MigratedAspect> buildBrowsePaths(final Urn urn) {
+    final EntitySpec entitySpec = _entityRegistry.getEntitySpec(urn.getEntityType());
+    if (!entitySpec.getAspectSpecMap().containsKey(BROWSE_PATHS_ASPECT_NAME)) {
+      return Optional.empty();
+    }
+    final BrowsePaths browsePaths;
+    try {
+      browsePaths = BrowsePathUtils.buildBrowsePath(urn, _entityService.getEntityRegistry());
+    } catch (URISyntaxException e) {
+      throw new RuntimeException("Failed to ingest Browse Path", e);
+    }
+    final SystemMetadata systemMetadata = new SystemMetadata().setLastObserved(System.currentTimeMillis());
+    final EbeanAspectV2 row = new EbeanAspectV2(urn.toString(), BROWSE_PATHS_ASPECT_NAME, 0L,
+        EbeanUtils.toJsonAspect(browsePaths), new Timestamp(System.currentTimeMillis()), Constants.SYSTEM_ACTOR, null,
+        EbeanUtils.toJsonAspect(systemMetadata));
+    return Optional.of(new MigratedAspect(urn, urn.getEntityType(),
+        entitySpec.getAspectSpec(BROWSE_PATHS_ASPECT_NAME), browsePaths, systemMetadata, row));
+  }
 
-  private PagedList<EbeanAspectV1> getPagedAspects(final int start, final int pageSize) {
-    return _server.find(EbeanAspectV1.class)
-        .select(EbeanAspectV1.ALL_COLUMNS)
-        .setFirstRow(start)
-        .setMaxRows(pageSize)
-        .orderBy()
-        .asc(EbeanAspectV2.URN_COLUMN)
-        .findPagedList();
+  /**
+   * Inserts the rows of the batch which are not in the v2 table yet, and returns them.
+   */
+  private List<MigratedAspect> insert(final List<MigratedAspect> batch) {
+    final List<String> urns =
+        batch.stream().map(migratedAspect -> migratedAspect.getRow().getUrn()).distinct().collect(Collectors.toList());
+    final List<EbeanAspectV2.PrimaryKey> existingKeys =
+        _server.find(EbeanAspectV2.class).where().in(EbeanAspectV2.URN_COLUMN, urns).findIds();
+    final Set<EbeanAspectV2.PrimaryKey> existing = new HashSet<>(existingKeys);
+    final List<MigratedAspect> inserted = batch.stream()
+        .filter(migratedAspect -> !existing.contains(migratedAspect.getRow().getKey()))
+        .collect(Collectors.toList());
+    if (inserted.isEmpty()) {
+      return inserted;
+    }
+    try (Transaction transaction = _server.beginTransaction()) {
+      transaction.setBatchMode(true);
+      transaction.setBatchSize(inserted.size());
+      _server.insertAll(inserted.stream().map(MigratedAspect::getRow).collect(Collectors.toList()));
+      transaction.commit();
+    }
+    return inserted;
   }
 
   private int getBatchSize(final Map<String, Optional<String>> parsedArgs) {
@@ -228,4 +284,13 @@ public class DataMigrationStep implements UpgradeStep {
     }
     return resolvedBatchDelayMs;
   }
+
+  private int getNumThreads(final Map<String, Optional<String>> parsedArgs) {
+    int resolvedNumThreads = DEFAULT_NUM_THREADS;
+    if (parsedArgs.containsKey(NoCodeUpgrade.NUM_THREADS_ARG_NAME)
+        && parsedArgs.get(NoCodeUpgrade.NUM_THREADS_ARG_NAME).isPresent()) {
+      resolvedNumThreads = Integer.parseInt(parsedArgs.get(NoCodeUpgrade.NUM_THREADS_ARG_NAME).get());
+    }
+    return resolvedNumThreads;
+  }
 }
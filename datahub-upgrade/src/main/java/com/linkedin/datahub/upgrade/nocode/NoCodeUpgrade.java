@@ -19,6 +19,8 @@ public class NoCodeUpgrade implements Upgrade {
 
   public static final String BATCH_SIZE_ARG_NAME = "batchSize";
   public static final String BATCH_DELAY_MS_ARG_NAME = "batchDelayMs";
+  public static final String NUM_THREADS_ARG_NAME = "numThreads";
+  public static final String DEFER_MAE_ARG_NAME = "deferMae";
   public static final String FORCE_UPGRADE_ARG_NAME = "force-upgrade";
   public static final String CLEAN_ARG_NAME = "clean";
 
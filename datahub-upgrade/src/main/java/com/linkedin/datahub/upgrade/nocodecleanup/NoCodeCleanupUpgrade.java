@@ -1,8 +1,10 @@
 package com.linkedin.datahub.upgrade.nocodecleanup;
 
+import com.google.common.collect.ImmutableList;
 import com.linkedin.datahub.upgrade.Upgrade;
 import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
 import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.common.steps.DependentStep;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import io.ebean.EbeanServer;
@@ -46,10 +48,14 @@ public class NoCodeCleanupUpgrade implements Upgrade {
   private List<UpgradeStep> buildUpgradeSteps(final EbeanServer server, final GraphService graphClient,
       final RestHighLevelClient searchClient, final IndexConvention indexConvention) {
     final List<UpgradeStep> steps = new ArrayList<>();
-    steps.add(new NoCodeUpgradeQualificationStep(server));
-    steps.add(new DeleteAspectTableStep(server));
-    steps.add(new DeleteLegacyGraphRelationshipsStep(graphClient));
-    steps.add(new DeleteLegacySearchIndicesStep(searchClient, indexConvention));
+    final UpgradeStep qualificationStep = new NoCodeUpgradeQualificationStep(server);
+    steps.add(qualificationStep);
+    // The legacy aspect table, graph & search indices are deleted concurrently
+    steps.add(new DependentStep(new DeleteAspectTableStep(server), ImmutableList.of(qualificationStep.id())));
+    steps.add(new DependentStep(new DeleteLegacyGraphRelationshipsStep(graphClient),
+        ImmutableList.of(qualificationStep.id())));
+    steps.add(new DependentStep(new DeleteLegacySearchIndicesStep(searchClient, indexConvention),
+        ImmutableList.of(qualificationStep.id())));
     return steps;
   }
 }
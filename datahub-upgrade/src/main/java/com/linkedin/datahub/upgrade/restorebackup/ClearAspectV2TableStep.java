@@ -25,6 +25,15 @@ public class ClearAspectV2TableStep implements UpgradeStep {
     return "ClearAspectV2TableStep";
   }
 
+  @Override
+  public boolean skip(UpgradeContext context) {
+    if (RestoreCheckpoint.fromArgs(context.parsedArgs()).map(RestoreCheckpoint::isResuming).orElse(false)) {
+      context.report().addLine("Resuming a previous restore, keeping the rows it restored.");
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public Function<UpgradeContext, UpgradeStepResult> executable() {
     return (context) -> {
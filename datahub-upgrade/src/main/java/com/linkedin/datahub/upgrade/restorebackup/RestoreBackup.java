@@ -7,8 +7,12 @@ import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.common.steps.ClearGraphServiceStep;
 import com.linkedin.datahub.upgrade.common.steps.ClearSearchServiceStep;
+import com.linkedin.datahub.upgrade.common.steps.DependentStep;
 import com.linkedin.datahub.upgrade.common.steps.GMSDisableWriteModeStep;
 import com.linkedin.datahub.upgrade.common.steps.GMSEnableWriteModeStep;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupReader;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.LocalParquetReader;
+import com.linkedin.datahub.upgrade.restoreindices.SendMAEStep;
 import com.linkedin.entity.client.RestliEntityClient;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.graph.GraphService;
@@ -20,6 +24,10 @@ import java.util.List;
 
 
 public class RestoreBackup implements Upgrade {
+  public static final String BATCH_SIZE_ARG_NAME = "BATCH_SIZE";
+  public static final String NUM_THREADS_ARG_NAME = "NUM_THREADS";
+  public static final String BATCH_DELAY_MS_ARG_NAME = "BATCH_DELAY_MS";
+  public static final String CHECKPOINT_FILE_PATH_ARG_NAME = "CHECKPOINT_FILE_PATH";
 
   private final List<UpgradeStep> _steps;
 
@@ -53,11 +61,23 @@ public class RestoreBackup implements Upgrade {
       final GraphService graphClient,
       final EntitySearchService searchClient) {
     final List<UpgradeStep> steps = new ArrayList<>();
-    steps.add(new GMSDisableWriteModeStep(systemAuthentication, entityClient));
-    steps.add(new ClearSearchServiceStep(searchClient, true));
-    steps.add(new ClearGraphServiceStep(graphClient, true));
-    steps.add(new ClearAspectV2TableStep(server));
-    steps.add(new RestoreStorageStep(entityService, entityRegistry));
+    final List<BackupReader> backupReaders = ImmutableList.of(new LocalParquetReader());
+    final UpgradeStep disableWriteModeStep = new GMSDisableWriteModeStep(systemAuthentication, entityClient);
+    final UpgradeStep clearSearchStep = new ClearSearchServiceStep(searchClient, true);
+    final UpgradeStep clearGraphStep = new ClearGraphServiceStep(graphClient, true);
+    final UpgradeStep clearAspectTableStep = new ClearAspectV2TableStep(server);
+    final UpgradeStep restoreStorageStep = new RestoreStorageStep(server, entityRegistry, backupReaders);
+    // Nothing is cleared unless the backup can be restored
+    steps.add(new VerifyBackupStep(backupReaders));
+    steps.add(disableWriteModeStep);
+    // The indices & the aspect table are cleared concurrently
+    steps.add(new DependentStep(clearSearchStep, ImmutableList.of(disableWriteModeStep.id())));
+    steps.add(new DependentStep(clearGraphStep, ImmutableList.of(disableWriteModeStep.id())));
+    steps.add(new DependentStep(clearAspectTableStep, ImmutableList.of(disableWriteModeStep.id())));
+    steps.add(new DependentStep(restoreStorageStep, ImmutableList.of(clearAspectTableStep.id())));
+    steps.add(new DependentStep(new SendMAEStep(server, entityService, entityRegistry, BATCH_SIZE_ARG_NAME,
+        NUM_THREADS_ARG_NAME, BATCH_DELAY_MS_ARG_NAME),
+        ImmutableList.of(clearSearchStep.id(), clearGraphStep.id(), restoreStorageStep.id())));
     steps.add(new GMSEnableWriteModeStep(systemAuthentication, entityClient));
     return steps;
   }
@@ -0,0 +1,95 @@
+package com.linkedin.datahub.upgrade.restorebackup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Number of rows of each backup part committed to the aspect table by {@link RestoreStorageStep}, persisted to a local
+ * file after every committed batch so that a crashed restore can resume where it stopped.
+ */
+public class RestoreCheckpoint {
+
+  private final Path _path;
+  private final Map<String, Long> _committedRows = new ConcurrentHashMap<>();
+
+  private RestoreCheckpoint(@Nonnull Path path) throws IOException {
+    _path = path;
+    if (Files.exists(path)) {
+      final Properties properties = new Properties();
+      try (InputStream inputStream = Files.newInputStream(path)) {
+        properties.load(inputStream);
+      }
+      properties.stringPropertyNames()
+          .forEach(part -> _committedRows.put(part, Long.parseLong(properties.getProperty(part))));
+    }
+  }
+
+  /**
+   * Returns the checkpoint stored at the path set by the CHECKPOINT_FILE_PATH argument, if any.
+   */
+  @Nonnull
+  public static Optional<RestoreCheckpoint> fromArgs(@Nonnull Map<String, Optional<String>> parsedArgs) {
+    final Optional<String> path =
+        parsedArgs.getOrDefault(RestoreBackup.CHECKPOINT_FILE_PATH_ARG_NAME, Optional.empty());
+    if (!path.isPresent()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(new RestoreCheckpoint(Paths.get(path.get())));
+    } catch (IOException | NumberFormatException e) {
+      throw new RuntimeException(String.format("Failed to read restore checkpoint %s", path.get()), e);
+    }
+  }
+
+  /**
+   * Returns whether a previous restore committed rows, i.e. whether this restore resumes it.
+   */
+  public boolean isResuming() {
+    return _committedRows.values().stream().anyMatch(rows -> rows > 0);
+  }
+
+  public long getCommittedRows(@Nonnull String part) {
+    return _committedRows.getOrDefault(part, 0L);
+  }
+
+  /**
+   * Records that the first given number of rows of the given backup part are committed.
+   */
+  public synchronized void commit(@Nonnull String part, long committedRows) {
+    _committedRows.put(part, committedRows);
+    final Properties properties = new Properties();
+    _committedRows.forEach((name, rows) -> properties.setProperty(name, String.valueOf(rows)));
+    final Path tmpPath = _path.resolveSibling(_path.getFileName() + ".tmp");
+    try {
+      try (OutputStream outputStream = Files.newOutputStream(tmpPath)) {
+        properties.store(outputStream, "Rows committed per backup part");
+      }
+      Files.move(tmpPath, _path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new RuntimeException(String.format("Failed to write restore checkpoint %s", _path), e);
+    }
+  }
+
+  /**
+   * Deletes the checkpoint once the restore completed, so that the next restore starts from scratch.
+   */
+  public synchronized void delete() {
+    _committedRows.clear();
+    try {
+      Files.deleteIfExists(_path);
+    } catch (IOException e) {
+      throw new RuntimeException(String.format("Failed to delete restore checkpoint %s", _path), e);
+    }
+  }
+}
@@ -1,43 +1,59 @@
 package com.linkedin.datahub.upgrade.restorebackup;
 
-import com.google.common.collect.ImmutableList;
-import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
-import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.datahub.upgrade.UpgradeContext;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeStepResult;
 import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
 import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupReader;
 import com.linkedin.datahub.upgrade.restorebackup.backupreader.EbeanAspectBackupIterator;
-import com.linkedin.datahub.upgrade.restorebackup.backupreader.LocalParquetReader;
-import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
 import com.linkedin.metadata.entity.ebean.EbeanUtils;
-import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
-import java.net.URISyntaxException;
+import io.ebean.EbeanServer;
+import io.ebean.Transaction;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
+/**
+ * Restores the aspect table from a backup.
+ *
+ * <p>The parts of the backup are read in parallel, and their rows are validated then inserted in batches directly into
+ * the aspect table: the backup is authoritative, so rows are not merged with the current state of the table through the
+ * EntityService, and no MAE is emitted. The search & graph indices are rebuilt from the restored table by a following
+ * step.
+ */
 public class RestoreStorageStep implements UpgradeStep {
 
-  private static final int REPORT_BATCH_SIZE = 1000;
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+  private static final int DEFAULT_NUM_THREADS = 4;
+  private static final int REPORT_BATCH_SIZE = 100000;
+  private static final Comparator<EbeanAspectV2> KEY_ORDER = Comparator.comparing(EbeanAspectV2::getUrn)
+      .thenComparing(EbeanAspectV2::getAspect)
+      .thenComparingLong(EbeanAspectV2::getVersion);
 
-  private final EntityService _entityService;
+  private final EbeanServer _server;
   private final EntityRegistry _entityRegistry;
   private final Map<String, BackupReader> _backupReaders;
 
-  public RestoreStorageStep(final EntityService entityService, final EntityRegistry entityRegistry) {
-    _entityService = entityService;
+  public RestoreStorageStep(final EbeanServer server, final EntityRegistry entityRegistry,
+      final List<BackupReader> backupReaders) {
+    _server = server;
     _entityRegistry = entityRegistry;
-    _backupReaders = ImmutableList.of(new LocalParquetReader())
-        .stream()
-        .collect(Collectors.toMap(BackupReader::getName, Function.identity()));
+    _backupReaders = backupReaders.stream().collect(Collectors.toMap(BackupReader::getName, Function.identity()));
   }
 
   @Override
@@ -55,83 +71,154 @@ public class RestoreStorageStep implements UpgradeStep {
     return (context) -> {
 
       context.report().addLine("Starting backup restore...");
-      int numRows = 0;
       Optional<String> backupReaderName = context.parsedArgs().get("BACKUP_READER");
       if (!backupReaderName.isPresent() || !_backupReaders.containsKey(backupReaderName.get())) {
         context.report().addLine("BACKUP_READER is not set or is not valid");
         return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
       }
 
-      EbeanAspectBackupIterator iterator = _backupReaders.get(backupReaderName.get()).getBackupIterator(context);
-      EbeanAspectV2 aspect;
-      while ((aspect = iterator.next()) != null) {
-        numRows++;
-
-        // 1. Extract an Entity type from the entity Urn
-        Urn urn;
-        try {
-          urn = Urn.createFromString(aspect.getKey().getUrn());
-        } catch (Exception e) {
-          context.report()
-              .addLine(
-                  String.format("Failed to bind Urn with value %s into Urn object: %s", aspect.getKey().getUrn(), e));
-          return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      final int batchSize = getIntArg(context.parsedArgs(), RestoreBackup.BATCH_SIZE_ARG_NAME, DEFAULT_BATCH_SIZE);
+      final int numThreads = getIntArg(context.parsedArgs(), RestoreBackup.NUM_THREADS_ARG_NAME, DEFAULT_NUM_THREADS);
+      final Optional<RestoreCheckpoint> checkpoint = RestoreCheckpoint.fromArgs(context.parsedArgs());
+      final Map<String, EbeanAspectBackupIterator> parts =
+          _backupReaders.get(backupReaderName.get()).getBackupIterators(context);
+      context.report()
+          .addLine(String.format("Restoring %d backup parts with %d threads in batches of %d rows", parts.size(),
+              numThreads, batchSize));
+
+      final AtomicLong numRows = new AtomicLong();
+      final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+      try {
+        final List<Future<?>> futures = new ArrayList<>();
+        parts.forEach((part, iterator) -> futures.add(
+            executor.submit(() -> restorePart(context, part, iterator, batchSize, checkpoint, numRows))));
+        for (Future<?> future : futures) {
+          future.get();
         }
+      } catch (ExecutionException e) {
+        context.report().addLine(String.format("Failed to restore backup: %s", e.getCause()));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Thread interrupted while restoring backup.");
+      } finally {
+        executor.shutdownNow();
+        parts.values().forEach(this::close);
+      }
 
-        // 2. Verify that the entity associated with the aspect is found in the registry.
-        final String entityName = urn.getEntityType();
-        final EntitySpec entitySpec;
-        try {
-          entitySpec = _entityRegistry.getEntitySpec(entityName);
-        } catch (Exception e) {
-          context.report()
-              .addLine(String.format("Failed to find Entity with name %s in Entity Registry: %s", entityName, e));
-          return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-        }
-        final String aspectName = aspect.getKey().getAspect();
-
-        // 3. Create record from json aspect
-        final RecordTemplate aspectRecord =
-            EbeanUtils.toAspectRecord(entityName, aspectName, aspect.getMetadata(), _entityRegistry);
-
-        // 4. Verify that the aspect is a valid aspect associated with the entity
-        AspectSpec aspectSpec;
-        try {
-          aspectSpec = entitySpec.getAspectSpec(aspectName);
-        } catch (Exception e) {
-          context.report()
-              .addLine(String.format("Failed to find aspect spec with name %s associated with entity named %s: %s",
-                  aspectName, entityName, e));
-          return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-        }
+      checkpoint.ifPresent(RestoreCheckpoint::delete);
+      context.report().addLine(String.format("Added %d rows to the aspect v2 table", numRows.get()));
+      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
+    };
+  }
 
-        // 5. Write the row back using the EntityService
-        boolean emitMae = aspect.getKey().getVersion() == 0L;
-        _entityService.updateAspect(urn, entityName, aspectName, aspectSpec, aspectRecord, toAuditStamp(aspect),
-            aspect.getKey().getVersion(), emitMae);
+  private void restorePart(final UpgradeContext context, final String part, final EbeanAspectBackupIterator iterator,
+      final int batchSize, final Optional<RestoreCheckpoint> checkpoint, final AtomicLong numRows) {
+    long committedRows = checkpoint.map(c -> c.getCommittedRows(part)).orElse(0L);
+    for (long i = 0; i < committedRows; i++) {
+      if (iterator.next() == null) {
+        throw new IllegalStateException(
+            String.format("Backup part %s has less rows than the %d committed by a previous restore", part,
+                committedRows));
+      }
+    }
+    if (committedRows > 0) {
+      context.report().addLine(String.format("Resuming backup part %s after %d rows", part, committedRows));
+    }
 
-        if (numRows % REPORT_BATCH_SIZE == 0) {
-          context.report().addLine(String.format("Successfully inserted %d rows", numRows));
+    // The batch following a checkpoint may have been committed before the checkpoint could be written.
+    boolean mayExist = committedRows > 0;
+    final List<EbeanAspectV2> batch = new ArrayList<>(batchSize);
+    EbeanAspectV2 aspect;
+    do {
+      aspect = iterator.next();
+      if (aspect != null) {
+        validate(aspect);
+        batch.add(aspect);
+      }
+      if (batch.size() >= batchSize || (aspect == null && !batch.isEmpty())) {
+        insertBatch(batch, mayExist);
+        mayExist = false;
+        committedRows += batch.size();
+        final long committed = committedRows;
+        checkpoint.ifPresent(c -> c.commit(part, committed));
+        final long total = numRows.addAndGet(batch.size());
+        if (total / REPORT_BATCH_SIZE != (total - batch.size()) / REPORT_BATCH_SIZE) {
+          context.report().addLine(String.format("Successfully inserted %d rows", total));
         }
+        batch.clear();
       }
+    } while (aspect != null);
+  }
 
-      context.report().addLine(String.format("Added %d rows to the aspect v2 table", numRows));
-      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
-    };
+  /**
+   * Verifies that the row can be read back by GMS, i.e. that its urn, entity, aspect and metadata are valid.
+   */
+  private void validate(final EbeanAspectV2 aspect) {
+    // 1. Extract an Entity type from the entity Urn
+    final Urn urn;
+    try {
+      urn = Urn.createFromString(aspect.getKey().getUrn());
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          String.format("Failed to bind Urn with value %s into Urn object: %s", aspect.getKey().getUrn(), e));
+    }
+
+    // 2. Verify that the entity associated with the aspect is found in the registry.
+    final String entityName = urn.getEntityType();
+    final EntitySpec entitySpec;
+    try {
+      entitySpec = _entityRegistry.getEntitySpec(entityName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          String.format("Failed to find Entity with name %s in Entity Registry: %s", entityName, e));
+    }
+    final String aspectName = aspect.getKey().getAspect();
+
+    // 3. Verify that the aspect is a valid aspect associated with the entity
+    try {
+      entitySpec.getAspectSpec(aspectName);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          String.format("Failed to find aspect spec with name %s associated with entity named %s: %s", aspectName,
+              entityName, e));
+    }
+
+    // 4. Verify that the json aspect can be converted into a record
+    EbeanUtils.toAspectRecord(entityName, aspectName, aspect.getMetadata(), _entityRegistry);
   }
 
-  private AuditStamp toAuditStamp(final EbeanAspectV2 aspect) {
-    final AuditStamp auditStamp = new AuditStamp();
-    auditStamp.setTime(aspect.getCreatedOn().getTime());
+  /**
+   * Inserts the rows in a single transaction, ordered by key so that the rows of a urn are written together.
+   */
+  private void insertBatch(final List<EbeanAspectV2> batch, final boolean mayExist) {
+    final List<EbeanAspectV2> rows = batch.stream()
+        .filter(row -> !mayExist || _server.find(EbeanAspectV2.class, row.getKey()) == null)
+        .sorted(KEY_ORDER)
+        .collect(Collectors.toList());
+    if (rows.isEmpty()) {
+      return;
+    }
+    try (Transaction transaction = _server.beginTransaction()) {
+      transaction.setBatchMode(true);
+      transaction.setBatchSize(rows.size());
+      _server.insertAll(rows);
+      transaction.commit();
+    }
+  }
 
+  private void close(final EbeanAspectBackupIterator iterator) {
     try {
-      auditStamp.setActor(new Urn(aspect.getCreatedBy()));
-      if (aspect.getCreatedFor() != null) {
-        auditStamp.setImpersonator(new Urn(aspect.getCreatedFor()));
-      }
-    } catch (URISyntaxException e) {
-      throw new RuntimeException(e);
+      iterator.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to close backup iterator", e);
+    }
+  }
+
+  private int getIntArg(final Map<String, Optional<String>> parsedArgs, final String argName, final int defaultValue) {
+    int resolvedValue = defaultValue;
+    if (parsedArgs.containsKey(argName) && parsedArgs.get(argName).isPresent()) {
+      resolvedValue = Integer.parseInt(parsedArgs.get(argName).get());
     }
-    return auditStamp;
+    return resolvedValue;
   }
 }
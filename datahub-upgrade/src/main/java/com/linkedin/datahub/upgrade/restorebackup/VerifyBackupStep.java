@@ -0,0 +1,54 @@
+package com.linkedin.datahub.upgrade.restorebackup;
+
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Verifies that the backup can be restored on its own, e.g. that it is not an incremental backup, before the storage
+ * stack is cleared to restore it.
+ */
+public class VerifyBackupStep implements UpgradeStep {
+
+  private final Map<String, BackupReader> _backupReaders;
+
+  public VerifyBackupStep(final List<BackupReader> backupReaders) {
+    _backupReaders = backupReaders.stream().collect(Collectors.toMap(BackupReader::getName, Function.identity()));
+  }
+
+  @Override
+  public String id() {
+    return "VerifyBackupStep";
+  }
+
+  @Override
+  public int retryCount() {
+    return 0;
+  }
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return (context) -> {
+      Optional<String> backupReaderName = context.parsedArgs().getOrDefault("BACKUP_READER", Optional.empty());
+      if (!backupReaderName.isPresent() || !_backupReaders.containsKey(backupReaderName.get())) {
+        context.report().addLine("BACKUP_READER is not set or is not valid");
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      try {
+        _backupReaders.get(backupReaderName.get()).verify(context);
+      } catch (IllegalArgumentException e) {
+        context.report().addLine(String.format("Backup cannot be restored: %s", e.getMessage()));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
+    };
+  }
+}
@@ -0,0 +1,72 @@
+package com.linkedin.datahub.upgrade.restorebackup.backupreader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+
+
+/**
+ * Describes the parquet files of a backup directory written by the CreateBackup upgrade, so that a restore only reads
+ * complete backups and can verify their files.
+ */
+@Data
+@NoArgsConstructor
+public class BackupManifest {
+
+  public static final String FILE_NAME = "manifest.json";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private long createdAtMillis;
+  // Only rows created after this time are in the backup, if set. Rows deleted since then are not recorded
+  @Nullable
+  private Long sinceCreatedOnMillis;
+  // The watermark to take the next incremental backup from. It overlaps this backup, so that rows committed after they
+  // were created are not missed
+  @Nullable
+  private Long maxCreatedOnMillis;
+  private long rowCount;
+  private List<BackupFile> files = new ArrayList<>();
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class BackupFile {
+    private String name;
+    private long rowCount;
+    private String sha256;
+  }
+
+  /**
+   * Returns the manifest of the given backup directory, if any.
+   */
+  @Nonnull
+  public static Optional<BackupManifest> read(@Nonnull File directory) throws IOException {
+    final File file = new File(directory, FILE_NAME);
+    if (!file.exists()) {
+      return Optional.empty();
+    }
+    return Optional.of(OBJECT_MAPPER.readValue(file, BackupManifest.class));
+  }
+
+  public void write(@Nonnull File directory) throws IOException {
+    OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(directory, FILE_NAME), this);
+  }
+
+  @Nonnull
+  public static String checksum(@Nonnull File file) throws IOException {
+    try (InputStream inputStream = new FileInputStream(file)) {
+      return DigestUtils.sha256Hex(inputStream);
+    }
+  }
+}
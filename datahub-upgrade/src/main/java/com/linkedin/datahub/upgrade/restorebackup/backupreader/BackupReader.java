@@ -1,6 +1,8 @@
 package com.linkedin.datahub.upgrade.restorebackup.backupreader;
 
 import com.linkedin.datahub.upgrade.UpgradeContext;
+import java.util.Collections;
+import java.util.Map;
 import javax.annotation.Nonnull;
 
 
@@ -13,4 +15,20 @@ public interface BackupReader {
 
   @Nonnull
   EbeanAspectBackupIterator getBackupIterator(UpgradeContext context);
+
+  /**
+   * Verifies that the backup can be restored on its own, before anything is cleared to restore it. Throws an
+   * {@link IllegalArgumentException} otherwise.
+   */
+  default void verify(UpgradeContext context) {
+  }
+
+  /**
+   * Returns iterators over disjoint parts of the backup (e.g. one per backup file) which can be restored in parallel,
+   * keyed by a name identifying the part across runs.
+   */
+  @Nonnull
+  default Map<String, EbeanAspectBackupIterator> getBackupIterators(UpgradeContext context) {
+    return Collections.singletonMap(getName(), getBackupIterator(context));
+  }
 }
@@ -1,24 +1,36 @@
 package com.linkedin.datahub.upgrade.restorebackup.backupreader;
 
-import com.google.common.collect.ImmutableList;
 import com.linkedin.datahub.upgrade.UpgradeContext;
+import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
 
 
 /**
- * BackupReader for retrieving EbeanAspectV2 objects from a local parquet file
+ * BackupReader for retrieving EbeanAspectV2 objects from a local parquet file, or from every parquet file of a local
+ * directory. Backup directories with a {@link BackupManifest} are verified against it before being read.
  */
 @Slf4j
 public class LocalParquetReader implements BackupReader {
 
+  private static final String PARQUET_EXTENSION = ".parquet";
+
   public LocalParquetReader() {
     // Need below to solve issue with hadoop path class not working in linux systems
     // https://stackoverflow.com/questions/41864985/hadoop-ioexception-failure-to-login
@@ -30,19 +42,113 @@ public class LocalParquetReader implements BackupReader {
     return "LOCAL_PARQUET";
   }
 
+  @Override
+  public void verify(UpgradeContext context) {
+    final File file = getBackupPath(context);
+    if (!file.exists()) {
+      throw new IllegalArgumentException(String.format("Backup %s does not exist", file));
+    }
+    if (file.isDirectory()) {
+      readManifest(file);
+    }
+  }
+
   @Nonnull
   @Override
   public EbeanAspectBackupIterator getBackupIterator(UpgradeContext context) {
+    return new ParquetEbeanAspectBackupIterator(
+        getBackupFiles(context).stream().map(this::openReader).collect(Collectors.toList()));
+  }
+
+  @Nonnull
+  @Override
+  public Map<String, EbeanAspectBackupIterator> getBackupIterators(UpgradeContext context) {
+    final Map<String, EbeanAspectBackupIterator> iterators = new LinkedHashMap<>();
+    for (File file : getBackupFiles(context)) {
+      iterators.put(file.getName(),
+          new ParquetEbeanAspectBackupIterator(Collections.singletonList(openReader(file))));
+    }
+    return iterators;
+  }
+
+  @Nonnull
+  private File getBackupPath(UpgradeContext context) {
     Optional<String> path = context.parsedArgs().get("BACKUP_FILE_PATH");
     if (!path.isPresent()) {
       context.report().addLine("BACKUP_FILE_PATH must be set to run RestoreBackup through local parquet file");
       throw new IllegalArgumentException(
           "BACKUP_FILE_PATH must be set to run RestoreBackup through local parquet file");
     }
+    return new File(path.get());
+  }
+
+  /**
+   * Returns the manifest of the given backup directory, if any. Incremental backups only hold the rows created after
+   * the previous backup, so they are rejected: restoring one on its own would replace the aspect table with them.
+   */
+  @Nonnull
+  private Optional<BackupManifest> readManifest(@Nonnull File directory) {
+    final Optional<BackupManifest> manifest;
+    try {
+      manifest = BackupManifest.read(directory);
+    } catch (IOException e) {
+      throw new RuntimeException(String.format("Failed to read backup manifest: %s", e));
+    }
+    if (manifest.isPresent() && manifest.get().getSinceCreatedOnMillis() != null) {
+      throw new IllegalArgumentException(
+          String.format("Backup %s is incremental since createdOn %d, and cannot be restored on its own", directory,
+              manifest.get().getSinceCreatedOnMillis()));
+    }
+    return manifest;
+  }
+
+  @Nonnull
+  private List<File> getBackupFiles(UpgradeContext context) {
+    final File file = getBackupPath(context);
+    if (!file.isDirectory()) {
+      return Collections.singletonList(file);
+    }
+    final Optional<BackupManifest> manifest = readManifest(file);
+    if (manifest.isPresent()) {
+      final List<BackupManifest.BackupFile> backupFiles = manifest.get().getFiles();
+      context.report().addLine(String.format("Verifying %d files of backup manifest", backupFiles.size()));
+      return backupFiles.stream().map(backupFile -> verifyFile(file, backupFile)).collect(Collectors.toList());
+    }
+    final File[] files = file.listFiles((dir, name) -> name.endsWith(PARQUET_EXTENSION));
+    if (files == null || files.length == 0) {
+      throw new IllegalArgumentException(String.format("No parquet file found in directory %s", file));
+    }
+    return Arrays.stream(files).sorted().collect(Collectors.toList());
+  }
 
+  /**
+   * Verifies that the given file of the backup manifest is complete, and returns it.
+   */
+  @Nonnull
+  private File verifyFile(@Nonnull File directory, @Nonnull BackupManifest.BackupFile backupFile) {
+    final File file = new File(directory, backupFile.getName());
+    try {
+      if (!BackupManifest.checksum(file).equals(backupFile.getSha256())) {
+        throw new IllegalStateException(String.format("Checksum mismatch for backup file %s", file));
+      }
+      try (ParquetFileReader reader = ParquetFileReader.open(
+          HadoopInputFile.fromPath(new Path(file.getPath()), new Configuration()))) {
+        if (reader.getRecordCount() != backupFile.getRowCount()) {
+          throw new IllegalStateException(
+              String.format("Backup file %s has %d rows, expected %d", file, reader.getRecordCount(),
+                  backupFile.getRowCount()));
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(String.format("Failed to verify backup file %s: %s", file, e));
+    }
+    return file;
+  }
+
+  @Nonnull
+  private ParquetReader<GenericRecord> openReader(@Nonnull File file) {
     try {
-      ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(new Path(path.get())).build();
-      return new ParquetEbeanAspectBackupIterator(ImmutableList.of(reader));
+      return AvroParquetReader.<GenericRecord>builder(new Path(file.getPath())).build();
     } catch (IOException e) {
       throw new RuntimeException(String.format("Failed to build ParquetReader: %s", e));
     }
@@ -4,8 +4,10 @@ import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
 import java.io.IOException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
@@ -59,8 +61,23 @@ public class ParquetEbeanAspectBackupIterator implements EbeanAspectBackupIterat
   private EbeanAspectV2 convertRecord(GenericRecord record) {
     return new EbeanAspectV2(record.get("urn").toString(), record.get("aspect").toString(),
         (Long) record.get("version"), record.get("metadata").toString(),
-        Timestamp.from(Instant.ofEpochMilli((Long) record.get("createdon") / 1000)), record.get("createdby").toString(),
+        fromCreatedOnMicros((Long) record.get("createdon")), record.get("createdby").toString(),
         Optional.ofNullable(record.get("createdfor")).map(Object::toString).orElse(null),
         Optional.ofNullable(record.get("systemmetadata")).map(Object::toString).orElse(null));
   }
+
+  /**
+   * Returns the createdon of a backed up aspect, which is in epoch micros as in parquet exports of the aspect table.
+   */
+  @Nonnull
+  public static Timestamp fromCreatedOnMicros(long createdOnMicros) {
+    return Timestamp.from(Instant.EPOCH.plus(createdOnMicros, ChronoUnit.MICROS));
+  }
+
+  /**
+   * Returns the createdon to back up the given aspect with, keeping the microseconds of the aspect table.
+   */
+  public static long toCreatedOnMicros(@Nonnull Timestamp createdOn) {
+    return ChronoUnit.MICROS.between(Instant.EPOCH, createdOn.toInstant());
+  }
 }
@@ -6,6 +6,7 @@ import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.common.steps.ClearGraphServiceStep;
 import com.linkedin.datahub.upgrade.common.steps.ClearSearchServiceStep;
+import com.linkedin.datahub.upgrade.common.steps.DependentStep;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.models.registry.EntityRegistry;
@@ -18,6 +19,7 @@ import java.util.List;
 public class RestoreIndices implements Upgrade {
   public static final String BATCH_SIZE_ARG_NAME = "batchSize";
   public static final String BATCH_DELAY_MS_ARG_NAME = "batchDelayMs";
+  public static final String NUM_THREADS_ARG_NAME = "numThreads";
 
   private final List<UpgradeStep> _steps;
 
@@ -41,9 +43,12 @@ public class RestoreIndices implements Upgrade {
       final EntityRegistry entityRegistry, final EntitySearchService entitySearchService,
       final GraphService graphService) {
     final List<UpgradeStep> steps = new ArrayList<>();
-    steps.add(new ClearSearchServiceStep(entitySearchService, false));
-    steps.add(new ClearGraphServiceStep(graphService, false));
-    steps.add(new SendMAEStep(server, entityService, entityRegistry));
+    final UpgradeStep clearSearchStep = new ClearSearchServiceStep(entitySearchService, false);
+    final UpgradeStep clearGraphStep = new ClearGraphServiceStep(graphService, false);
+    steps.add(clearSearchStep);
+    steps.add(new DependentStep(clearGraphStep, ImmutableList.of()));
+    steps.add(new DependentStep(new SendMAEStep(server, entityService, entityRegistry),
+        ImmutableList.of(clearSearchStep.id(), clearGraphStep.id())));
     return steps;
   }
 
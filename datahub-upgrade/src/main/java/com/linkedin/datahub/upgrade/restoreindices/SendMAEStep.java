@@ -2,11 +2,11 @@ package com.linkedin.datahub.upgrade.restoreindices;
 
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.datahub.upgrade.PartitionedUpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeContext;
-import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeStepResult;
-import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
-import com.linkedin.datahub.upgrade.nocode.NoCodeUpgrade;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges.UrnRange;
 import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
@@ -16,26 +16,48 @@ import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.mxe.SystemMetadata;
 import io.ebean.EbeanServer;
-import io.ebean.PagedList;
+import io.ebean.ExpressionList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 
 
-public class SendMAEStep implements UpgradeStep {
+/**
+ * Produces MAEs for the latest version of every aspect. The urn space is split into ranges holding about as many
+ * aspects each, and every range is sent by its own partition with keyset pagination over the primary key, so that
+ * reading stays cheap however deep into the table it gets.
+ */
+public class SendMAEStep extends PartitionedUpgradeStep<UrnRange> {
 
   private static final int DEFAULT_BATCH_SIZE = 1000;
   private static final long DEFAULT_BATCH_DELAY_MS = 250;
+  private static final int DEFAULT_NUM_THREADS = 1;
 
   private final EbeanServer _server;
   private final EntityService _entityService;
   private final EntityRegistry _entityRegistry;
+  private final String _batchSizeArgName;
+  private final String _numThreadsArgName;
+  private final String _batchDelayMsArgName;
 
   public SendMAEStep(final EbeanServer server, final EntityService entityService, final EntityRegistry entityRegistry) {
+    this(server, entityService, entityRegistry, RestoreIndices.BATCH_SIZE_ARG_NAME, RestoreIndices.NUM_THREADS_ARG_NAME,
+        RestoreIndices.BATCH_DELAY_MS_ARG_NAME);
+  }
+
+  /**
+   * Creates a step reading its batch size, number of threads and batch delay from the given arguments, for upgrades
+   * other than {@link RestoreIndices} whose arguments are named differently.
+   */
+  public SendMAEStep(final EbeanServer server, final EntityService entityService, final EntityRegistry entityRegistry,
+      final String batchSizeArgName, final String numThreadsArgName, final String batchDelayMsArgName) {
     _server = server;
     _entityService = entityService;
     _entityRegistry = entityRegistry;
+    _batchSizeArgName = batchSizeArgName;
+    _numThreadsArgName = numThreadsArgName;
+    _batchDelayMsArgName = batchDelayMsArgName;
   }
 
   @Override
@@ -49,117 +71,114 @@ public class SendMAEStep implements UpgradeStep {
   }
 
   @Override
-  public Function<UpgradeContext, UpgradeStepResult> executable() {
-    return (context) -> {
-
-      context.report().addLine("Sending MAE from local DB...");
-      final int rowCount = _server.find(EbeanAspectV2.class).where().eq(EbeanAspectV2.VERSION_COLUMN, 0).findCount();
-      context.report().addLine(String.format("Found %s latest aspects in aspects table", rowCount));
-
-      int totalRowsMigrated = 0;
-      int start = 0;
-      int count = getBatchSize(context.parsedArgs());
-      while (start < rowCount) {
-
-        context.report()
-            .addLine(String.format("Reading rows %s through %s from the aspects table.", start, start + count));
-        PagedList<EbeanAspectV2> rows = getPagedAspects(start, count);
-
-        for (EbeanAspectV2 aspect : rows.getList()) {
-          // 1. Extract an Entity type from the entity Urn
-          Urn urn;
-          try {
-            urn = Urn.createFromString(aspect.getKey().getUrn());
-          } catch (Exception e) {
-            context.report()
-                .addLine(
-                    String.format("Failed to bind Urn with value %s into Urn object: %s", aspect.getKey().getUrn(), e));
-            return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-          }
-
-          // 2. Verify that the entity associated with the aspect is found in the registry.
-          final String entityName = urn.getEntityType();
-          final EntitySpec entitySpec;
-          try {
-            entitySpec = _entityRegistry.getEntitySpec(entityName);
-          } catch (Exception e) {
-            context.report()
-                .addLine(String.format("Failed to find Entity with name %s in Entity Registry: %s", entityName, e));
-            return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-          }
-          final String aspectName = aspect.getKey().getAspect();
-
-          // 3. Create record from json aspect
-          final RecordTemplate aspectRecord =
-              EbeanUtils.toAspectRecord(entityName, aspectName, aspect.getMetadata(), _entityRegistry);
-
-          // 4. Verify that the aspect is a valid aspect associated with the entity
-          AspectSpec aspectSpec;
-          try {
-            aspectSpec = entitySpec.getAspectSpec(aspectName);
-          } catch (Exception e) {
-            context.report()
-                .addLine(String.format("Failed to find aspect spec with name %s associated with entity named %s: %s",
-                    aspectName, entityName, e));
-            return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
-          }
-
-          SystemMetadata latestSystemMetadata = EbeanUtils.parseSystemMetadata(aspect.getSystemMetadata());
-
-          // 5. Produce MAE events for the aspect record
-          _entityService.produceMetadataChangeLog(urn, entityName, aspectName, aspectSpec, null, aspectRecord, null,
-              latestSystemMetadata, ChangeType.UPSERT);
-
-          totalRowsMigrated++;
+  protected List<UrnRange> partitions(UpgradeContext context) {
+    context.report().addLine("Sending MAE from local DB...");
+    final int rowCount = latest(_server.find(EbeanAspectV2.class).where()).findCount();
+    context.report().addLine(String.format("Found %s latest aspects in aspects table", rowCount));
+    return AspectTableRanges.split(_server, SendMAEStep::latest, getNumThreads(context.parsedArgs()),
+        getBatchSize(context.parsedArgs()));
+  }
+
+  @Override
+  protected int parallelism(UpgradeContext context) {
+    return getNumThreads(context.parsedArgs());
+  }
+
+  @Override
+  protected UpgradeStepResult.Result executePartition(UpgradeContext context, UrnRange range,
+      PartitionProgress progress) {
+    final int batchSize = getBatchSize(context.parsedArgs());
+    final long batchDelayMs = getBatchDelayMs(context.parsedArgs());
+
+    int totalRowsMigrated = 0;
+    EbeanAspectV2 last = null;
+    List<EbeanAspectV2> rows;
+    do {
+      rows = AspectTableRanges.getRowsAfter(_server, range, SendMAEStep::latest, last, batchSize);
+      for (EbeanAspectV2 aspect : rows) {
+        // 1. Extract an Entity type from the entity Urn
+        Urn urn;
+        try {
+          urn = Urn.createFromString(aspect.getKey().getUrn());
+        } catch (Exception e) {
+          context.report()
+              .addLine(
+                  String.format("Failed to bind Urn with value %s into Urn object: %s", aspect.getKey().getUrn(), e));
+          return UpgradeStepResult.Result.FAILED;
         }
-        context.report().addLine(String.format("Successfully sent MAEs for %s rows", totalRowsMigrated));
-        start = start + count;
+
+        // 2. Verify that the entity associated with the aspect is found in the registry.
+        final String entityName = urn.getEntityType();
+        final EntitySpec entitySpec;
         try {
-          TimeUnit.MILLISECONDS.sleep(getBatchDelayMs(context.parsedArgs()));
-        } catch (InterruptedException e) {
-          throw new RuntimeException("Thread interrupted while sleeping after successful batch migration.");
+          entitySpec = _entityRegistry.getEntitySpec(entityName);
+        } catch (Exception e) {
+          context.report()
+              .addLine(String.format("Failed to find Entity with name %s in Entity Registry: %s", entityName, e));
+          return UpgradeStepResult.Result.FAILED;
         }
+        final String aspectName = aspect.getKey().getAspect();
+
+        // 3. Create record from json aspect
+        final RecordTemplate aspectRecord =
+            EbeanUtils.toAspectRecord(entityName, aspectName, aspect.getMetadata(), _entityRegistry);
+
+        // 4. Verify that the aspect is a valid aspect associated with the entity
+        AspectSpec aspectSpec;
+        try {
+          aspectSpec = entitySpec.getAspectSpec(aspectName);
+        } catch (Exception e) {
+          context.report()
+              .addLine(String.format("Failed to find aspect spec with name %s associated with entity named %s: %s",
+                  aspectName, entityName, e));
+          return UpgradeStepResult.Result.FAILED;
+        }
+
+        SystemMetadata latestSystemMetadata = EbeanUtils.parseSystemMetadata(aspect.getSystemMetadata());
+
+        // 5. Produce MAE events for the aspect record
+        _entityService.produceMetadataChangeLog(urn, entityName, aspectName, aspectSpec, null, aspectRecord, null,
+            latestSystemMetadata, ChangeType.UPSERT);
+
+        totalRowsMigrated++;
+      }
+      if (rows.isEmpty()) {
+        break;
       }
-      if (totalRowsMigrated != rowCount) {
-        context.report()
-            .addLine(
-                String.format("Number of MAEs sent %s does not equal the number of input rows %s...", totalRowsMigrated,
-                    rowCount));
-        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      last = rows.get(rows.size() - 1);
+      progress.add(rows.size());
+      context.report().addLine(String.format("Successfully sent MAEs for %s rows", totalRowsMigrated));
+      try {
+        TimeUnit.MILLISECONDS.sleep(batchDelayMs);
+      } catch (InterruptedException e) {
+        throw new RuntimeException("Thread interrupted while sleeping after successful batch migration.");
       }
-      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
-    };
+    } while (rows.size() == batchSize);
+    return UpgradeStepResult.Result.SUCCEEDED;
   }
 
-  private PagedList<EbeanAspectV2> getPagedAspects(final int start, final int pageSize) {
-    return _server.find(EbeanAspectV2.class)
-        .select(EbeanAspectV2.ALL_COLUMNS)
-        .where()
-        .eq(EbeanAspectV2.VERSION_COLUMN, 0)
-        .orderBy()
-        .asc(EbeanAspectV2.URN_COLUMN)
-        .orderBy()
-        .asc(EbeanAspectV2.ASPECT_COLUMN)
-        .setFirstRow(start)
-        .setMaxRows(pageSize)
-        .findPagedList();
+  private static ExpressionList<EbeanAspectV2> latest(final ExpressionList<EbeanAspectV2> query) {
+    return query.eq(EbeanAspectV2.VERSION_COLUMN, 0);
   }
 
   private int getBatchSize(final Map<String, Optional<String>> parsedArgs) {
-    int resolvedBatchSize = DEFAULT_BATCH_SIZE;
-    if (parsedArgs.containsKey(RestoreIndices.BATCH_SIZE_ARG_NAME) && parsedArgs.get(NoCodeUpgrade.BATCH_SIZE_ARG_NAME)
-        .isPresent()) {
-      resolvedBatchSize = Integer.parseInt(parsedArgs.get(RestoreIndices.BATCH_SIZE_ARG_NAME).get());
-    }
-    return resolvedBatchSize;
+    return (int) getLongArg(parsedArgs, _batchSizeArgName, DEFAULT_BATCH_SIZE);
+  }
+
+  private int getNumThreads(final Map<String, Optional<String>> parsedArgs) {
+    return (int) getLongArg(parsedArgs, _numThreadsArgName, DEFAULT_NUM_THREADS);
   }
 
   private long getBatchDelayMs(final Map<String, Optional<String>> parsedArgs) {
-    long resolvedBatchDelayMs = DEFAULT_BATCH_DELAY_MS;
-    if (parsedArgs.containsKey(RestoreIndices.BATCH_DELAY_MS_ARG_NAME) && parsedArgs.get(
-        NoCodeUpgrade.BATCH_DELAY_MS_ARG_NAME).isPresent()) {
-      resolvedBatchDelayMs = Long.parseLong(parsedArgs.get(RestoreIndices.BATCH_DELAY_MS_ARG_NAME).get());
+    return getLongArg(parsedArgs, _batchDelayMsArgName, DEFAULT_BATCH_DELAY_MS);
+  }
+
+  private long getLongArg(final Map<String, Optional<String>> parsedArgs, final String argName,
+      final long defaultValue) {
+    long resolvedValue = defaultValue;
+    if (parsedArgs.containsKey(argName) && parsedArgs.get(argName).isPresent()) {
+      resolvedValue = Long.parseLong(parsedArgs.get(argName).get());
     }
-    return resolvedBatchDelayMs;
+    return resolvedValue;
   }
 }
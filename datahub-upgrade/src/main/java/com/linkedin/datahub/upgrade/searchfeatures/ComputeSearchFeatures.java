@@ -0,0 +1,44 @@
+package com.linkedin.datahub.upgrade.searchfeatures;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.datahub.upgrade.Upgrade;
+import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import java.util.List;
+import org.elasticsearch.client.RestHighLevelClient;
+
+
+/**
+ * Computes the ranking features of search documents from usage statistics and search click events, and writes them
+ * into the search indices, where the search ranker uses them. Meant to be run periodically, e.g. daily.
+ */
+public class ComputeSearchFeatures implements Upgrade {
+  public static final String LOOKBACK_DAYS_ARG_NAME = "LOOKBACK_DAYS";
+  public static final String RECENCY_HALF_LIFE_DAYS_ARG_NAME = "RECENCY_HALF_LIFE_DAYS";
+
+  private final List<UpgradeStep> _steps;
+
+  public ComputeSearchFeatures(final RestHighLevelClient searchClient, final IndexConvention indexConvention,
+      final EntityRegistry entityRegistry, final TimeseriesIndexPartitioner partitioner) {
+    _steps =
+        ImmutableList.of(new ComputeSearchFeaturesStep(searchClient, indexConvention, entityRegistry, partitioner));
+  }
+
+  @Override
+  public String id() {
+    return "ComputeSearchFeatures";
+  }
+
+  @Override
+  public List<UpgradeStep> steps() {
+    return _steps;
+  }
+
+  @Override
+  public List<UpgradeCleanupStep> cleanupSteps() {
+    return ImmutableList.of();
+  }
+}
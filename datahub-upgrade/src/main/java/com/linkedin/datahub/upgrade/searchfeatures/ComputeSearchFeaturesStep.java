@@ -0,0 +1,85 @@
+package com.linkedin.datahub.upgrade.searchfeatures;
+
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.features.RankingFeature;
+import com.linkedin.metadata.search.features.RankingFeatureService;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.elasticsearch.client.RestHighLevelClient;
+
+
+public class ComputeSearchFeaturesStep implements UpgradeStep {
+
+  private static final int DEFAULT_LOOKBACK_DAYS = 30;
+  private static final double DEFAULT_RECENCY_HALF_LIFE_DAYS = 7;
+
+  private final RestHighLevelClient _searchClient;
+  private final IndexConvention _indexConvention;
+  private final EntityRegistry _entityRegistry;
+  private final TimeseriesIndexPartitioner _partitioner;
+
+  public ComputeSearchFeaturesStep(final RestHighLevelClient searchClient, final IndexConvention indexConvention,
+      final EntityRegistry entityRegistry, final TimeseriesIndexPartitioner partitioner) {
+    _searchClient = searchClient;
+    _indexConvention = indexConvention;
+    _entityRegistry = entityRegistry;
+    _partitioner = partitioner;
+  }
+
+  @Override
+  public String id() {
+    return "ComputeSearchFeaturesStep";
+  }
+
+  @Override
+  public int retryCount() {
+    return 1;
+  }
+
+  @Override
+  public Function<UpgradeContext, UpgradeStepResult> executable() {
+    return (context) -> {
+      final Map<String, Optional<String>> parsedArgs = context.parsedArgs();
+      final int lookbackDays = parsedArgs.getOrDefault(ComputeSearchFeatures.LOOKBACK_DAYS_ARG_NAME, Optional.empty())
+          .map(Integer::parseInt)
+          .orElse(DEFAULT_LOOKBACK_DAYS);
+      final double recencyHalfLifeDays =
+          parsedArgs.getOrDefault(ComputeSearchFeatures.RECENCY_HALF_LIFE_DAYS_ARG_NAME, Optional.empty())
+              .map(Double::parseDouble)
+              .orElse(DEFAULT_RECENCY_HALF_LIFE_DAYS);
+      final RankingFeatureService rankingFeatureService =
+          new RankingFeatureService(_searchClient, _indexConvention, _entityRegistry, _partitioner, lookbackDays,
+              recencyHalfLifeDays);
+
+      final long now = System.currentTimeMillis();
+      context.report()
+          .addLine(String.format("Computing search ranking features over the last %d days", lookbackDays));
+      final Map<String, Map<RankingFeature, Double>> features;
+      try {
+        features = rankingFeatureService.computeFeatures(now);
+      } catch (Exception e) {
+        context.report().addLine(String.format("Failed to compute search ranking features: %s", e));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      context.report().addLine(String.format("Computed usage and click features of %d entities", features.size()));
+
+      try {
+        final int written = rankingFeatureService.writeFeatures(features, now);
+        context.report()
+            .addLine(String.format("Wrote the features of %d entities, skipping %d without search document", written,
+                features.size() - written));
+      } catch (Exception e) {
+        context.report().addLine(String.format("Failed to write search ranking features: %s", e));
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
+      return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.SUCCEEDED);
+    };
+  }
+}
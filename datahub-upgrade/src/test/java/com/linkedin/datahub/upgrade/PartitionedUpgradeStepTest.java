@@ -0,0 +1,95 @@
+package com.linkedin.datahub.upgrade;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class PartitionedUpgradeStepTest {
+
+  private UpgradeContext _context;
+  private UpgradeReport _report;
+
+  @BeforeMethod
+  public void setup() {
+    _context = mock(UpgradeContext.class);
+    _report = new DefaultUpgradeReport();
+    when(_context.report()).thenReturn(_report);
+  }
+
+  @Test
+  public void testSucceedsWhenEveryPartitionSucceeds() {
+    final TestStep step = new TestStep(ImmutableList.of(1, 2, 3));
+
+    assertEquals(step.executable().apply(_context).result(), UpgradeStepResult.Result.SUCCEEDED);
+    assertEquals(step._processed, ImmutableMap.of(1, 1L, 2, 2L, 3, 3L));
+  }
+
+  @Test
+  public void testFailsWhenAPartitionFails() {
+    final TestStep step = new TestStep(ImmutableList.of(1, -1, 3));
+
+    assertEquals(step.executable().apply(_context).result(), UpgradeStepResult.Result.FAILED);
+    // The other partitions are still executed
+    assertEquals(step._processed.keySet(), ImmutableSet.of(1, -1, 3));
+  }
+
+  @Test
+  public void testFailsWhenAPartitionThrows() {
+    final TestStep step = new TestStep(ImmutableList.of(1, 0, 3));
+
+    assertEquals(step.executable().apply(_context).result(), UpgradeStepResult.Result.FAILED);
+    assertTrue(_report.lines().stream().anyMatch(line -> line.startsWith("Partition 2/3 of TestStep failed")));
+  }
+
+  @Test
+  public void testSucceedsWithoutPartitions() {
+    assertEquals(new TestStep(ImmutableList.of()).executable().apply(_context).result(),
+        UpgradeStepResult.Result.SUCCEEDED);
+  }
+
+  // Partitions process as many items as their value, fail when negative and throw when zero.
+  private static class TestStep extends PartitionedUpgradeStep<Integer> {
+    private final List<Integer> _partitions;
+    private final Map<Integer, Long> _processed = new ConcurrentHashMap<>();
+
+    private TestStep(List<Integer> partitions) {
+      _partitions = partitions;
+    }
+
+    @Override
+    public String id() {
+      return "TestStep";
+    }
+
+    @Override
+    protected List<Integer> partitions(UpgradeContext context) {
+      return _partitions;
+    }
+
+    @Override
+    protected int parallelism(UpgradeContext context) {
+      return 2;
+    }
+
+    @Override
+    protected UpgradeStepResult.Result executePartition(UpgradeContext context, Integer partition,
+        PartitionProgress progress) {
+      if (partition == 0) {
+        throw new IllegalStateException("partition 0");
+      }
+      progress.add(Math.abs(partition));
+      _processed.put(partition, progress.getProcessed());
+      return partition > 0 ? UpgradeStepResult.Result.SUCCEEDED : UpgradeStepResult.Result.FAILED;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.linkedin.datahub.upgrade.createbackup;
+
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class CreateBackupStepTest {
+
+  private static final long NOW = 1640995200000L;
+
+  @Test
+  public void testWatermarkOverlapsBackup() {
+    final long maxCreatedOn = NOW - TimeUnit.HOURS.toMillis(1);
+
+    assertEquals(CreateBackupStep.getWatermark(maxCreatedOn, NOW, null), maxCreatedOn - TimeUnit.MINUTES.toMillis(5));
+  }
+
+  @Test
+  public void testWatermarkOverlapsBackupStartForRowsCreatedDuringBackup() {
+    assertEquals(CreateBackupStep.getWatermark(NOW + TimeUnit.HOURS.toMillis(1), NOW, null),
+        NOW - TimeUnit.MINUTES.toMillis(5));
+  }
+
+  @Test
+  public void testWatermarkDoesNotGoBackPastPreviousWatermark() {
+    final long sinceCreatedOn = NOW - TimeUnit.MINUTES.toMillis(1);
+
+    assertEquals(CreateBackupStep.getWatermark(sinceCreatedOn, NOW, sinceCreatedOn), sinceCreatedOn);
+  }
+}
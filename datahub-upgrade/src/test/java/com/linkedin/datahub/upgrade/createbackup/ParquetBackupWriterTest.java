@@ -0,0 +1,78 @@
+package com.linkedin.datahub.upgrade.createbackup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupManifest;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.EbeanAspectBackupIterator;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.LocalParquetReader;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class ParquetBackupWriterTest {
+
+  @Test
+  public void testWrittenBackupIsReadBack() throws Exception {
+    final File directory = Files.createTempDirectory("backup").toFile();
+    final List<EbeanAspectV2> aspects = ImmutableList.of(
+        new EbeanAspectV2("urn:li:corpuser:a", "corpUserInfo", 0, "{\"active\":true}",
+            Timestamp.from(Instant.ofEpochSecond(1640995200L, 123456000)), "urn:li:corpuser:admin",
+            "urn:li:corpuser:impersonated", "{\"runId\":\"run\"}"),
+        new EbeanAspectV2("urn:li:corpuser:a", "corpUserInfo", 1, "{\"active\":false}",
+            Timestamp.from(Instant.ofEpochMilli(1640995200001L)), "urn:li:corpuser:admin", null, null),
+        new EbeanAspectV2("urn:li:corpuser:b", "corpUserKey", 0, "{\"username\":\"b\"}",
+            Timestamp.from(Instant.ofEpochMilli(0)), "urn:li:corpuser:admin", null, null));
+
+    // Two rows per file, so that the rows are read back across files
+    final ParquetBackupWriter writer = new ParquetBackupWriter(directory, "backup", 2);
+    for (EbeanAspectV2 aspect : aspects) {
+      writer.write(aspect);
+    }
+    writer.close();
+    final BackupManifest manifest = new BackupManifest();
+    manifest.setRowCount(aspects.size());
+    manifest.setFiles(writer.getFiles());
+    manifest.write(directory);
+    assertEquals(manifest.getFiles().size(), 2);
+
+    final List<EbeanAspectV2> readAspects = new ArrayList<>();
+    try (EbeanAspectBackupIterator iterator = new LocalParquetReader().getBackupIterator(createContext(directory))) {
+      EbeanAspectV2 aspect;
+      while ((aspect = iterator.next()) != null) {
+        readAspects.add(aspect);
+      }
+    }
+
+    assertEquals(readAspects.size(), aspects.size());
+    for (int i = 0; i < aspects.size(); i++) {
+      final EbeanAspectV2 expected = aspects.get(i);
+      final EbeanAspectV2 actual = readAspects.get(i);
+      assertEquals(actual.getKey(), expected.getKey());
+      assertEquals(actual.getMetadata(), expected.getMetadata());
+      // Down to the microsecond
+      assertEquals(actual.getCreatedOn(), expected.getCreatedOn());
+      assertEquals(actual.getCreatedBy(), expected.getCreatedBy());
+      assertEquals(actual.getCreatedFor(), expected.getCreatedFor());
+      assertEquals(actual.getSystemMetadata(), expected.getSystemMetadata());
+    }
+  }
+
+  private static UpgradeContext createContext(File directory) {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(ImmutableMap.of("BACKUP_FILE_PATH", Optional.of(directory.getPath())));
+    when(context.report()).thenReturn(new DefaultUpgradeReport());
+    return context;
+  }
+}
@@ -0,0 +1,199 @@
+package com.linkedin.datahub.upgrade.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.datahub.upgrade.Upgrade;
+import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeResult;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class DefaultUpgradeManagerTest {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private List<String> _executedSteps;
+
+  @BeforeMethod
+  public void setup() {
+    _executedSteps = new CopyOnWriteArrayList<>();
+  }
+
+  @Test
+  public void testStepsWithoutDependenciesExecuteSequentially() {
+    assertEquals(execute(step("a"), step("b"), step("c")), UpgradeResult.Result.SUCCEEDED);
+
+    assertEquals(_executedSteps, ImmutableList.of("a", "b", "c"));
+  }
+
+  @Test
+  public void testIndependentStepsExecuteConcurrently() {
+    // Each step only completes once both have started
+    final CountDownLatch started = new CountDownLatch(2);
+    final Function<UpgradeContext, UpgradeStepResult.Result> awaitBoth = context -> {
+      started.countDown();
+      return await(started) ? UpgradeStepResult.Result.SUCCEEDED : UpgradeStepResult.Result.FAILED;
+    };
+
+    assertEquals(execute(step("a", awaitBoth, false), step("b", awaitBoth, false), step("c", "a", "b")),
+        UpgradeResult.Result.SUCCEEDED);
+    assertEquals(_executedSteps.get(2), "c");
+  }
+
+  @Test
+  public void testDuplicateStepIdIsRejected() {
+    assertEquals(execute(step("a"), step("a")), UpgradeResult.Result.FAILED);
+    assertTrue(_executedSteps.isEmpty());
+  }
+
+  @Test
+  public void testUnknownDependencyIsRejected() {
+    assertEquals(execute(step("a"), step("b", "unknown")), UpgradeResult.Result.FAILED);
+    assertTrue(_executedSteps.isEmpty());
+  }
+
+  @Test
+  public void testDependencyCycleIsRejected() {
+    assertEquals(execute(step("a", new String[0]), step("b", "a", "d"), step("c", "b"), step("d", "c")),
+        UpgradeResult.Result.FAILED);
+    assertTrue(_executedSteps.isEmpty());
+  }
+
+  @Test
+  public void testAbortStopsDependentsAndRunningSteps() throws Exception {
+    final CountDownLatch runningStarted = new CountDownLatch(1);
+    final CountDownLatch runningInterrupted = new CountDownLatch(1);
+    final UpgradeStep running = step("running", context -> {
+      runningStarted.countDown();
+      try {
+        Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+      } catch (InterruptedException e) {
+        runningInterrupted.countDown();
+      }
+      return UpgradeStepResult.Result.SUCCEEDED;
+    }, false);
+    final UpgradeStep aborting = new TestStep("aborting", Collections.emptyList(), false, context -> {
+      await(runningStarted);
+      return new DefaultUpgradeStepResult("aborting", UpgradeStepResult.Result.SUCCEEDED,
+          UpgradeStepResult.Action.ABORT);
+    });
+
+    assertEquals(execute(running, aborting, step("dependent", "aborting")), UpgradeResult.Result.ABORTED);
+    assertTrue(runningInterrupted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertFalse(_executedSteps.contains("dependent"));
+  }
+
+  @Test
+  public void testFailedOptionalStepUnblocksDependents() {
+    assertEquals(execute(step("a", context -> UpgradeStepResult.Result.FAILED, true), step("b", "a")),
+        UpgradeResult.Result.SUCCEEDED);
+
+    assertEquals(_executedSteps, ImmutableList.of("a", "b"));
+  }
+
+  @Test
+  public void testFailedRequiredStepBlocksDependents() {
+    assertEquals(execute(step("a", context -> UpgradeStepResult.Result.FAILED, false), step("b", "a")),
+        UpgradeResult.Result.FAILED);
+
+    assertEquals(_executedSteps, ImmutableList.of("a"));
+  }
+
+  private UpgradeResult.Result execute(UpgradeStep... steps) {
+    final DefaultUpgradeManager manager = new DefaultUpgradeManager();
+    manager.register(new Upgrade() {
+      @Override
+      public String id() {
+        return "TestUpgrade";
+      }
+
+      @Override
+      public List<UpgradeStep> steps() {
+        return ImmutableList.copyOf(steps);
+      }
+
+      @Override
+      public List<UpgradeCleanupStep> cleanupSteps() {
+        return ImmutableList.of();
+      }
+    });
+    return manager.execute("TestUpgrade", ImmutableList.of()).result();
+  }
+
+  private UpgradeStep step(String id) {
+    return new TestStep(id, null, false, succeeded(id));
+  }
+
+  private UpgradeStep step(String id, String... dependsOn) {
+    return new TestStep(id, ImmutableList.copyOf(dependsOn), false, succeeded(id));
+  }
+
+  // A step without dependencies
+  private UpgradeStep step(String id, Function<UpgradeContext, UpgradeStepResult.Result> executable,
+      boolean optional) {
+    return new TestStep(id, Collections.emptyList(), optional,
+        context -> new DefaultUpgradeStepResult(id, executable.apply(context)));
+  }
+
+  private static Function<UpgradeContext, UpgradeStepResult> succeeded(String id) {
+    return context -> new DefaultUpgradeStepResult(id, UpgradeStepResult.Result.SUCCEEDED);
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      return false;
+    }
+  }
+
+  private class TestStep implements UpgradeStep {
+    private final String _id;
+    private final List<String> _dependsOn;
+    private final boolean _optional;
+    private final Function<UpgradeContext, UpgradeStepResult> _executable;
+
+    private TestStep(String id, List<String> dependsOn, boolean optional,
+        Function<UpgradeContext, UpgradeStepResult> executable) {
+      _id = id;
+      _dependsOn = dependsOn;
+      _optional = optional;
+      _executable = executable;
+    }
+
+    @Override
+    public String id() {
+      return _id;
+    }
+
+    @Override
+    public Function<UpgradeContext, UpgradeStepResult> executable() {
+      return context -> {
+        _executedSteps.add(_id);
+        return _executable.apply(context);
+      };
+    }
+
+    @Override
+    public boolean isOptional() {
+      return _optional;
+    }
+
+    @Override
+    public Optional<List<String>> dependsOn() {
+      return Optional.ofNullable(_dependsOn);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.linkedin.datahub.upgrade.nocode;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV1;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import io.ebean.EbeanServer;
+import io.ebean.EbeanServerFactory;
+import io.ebean.config.ServerConfig;
+import io.ebean.datasource.DataSourceConfig;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class DataMigrationStepTest {
+
+  private static final int NUM_DATASETS = 5;
+  // The legacy rows of each dataset: two versions of its properties, and its status
+  private static final int ROWS_PER_DATASET = 3;
+  private static final String PROPERTIES_ASPECT = "com.linkedin.dataset.DatasetProperties";
+  private static final String STATUS_ASPECT = "com.linkedin.common.Status";
+  private static final String BROWSE_PATHS_ASPECT = "com.linkedin.common.BrowsePaths";
+
+  private EbeanServer _server;
+  private EntityService _entityService;
+  private EntityRegistry _entityRegistry;
+
+  private static ServerConfig createTestingH2ServerConfig() {
+    DataSourceConfig dataSourceConfig = new DataSourceConfig();
+    dataSourceConfig.setUsername("tester");
+    dataSourceConfig.setPassword("");
+    // Named, so that the connections of the concurrent partitions share the database
+    dataSourceConfig.setUrl(String.format("jdbc:h2:mem:%s;IGNORECASE=TRUE;", UUID.randomUUID()));
+    dataSourceConfig.setDriver("org.h2.Driver");
+
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setName("gma");
+    serverConfig.setDataSourceConfig(dataSourceConfig);
+    serverConfig.setDdlGenerate(true);
+    serverConfig.setDdlRun(true);
+
+    return serverConfig;
+  }
+
+  @BeforeMethod
+  public void setup() {
+    _server = EbeanServerFactory.create(createTestingH2ServerConfig());
+    _entityRegistry = SnapshotEntityRegistry.getInstance();
+    _entityService = mock(EntityService.class);
+    when(_entityService.getEntityRegistry()).thenReturn(_entityRegistry);
+    for (int i = 0; i < NUM_DATASETS; i++) {
+      insertLegacyRow(datasetUrn(i), PROPERTIES_ASPECT, 0, String.format("{\"description\":\"table%d\"}", i));
+      insertLegacyRow(datasetUrn(i), PROPERTIES_ASPECT, 1, "{\"description\":\"previous\"}");
+      insertLegacyRow(datasetUrn(i), STATUS_ASPECT, 0, "{\"removed\":false}");
+    }
+  }
+
+  @Test
+  public void testMigratesEveryRowOnceAcrossBatches() {
+    // Batches end within the rows of a dataset
+    assertEquals(execute(args("2", "2")), UpgradeStepResult.Result.SUCCEEDED);
+
+    assertEquals(countRows("datasetProperties"), 2 * NUM_DATASETS);
+    assertEquals(countRows("status"), NUM_DATASETS);
+    assertEquals(countRows("browsePaths"), NUM_DATASETS);
+    // One MAE per latest version: the properties, status and browse paths of each dataset
+    verify(_entityService, times(3 * NUM_DATASETS)).produceMetadataChangeLog(any(), eq("dataset"), any(), any(),
+        isNull(), any(), isNull(), any(), any());
+  }
+
+  @Test
+  public void testAddsBrowsePathsOfDatasetEndingAtBatchBoundary() {
+    // Batches end with the last row of a dataset, so that its browse paths are added with the next batch, or after the
+    // last batch for the last dataset
+    assertEquals(execute(args(String.valueOf(ROWS_PER_DATASET), "1")), UpgradeStepResult.Result.SUCCEEDED);
+
+    assertEquals(countRows("browsePaths"), NUM_DATASETS);
+    for (int i = 0; i < NUM_DATASETS; i++) {
+      final EbeanAspectV2 browsePaths =
+          _server.find(EbeanAspectV2.class, new EbeanAspectV2.PrimaryKey(datasetUrn(i), "browsePaths", 0));
+      assertNotNull(browsePaths);
+      assertTrue(browsePaths.getMetadata().contains(String.format("/prod/hive/db/table%d", i)));
+    }
+  }
+
+  @Test
+  public void testKeepsLegacyBrowsePaths() {
+    insertLegacyRow(datasetUrn(0), BROWSE_PATHS_ASPECT, 0, "{\"paths\":[\"/legacy\"]}");
+
+    assertEquals(execute(args(String.valueOf(ROWS_PER_DATASET + 1), "1")), UpgradeStepResult.Result.SUCCEEDED);
+
+    assertEquals(countRows("browsePaths"), NUM_DATASETS);
+    assertTrue(_server.find(EbeanAspectV2.class, new EbeanAspectV2.PrimaryKey(datasetUrn(0), "browsePaths", 0))
+        .getMetadata()
+        .contains("/legacy"));
+  }
+
+  @Test
+  public void testDefersMaes() {
+    final Map<String, Optional<String>> args = new HashMap<>(args("2", "2"));
+    args.put(NoCodeUpgrade.DEFER_MAE_ARG_NAME, Optional.empty());
+
+    assertEquals(execute(args), UpgradeStepResult.Result.SUCCEEDED);
+
+    assertEquals(countRows("datasetProperties"), 2 * NUM_DATASETS);
+    verify(_entityService, never()).produceMetadataChangeLog(any(), any(), any(), any(), any(), any(), any(), any(),
+        any());
+  }
+
+  @Test
+  public void testRerunSkipsMigratedRows() {
+    assertEquals(execute(args("2", "2")), UpgradeStepResult.Result.SUCCEEDED);
+    // As updated since the first run
+    final EbeanAspectV2 updated =
+        _server.find(EbeanAspectV2.class, new EbeanAspectV2.PrimaryKey(datasetUrn(0), "datasetProperties", 0));
+    updated.setMetadata("{\"description\":\"updated\"}");
+    _server.update(updated);
+    reset(_entityService);
+    when(_entityService.getEntityRegistry()).thenReturn(_entityRegistry);
+
+    assertEquals(execute(args("2", "2")), UpgradeStepResult.Result.SUCCEEDED);
+
+    assertEquals(countRows("datasetProperties"), 2 * NUM_DATASETS);
+    assertEquals(countRows("browsePaths"), NUM_DATASETS);
+    assertEquals(_server.find(EbeanAspectV2.class, updated.getKey()).getMetadata(), "{\"description\":\"updated\"}");
+    verify(_entityService, never()).produceMetadataChangeLog(any(), any(), any(), any(), any(), any(), any(), any(),
+        any());
+  }
+
+  private UpgradeStepResult.Result execute(Map<String, Optional<String>> args) {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(args);
+    when(context.report()).thenReturn(new DefaultUpgradeReport());
+    return new DataMigrationStep(_server, _entityService, _entityRegistry).executable().apply(context).result();
+  }
+
+  private static Map<String, Optional<String>> args(String batchSize, String numThreads) {
+    return ImmutableMap.of(NoCodeUpgrade.BATCH_SIZE_ARG_NAME, Optional.of(batchSize),
+        NoCodeUpgrade.NUM_THREADS_ARG_NAME, Optional.of(numThreads), NoCodeUpgrade.BATCH_DELAY_MS_ARG_NAME,
+        Optional.of("0"));
+  }
+
+  private int countRows(String aspect) {
+    return _server.find(EbeanAspectV2.class).where().eq(EbeanAspectV2.ASPECT_COLUMN, aspect).findCount();
+  }
+
+  private void insertLegacyRow(String urn, String aspect, long version, String metadata) {
+    final EbeanAspectV1 row = new EbeanAspectV1();
+    row.setKey(new EbeanAspectV1.PrimaryKey(urn, aspect, version));
+    row.setMetadata(metadata);
+    row.setCreatedOn(new Timestamp(0));
+    row.setCreatedBy("urn:li:corpuser:tester");
+    _server.insert(row);
+  }
+
+  private static String datasetUrn(int i) {
+    return String.format("urn:li:dataset:(urn:li:dataPlatform:hive,db.table%d,PROD)", i);
+  }
+}
@@ -0,0 +1,70 @@
+package com.linkedin.datahub.upgrade.restorebackup;
+
+import com.google.common.collect.ImmutableMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class RestoreCheckpointTest {
+
+  private Path _path;
+  private Map<String, Optional<String>> _args;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    _path = Files.createTempDirectory("restore-checkpoint").resolve("checkpoint.properties");
+    _args = ImmutableMap.of(RestoreBackup.CHECKPOINT_FILE_PATH_ARG_NAME, Optional.of(_path.toString()));
+  }
+
+  @Test
+  public void testNoCheckpointWithoutArg() {
+    assertFalse(RestoreCheckpoint.fromArgs(ImmutableMap.of()).isPresent());
+  }
+
+  @Test
+  public void testNewCheckpointIsNotResuming() {
+    final RestoreCheckpoint checkpoint = RestoreCheckpoint.fromArgs(_args).get();
+
+    assertFalse(checkpoint.isResuming());
+    assertEquals(checkpoint.getCommittedRows("part-000"), 0L);
+    assertFalse(Files.exists(_path));
+  }
+
+  @Test
+  public void testCommittedRowsAreReloaded() {
+    final RestoreCheckpoint checkpoint = RestoreCheckpoint.fromArgs(_args).get();
+    checkpoint.commit("part-000", 1000);
+    checkpoint.commit("part-001", 500);
+    checkpoint.commit("part-000", 2000);
+
+    final RestoreCheckpoint resumed = RestoreCheckpoint.fromArgs(_args).get();
+    assertTrue(resumed.isResuming());
+    assertEquals(resumed.getCommittedRows("part-000"), 2000L);
+    assertEquals(resumed.getCommittedRows("part-001"), 500L);
+    assertEquals(resumed.getCommittedRows("part-002"), 0L);
+  }
+
+  @Test
+  public void testDeletedCheckpointStartsOver() {
+    final RestoreCheckpoint checkpoint = RestoreCheckpoint.fromArgs(_args).get();
+    checkpoint.commit("part-000", 1000);
+    checkpoint.delete();
+
+    assertFalse(Files.exists(_path));
+    assertFalse(checkpoint.isResuming());
+    assertFalse(RestoreCheckpoint.fromArgs(_args).get().isResuming());
+  }
+
+  @Test(expectedExceptions = RuntimeException.class)
+  public void testCorruptCheckpointFails() throws Exception {
+    Files.write(_path, "part-000=abc".getBytes());
+
+    RestoreCheckpoint.fromArgs(_args);
+  }
+}
@@ -0,0 +1,164 @@
+package com.linkedin.datahub.upgrade.restorebackup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupReader;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.EbeanAspectBackupIterator;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.models.registry.ConfigEntityRegistry;
+import com.linkedin.metadata.snapshot.Snapshot;
+import io.ebean.EbeanServer;
+import io.ebean.EbeanServerFactory;
+import io.ebean.config.ServerConfig;
+import io.ebean.datasource.DataSourceConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class RestoreStorageStepTest {
+
+  private static final String PART = "part-000";
+
+  private EbeanServer _server;
+  private RestoreStorageStep _step;
+  private List<EbeanAspectV2> _backupRows;
+  private Path _checkpointPath;
+
+  private static ServerConfig createTestingH2ServerConfig() {
+    DataSourceConfig dataSourceConfig = new DataSourceConfig();
+    dataSourceConfig.setUsername("tester");
+    dataSourceConfig.setPassword("");
+    // Named, so that the connections of the concurrent restore threads share the database
+    dataSourceConfig.setUrl(String.format("jdbc:h2:mem:%s;IGNORECASE=TRUE;", UUID.randomUUID()));
+    dataSourceConfig.setDriver("org.h2.Driver");
+
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setName("gma");
+    serverConfig.setDataSourceConfig(dataSourceConfig);
+    serverConfig.setDdlGenerate(true);
+    serverConfig.setDdlRun(true);
+
+    return serverConfig;
+  }
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    _server = EbeanServerFactory.create(createTestingH2ServerConfig());
+    _backupRows = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      _backupRows.add(createRow(i));
+    }
+    _step = new RestoreStorageStep(_server,
+        new ConfigEntityRegistry(Snapshot.class.getClassLoader().getResourceAsStream("entity-registry.yml")),
+        ImmutableList.of(new ListBackupReader()));
+    _checkpointPath = Files.createTempDirectory("restore-storage").resolve("checkpoint.properties");
+  }
+
+  @Test
+  public void testRestoreDeletesCheckpointOnceComplete() {
+    assertEquals(restore(), UpgradeStepResult.Result.SUCCEEDED);
+
+    assertEquals(getRestoredUrns(), ImmutableList.of("urn:li:corpuser:user0", "urn:li:corpuser:user1",
+        "urn:li:corpuser:user2", "urn:li:corpuser:user3", "urn:li:corpuser:user4"));
+    assertFalse(Files.exists(_checkpointPath));
+  }
+
+  @Test
+  public void testResumeSkipsCommittedRowsAndRowsCommittedAfterCheckpoint() {
+    RestoreCheckpoint.fromArgs(getArgs()).get().commit(PART, 2);
+    // The crash happened after the next batch was committed, but before the checkpoint recorded it
+    _server.insertAll(ImmutableList.of(createRow(2), createRow(3)));
+
+    assertEquals(restore(), UpgradeStepResult.Result.SUCCEEDED);
+
+    // Rows committed before the checkpoint are not restored again, even though they were cleared from the table
+    assertEquals(getRestoredUrns(),
+        ImmutableList.of("urn:li:corpuser:user2", "urn:li:corpuser:user3", "urn:li:corpuser:user4"));
+    assertFalse(Files.exists(_checkpointPath));
+  }
+
+  @Test
+  public void testResumeFailsIfBackupHasLessRowsThanCommitted() {
+    RestoreCheckpoint.fromArgs(getArgs()).get().commit(PART, 10);
+
+    assertEquals(restore(), UpgradeStepResult.Result.FAILED);
+    assertTrue(Files.exists(_checkpointPath));
+  }
+
+  private UpgradeStepResult.Result restore() {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(getArgs());
+    when(context.report()).thenReturn(new DefaultUpgradeReport());
+    return _step.executable().apply(context).result();
+  }
+
+  private Map<String, Optional<String>> getArgs() {
+    return ImmutableMap.of("BACKUP_READER", Optional.of(ListBackupReader.NAME), RestoreBackup.BATCH_SIZE_ARG_NAME,
+        Optional.of("2"), RestoreBackup.CHECKPOINT_FILE_PATH_ARG_NAME, Optional.of(_checkpointPath.toString()));
+  }
+
+  private List<String> getRestoredUrns() {
+    return _server.find(EbeanAspectV2.class)
+        .orderBy()
+        .asc(EbeanAspectV2.URN_COLUMN)
+        .findList()
+        .stream()
+        .map(EbeanAspectV2::getUrn)
+        .collect(Collectors.toList());
+  }
+
+  private static EbeanAspectV2 createRow(int i) {
+    final String metadata = String.format("{\"username\":\"user%d\"}", i);
+    return new EbeanAspectV2("urn:li:corpuser:user" + i, "corpUserKey", 0, metadata, new Timestamp(0),
+        "urn:li:corpuser:tester", null, null);
+  }
+
+  private class ListBackupReader implements BackupReader {
+
+    private static final String NAME = "TEST";
+
+    @Override
+    public String getName() {
+      return NAME;
+    }
+
+    @Nonnull
+    @Override
+    public EbeanAspectBackupIterator getBackupIterator(UpgradeContext context) {
+      final Iterator<EbeanAspectV2> rows = _backupRows.iterator();
+      return new EbeanAspectBackupIterator() {
+        @Override
+        public EbeanAspectV2 next() {
+          return rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, EbeanAspectBackupIterator> getBackupIterators(UpgradeContext context) {
+      return ImmutableMap.of(PART, getBackupIterator(context));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.linkedin.datahub.upgrade.restorebackup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.BackupManifest;
+import com.linkedin.datahub.upgrade.restorebackup.backupreader.LocalParquetReader;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Optional;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class VerifyBackupStepTest {
+
+  private File _directory;
+  private VerifyBackupStep _step;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    _directory = Files.createTempDirectory("backup").toFile();
+    _step = new VerifyBackupStep(ImmutableList.of(new LocalParquetReader()));
+  }
+
+  @Test
+  public void testFullBackupIsVerified() throws Exception {
+    new BackupManifest().write(_directory);
+
+    assertEquals(verify(_directory.getPath()), UpgradeStepResult.Result.SUCCEEDED);
+  }
+
+  @Test
+  public void testIncrementalBackupIsRejected() throws Exception {
+    final BackupManifest manifest = new BackupManifest();
+    manifest.setSinceCreatedOnMillis(1L);
+    manifest.write(_directory);
+
+    assertEquals(verify(_directory.getPath()), UpgradeStepResult.Result.FAILED);
+  }
+
+  @Test
+  public void testMissingBackupIsRejected() {
+    assertEquals(verify(new File(_directory, "missing").getPath()), UpgradeStepResult.Result.FAILED);
+  }
+
+  private UpgradeStepResult.Result verify(String path) {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(
+        ImmutableMap.of("BACKUP_READER", Optional.of("LOCAL_PARQUET"), "BACKUP_FILE_PATH", Optional.of(path)));
+    when(context.report()).thenReturn(new DefaultUpgradeReport());
+    return _step.executable().apply(context).result();
+  }
+}
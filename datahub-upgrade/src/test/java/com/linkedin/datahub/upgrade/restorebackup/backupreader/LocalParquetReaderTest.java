@@ -0,0 +1,70 @@
+package com.linkedin.datahub.upgrade.restorebackup.backupreader;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.createbackup.ParquetBackupWriter;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.Optional;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class LocalParquetReaderTest {
+
+  private File _directory;
+  private BackupManifest _manifest;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    _directory = Files.createTempDirectory("backup").toFile();
+    final ParquetBackupWriter writer = new ParquetBackupWriter(_directory, "backup", 10);
+    writer.write(new EbeanAspectV2("urn:li:corpuser:a", "corpUserKey", 0, "{\"username\":\"a\"}",
+        new Timestamp(1640995200000L), "urn:li:corpuser:admin", null, null));
+    writer.close();
+    _manifest = new BackupManifest();
+    _manifest.setRowCount(1);
+    _manifest.setFiles(writer.getFiles());
+  }
+
+  @Test
+  public void testVerifiedBackupIsRead() throws Exception {
+    _manifest.write(_directory);
+
+    try (EbeanAspectBackupIterator iterator = new LocalParquetReader().getBackupIterator(createContext())) {
+      assertEquals(iterator.next().getKey().getUrn(), "urn:li:corpuser:a");
+      assertNull(iterator.next());
+    }
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = "Checksum mismatch.*")
+  public void testCorruptedManifestChecksumIsRejected() throws Exception {
+    _manifest.getFiles().get(0).setSha256("0000");
+    _manifest.write(_directory);
+
+    new LocalParquetReader().getBackupIterator(createContext());
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = "Checksum mismatch.*")
+  public void testCorruptedFileIsRejected() throws Exception {
+    _manifest.write(_directory);
+    Files.write(new File(_directory, _manifest.getFiles().get(0).getName()).toPath(), new byte[]{0},
+        StandardOpenOption.APPEND);
+
+    new LocalParquetReader().getBackupIterator(createContext());
+  }
+
+  private UpgradeContext createContext() {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(ImmutableMap.of("BACKUP_FILE_PATH", Optional.of(_directory.getPath())));
+    when(context.report()).thenReturn(new DefaultUpgradeReport());
+    return context;
+  }
+}
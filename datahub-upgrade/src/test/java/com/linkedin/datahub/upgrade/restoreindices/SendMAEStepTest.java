@@ -0,0 +1,139 @@
+package com.linkedin.datahub.upgrade.restoreindices;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.common.AspectTableRanges;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import com.linkedin.datahub.upgrade.restorebackup.RestoreBackup;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.models.registry.ConfigEntityRegistry;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.snapshot.Snapshot;
+import io.ebean.EbeanServer;
+import io.ebean.EbeanServerFactory;
+import io.ebean.config.ServerConfig;
+import io.ebean.datasource.DataSourceConfig;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class SendMAEStepTest {
+
+  private static final int NUM_USERS = 10;
+
+  private EbeanServer _server;
+  private EntityService _entityService;
+  private EntityRegistry _entityRegistry;
+
+  private static ServerConfig createTestingH2ServerConfig() {
+    DataSourceConfig dataSourceConfig = new DataSourceConfig();
+    dataSourceConfig.setUsername("tester");
+    dataSourceConfig.setPassword("");
+    // Named, so that the connections of the concurrent partitions share the database
+    dataSourceConfig.setUrl(String.format("jdbc:h2:mem:%s;IGNORECASE=TRUE;", UUID.randomUUID()));
+    dataSourceConfig.setDriver("org.h2.Driver");
+
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setName("gma");
+    serverConfig.setDataSourceConfig(dataSourceConfig);
+    serverConfig.setDdlGenerate(true);
+    serverConfig.setDdlRun(true);
+
+    return serverConfig;
+  }
+
+  @BeforeMethod
+  public void setup() {
+    _server = EbeanServerFactory.create(createTestingH2ServerConfig());
+    _entityService = mock(EntityService.class);
+    _entityRegistry =
+        new ConfigEntityRegistry(Snapshot.class.getClassLoader().getResourceAsStream("entity-registry.yml"));
+    final List<EbeanAspectV2> rows = new ArrayList<>();
+    for (int i = 0; i < NUM_USERS; i++) {
+      final String urn = "urn:li:corpuser:user" + i;
+      final String metadata = String.format("{\"username\":\"user%d\"}", i);
+      rows.add(new EbeanAspectV2(urn, "corpUserKey", 0, metadata, new Timestamp(0), "urn:li:corpuser:tester", null,
+          null));
+      // Only the latest version of an aspect is sent
+      rows.add(new EbeanAspectV2(urn, "corpUserKey", 1, metadata, new Timestamp(0), "urn:li:corpuser:tester", null,
+          null));
+    }
+    _server.insertAll(rows);
+  }
+
+  @Test
+  public void testSendsLatestAspectsOnceAcrossPartitions() {
+    final SendMAEStep step = new SendMAEStep(_server, _entityService, _entityRegistry);
+    final Map<String, Optional<String>> args =
+        ImmutableMap.of(RestoreIndices.BATCH_SIZE_ARG_NAME, Optional.of("2"), RestoreIndices.NUM_THREADS_ARG_NAME,
+            Optional.of("3"), RestoreIndices.BATCH_DELAY_MS_ARG_NAME, Optional.of("0"));
+
+    assertEquals(execute(step, args), UpgradeStepResult.Result.SUCCEEDED);
+
+    final ArgumentCaptor<Urn> urns = ArgumentCaptor.forClass(Urn.class);
+    verify(_entityService, times(NUM_USERS)).produceMetadataChangeLog(urns.capture(), eq("corpuser"),
+        eq("corpUserKey"), any(), isNull(), any(), isNull(), any(), any());
+    assertEquals(new HashSet<>(urns.getAllValues()).size(), NUM_USERS);
+  }
+
+  @Test
+  public void testReadsArgsOfRestoreBackup() {
+    final SendMAEStep step =
+        new SendMAEStep(_server, _entityService, _entityRegistry, RestoreBackup.BATCH_SIZE_ARG_NAME,
+            RestoreBackup.NUM_THREADS_ARG_NAME, RestoreBackup.BATCH_DELAY_MS_ARG_NAME);
+    final Map<String, Optional<String>> args =
+        ImmutableMap.of(RestoreBackup.BATCH_SIZE_ARG_NAME, Optional.of("3"), RestoreBackup.NUM_THREADS_ARG_NAME,
+            Optional.of("4"), RestoreBackup.BATCH_DELAY_MS_ARG_NAME, Optional.of("0"));
+    final UpgradeContext context = mockContext(args);
+
+    assertEquals(step.partitions(context).size(), 4);
+    assertEquals(step.parallelism(context), 4);
+    assertEquals(step.executable().apply(context).result(), UpgradeStepResult.Result.SUCCEEDED);
+    verify(_entityService, times(NUM_USERS)).produceMetadataChangeLog(any(), any(), any(), any(), any(), any(), any(),
+        any(), any());
+  }
+
+  @Test
+  public void testSplittingIntoPartitionsSendsNothing() {
+    final SendMAEStep step = new SendMAEStep(_server, _entityService, _entityRegistry);
+    final UpgradeContext context = mockContext(
+        ImmutableMap.of(RestoreIndices.BATCH_SIZE_ARG_NAME, Optional.of("2"), RestoreIndices.NUM_THREADS_ARG_NAME,
+            Optional.of("3"), RestoreIndices.BATCH_DELAY_MS_ARG_NAME, Optional.of("0")));
+
+    final List<AspectTableRanges.UrnRange> partitions = step.partitions(context);
+    assertEquals(partitions.size(), 3);
+    assertEquals(step.partitions(context), partitions);
+    verifyZeroInteractions(_entityService);
+
+    // The step splits its work again when executed
+    assertEquals(step.executable().apply(context).result(), UpgradeStepResult.Result.SUCCEEDED);
+    verify(_entityService, times(NUM_USERS)).produceMetadataChangeLog(any(), any(), any(), any(), any(), any(), any(),
+        any(), any());
+  }
+
+  private UpgradeStepResult.Result execute(SendMAEStep step, Map<String, Optional<String>> args) {
+    return step.executable().apply(mockContext(args)).result();
+  }
+
+  private static UpgradeContext mockContext(Map<String, Optional<String>> args) {
+    final UpgradeContext context = mock(UpgradeContext.class);
+    when(context.parsedArgs()).thenReturn(args);
+    when(context.report()).thenReturn(new DefaultUpgradeReport());
+    return context;
+  }
+}
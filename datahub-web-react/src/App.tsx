@@ -4,6 +4,7 @@ import { message } from 'antd';
 import { BrowserRouter as Router } from 'react-router-dom';
 import { ApolloClient, ApolloProvider, createHttpLink, InMemoryCache, ServerError } from '@apollo/client';
 import { onError } from '@apollo/client/link/error';
+import { createPersistedQueryLink } from '@apollo/client/link/persisted-queries';
 import { ThemeProvider } from 'styled-components';
 
 import './App.less';
@@ -35,6 +36,24 @@ import { MLModelGroupEntity } from './app/entity/mlModelGroup/MLModelGroupEntity
 */
 const httpLink = createHttpLink({ uri: '/api/v2/graphql' });
 
+/*
+    Send the sha256 hash of each query in place of its text once the server has seen it (Automatic Persisted Queries).
+    Hashing requires the Web Crypto API, which is only available in secure contexts.
+*/
+const toHex = (buffer: ArrayBuffer) =>
+    Array.from(new Uint8Array(buffer))
+        .map((byte) => byte.toString(16).padStart(2, '0'))
+        .join('');
+
+const sha256 = async (query: string) =>
+    toHex(await window.crypto.subtle.digest('SHA-256', new TextEncoder().encode(query)));
+
+const isWebCryptoAvailable = typeof window !== 'undefined' && !!window.crypto && !!window.crypto.subtle;
+
+const persistedQueryLink = isWebCryptoAvailable
+    ? createPersistedQueryLink({ sha256, useGETForHashedQueries: false }).concat(httpLink)
+    : httpLink;
+
 const errorLink = onError(({ graphQLErrors, networkError }) => {
     if (networkError) {
         const serverError = networkError as ServerError;
@@ -56,7 +75,7 @@ const errorLink = onError(({ graphQLErrors, networkError }) => {
 
 const client = new ApolloClient({
     connectToDevTools: true,
-    link: errorLink.concat(httpLink),
+    link: errorLink.concat(persistedQueryLink),
     cache: new InMemoryCache(),
     credentials: 'include',
     defaultOptions: {
@@ -3,7 +3,23 @@ import analyticsConfig from '../../../conf/analytics';
 const { datahub } = analyticsConfig;
 const isEnabled: boolean = (datahub && datahub.enabled) || false;
 
-const track = (payload) => {
+// Events are sent in batches, at most every FLUSH_INTERVAL_MS or once MAX_BATCH_SIZE events are pending.
+const FLUSH_INTERVAL_MS = 2000;
+const MAX_BATCH_SIZE = 50;
+
+let pendingEvents: any[] = [];
+let flushTimeout: ReturnType<typeof setTimeout> | null = null;
+
+const flush = () => {
+    if (flushTimeout) {
+        clearTimeout(flushTimeout);
+        flushTimeout = null;
+    }
+    if (pendingEvents.length === 0) {
+        return;
+    }
+    const events = pendingEvents;
+    pendingEvents = [];
     fetch('/track', {
         method: 'POST',
         cache: 'no-cache',
@@ -12,10 +28,29 @@ const track = (payload) => {
             'Content-Type': 'application/json',
         },
         referrerPolicy: 'no-referrer',
-        body: JSON.stringify(payload),
+        // Lets the request complete when the page is being unloaded.
+        keepalive: true,
+        body: JSON.stringify(events),
     });
 };
 
+const track = (payload) => {
+    pendingEvents.push(payload);
+    if (pendingEvents.length >= MAX_BATCH_SIZE) {
+        flush();
+    } else if (!flushTimeout) {
+        flushTimeout = setTimeout(flush, FLUSH_INTERVAL_MS);
+    }
+};
+
+if (isEnabled && typeof document !== 'undefined') {
+    document.addEventListener('visibilitychange', () => {
+        if (document.visibilityState === 'hidden') {
+            flush();
+        }
+    });
+}
+
 const datahubPlugin = () => {
     return {
         /* All plugins require a name */
@@ -276,6 +276,7 @@ module.exports = {
       // - "docker/neo4j/README",
       // - "docker/postgres/README",
       // - "perf-test/README",
+      // - "metadata-perf/README",
     ],
     Community: [
       "docs/slack",
@@ -5,6 +5,7 @@ import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.models.annotation.AspectAnnotation;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,6 +23,12 @@ public class AspectSpec {
   private final Map<String, TimeseriesFieldSpec> _timeseriesFieldSpecs;
   private final Map<String, TimeseriesFieldCollectionSpec> _timeseriesFieldCollectionSpecs;
 
+  // Precomputed, as these are read for every aspect indexed.
+  private final List<SearchableFieldSpec> _searchableFieldSpecList;
+  private final List<RelationshipFieldSpec> _relationshipFieldSpecList;
+  private final List<TimeseriesFieldSpec> _timeseriesFieldSpecList;
+  private final List<TimeseriesFieldCollectionSpec> _timeseriesFieldCollectionSpecList;
+
   // Classpath & Pegasus-specific: Temporary.
   private final RecordDataSchema _schema;
   private final Class<RecordTemplate> _aspectClass;
@@ -48,6 +55,11 @@ public class AspectSpec {
     _timeseriesFieldCollectionSpecs = timeseriesFieldCollectionSpecs.stream()
         .collect(Collectors.toMap(spec -> spec.getTimeseriesFieldCollectionAnnotation().getCollectionName(), spec -> spec,
             (val1, val2) -> val1));
+    _searchableFieldSpecList = Collections.unmodifiableList(new ArrayList<>(_searchableFieldSpecs.values()));
+    _relationshipFieldSpecList = Collections.unmodifiableList(new ArrayList<>(_relationshipFieldSpecs.values()));
+    _timeseriesFieldSpecList = Collections.unmodifiableList(new ArrayList<>(_timeseriesFieldSpecs.values()));
+    _timeseriesFieldCollectionSpecList =
+        Collections.unmodifiableList(new ArrayList<>(_timeseriesFieldCollectionSpecs.values()));
     _schema = schema;
     _aspectClass = aspectClass;
   }
@@ -85,19 +97,19 @@ public class AspectSpec {
   }
 
   public List<SearchableFieldSpec> getSearchableFieldSpecs() {
-    return new ArrayList<>(_searchableFieldSpecs.values());
+    return _searchableFieldSpecList;
   }
 
   public List<RelationshipFieldSpec> getRelationshipFieldSpecs() {
-    return new ArrayList<>(_relationshipFieldSpecs.values());
+    return _relationshipFieldSpecList;
   }
 
   public List<TimeseriesFieldSpec> getTimeseriesFieldSpecs() {
-    return new ArrayList<>(_timeseriesFieldSpecs.values());
+    return _timeseriesFieldSpecList;
   }
 
   public List<TimeseriesFieldCollectionSpec> getTimeseriesFieldCollectionSpecs() {
-    return new ArrayList<>(_timeseriesFieldCollectionSpecs.values());
+    return _timeseriesFieldCollectionSpecList;
   }
 
   public RecordDataSchema getPegasusSchema() {
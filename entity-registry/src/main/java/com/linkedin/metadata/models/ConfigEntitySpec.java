@@ -5,6 +5,7 @@ import com.linkedin.data.schema.TyperefDataSchema;
 import com.linkedin.metadata.models.annotation.EntityAnnotation;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -19,12 +20,18 @@ public class ConfigEntitySpec implements EntitySpec {
 
   private final EntityAnnotation _entityAnnotation;
   private final Map<String, AspectSpec> _aspectSpecs;
+  private final List<AspectSpec> _aspectSpecList;
+  private final List<SearchableFieldSpec> _searchableFieldSpecs;
 
   public ConfigEntitySpec(
       @Nonnull final String entityName,
       @Nonnull final String keyAspect,
       @Nonnull final Collection<AspectSpec> aspectSpecs) {
     _aspectSpecs = aspectSpecs.stream().collect(Collectors.toMap(AspectSpec::getName, Function.identity()));
+    _aspectSpecList = Collections.unmodifiableList(new ArrayList<>(_aspectSpecs.values()));
+    _searchableFieldSpecs = Collections.unmodifiableList(_aspectSpecList.stream()
+        .flatMap(aspectSpec -> aspectSpec.getSearchableFieldSpecs().stream())
+        .collect(Collectors.toList()));
     _entityAnnotation = new EntityAnnotation(entityName, keyAspect);
   }
 
@@ -50,7 +57,12 @@ public class ConfigEntitySpec implements EntitySpec {
 
   @Override
   public List<AspectSpec> getAspectSpecs() {
-    return new ArrayList<>(_aspectSpecs.values());
+    return _aspectSpecList;
+  }
+
+  @Override
+  public List<SearchableFieldSpec> getSearchableFieldSpecs() {
+    return _searchableFieldSpecs;
   }
 
   @Override
@@ -5,6 +5,7 @@ import com.linkedin.data.schema.TyperefDataSchema;
 import com.linkedin.metadata.models.annotation.EntityAnnotation;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -19,6 +20,8 @@ public class DefaultEntitySpec implements EntitySpec {
 
   private final EntityAnnotation _entityAnnotation;
   private final Map<String, AspectSpec> _aspectSpecs;
+  private final List<AspectSpec> _aspectSpecList;
+  private final List<SearchableFieldSpec> _searchableFieldSpecs;
 
   // Classpath & Pegasus-specific: Temporary.
   private final RecordDataSchema _snapshotSchema;
@@ -30,6 +33,10 @@ public class DefaultEntitySpec implements EntitySpec {
       @Nonnull final RecordDataSchema snapshotSchema,
       @Nullable final TyperefDataSchema aspectTyperefSchema) {
     _aspectSpecs = aspectSpecs.stream().collect(Collectors.toMap(AspectSpec::getName, Function.identity()));
+    _aspectSpecList = Collections.unmodifiableList(new ArrayList<>(_aspectSpecs.values()));
+    _searchableFieldSpecs = Collections.unmodifiableList(_aspectSpecList.stream()
+        .flatMap(aspectSpec -> aspectSpec.getSearchableFieldSpecs().stream())
+        .collect(Collectors.toList()));
     _entityAnnotation = entityAnnotation;
     _snapshotSchema = snapshotSchema;
     _aspectTyperefSchema = aspectTyperefSchema;
@@ -64,7 +71,12 @@ public class DefaultEntitySpec implements EntitySpec {
 
   @Override
   public List<AspectSpec> getAspectSpecs() {
-    return new ArrayList<>(_aspectSpecs.values());
+    return _aspectSpecList;
+  }
+
+  @Override
+  public List<SearchableFieldSpec> getSearchableFieldSpecs() {
+    return _searchableFieldSpecs;
   }
 
   @Override
@@ -38,6 +38,7 @@ public class ConfigEntityRegistry implements EntityRegistry {
   private final DataSchemaFactory dataSchemaFactory;
   private final Map<String, EntitySpec> entityNameToSpec;
   private final List<EntitySpec> entitySpecs;
+  private final EntityRegistrySnapshot snapshot;
   private final String identifier;
 
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(new YAMLFactory());
@@ -117,6 +118,7 @@ public class ConfigEntityRegistry implements EntityRegistry {
       entityNameToSpec.put(entity.getName().toLowerCase(), entitySpec);
     }
     entitySpecs = new ArrayList<>(entityNameToSpec.values());
+    snapshot = new EntityRegistrySnapshot(0, entityNameToSpec);
   }
 
   @Override
@@ -136,12 +138,12 @@ public class ConfigEntityRegistry implements EntityRegistry {
   @Nonnull
   @Override
   public EntitySpec getEntitySpec(@Nonnull String entityName) {
-    String lowercaseEntityName = entityName.toLowerCase();
-    if (!entityNameToSpec.containsKey(lowercaseEntityName)) {
+    EntitySpec entitySpec = snapshot.findEntitySpec(entityName);
+    if (entitySpec == null) {
       throw new IllegalArgumentException(
           String.format("Failed to find entity with name %s in EntityRegistry", entityName));
     }
-    return entityNameToSpec.get(lowercaseEntityName);
+    return entitySpec;
   }
 
   @Nonnull
@@ -0,0 +1,146 @@
+package com.linkedin.metadata.models.registry;
+
+import com.linkedin.metadata.models.EntitySpec;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * An immutable view of the entities of an {@link EntityRegistry}, indexed for the lookups made on every aspect read
+ * and written.
+ *
+ * Entity names are resolved case-insensitively through a collision-free hash table, without allocating a lowercase copy
+ * of the name, or through a map of lowercase names if no such table of a bounded size is found. Registries that change,
+ * such as {@link MergedEntityRegistry}, publish a new snapshot with a greater version on every change rather than
+ * mutating the current one, so a lookup never observes a partially updated registry.
+ */
+public class EntityRegistrySnapshot {
+
+  private static final int MAX_SEED_ATTEMPTS = 64;
+  private static final int MAX_TABLE_LENGTH = 1 << 16;
+
+  private final long version;
+  private final Map<String, EntitySpec> entityNameToSpec;
+  private final String[] entityNames;
+  private final EntitySpec[] entitySpecs;
+  private final Map<String, Integer> entityNameToOrdinal;
+
+  // Table of the indices + 1 of entities in entityNames, where 0 marks an empty slot. No two entity names share a slot,
+  // which takes a table quadratic in the number of entities, small for the tens of entities of a registry. Null if no
+  // table of at most MAX_TABLE_LENGTH slots was found, in which case names are looked up in entityNameToOrdinal.
+  @Nullable
+  private final int[] entityTable;
+  private final int entityTableMask;
+  private final int entityTableSeed;
+
+  public EntityRegistrySnapshot(final long version, @Nonnull final Map<String, EntitySpec> entitySpecs) {
+    this.version = version;
+
+    final TreeSet<String> sortedEntityNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    for (EntitySpec entitySpec : entitySpecs.values()) {
+      sortedEntityNames.add(entitySpec.getName());
+    }
+
+    final Map<String, EntitySpec> specsByLowercaseName = new HashMap<>();
+    entitySpecs.values().forEach(spec -> specsByLowercaseName.put(spec.getName().toLowerCase(), spec));
+    final Map<String, EntitySpec> orderedEntityNameToSpec = new LinkedHashMap<>();
+    final Map<String, Integer> entityOrdinals = new HashMap<>();
+    this.entityNames = new String[sortedEntityNames.size()];
+    this.entitySpecs = new EntitySpec[sortedEntityNames.size()];
+    int ordinal = 0;
+    for (String entityName : sortedEntityNames) {
+      final String lowercaseEntityName = entityName.toLowerCase();
+      this.entityNames[ordinal] = lowercaseEntityName;
+      this.entitySpecs[ordinal] = specsByLowercaseName.get(lowercaseEntityName);
+      orderedEntityNameToSpec.put(lowercaseEntityName, this.entitySpecs[ordinal]);
+      entityOrdinals.put(lowercaseEntityName, ordinal);
+      ordinal++;
+    }
+    this.entityNameToSpec = Collections.unmodifiableMap(orderedEntityNameToSpec);
+    this.entityNameToOrdinal = Collections.unmodifiableMap(entityOrdinals);
+
+    // Find a table size and seed for which no two entity names collide, starting from a load factor of 1/2.
+    int[] table = new int[Integer.highestOneBit(Math.max(entityNames.length, 4) * 2 - 1) << 1];
+    int seed = 1;
+    while (table != null && !fillTable(table, seed)) {
+      if (++seed > MAX_SEED_ATTEMPTS) {
+        seed = 1;
+        table = table.length < MAX_TABLE_LENGTH ? new int[table.length << 1] : null;
+      }
+    }
+    this.entityTable = table;
+    this.entityTableMask = table == null ? 0 : table.length - 1;
+    this.entityTableSeed = seed;
+  }
+
+  private boolean fillTable(@Nonnull final int[] table, final int seed) {
+    Arrays.fill(table, 0);
+    final int mask = table.length - 1;
+    for (int i = 0; i < entityNames.length; i++) {
+      final int slot = hashIgnoreCase(entityNames[i], seed) & mask;
+      if (table[slot] != 0) {
+        return false;
+      }
+      table[slot] = i + 1;
+    }
+    return true;
+  }
+
+  private static int hashIgnoreCase(@Nonnull final String name, final int seed) {
+    // The seed picks the odd multiplier of every step, so that names colliding for one seed, such as names of the same
+    // length colliding for any initial value, are unlikely to collide for the next
+    final int multiplier = 0x01000193 * (2 * seed + 1);
+    int hash = seed;
+    for (int i = 0; i < name.length(); i++) {
+      hash = (hash ^ Character.toLowerCase(name.charAt(i))) * multiplier;
+    }
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Returns the version of the snapshot, which increases every time the registry changes.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the index of an entity in the order of their names, matching its name case-insensitively, or -1 if the
+   * entity does not exist.
+   */
+  private int getEntityOrdinal(@Nonnull final String entityName) {
+    if (entityTable == null) {
+      final Integer ordinal = entityNameToOrdinal.get(entityName.toLowerCase());
+      return ordinal == null ? -1 : ordinal;
+    }
+    final int ordinal = entityTable[hashIgnoreCase(entityName, entityTableSeed) & entityTableMask] - 1;
+    if (ordinal < 0 || !entityNames[ordinal].equalsIgnoreCase(entityName)) {
+      return -1;
+    }
+    return ordinal;
+  }
+
+  /**
+   * Returns the spec of an entity, matching its name case-insensitively, or null if the entity does not exist.
+   */
+  @Nullable
+  public EntitySpec findEntitySpec(@Nonnull final String entityName) {
+    final int ordinal = getEntityOrdinal(entityName);
+    return ordinal < 0 ? null : entitySpecs[ordinal];
+  }
+
+  /**
+   * Returns the specs of all entities by lowercase name, in the order of their names.
+   */
+  @Nonnull
+  public Map<String, EntitySpec> getEntitySpecs() {
+    return entityNameToSpec;
+  }
+}
@@ -19,16 +19,19 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Combines results from two entity registries, where the second takes precedence
+ *
+ * Lookups are served from an immutable {@link EntityRegistrySnapshot}, which is replaced atomically when a patch
+ * registry is applied, so that readers never observe a partially merged registry.
  */
 @Slf4j
 public class MergedEntityRegistry implements EntityRegistry {
-  private final Map<String, EntitySpec> entityNameToSpec;
+  private volatile EntityRegistrySnapshot snapshot;
 
   public MergedEntityRegistry(EntityRegistry baseEntityRegistry) {
     if (baseEntityRegistry.getEntitySpecs() != null) {
-      entityNameToSpec = baseEntityRegistry.getEntitySpecs();
+      snapshot = new EntityRegistrySnapshot(0, baseEntityRegistry.getEntitySpecs());
     } else {
-      entityNameToSpec = new HashMap<>();
+      snapshot = new EntityRegistrySnapshot(0, new HashMap<>());
     }
   }
 
@@ -39,9 +42,11 @@ public class MergedEntityRegistry implements EntityRegistry {
     }
   }
 
-  public MergedEntityRegistry apply(EntityRegistry patchEntityRegistry) throws EntityRegistryException {
+  public synchronized MergedEntityRegistry apply(EntityRegistry patchEntityRegistry) throws EntityRegistryException {
+    final EntityRegistrySnapshot currentSnapshot = snapshot;
+    final Map<String, EntitySpec> entityNameToSpec = new HashMap<>(currentSnapshot.getEntitySpecs());
 
-    ValidationResult validationResult = validatePatch(patchEntityRegistry);
+    ValidationResult validationResult = validatePatch(entityNameToSpec, patchEntityRegistry);
     if (!validationResult.isValid()) {
       throw new EntityRegistryException(String.format("Failed to validate new registry with %s", validationResult.validationFailures.stream().collect(
           Collectors.joining("\n"))));
@@ -56,10 +61,12 @@ public class MergedEntityRegistry implements EntityRegistry {
       }
     }
     //TODO: Validate that the entity registries don't have conflicts among each other
+    snapshot = new EntityRegistrySnapshot(currentSnapshot.getVersion() + 1, entityNameToSpec);
     return this;
   }
 
-  private ValidationResult validatePatch(EntityRegistry patchEntityRegistry) {
+  private ValidationResult validatePatch(Map<String, EntitySpec> entityNameToSpec,
+      EntityRegistry patchEntityRegistry) {
     ValidationResult validationResult = new ValidationResult();
     for (Map.Entry<String, EntitySpec> e2Entry : patchEntityRegistry.getEntitySpecs().entrySet()) {
         checkMergeable(entityNameToSpec.getOrDefault(e2Entry.getKey(), null), e2Entry.getValue(), validationResult);
@@ -100,18 +107,18 @@ public class MergedEntityRegistry implements EntityRegistry {
   @Nonnull
   @Override
   public EntitySpec getEntitySpec(@Nonnull String entityName) {
-    String lowercaseEntityName = entityName.toLowerCase();
-    if (!entityNameToSpec.containsKey(lowercaseEntityName)) {
+    EntitySpec entitySpec = snapshot.findEntitySpec(entityName);
+    if (entitySpec == null) {
       throw new IllegalArgumentException(
           String.format("Failed to find entity with name %s in EntityRegistry", entityName));
     }
-    return entityNameToSpec.get(lowercaseEntityName);
+    return entitySpec;
   }
 
   @Nonnull
   @Override
   public Map<String, EntitySpec> getEntitySpecs() {
-    return entityNameToSpec;
+    return snapshot.getEntitySpecs();
   }
 
   @Setter
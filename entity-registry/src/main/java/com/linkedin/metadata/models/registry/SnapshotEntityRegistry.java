@@ -20,6 +20,7 @@ public class SnapshotEntityRegistry implements EntityRegistry {
 
   private final Map<String, EntitySpec> entityNameToSpec;
   private final List<EntitySpec> entitySpecs;
+  private final EntityRegistrySnapshot snapshot;
 
   private static final SnapshotEntityRegistry INSTANCE = new SnapshotEntityRegistry();
 
@@ -28,6 +29,7 @@ public class SnapshotEntityRegistry implements EntityRegistry {
         .stream()
         .collect(Collectors.toMap(spec -> spec.getName().toLowerCase(), spec -> spec));
     entitySpecs = new ArrayList<>(entityNameToSpec.values());
+    snapshot = new EntityRegistrySnapshot(0, entityNameToSpec);
   }
 
   public SnapshotEntityRegistry(UnionTemplate snapshot) {
@@ -35,17 +37,18 @@ public class SnapshotEntityRegistry implements EntityRegistry {
         .stream()
         .collect(Collectors.toMap(spec -> spec.getName().toLowerCase(), spec -> spec));
     entitySpecs = new ArrayList<>(entityNameToSpec.values());
+    this.snapshot = new EntityRegistrySnapshot(0, entityNameToSpec);
   }
 
   @Nonnull
   @Override
   public EntitySpec getEntitySpec(@Nonnull final String entityName) {
-    String lowercaseEntityName = entityName.toLowerCase();
-    if (!entityNameToSpec.containsKey(lowercaseEntityName)) {
+    EntitySpec entitySpec = snapshot.findEntitySpec(entityName);
+    if (entitySpec == null) {
       throw new IllegalArgumentException(
           String.format("Failed to find entity with name %s in EntityRegistry", entityName));
     }
-    return entityNameToSpec.get(lowercaseEntityName);
+    return entitySpec;
   }
 
   @Nonnull
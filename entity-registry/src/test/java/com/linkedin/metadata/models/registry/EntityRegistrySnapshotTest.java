@@ -0,0 +1,104 @@
+package com.linkedin.metadata.models.registry;
+
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.ConfigEntitySpec;
+import com.linkedin.metadata.models.DataSchemaFactory;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.annotation.AspectAnnotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class EntityRegistrySnapshotTest {
+
+  private static AspectSpec aspectSpec(String name) {
+    return new AspectSpec(new AspectAnnotation(name, false, false, null), Collections.emptyList(),
+        Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+        (RecordDataSchema) DataSchemaFactory.getInstance().getAspectSchema(name).get(),
+        DataSchemaFactory.getInstance().getAspectClass(name).get());
+  }
+
+  @Test
+  public void testLookups() {
+    final Map<String, EntitySpec> entitySpecs = new HashMap<>();
+    entitySpecs.put("dataset",
+        new ConfigEntitySpec("dataset", "datasetKey", Collections.singletonList(aspectSpec("datasetKey"))));
+    entitySpecs.put("chart",
+        new ConfigEntitySpec("chart", "chartKey", Collections.singletonList(aspectSpec("chartKey"))));
+    entitySpecs.put("datajob",
+        new ConfigEntitySpec("dataJob", "dataJobKey", Collections.singletonList(aspectSpec("dataJobKey"))));
+
+    EntityRegistrySnapshot snapshot = new EntityRegistrySnapshot(3, entitySpecs);
+
+    assertEquals(snapshot.getVersion(), 3);
+    assertEquals(snapshot.findEntitySpec("chart").getName(), "chart");
+    assertEquals(snapshot.findEntitySpec("dataset").getName(), "dataset");
+    // Names are matched case-insensitively
+    assertEquals(snapshot.findEntitySpec("DATAJOB").getName(), "dataJob");
+    assertEquals(snapshot.findEntitySpec("datajob").getName(), "dataJob");
+    assertNull(snapshot.findEntitySpec("datajobs"));
+    assertNull(snapshot.findEntitySpec(""));
+    assertNull(snapshot.findEntitySpec("corpuser"));
+    // Entities are listed in the order of their names
+    assertEquals(new ArrayList<>(snapshot.getEntitySpecs().keySet()), Arrays.asList("chart", "datajob", "dataset"));
+  }
+
+  @Test
+  public void testManyEntities() {
+    final Map<String, EntitySpec> entitySpecs = new HashMap<>();
+    for (int i = 0; i < 200; i++) {
+      final String name = "entity" + i;
+      entitySpecs.put(name, new ConfigEntitySpec(name, name + "Key", Collections.emptyList()));
+    }
+
+    EntityRegistrySnapshot snapshot = new EntityRegistrySnapshot(0, entitySpecs);
+
+    for (int i = 0; i < 200; i++) {
+      assertEquals(snapshot.findEntitySpec("Entity" + i).getName(), "entity" + i);
+    }
+    assertNull(snapshot.findEntitySpec("entity200"));
+  }
+
+  @Test
+  public void testNamesCollidingForPolynomialHashes() {
+    // "c0" and "an" have the same String hash code, whatever it starts from
+    final Map<String, EntitySpec> entitySpecs = new HashMap<>();
+    entitySpecs.put("c0", new ConfigEntitySpec("c0", "c0Key", Collections.emptyList()));
+    entitySpecs.put("an", new ConfigEntitySpec("an", "anKey", Collections.emptyList()));
+
+    EntityRegistrySnapshot snapshot = new EntityRegistrySnapshot(0, entitySpecs);
+
+    assertEquals(snapshot.findEntitySpec("AN").getName(), "an");
+    assertEquals(snapshot.findEntitySpec("c0").getName(), "c0");
+  }
+
+  @Test
+  public void testTooManyEntitiesForCollisionFreeTable() {
+    final Map<String, EntitySpec> entitySpecs = new HashMap<>();
+    for (int i = 0; i < 3000; i++) {
+      final String name = "entity" + i;
+      entitySpecs.put(name, new ConfigEntitySpec(name, name + "Key", Collections.emptyList()));
+    }
+
+    EntityRegistrySnapshot snapshot = new EntityRegistrySnapshot(0, entitySpecs);
+
+    for (int i = 0; i < 3000; i++) {
+      assertEquals(snapshot.findEntitySpec("Entity" + i).getName(), "entity" + i);
+    }
+    assertNull(snapshot.findEntitySpec("entity3000"));
+  }
+
+  @Test
+  public void testEmpty() {
+    EntityRegistrySnapshot snapshot = new EntityRegistrySnapshot(0, Collections.emptyMap());
+    assertTrue(snapshot.getEntitySpecs().isEmpty());
+    assertNull(snapshot.findEntitySpec("dataset"));
+  }
+}
@@ -34,7 +34,7 @@ public final class AzkabanFlowUrn extends Urn {
   }
 
   public static AzkabanFlowUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, AzkabanFlowUrn.class, AzkabanFlowUrn::createFromUrn);
   }
 
   public static AzkabanFlowUrn createFromUrn(Urn urn) throws URISyntaxException {
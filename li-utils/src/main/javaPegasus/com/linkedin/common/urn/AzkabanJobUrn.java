@@ -28,7 +28,7 @@ public final class AzkabanJobUrn extends Urn {
   }
 
   public static AzkabanJobUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, AzkabanJobUrn.class, AzkabanJobUrn::createFromUrn);
   }
 
   public static AzkabanJobUrn createFromUrn(Urn urn) throws URISyntaxException {
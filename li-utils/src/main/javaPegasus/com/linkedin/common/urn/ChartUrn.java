@@ -28,7 +28,7 @@ public final class ChartUrn extends Urn {
   }
 
   public static ChartUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, ChartUrn.class, ChartUrn::createFromUrn);
   }
 
   public static ChartUrn createFromUrn(Urn urn) throws URISyntaxException {
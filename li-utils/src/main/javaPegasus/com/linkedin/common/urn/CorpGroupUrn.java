@@ -27,7 +27,7 @@ public final class CorpGroupUrn extends Urn {
   }
 
   public static CorpGroupUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, CorpGroupUrn.class, CorpGroupUrn::createFromUrn);
   }
 
   private static CorpGroupUrn decodeUrn(String groupName) throws Exception {
@@ -24,7 +24,7 @@ public final class CorpuserUrn extends Urn {
   }
 
   public static CorpuserUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, CorpuserUrn.class, CorpuserUrn::createFromUrn);
   }
 
   public static CorpuserUrn createFromUrn(Urn urn) throws URISyntaxException {
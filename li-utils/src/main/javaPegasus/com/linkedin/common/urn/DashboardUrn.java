@@ -28,7 +28,7 @@ public final class DashboardUrn extends Urn {
   }
 
   public static DashboardUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, DashboardUrn.class, DashboardUrn::createFromUrn);
   }
 
   public static DashboardUrn createFromUrn(Urn urn) throws URISyntaxException {
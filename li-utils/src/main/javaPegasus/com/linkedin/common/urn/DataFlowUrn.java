@@ -34,7 +34,7 @@ public final class DataFlowUrn extends Urn {
   }
 
   public static DataFlowUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, DataFlowUrn.class, DataFlowUrn::createFromUrn);
   }
 
   public static DataFlowUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -28,7 +28,7 @@ public final class DataJobUrn extends Urn {
   }
 
   public static DataJobUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, DataJobUrn.class, DataJobUrn::createFromUrn);
   }
 
   public static DataJobUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -23,7 +23,7 @@ public final class DataPlatformUrn extends Urn {
   }
 
   public static DataPlatformUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, DataPlatformUrn.class, DataPlatformUrn::createFromUrn);
   }
 
   public static DataPlatformUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -37,7 +37,7 @@ public class DataProcessUrn extends Urn {
   }
 
   public static DataProcessUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, DataProcessUrn.class, DataProcessUrn::createFromUrn);
   }
 
   public static DataProcessUrn deserialize(String rawUrn) throws URISyntaxException {
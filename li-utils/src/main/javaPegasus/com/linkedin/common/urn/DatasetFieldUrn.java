@@ -68,7 +68,7 @@ public class DatasetFieldUrn extends Urn {
   }
 
   public static DatasetFieldUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, DatasetFieldUrn.class, DatasetFieldUrn::createFromUrn);
   }
 
   public static DatasetFieldUrn deserialize(String rawUrn) throws URISyntaxException {
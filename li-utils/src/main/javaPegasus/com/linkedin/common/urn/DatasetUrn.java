@@ -35,7 +35,7 @@ public final class DatasetUrn extends Urn {
   }
 
   public static DatasetUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, DatasetUrn.class, DatasetUrn::createFromUrn);
   }
 
   public static DatasetUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -22,7 +22,7 @@ public final class FabricUrn extends Urn {
   }
 
   public static FabricUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, FabricUrn.class, FabricUrn::createFromUrn);
   }
 
   public static FabricUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -23,7 +23,7 @@ public final class GlossaryNodeUrn extends Urn {
     }
 
     public static GlossaryNodeUrn createFromString(String rawUrn) throws URISyntaxException {
-        return createFromUrn(Urn.createFromString(rawUrn));
+        return UrnCache.get().getOrParse(rawUrn, GlossaryNodeUrn.class, GlossaryNodeUrn::createFromUrn);
     }
 
     public static GlossaryNodeUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -26,7 +26,7 @@ public final class GlossaryTermUrn extends Urn {
   }
 
   public static GlossaryTermUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, GlossaryTermUrn.class, GlossaryTermUrn::createFromUrn);
   }
 
   public static GlossaryTermUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -29,7 +29,7 @@ public final class MLFeatureUrn extends Urn {
   }
 
   public static MLFeatureUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, MLFeatureUrn.class, MLFeatureUrn::createFromUrn);
   }
 
   public static MLFeatureUrn createFromUrn(Urn urn) throws URISyntaxException {
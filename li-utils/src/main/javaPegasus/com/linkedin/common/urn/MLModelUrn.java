@@ -38,7 +38,7 @@ public final class MLModelUrn extends Urn {
   }
 
   public static MLModelUrn createFromString(String rawUrn) throws URISyntaxException {
-    return createFromUrn(Urn.createFromString(rawUrn));
+    return UrnCache.get().getOrParse(rawUrn, MLModelUrn.class, MLModelUrn::createFromUrn);
   }
 
   public static MLModelUrn createFromUrn(Urn urn) throws URISyntaxException {
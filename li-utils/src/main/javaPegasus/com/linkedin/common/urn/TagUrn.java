@@ -23,7 +23,7 @@ public final class TagUrn extends Urn {
     }
 
     public static TagUrn createFromString(String rawUrn) throws URISyntaxException {
-        return createFromUrn(Urn.createFromString(rawUrn));
+        return UrnCache.get().getOrParse(rawUrn, TagUrn.class, TagUrn::createFromUrn);
     }
 
     public static TagUrn createFromUrn(Urn urn) throws URISyntaxException {
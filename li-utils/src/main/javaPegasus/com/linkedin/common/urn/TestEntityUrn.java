@@ -23,7 +23,7 @@ public final class TestEntityUrn extends Urn {
     }
 
     public static TestEntityUrn createFromString(String rawUrn) throws URISyntaxException {
-        return createFromUrn(Urn.createFromString(rawUrn));
+        return UrnCache.get().getOrParse(rawUrn, TestEntityUrn.class, TestEntityUrn::createFromUrn);
     }
 
     public static TestEntityUrn createFromUrn(Urn urn) throws URISyntaxException {
@@ -228,7 +228,7 @@ public class Urn {
    * @throws URISyntaxException - if the String is not a valid Urn.
    */
   public static Urn createFromString(String rawUrn) throws URISyntaxException {
-    return new Urn(rawUrn);
+    return UrnCache.get().getOrParse(rawUrn);
   }
 
   /**
@@ -238,7 +238,7 @@ public class Urn {
    */
   public static Urn createFromCharSequence(CharSequence rawUrn) throws URISyntaxException {
     ArgumentUtil.notNull(rawUrn, "rawUrn");
-    return new Urn(rawUrn.toString());
+    return createFromString(rawUrn.toString());
   }
 
   /**
@@ -0,0 +1,191 @@
+package com.linkedin.common.urn;
+
+import java.net.URISyntaxException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A bounded, concurrent cache of parsed Urns, keyed by their raw String representation.
+ *
+ * <p>The same Urns are parsed over and over when reading aspects, search hits and graph edges. Since Urns are
+ * immutable, the cache returns the same instance for the same String while it is cached, which both skips parsing and
+ * interns the Urns held in memory. Typed Urns, e.g. {@link DatasetUrn}, are cached next to the plain {@link Urn} of the
+ * same String, and an entry is only returned for the exact class requested.
+ *
+ * <p>Entries are stored in a two-way set associative table: a String may only be cached in one of two slots, the most
+ * recently parsed Urn evicting the older entry of its set when both are taken. Lookups take no lock and allocate
+ * nothing. Concurrent writes may drop an entry, which only costs a parse.
+ *
+ * <p>The shared cache holds {@code URN_CACHE_MAX_SIZE} entries, {@value #DEFAULT_MAX_SIZE} by default, and can be
+ * resized with {@link #configure(int)}. A size of 0 disables caching.
+ */
+public final class UrnCache {
+
+  public static final String MAX_SIZE_ENV_VAR = "URN_CACHE_MAX_SIZE";
+  public static final int DEFAULT_MAX_SIZE = 16384;
+
+  private static volatile UrnCache _instance = new UrnCache(getDefaultMaxSize());
+
+  /**
+   * Creates a typed Urn from a parsed Urn, e.g. {@link DatasetUrn#createFromUrn(Urn)}.
+   */
+  @FunctionalInterface
+  public interface TypedUrnFactory<T extends Urn> {
+    T createFromUrn(Urn urn) throws URISyntaxException;
+  }
+
+  private static final class Entry {
+    private final String _rawUrn;
+    private final Urn _urn;
+
+    private Entry(String rawUrn, Urn urn) {
+      _rawUrn = rawUrn;
+      _urn = urn;
+    }
+  }
+
+  // Null when caching is disabled
+  private final AtomicReferenceArray<Entry> _entries;
+  private final int _setMask;
+  private final LongAdder _hits = new LongAdder();
+  private final LongAdder _misses = new LongAdder();
+
+  /**
+   * @param maxSize the max number of cached Urns, rounded up to a power of 2, or 0 to disable caching.
+   */
+  public UrnCache(int maxSize) {
+    if (maxSize <= 0) {
+      _entries = null;
+      _setMask = 0;
+    } else {
+      final int capacity = Math.max(2, Integer.highestOneBit(Math.min(maxSize, 1 << 30) - 1) << 1);
+      _entries = new AtomicReferenceArray<>(capacity);
+      _setMask = capacity - 2;
+    }
+  }
+
+  /**
+   * Returns the cache shared by {@link Urn#createFromString(String)} and the typed Urns.
+   */
+  public static UrnCache get() {
+    return _instance;
+  }
+
+  /**
+   * Replaces the shared cache with an empty cache of the given size.
+   *
+   * @param maxSize the max number of cached Urns, or 0 to disable caching.
+   */
+  public static void configure(int maxSize) {
+    _instance = new UrnCache(maxSize);
+  }
+
+  /**
+   * Returns the cached Urn of the given String, parsing and caching it if it is not cached.
+   * @throws URISyntaxException - if the String is not a valid Urn.
+   */
+  public Urn getOrParse(String rawUrn) throws URISyntaxException {
+    if (_entries == null || rawUrn == null) {
+      return new Urn(rawUrn);
+    }
+    final int set = getSet(rawUrn);
+    final Urn cached = find(set, rawUrn, Urn.class);
+    if (cached != null) {
+      _hits.increment();
+      return cached;
+    }
+    _misses.increment();
+    final Urn urn = new Urn(rawUrn);
+    put(set, rawUrn, urn);
+    return urn;
+  }
+
+  /**
+   * Returns the cached typed Urn of the given String, creating it from the cached Urn of the String, or by parsing the
+   * String, and caching it if it is not cached.
+   * @throws URISyntaxException - if the String is not a valid Urn of the given type.
+   */
+  public <T extends Urn> T getOrParse(String rawUrn, Class<T> urnClass, TypedUrnFactory<T> factory)
+      throws URISyntaxException {
+    if (_entries == null || rawUrn == null) {
+      return factory.createFromUrn(new Urn(rawUrn));
+    }
+    final int set = getSet(rawUrn);
+    final T cached = find(set, rawUrn, urnClass);
+    if (cached != null) {
+      _hits.increment();
+      return cached;
+    }
+    _misses.increment();
+    Urn urn = find(set, rawUrn, Urn.class);
+    if (urn == null) {
+      urn = new Urn(rawUrn);
+    }
+    final T typedUrn = factory.createFromUrn(urn);
+    put(set, rawUrn, typedUrn);
+    return typedUrn;
+  }
+
+  public long getHitCount() {
+    return _hits.sum();
+  }
+
+  public long getMissCount() {
+    return _misses.sum();
+  }
+
+  /**
+   * Returns the ratio of lookups served from the cache, or 0 if there was no lookup.
+   */
+  public double getHitRate() {
+    final long hits = _hits.sum();
+    final long lookups = hits + _misses.sum();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  public int getCapacity() {
+    return _entries == null ? 0 : _entries.length();
+  }
+
+  private int getSet(String rawUrn) {
+    final int hash = rawUrn.hashCode() * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & _setMask;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T extends Urn> T find(int set, String rawUrn, Class<T> urnClass) {
+    for (int slot = set; slot <= set + 1; slot++) {
+      final Entry entry = _entries.get(slot);
+      if (entry != null && entry._urn.getClass() == urnClass && entry._rawUrn.equals(rawUrn)) {
+        return (T) entry._urn;
+      }
+    }
+    return null;
+  }
+
+  private void put(int set, String rawUrn, Urn urn) {
+    final Entry entry = new Entry(rawUrn, urn);
+    if (_entries.get(set) == null) {
+      _entries.set(set, entry);
+    } else if (_entries.get(set + 1) == null) {
+      _entries.set(set + 1, entry);
+    } else {
+      // Keep the most recent entry first, evicting the older one.
+      _entries.set(set + 1, _entries.get(set));
+      _entries.set(set, entry);
+    }
+  }
+
+  private static int getDefaultMaxSize() {
+    final String maxSize = System.getenv(MAX_SIZE_ENV_VAR);
+    if (maxSize == null || maxSize.isEmpty()) {
+      return DEFAULT_MAX_SIZE;
+    }
+    try {
+      return Integer.parseInt(maxSize.trim());
+    } catch (NumberFormatException e) {
+      return DEFAULT_MAX_SIZE;
+    }
+  }
+}
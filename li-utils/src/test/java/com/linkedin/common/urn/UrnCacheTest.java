@@ -0,0 +1,73 @@
+package com.linkedin.common.urn;
+
+import com.linkedin.common.FabricType;
+import java.net.URISyntaxException;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+
+public class UrnCacheTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)";
+
+  @Test
+  public void testReturnsCachedUrn() throws URISyntaxException {
+    final UrnCache cache = new UrnCache(16);
+
+    final Urn urn = cache.getOrParse(DATASET_URN);
+
+    Assertions.assertThat(cache.getOrParse(new String(DATASET_URN))).isSameAs(urn);
+    Assertions.assertThat(urn.toString()).isEqualTo(DATASET_URN);
+    Assertions.assertThat(cache.getHitCount()).isEqualTo(1);
+    Assertions.assertThat(cache.getMissCount()).isEqualTo(1);
+    Assertions.assertThat(cache.getHitRate()).isEqualTo(0.5);
+  }
+
+  @Test
+  public void testCachesTypedUrnsNextToUrns() throws URISyntaxException {
+    final UrnCache cache = new UrnCache(16);
+
+    final Urn urn = cache.getOrParse(DATASET_URN);
+    final DatasetUrn datasetUrn = cache.getOrParse(DATASET_URN, DatasetUrn.class, DatasetUrn::createFromUrn);
+
+    Assertions.assertThat(datasetUrn).isEqualTo(urn);
+    Assertions.assertThat(datasetUrn.getOriginEntity()).isEqualTo(FabricType.PROD);
+    Assertions.assertThat(cache.getOrParse(DATASET_URN)).isSameAs(urn).isExactlyInstanceOf(Urn.class);
+    Assertions.assertThat(cache.getOrParse(DATASET_URN, DatasetUrn.class, DatasetUrn::createFromUrn))
+        .isSameAs(datasetUrn);
+  }
+
+  @Test
+  public void testIsBounded() throws URISyntaxException {
+    final UrnCache cache = new UrnCache(4);
+
+    for (int i = 0; i < 100; i++) {
+      cache.getOrParse("urn:li:corpuser:user" + i);
+    }
+
+    Assertions.assertThat(cache.getCapacity()).isEqualTo(4);
+    // The most recently parsed urn is always cached.
+    final Urn urn = cache.getOrParse("urn:li:corpuser:user99");
+    Assertions.assertThat(cache.getOrParse("urn:li:corpuser:user99")).isSameAs(urn);
+    Assertions.assertThat(cache.getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testDisabled() throws URISyntaxException {
+    final UrnCache cache = new UrnCache(0);
+
+    Assertions.assertThat(cache.getOrParse(DATASET_URN)).isNotSameAs(cache.getOrParse(DATASET_URN));
+    Assertions.assertThat(cache.getCapacity()).isEqualTo(0);
+  }
+
+  @Test
+  public void testInvalidUrnsAreNotCached() {
+    final UrnCache cache = new UrnCache(16);
+
+    Assertions.assertThatThrownBy(() -> cache.getOrParse("invalid"))
+        .isInstanceOf(URISyntaxException.class);
+    Assertions.assertThatThrownBy(() -> cache.getOrParse(DATASET_URN, CorpuserUrn.class, CorpuserUrn::createFromUrn))
+        .isInstanceOf(URISyntaxException.class);
+    Assertions.assertThat(cache.getHitCount()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,611 @@
+package com.linkedin.metadata;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.avro.DataTranslator;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.NamedDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+
+/**
+ * Converts between Pegasus records and Avro {@link GenericRecord}s of one fixed event schema.
+ *
+ * {@link DataTranslator} walks the Pegasus and Avro schemas for every event, and {@link EventUtils} then serializes
+ * and deserializes the result twice to move it to the com.linkedin.pegasus2avro namespace. This converter instead
+ * walks the schemas once, producing a tree of converters that builds records of the renamed Avro schema directly.
+ * Bytes fields, such as the serialized aspect of a {@code GenericAspect}, are wrapped rather than copied.
+ *
+ * Conversions produce the same Avro binary encoding as the translator. Schemas using constructs the converter does not
+ * support fail to compile, and events it cannot convert, such as ones missing a required field, make it return null,
+ * so that callers fall back to the translator and its error reporting. Fallbacks are counted in the fallback metric
+ * of the schema, and the first one of each converter is logged.
+ */
+@Slf4j
+class CompiledEventConverter {
+
+  // Same registry as MetricUtils, which is not a dependency of this module.
+  private static final String METRIC_REGISTRY_NAME = "default";
+
+  /**
+   * Thrown by the converters when an event cannot be converted. Carries no stack trace, as it is used to fall back.
+   */
+  private static final class ConversionException extends RuntimeException {
+    private static final ConversionException MISSING_FIELD =
+        new ConversionException("A required field, or a field with a default, is missing");
+    private static final ConversionException INVALID_UNION =
+        new ConversionException("A union does not have exactly one known member");
+    private static final ConversionException INVALID_BYTES = new ConversionException("A bytes string is invalid");
+    private static final ConversionException INVALID_NULL = new ConversionException("A null field is not null");
+
+    private ConversionException(String message) {
+      super(message, null, false, false);
+    }
+  }
+
+  private interface Converter {
+    Object toAvro(@Nonnull Object value);
+
+    Object toPegasus(@Nonnull Object value);
+  }
+
+  private final RecordDataSchema _pegasusSchema;
+  private final Schema _avroSchema;
+  private final Converter _converter;
+  private final String _fallbackMetricName;
+  private final Counter _fallbackCounter;
+  private final AtomicBoolean _loggedFallback = new AtomicBoolean();
+  // The last record schema found equal to the Avro schema, to skip the deep comparison for records of the same writer.
+  private volatile Schema _lastCompatibleSchema;
+
+  private CompiledEventConverter(@Nonnull RecordDataSchema pegasusSchema, @Nonnull Schema avroSchema) {
+    _pegasusSchema = pegasusSchema;
+    _avroSchema = avroSchema;
+    _lastCompatibleSchema = avroSchema;
+    _converter = new Compiler().compile(pegasusSchema, avroSchema);
+    _fallbackMetricName = MetricRegistry.name(CompiledEventConverter.class, pegasusSchema.getName(), "fallback");
+    _fallbackCounter = SharedMetricRegistries.getOrCreate(METRIC_REGISTRY_NAME).counter(_fallbackMetricName);
+  }
+
+  /**
+   * Compiles a converter between a Pegasus record schema and an equivalent Avro schema.
+   *
+   * @return the converter, or null if the schemas use constructs that are not supported
+   */
+  @Nullable
+  static CompiledEventConverter compile(@Nonnull RecordDataSchema pegasusSchema, @Nonnull Schema avroSchema) {
+    try {
+      return new CompiledEventConverter(pegasusSchema, avroSchema);
+    } catch (UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Converts a Pegasus record into a {@link GenericRecord} of the Avro schema, or returns null if it cannot.
+   *
+   * @throws ClassCastException if a value does not match the type of its field in the Pegasus schema
+   */
+  @Nullable
+  GenericRecord toAvro(@Nonnull DataMap data) {
+    try {
+      return (GenericRecord) _converter.toAvro(data);
+    } catch (ConversionException e) {
+      fallBack(e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Converts a {@link GenericRecord} of the Avro schema into a Pegasus record, or returns null if it cannot, such as
+   * when the record was written with another version of the schema.
+   */
+  @Nullable
+  DataMap toPegasus(@Nonnull GenericRecord record) {
+    final Schema schema = record.getSchema();
+    if (schema != _lastCompatibleSchema) {
+      if (!schema.equals(_avroSchema)) {
+        fallBack("The record was written with another version of the schema");
+        return null;
+      }
+      _lastCompatibleSchema = schema;
+    }
+    try {
+      return (DataMap) _converter.toPegasus(record);
+    } catch (ConversionException e) {
+      fallBack(e.getMessage());
+      return null;
+    }
+  }
+
+  private void fallBack(@Nonnull String reason) {
+    _fallbackCounter.inc();
+    if (_loggedFallback.compareAndSet(false, true)) {
+      log.warn("Falling back to DataTranslator for a {} event: {}. Further fallbacks are only counted in {}",
+          _pegasusSchema.getName(), reason, _fallbackMetricName);
+    }
+  }
+
+  /**
+   * Returns the number of events of the schema that any converter fell back on.
+   */
+  long getFallbackCount() {
+    return _fallbackCounter.getCount();
+  }
+
+  @Nonnull
+  RecordDataSchema getPegasusSchema() {
+    return _pegasusSchema;
+  }
+
+  /**
+   * Walks a Pegasus schema and an Avro schema together, producing converters mirroring {@link DataTranslator}.
+   */
+  private static final class Compiler {
+    // Records being compiled, so that recursive records reuse their converter.
+    private final Map<RecordDataSchema, Map<Schema, RecordConverter>> _records = new IdentityHashMap<>();
+
+    @Nonnull
+    private Converter compile(@Nonnull DataSchema pegasusSchema, @Nonnull Schema avroSchema) {
+      final DataSchema schema = pegasusSchema.getDereferencedDataSchema();
+      switch (schema.getType()) {
+        case RECORD:
+          return compileRecord((RecordDataSchema) schema, expect(avroSchema, Schema.Type.RECORD));
+        case UNION:
+          return compileUnion((UnionDataSchema) schema, expect(avroSchema, Schema.Type.UNION));
+        case ARRAY:
+          return new ArrayConverter(expect(avroSchema, Schema.Type.ARRAY),
+              compile(((ArrayDataSchema) schema).getItems(), avroSchema.getElementType()));
+        case MAP:
+          expect(avroSchema, Schema.Type.MAP);
+          return new MapConverter(compile(((MapDataSchema) schema).getValues(), avroSchema.getValueType()));
+        case ENUM:
+          return new EnumConverter(expect(avroSchema, Schema.Type.ENUM));
+        case STRING:
+          expect(avroSchema, Schema.Type.STRING);
+          return STRING_CONVERTER;
+        case BYTES:
+          expect(avroSchema, Schema.Type.BYTES);
+          return BYTES_CONVERTER;
+        case INT:
+          expect(avroSchema, Schema.Type.INT);
+          return INT_CONVERTER;
+        case LONG:
+          expect(avroSchema, Schema.Type.LONG);
+          return LONG_CONVERTER;
+        case FLOAT:
+          expect(avroSchema, Schema.Type.FLOAT);
+          return FLOAT_CONVERTER;
+        case DOUBLE:
+          expect(avroSchema, Schema.Type.DOUBLE);
+          return DOUBLE_CONVERTER;
+        case BOOLEAN:
+          expect(avroSchema, Schema.Type.BOOLEAN);
+          return BOOLEAN_CONVERTER;
+        case NULL:
+          expect(avroSchema, Schema.Type.NULL);
+          return NULL_CONVERTER;
+        default:
+          throw new UnsupportedOperationException("Unsupported schema type " + schema.getType());
+      }
+    }
+
+    @Nonnull
+    private Converter compileRecord(@Nonnull RecordDataSchema pegasusSchema, @Nonnull Schema avroSchema) {
+      final Map<Schema, RecordConverter> byAvroSchema =
+          _records.computeIfAbsent(pegasusSchema, schema -> new IdentityHashMap<>());
+      final RecordConverter existing = byAvroSchema.get(avroSchema);
+      if (existing != null) {
+        return existing;
+      }
+      final RecordConverter converter = new RecordConverter(avroSchema);
+      byAvroSchema.put(avroSchema, converter);
+
+      final List<FieldConverter> fields = new ArrayList<>();
+      for (RecordDataSchema.Field field : pegasusSchema.getFields()) {
+        final Schema.Field avroField = avroSchema.getField(field.getName());
+        if (avroField == null) {
+          // Like the translator, skip fields missing from the Avro schema.
+          continue;
+        }
+        final DataSchema fieldSchema = field.getType().getDereferencedDataSchema();
+        final Converter fieldConverter;
+        if (field.getOptional() && fieldSchema.getType() != DataSchema.Type.UNION) {
+          // Optional fields are unions of null and their type in Avro.
+          fieldConverter = compile(fieldSchema, getNonNullMember(expect(avroField.schema(), Schema.Type.UNION)));
+        } else {
+          fieldConverter = compile(fieldSchema, avroField.schema());
+        }
+        fields.add(new FieldConverter(field.getName(), avroField.pos(), field.getOptional(), field.getDefault() != null,
+            fieldConverter));
+      }
+      converter._fields = fields.toArray(new FieldConverter[0]);
+      return converter;
+    }
+
+    @Nonnull
+    private Converter compileUnion(@Nonnull UnionDataSchema pegasusSchema, @Nonnull Schema avroSchema) {
+      if (pegasusSchema.areMembersAliased()) {
+        throw new UnsupportedOperationException("Unsupported union with aliased members");
+      }
+      final List<Schema> avroMembers = avroSchema.getTypes();
+      final Map<String, Member> membersByKey = new HashMap<>();
+      final Member[] membersByIndex = new Member[avroMembers.size()];
+      for (UnionDataSchema.Member member : pegasusSchema.getMembers()) {
+        final DataSchema memberSchema = member.getType().getDereferencedDataSchema();
+        int avroIndex = -1;
+        for (int i = 0; i < avroMembers.size(); i++) {
+          if (matches(memberSchema, avroMembers.get(i))) {
+            if (avroIndex >= 0) {
+              throw new UnsupportedOperationException("Ambiguous union member " + member.getUnionMemberKey());
+            }
+            avroIndex = i;
+          }
+        }
+        if (avroIndex < 0) {
+          throw new UnsupportedOperationException("Missing union member " + member.getUnionMemberKey());
+        }
+        final Member compiled =
+            new Member(member.getUnionMemberKey(), compile(memberSchema, avroMembers.get(avroIndex)));
+        membersByKey.put(compiled._key, compiled);
+        membersByIndex[avroIndex] = compiled;
+      }
+      return new UnionConverter(avroSchema, membersByKey, membersByIndex);
+    }
+
+    private static boolean matches(@Nonnull DataSchema pegasusSchema, @Nonnull Schema avroSchema) {
+      switch (pegasusSchema.getType()) {
+        case RECORD:
+        case ENUM:
+        case FIXED:
+          // Avro names are in the renamed com.linkedin.pegasus2avro namespace.
+          return avroSchema.getType().getName().equals(pegasusSchema.getType().name().toLowerCase())
+              && avroSchema.getFullName().replace(".pegasus2avro", "")
+              .equals(((NamedDataSchema) pegasusSchema).getFullName());
+        default:
+          return avroSchema.getType().getName().equals(pegasusSchema.getType().name().toLowerCase());
+      }
+    }
+
+    @Nonnull
+    private static Schema getNonNullMember(@Nonnull Schema unionSchema) {
+      Schema nonNullMember = null;
+      for (Schema member : unionSchema.getTypes()) {
+        if (member.getType() != Schema.Type.NULL) {
+          if (nonNullMember != null) {
+            throw new UnsupportedOperationException("Unsupported optional field union " + unionSchema);
+          }
+          nonNullMember = member;
+        }
+      }
+      if (nonNullMember == null) {
+        throw new UnsupportedOperationException("Unsupported optional field union " + unionSchema);
+      }
+      return nonNullMember;
+    }
+
+    @Nonnull
+    private static Schema expect(@Nonnull Schema avroSchema, @Nonnull Schema.Type type) {
+      if (avroSchema.getType() != type) {
+        throw new UnsupportedOperationException(
+            String.format("Expected an Avro %s instead of %s", type, avroSchema.getType()));
+      }
+      return avroSchema;
+    }
+  }
+
+  private static final class FieldConverter {
+    private final String _name;
+    private final int _pos;
+    private final boolean _optional;
+    private final boolean _hasDefault;
+    private final Converter _converter;
+
+    private FieldConverter(String name, int pos, boolean optional, boolean hasDefault, Converter converter) {
+      _name = name;
+      _pos = pos;
+      _optional = optional;
+      _hasDefault = hasDefault;
+      _converter = converter;
+    }
+  }
+
+  private static final class RecordConverter implements Converter {
+    private final Schema _avroSchema;
+    private FieldConverter[] _fields;
+
+    private RecordConverter(Schema avroSchema) {
+      _avroSchema = avroSchema;
+    }
+
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      final DataMap map = (DataMap) value;
+      final GenericData.Record record = new GenericData.Record(_avroSchema);
+      for (FieldConverter field : _fields) {
+        final Object fieldValue = map.get(field._name);
+        if (fieldValue == null) {
+          // Absent required fields and fields with defaults are left to the translator.
+          if (!field._optional || field._hasDefault) {
+            throw ConversionException.MISSING_FIELD;
+          }
+        } else {
+          record.put(field._pos, field._converter.toAvro(fieldValue));
+        }
+      }
+      return record;
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      final GenericRecord record = (GenericRecord) value;
+      final DataMap map = new DataMap();
+      for (FieldConverter field : _fields) {
+        final Object fieldValue = record.get(field._pos);
+        if (fieldValue == null) {
+          if (!field._optional) {
+            throw ConversionException.MISSING_FIELD;
+          }
+        } else {
+          map.put(field._name, field._converter.toPegasus(fieldValue));
+        }
+      }
+      return map;
+    }
+  }
+
+  private static final class Member {
+    private final String _key;
+    private final Converter _converter;
+
+    private Member(String key, Converter converter) {
+      _key = key;
+      _converter = converter;
+    }
+  }
+
+  private static final class UnionConverter implements Converter {
+    private final Schema _avroSchema;
+    private final Map<String, Member> _membersByKey;
+    private final Member[] _membersByIndex;
+
+    private UnionConverter(Schema avroSchema, Map<String, Member> membersByKey, Member[] membersByIndex) {
+      _avroSchema = avroSchema;
+      _membersByKey = membersByKey;
+      _membersByIndex = membersByIndex;
+    }
+
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      final DataMap map = (DataMap) value;
+      if (map.size() != 1) {
+        throw ConversionException.INVALID_UNION;
+      }
+      final Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+      final Member member = _membersByKey.get(entry.getKey());
+      if (member == null) {
+        throw ConversionException.INVALID_UNION;
+      }
+      return member._converter.toAvro(entry.getValue());
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      final Member member = _membersByIndex[GenericData.get().resolveUnion(_avroSchema, value)];
+      if (member == null) {
+        throw ConversionException.INVALID_UNION;
+      }
+      final DataMap map = new DataMap();
+      map.put(member._key, member._converter.toPegasus(value));
+      return map;
+    }
+  }
+
+  private static final class ArrayConverter implements Converter {
+    private final Schema _avroSchema;
+    private final Converter _itemConverter;
+
+    private ArrayConverter(Schema avroSchema, Converter itemConverter) {
+      _avroSchema = avroSchema;
+      _itemConverter = itemConverter;
+    }
+
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      final DataList list = (DataList) value;
+      final GenericData.Array<Object> array = new GenericData.Array<>(list.size(), _avroSchema);
+      for (Object item : list) {
+        array.add(_itemConverter.toAvro(item));
+      }
+      return array;
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      final Collection<?> array = (Collection<?>) value;
+      final DataList list = new DataList(array.size());
+      for (Object item : array) {
+        list.add(_itemConverter.toPegasus(item));
+      }
+      return list;
+    }
+  }
+
+  private static final class MapConverter implements Converter {
+    private final Converter _valueConverter;
+
+    private MapConverter(Converter valueConverter) {
+      _valueConverter = valueConverter;
+    }
+
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      final DataMap map = (DataMap) value;
+      final Map<String, Object> avroMap = new HashMap<>(map.size());
+      for (Map.Entry<String, Object> entry : map.entrySet()) {
+        avroMap.put(entry.getKey(), _valueConverter.toAvro(entry.getValue()));
+      }
+      return avroMap;
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      final Map<?, ?> avroMap = (Map<?, ?>) value;
+      final DataMap map = new DataMap(avroMap.size());
+      for (Map.Entry<?, ?> entry : avroMap.entrySet()) {
+        map.put(entry.getKey().toString(), _valueConverter.toPegasus(entry.getValue()));
+      }
+      return map;
+    }
+  }
+
+  private static final class EnumConverter implements Converter {
+    private final Schema _avroSchema;
+
+    private EnumConverter(Schema avroSchema) {
+      _avroSchema = avroSchema;
+    }
+
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      return new GenericData.EnumSymbol(_avroSchema, (String) value);
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return value.toString();
+    }
+  }
+
+  private static final Converter STRING_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      return (String) value;
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return value.toString();
+    }
+  };
+
+  private static final Converter BYTES_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      if (value instanceof String) {
+        final ByteString bytes = ByteString.copyAvroString((String) value, false);
+        if (bytes == null) {
+          throw ConversionException.INVALID_BYTES;
+        }
+        return bytes.asByteBuffer();
+      }
+      // Already serialized bytes, such as aspects, are passed through without being copied.
+      return ((ByteString) value).asByteBuffer();
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      final ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+      final byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return ByteString.unsafeWrap(bytes);
+    }
+  };
+
+  private static final Converter INT_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      return ((Number) value).intValue();
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return ((Number) value).intValue();
+    }
+  };
+
+  private static final Converter LONG_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      return ((Number) value).longValue();
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return ((Number) value).longValue();
+    }
+  };
+
+  private static final Converter FLOAT_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      return ((Number) value).floatValue();
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return ((Number) value).floatValue();
+    }
+  };
+
+  private static final Converter DOUBLE_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      return ((Number) value).doubleValue();
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return ((Number) value).doubleValue();
+    }
+  };
+
+  private static final Converter BOOLEAN_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      return (Boolean) value;
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return (Boolean) value;
+    }
+  };
+
+  private static final Converter NULL_CONVERTER = new Converter() {
+    @Override
+    public Object toAvro(@Nonnull Object value) {
+      if (value != Data.NULL) {
+        throw ConversionException.INVALID_NULL;
+      }
+      return null;
+    }
+
+    @Override
+    public Object toPegasus(@Nonnull Object value) {
+      return Data.NULL;
+    }
+  };
+}
@@ -2,6 +2,7 @@ package com.linkedin.metadata;
 
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
+import com.linkedin.data.DataMap;
 import com.linkedin.data.avro.DataTranslator;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.RecordTemplate;
@@ -16,6 +17,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
@@ -73,6 +75,16 @@ public class EventUtils {
   private static final Schema RENAMED_FMCP_AVRO_SCHEMA =
       com.linkedin.pegasus2avro.mxe.FailedMetadataChangeProposal.SCHEMA$;
 
+  // Converters for the events produced and consumed most, null if their schemas cannot be compiled.
+  private static final CompiledEventConverter MAE_CONVERTER =
+      CompiledEventConverter.compile(MAE_PEGASUS_SCHEMA, RENAMED_MAE_AVRO_SCHEMA);
+
+  private static final CompiledEventConverter MCP_CONVERTER =
+      CompiledEventConverter.compile(MCP_PEGASUS_SCHEMA, RENAMED_MCP_AVRO_SCHEMA);
+
+  private static final CompiledEventConverter MCL_CONVERTER =
+      CompiledEventConverter.compile(MCL_PEGASUS_SCHEMA, RENAMED_MCL_AVRO_SCHEMA);
+
   private EventUtils() {
     // Util class
   }
@@ -95,9 +107,8 @@ public class EventUtils {
    */
   @Nonnull
   public static MetadataAuditEvent avroToPegasusMAE(@Nonnull GenericRecord record) throws IOException {
-    return new MetadataAuditEvent(DataTranslator.genericRecordToDataMap(
-        renameSchemaNamespace(record, RENAMED_MAE_AVRO_SCHEMA, ORIGINAL_MAE_AVRO_SCHEMA), MAE_PEGASUS_SCHEMA,
-        ORIGINAL_MAE_AVRO_SCHEMA));
+    return new MetadataAuditEvent(avroToPegasus(record, MAE_CONVERTER, MAE_PEGASUS_SCHEMA,
+        ORIGINAL_MAE_AVRO_SCHEMA, RENAMED_MAE_AVRO_SCHEMA));
   }
 
   /**
@@ -121,9 +132,8 @@ public class EventUtils {
    */
   @Nonnull
   public static MetadataChangeLog avroToPegasusMCL(@Nonnull GenericRecord record) throws IOException {
-    return new MetadataChangeLog(DataTranslator.genericRecordToDataMap(
-        renameSchemaNamespace(record, RENAMED_MCL_AVRO_SCHEMA, ORIGINAL_MCL_AVRO_SCHEMA),
-        MCL_PEGASUS_SCHEMA, ORIGINAL_MCL_AVRO_SCHEMA));
+    return new MetadataChangeLog(avroToPegasus(record, MCL_CONVERTER, MCL_PEGASUS_SCHEMA,
+        ORIGINAL_MCL_AVRO_SCHEMA, RENAMED_MCL_AVRO_SCHEMA));
   }
 
   /**
@@ -134,9 +144,8 @@ public class EventUtils {
    */
   @Nonnull
   public static MetadataChangeProposal avroToPegasusMCP(@Nonnull GenericRecord record) throws IOException {
-    return new MetadataChangeProposal(DataTranslator.genericRecordToDataMap(
-        renameSchemaNamespace(record, RENAMED_MCP_AVRO_SCHEMA, ORIGINAL_MCP_AVRO_SCHEMA),
-        MCP_PEGASUS_SCHEMA, ORIGINAL_MCP_AVRO_SCHEMA));
+    return new MetadataChangeProposal(avroToPegasus(record, MCP_CONVERTER, MCP_PEGASUS_SCHEMA,
+        ORIGINAL_MCP_AVRO_SCHEMA, RENAMED_MCP_AVRO_SCHEMA));
   }
 
   /**
@@ -148,9 +157,7 @@ public class EventUtils {
    */
   @Nonnull
   public static GenericRecord pegasusToAvroMAE(@Nonnull MetadataAuditEvent event) throws IOException {
-    GenericRecord original =
-        DataTranslator.dataMapToGenericRecord(event.data(), event.schema(), ORIGINAL_MAE_AVRO_SCHEMA);
-    return renameSchemaNamespace(original, ORIGINAL_MAE_AVRO_SCHEMA, RENAMED_MAE_AVRO_SCHEMA);
+    return pegasusToAvro(event, MAE_CONVERTER, ORIGINAL_MAE_AVRO_SCHEMA, RENAMED_MAE_AVRO_SCHEMA);
   }
 
   /**
@@ -162,9 +169,7 @@ public class EventUtils {
    */
   @Nonnull
   public static GenericRecord pegasusToAvroMCL(@Nonnull MetadataChangeLog event) throws IOException {
-    GenericRecord original =
-        DataTranslator.dataMapToGenericRecord(event.data(), event.schema(), ORIGINAL_MCL_AVRO_SCHEMA);
-    return renameSchemaNamespace(original, ORIGINAL_MCL_AVRO_SCHEMA, RENAMED_MCL_AVRO_SCHEMA);
+    return pegasusToAvro(event, MCL_CONVERTER, ORIGINAL_MCL_AVRO_SCHEMA, RENAMED_MCL_AVRO_SCHEMA);
   }
 
   /**
@@ -230,6 +235,40 @@ public class EventUtils {
     return renameSchemaNamespace(original, ORIGINAL_FMCL_AVRO_SCHEMA, RENAMED_FMCP_AVRO_SCHEMA);
   }
 
+  /**
+   * Converts a Pegasus event with its compiled converter, falling back to {@link DataTranslator} if it cannot.
+   */
+  @Nonnull
+  private static GenericRecord pegasusToAvro(@Nonnull RecordTemplate event, @Nullable CompiledEventConverter converter,
+      @Nonnull Schema originalSchema, @Nonnull Schema renamedSchema) throws IOException {
+    if (converter != null && event.schema() == converter.getPegasusSchema()) {
+      final GenericRecord record = converter.toAvro(event.data());
+      if (record != null) {
+        return record;
+      }
+    }
+    GenericRecord original = DataTranslator.dataMapToGenericRecord(event.data(), event.schema(), originalSchema);
+    return renameSchemaNamespace(original, originalSchema, renamedSchema);
+  }
+
+  /**
+   * Converts an Avro event with its compiled converter, falling back to {@link DataTranslator} if it cannot, such as
+   * when the event was written with another version of its schema.
+   */
+  @Nonnull
+  private static DataMap avroToPegasus(@Nonnull GenericRecord record, @Nullable CompiledEventConverter converter,
+      @Nonnull RecordDataSchema pegasusSchema, @Nonnull Schema originalSchema, @Nonnull Schema renamedSchema)
+      throws IOException {
+    if (converter != null) {
+      final DataMap data = converter.toPegasus(record);
+      if (data != null) {
+        return data;
+      }
+    }
+    return DataTranslator.genericRecordToDataMap(renameSchemaNamespace(record, renamedSchema, originalSchema),
+        pegasusSchema, originalSchema);
+  }
+
   /**
    * Converts original MXE into a renamed namespace
    */
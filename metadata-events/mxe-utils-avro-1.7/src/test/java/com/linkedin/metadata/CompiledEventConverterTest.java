@@ -0,0 +1,173 @@
+package com.linkedin.metadata;
+
+import com.datahub.util.RecordUtils;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.avro.DataTranslator;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.mxe.GenericAspect;
+import com.linkedin.mxe.MetadataAuditEvent;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.mxe.SystemMetadata;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.testng.annotations.Test;
+
+import static com.datahub.utils.TestUtils.*;
+import static org.testng.Assert.*;
+
+
+public class CompiledEventConverterTest {
+
+  private static final String ASPECT = "{\"tags\":[{\"tag\":\"urn:li:tag:pii\"}]}";
+
+  @Test
+  public void testMCLRoundTrip() throws Exception {
+    MetadataChangeLog event = new MetadataChangeLog()
+        .setEntityType("dataset")
+        .setEntityUrn(Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)"))
+        .setChangeType(ChangeType.UPSERT)
+        .setAspectName("globalTags")
+        .setAspect(genericAspect(ASPECT))
+        .setPreviousAspectValue(genericAspect("{\"tags\":[]}"))
+        .setSystemMetadata(new SystemMetadata()
+            .setLastObserved(1L)
+            .setRunId("run")
+            .setProperties(new StringMap(Collections.singletonMap("key", "value"))));
+
+    assertRoundTrip(event, com.linkedin.pegasus2avro.mxe.MetadataChangeLog.SCHEMA$,
+        "avro/com/linkedin/mxe/MetadataChangeLog.avsc");
+  }
+
+  @Test
+  public void testMCPRoundTrip() throws Exception {
+    MetadataChangeProposal event = new MetadataChangeProposal()
+        .setEntityType("dataset")
+        .setEntityUrn(Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)"))
+        .setChangeType(ChangeType.UPSERT)
+        .setAspectName("globalTags")
+        .setAspect(genericAspect(ASPECT));
+
+    assertRoundTrip(event, com.linkedin.pegasus2avro.mxe.MetadataChangeProposal.SCHEMA$,
+        "avro/com/linkedin/mxe/MetadataChangeProposal.avsc");
+  }
+
+  @Test
+  public void testMAERoundTrip() throws Exception {
+    MetadataAuditEvent event = RecordUtils.toRecordTemplate(MetadataAuditEvent.class,
+        loadJsonFromResource("test-pegasus2avro-mae.json"));
+
+    assertRoundTrip(event, com.linkedin.pegasus2avro.mxe.MetadataAuditEvent.SCHEMA$,
+        "avro/com/linkedin/mxe/MetadataAuditEvent.avsc");
+  }
+
+  @Test
+  public void testAspectBytesAreNotCopied() throws Exception {
+    GenericAspect aspect = genericAspect(ASPECT);
+    MetadataChangeProposal event = new MetadataChangeProposal()
+        .setEntityType("dataset")
+        .setChangeType(ChangeType.UPSERT)
+        .setAspect(aspect);
+    CompiledEventConverter converter = CompiledEventConverter.compile(event.schema(),
+        com.linkedin.pegasus2avro.mxe.MetadataChangeProposal.SCHEMA$);
+
+    GenericRecord record = converter.toAvro(event.data());
+
+    assertTrue(((GenericRecord) record.get("aspect")).get("value").equals(aspect.getValue().asByteBuffer()));
+  }
+
+  @Test
+  public void testFallsBackOnMissingRequiredField() {
+    MetadataChangeProposal event = new MetadataChangeProposal().setEntityType("dataset");
+    CompiledEventConverter converter = CompiledEventConverter.compile(event.schema(),
+        com.linkedin.pegasus2avro.mxe.MetadataChangeProposal.SCHEMA$);
+
+    long fallbacks = converter.getFallbackCount();
+    assertNull(converter.toAvro(event.data()));
+    assertEquals(converter.getFallbackCount(), fallbacks + 1);
+  }
+
+  @Test
+  public void testFallsBackOnOtherSchemaVersion() throws Exception {
+    MetadataChangeProposal event = new MetadataChangeProposal()
+        .setEntityType("dataset")
+        .setChangeType(ChangeType.UPSERT);
+    Schema schema = com.linkedin.pegasus2avro.mxe.MetadataChangeProposal.SCHEMA$;
+    Schema otherVersion = new Schema.Parser().parse(schema.toString().replace("entityKeyAspect", "keyAspect"));
+    CompiledEventConverter converter = CompiledEventConverter.compile(event.schema(), schema);
+    GenericRecord record = new GenericData.Record(otherVersion);
+    record.put("entityType", "dataset");
+
+    long fallbacks = converter.getFallbackCount();
+    assertNull(converter.toPegasus(record));
+    assertEquals(converter.getFallbackCount(), fallbacks + 1);
+  }
+
+  @Test
+  public void testDoesNotFallBackOnInvalidValue() {
+    MetadataChangeProposal event = new MetadataChangeProposal().setEntityType("dataset")
+        .setChangeType(ChangeType.UPSERT);
+    CompiledEventConverter converter = CompiledEventConverter.compile(event.schema(),
+        com.linkedin.pegasus2avro.mxe.MetadataChangeProposal.SCHEMA$);
+    DataMap data = event.data();
+    data.put("entityType", 1);
+
+    // A value of the wrong type is a bug of the caller, which the translator would not convert either
+    assertThrows(ClassCastException.class, () -> converter.toAvro(data));
+  }
+
+  private static void assertRoundTrip(RecordTemplate event, Schema renamedSchema, String originalSchemaPath)
+      throws IOException {
+    CompiledEventConverter converter = CompiledEventConverter.compile(event.schema(), renamedSchema);
+    assertNotNull(converter);
+
+    GenericRecord record = converter.toAvro(event.data());
+    assertNotNull(record);
+    assertEquals(record.getSchema(), renamedSchema);
+
+    // The namespace does not change the binary encoding, so the translator output serves as the expected bytes.
+    Schema originalSchema = new Schema.Parser().parse(
+        Resources.toString(Resources.getResource(originalSchemaPath), Charsets.UTF_8));
+    byte[] expected = serialize(DataTranslator.dataMapToGenericRecord(event.data(), event.schema(), originalSchema));
+    byte[] actual = serialize(record);
+    assertEquals(actual, expected);
+
+    GenericRecord decoded = new GenericDatumReader<GenericRecord>(renamedSchema)
+        .read(null, DecoderFactory.get().binaryDecoder(actual, null));
+    DataMap data = converter.toPegasus(decoded);
+    assertEquals(data, event.data());
+    assertEquals(data, DataTranslator.genericRecordToDataMap(
+        DataTranslator.dataMapToGenericRecord(event.data(), event.schema(), originalSchema), event.schema(),
+        originalSchema));
+  }
+
+  private static byte[] serialize(GenericRecord record) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(os, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return os.toByteArray();
+  }
+
+  private static GenericAspect genericAspect(String json) {
+    return new GenericAspect()
+        .setContentType("application/json")
+        .setValue(ByteString.copyString(json, StandardCharsets.UTF_8));
+  }
+}
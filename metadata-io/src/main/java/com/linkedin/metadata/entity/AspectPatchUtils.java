@@ -0,0 +1,198 @@
+package com.linkedin.metadata.entity;
+
+import com.datahub.util.RecordUtils;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.mxe.AspectPatch;
+import com.linkedin.mxe.AspectPatchOperation;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Applies {@link AspectPatch}es to aspects.
+ */
+public class AspectPatchUtils {
+
+  private static final JacksonDataCodec CODEC = new JacksonDataCodec();
+  private static final String VALUE_FIELD = "value";
+
+  /**
+   * Applies a patch to the given value of an aspect, and validates the result.
+   *
+   * @param value the value of the aspect, or null if it does not exist
+   * @param patch the patch to apply
+   * @param type class of the aspect
+   * @return the patched value of the aspect
+   * @throws ValidationException if the patch is invalid, or the patched value does not match the aspect schema
+   */
+  @Nonnull
+  public static <T extends RecordTemplate> T applyPatch(@Nullable final RecordTemplate value,
+      @Nonnull final AspectPatch patch, @Nonnull final Class<T> type) {
+    final DataMap data;
+    try {
+      data = value == null ? new DataMap() : value.data().copy();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("Failed to copy aspect to patch", e);
+    }
+    for (AspectPatchOperation operation : patch.getOperations()) {
+      applyOperation(data, operation);
+    }
+    final T result = RecordUtils.toRecordTemplate(type, data);
+    ValidationUtils.validateOrThrow(result);
+    return result;
+  }
+
+  private static void applyOperation(@Nonnull final DataMap data, @Nonnull final AspectPatchOperation operation) {
+    final List<String> segments = parsePath(operation.getPath());
+    final Object value = operation.hasValue() ? parseValue(operation.getValue()) : null;
+
+    // Navigate to the record holding the last field of the path, creating missing records and arrays.
+    Object current = data;
+    for (int i = 0; i < segments.size() - 1; i++) {
+      current = getOrCreateChild(current, segments.get(i), isSelector(segments.get(i + 1)));
+    }
+    if (!(current instanceof DataMap)) {
+      throw new ValidationException(String.format("Patch path %s does not end with a field", operation.getPath()));
+    }
+    final DataMap parent = (DataMap) current;
+    final String field = segments.get(segments.size() - 1);
+
+    switch (operation.getOp()) {
+      case SET:
+        if (value == null) {
+          parent.remove(field);
+        } else {
+          parent.put(field, value);
+        }
+        return;
+      case ADD:
+        if (value == null) {
+          throw new ValidationException(String.format("Missing value to add to %s", operation.getPath()));
+        }
+        final DataList addList = getOrCreateList(parent, field, operation.getPath());
+        if (addList.stream().noneMatch(element -> matches(element, value, operation.getKeyFields()))) {
+          addList.add(value);
+        }
+        return;
+      case REMOVE:
+        if (value == null) {
+          throw new ValidationException(String.format("Missing value to remove from %s", operation.getPath()));
+        }
+        final DataList removeList = getOrCreateList(parent, field, operation.getPath());
+        removeList.removeIf(element -> matches(element, value, operation.getKeyFields()));
+        return;
+      default:
+        throw new ValidationException(String.format("Unsupported patch operation %s", operation.getOp()));
+    }
+  }
+
+  @Nonnull
+  private static Object getOrCreateChild(@Nonnull final Object current, @Nonnull final String segment,
+      final boolean isArray) {
+    if (current instanceof DataList) {
+      if (!isSelector(segment)) {
+        throw new ValidationException(String.format("Expected an element selector instead of %s", segment));
+      }
+      final DataMap selector = parseSelector(segment);
+      final DataList list = (DataList) current;
+      for (Object element : list) {
+        if (matches(element, selector, null)) {
+          return element;
+        }
+      }
+      list.add(selector);
+      return selector;
+    }
+
+    final DataMap map = (DataMap) current;
+    final Object child = map.get(segment);
+    if (child == null) {
+      final Object newChild = isArray ? new DataList() : new DataMap();
+      map.put(segment, newChild);
+      return newChild;
+    }
+    if (!(child instanceof DataMap) && !(child instanceof DataList)) {
+      throw new ValidationException(String.format("Field %s is neither a record nor an array", segment));
+    }
+    return child;
+  }
+
+  @Nonnull
+  private static DataList getOrCreateList(@Nonnull final DataMap parent, @Nonnull final String field,
+      @Nonnull final String path) {
+    final Object list = parent.get(field);
+    if (list == null) {
+      final DataList newList = new DataList();
+      parent.put(field, newList);
+      return newList;
+    }
+    if (!(list instanceof DataList)) {
+      throw new ValidationException(String.format("Patch path %s does not point to an array", path));
+    }
+    return (DataList) list;
+  }
+
+  /**
+   * Returns whether an array element matches the value of an operation on the given key fields, or on all the fields
+   * of the value if none are given.
+   */
+  private static boolean matches(@Nonnull final Object element, @Nonnull final Object value,
+      @Nullable final List<String> keyFields) {
+    if (!(element instanceof DataMap) || !(value instanceof DataMap)) {
+      return element.equals(value);
+    }
+    final DataMap elementMap = (DataMap) element;
+    final DataMap valueMap = (DataMap) value;
+    final Collection<String> fields = keyFields != null ? keyFields : valueMap.keySet();
+    return fields.stream().allMatch(field -> Objects.equals(elementMap.get(field), valueMap.get(field)));
+  }
+
+  /**
+   * Parses a JSON pointer (RFC 6901) into its unescaped segments.
+   */
+  @Nonnull
+  private static List<String> parsePath(@Nonnull final String path) {
+    if (!path.startsWith("/") || path.length() == 1) {
+      throw new ValidationException(String.format("Invalid patch path %s", path));
+    }
+    final List<String> segments = new ArrayList<>();
+    for (String segment : path.substring(1).split("/", -1)) {
+      segments.add(segment.replace("~1", "/").replace("~0", "~"));
+    }
+    return segments;
+  }
+
+  private static boolean isSelector(@Nonnull final String segment) {
+    return segment.startsWith("{");
+  }
+
+  @Nonnull
+  private static DataMap parseSelector(@Nonnull final String segment) {
+    try {
+      return CODEC.stringToMap(segment);
+    } catch (IOException e) {
+      throw new ValidationException(String.format("Invalid element selector %s", segment));
+    }
+  }
+
+  @Nonnull
+  private static Object parseValue(@Nonnull final String value) {
+    try {
+      // Values may be primitives, so they are parsed wrapped into a map.
+      return CODEC.stringToMap(String.format("{\"%s\": %s}", VALUE_FIELD, value)).get(VALUE_FIELD);
+    } catch (IOException e) {
+      throw new ValidationException(String.format("Invalid patch value %s", value));
+    }
+  }
+
+  private AspectPatchUtils() {
+  }
+}
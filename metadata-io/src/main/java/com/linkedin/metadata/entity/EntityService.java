@@ -24,6 +24,7 @@ import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.query.ListUrnsResult;
 import com.linkedin.metadata.run.AspectRowSummary;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.utils.BrowsePathUtils;
 import com.linkedin.metadata.snapshot.Snapshot;
 import com.linkedin.metadata.utils.DataPlatformInstanceUtils;
@@ -31,6 +32,7 @@ import com.linkedin.metadata.utils.EntityKeyUtils;
 import com.linkedin.metadata.utils.GenericAspectUtils;
 import com.linkedin.metadata.utils.PegasusUtils;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.mxe.AspectPatch;
 import com.linkedin.mxe.MetadataAuditOperation;
 import com.linkedin.mxe.MetadataChangeLog;
 import com.linkedin.mxe.MetadataChangeProposal;
@@ -44,6 +46,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -101,6 +105,7 @@ public abstract class EntityService {
   @Setter
   private RetentionService retentionService;
   private Boolean _alwaysEmitAuditEvent = false;
+  private final List<Consumer<Urn>> _changeListeners = new CopyOnWriteArrayList<>();
   public static final String DEFAULT_RUN_ID = "no-run-id-provided";
   public static final String BROWSE_PATHS = "browsePaths";
   public static final String DATA_PLATFORM_INSTANCE = "dataPlatformInstance";
@@ -201,7 +206,8 @@ public abstract class EntityService {
       long version) throws Exception;
 
   /**
-   * Retrieves an {@link VersionedAspect}, or null if one cannot be found.
+   * Retrieves an {@link VersionedAspect}, or null if one cannot be found. It does not come with the
+   * {@link #getAspectVersion(Urn, String) version} of the aspect, which is read on its own when needed.
    */
   @Nullable
   public abstract VersionedAspect getVersionedAspect(@Nonnull final Urn urn, @Nonnull final String aspectName,
@@ -234,9 +240,32 @@ public abstract class EntityService {
    * @return Details about the new and old version of the aspect
    */
   @Nonnull
+  protected UpdateAspectResult ingestAspectToLocalDB(@Nonnull final Urn urn, @Nonnull final String aspectName,
+      @Nonnull final Function<Optional<RecordTemplate>, RecordTemplate> updateLambda,
+      @Nonnull final AuditStamp auditStamp, @Nonnull final SystemMetadata systemMetadata) {
+    return ingestAspectToLocalDB(urn, aspectName, updateLambda, auditStamp, systemMetadata, null);
+  }
+
+  /**
+   * Same as ingestAspectToLocalDB, but fails with a {@link PreconditionFailedException} unless the aspect is at the
+   * expected version, as returned by {@link #getAspectVersion(Urn, String)}, when the update is applied.
+   */
+  @Nonnull
   protected abstract UpdateAspectResult ingestAspectToLocalDB(@Nonnull final Urn urn, @Nonnull final String aspectName,
       @Nonnull final Function<Optional<RecordTemplate>, RecordTemplate> updateLambda,
-      @Nonnull final AuditStamp auditStamp, @Nonnull final SystemMetadata systemMetadata);
+      @Nonnull final AuditStamp auditStamp, @Nonnull final SystemMetadata systemMetadata,
+      @Nullable final Long expectedVersion);
+
+  /**
+   * Returns the version of an aspect, which is the number of values the aspect had, or 0 if it does not exist. It is
+   * the version expected by the {@link AspectPatch#getExpectedVersion()} precondition of patches, and is returned to
+   * clients asking for it as the {@link VersionedAspect#getAspectVersion()} of the latest value.
+   *
+   * @param urn urn of the entity
+   * @param aspectName name of the aspect
+   * @return the version of the aspect
+   */
+  public abstract long getAspectVersion(@Nonnull final Urn urn, @Nonnull final String aspectName);
 
   /**
    * Same as ingestAspectToLocalDB but for multiple aspects
@@ -355,8 +384,12 @@ public abstract class EntityService {
 
     Urn entityUrn = EntityKeyUtils.getUrnFromProposal(metadataChangeProposal, entitySpec.getKeyAspectSpec());
 
+    if (metadataChangeProposal.getChangeType() == ChangeType.PATCH) {
+      return ingestPatch(metadataChangeProposal, entityUrn, entitySpec, auditStamp);
+    }
+
     if (metadataChangeProposal.getChangeType() != ChangeType.UPSERT) {
-      throw new UnsupportedOperationException("Only upsert operation is supported");
+      throw new UnsupportedOperationException("Only upsert and patch operations are supported");
     }
 
     if (!metadataChangeProposal.hasAspectName() || !metadataChangeProposal.hasAspect()) {
@@ -411,6 +444,78 @@ public abstract class EntityService {
       }
     }
 
+    emitChangeLog(metadataChangeProposal, entityUrn, aspectSpec, oldAspect, oldSystemMetadata, newAspect,
+        newSystemMetadata);
+
+    return new IngestProposalResult(entityUrn, oldAspect != newAspect);
+  }
+
+  /**
+   * Applies a {@link AspectPatch} proposed with changeType PATCH to the latest value of the aspect, within the ingest
+   * transaction, and emits the patched value as an UPSERT {@link MetadataChangeLog}.
+   */
+  private IngestProposalResult ingestPatch(@Nonnull MetadataChangeProposal metadataChangeProposal,
+      @Nonnull Urn entityUrn, @Nonnull EntitySpec entitySpec, AuditStamp auditStamp) {
+
+    if (!metadataChangeProposal.hasAspectName() || !metadataChangeProposal.hasAspect()) {
+      throw new UnsupportedOperationException("Aspect and aspect name is required for patch operations");
+    }
+
+    AspectSpec aspectSpec = entitySpec.getAspectSpec(metadataChangeProposal.getAspectName());
+
+    if (aspectSpec == null) {
+      throw new RuntimeException(
+          String.format("Unknown aspect %s for entity %s", metadataChangeProposal.getAspectName(),
+              metadataChangeProposal.getEntityType()));
+    }
+
+    if (aspectSpec.isTimeseries()) {
+      throw new UnsupportedOperationException("Patch operations are not supported for timeseries aspects");
+    }
+
+    AspectPatch patch;
+    try {
+      patch = GenericAspectUtils.deserializeAspect(metadataChangeProposal.getAspect().getValue(),
+          metadataChangeProposal.getAspect().getContentType(), AspectPatch.class);
+      ValidationUtils.validateOrThrow(patch);
+    } catch (ModelConversionException e) {
+      throw new RuntimeException(
+          String.format("Could not deserialize patch %s for aspect %s", metadataChangeProposal.getAspect().getValue(),
+              metadataChangeProposal.getAspectName()));
+    }
+    log.debug("patch = {}", patch);
+
+    SystemMetadata systemMetadata = generateSystemMetadataIfEmpty(metadataChangeProposal.getSystemMetadata());
+    systemMetadata.setRegistryName(aspectSpec.getRegistryName());
+    systemMetadata.setRegistryVersion(aspectSpec.getRegistryVersion().toString());
+
+    Timer.Context ingestToLocalDBTimer = MetricUtils.timer(this.getClass(), "ingestPatchToLocalDB").time();
+    UpdateAspectResult result = ingestAspectToLocalDB(entityUrn, metadataChangeProposal.getAspectName(),
+        latest -> AspectPatchUtils.applyPatch(latest.orElse(null), patch, aspectSpec.getDataTemplateClass()),
+        auditStamp, systemMetadata, patch.getExpectedVersion());
+    ingestToLocalDBTimer.stop();
+    if (result.getOldValue() != result.getNewValue() && result.getOldValue() != null && retentionService != null) {
+      retentionService.applyRetention(entityUrn, aspectSpec.getName(),
+          Optional.of(new RetentionService.RetentionContext(Optional.of(result.maxVersion))));
+    }
+
+    // Consumers of the change log receive the patched value of the aspect.
+    final MetadataChangeProposal upsertProposal;
+    try {
+      upsertProposal = metadataChangeProposal.copy();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("Failed to copy metadata change proposal", e);
+    }
+    upsertProposal.setChangeType(ChangeType.UPSERT);
+    emitChangeLog(upsertProposal, entityUrn, aspectSpec, result.getOldValue(), result.getOldSystemMetadata(),
+        result.getNewValue(), result.getNewSystemMetadata());
+
+    return new IngestProposalResult(entityUrn, result.getOldValue() != result.getNewValue());
+  }
+
+  private void emitChangeLog(@Nonnull MetadataChangeProposal metadataChangeProposal, @Nonnull Urn entityUrn,
+      @Nonnull AspectSpec aspectSpec, @Nullable RecordTemplate oldAspect, @Nullable SystemMetadata oldSystemMetadata,
+      @Nullable RecordTemplate newAspect, @Nullable SystemMetadata newSystemMetadata) {
     if (oldAspect != newAspect || getAlwaysEmitAuditEvent()) {
       log.debug("Producing MetadataChangeLog for ingested aspect {}, urn {}", metadataChangeProposal.getAspectName(), entityUrn);
 
@@ -436,8 +541,6 @@ public abstract class EntityService {
           "Skipped producing MetadataChangeLog for ingested aspect {}, urn {}. Aspect has not changed.",
               metadataChangeProposal.getAspectName(), entityUrn);
     }
-
-    return new IngestProposalResult(entityUrn, oldAspect != newAspect);
   }
 
   /**
@@ -470,6 +573,17 @@ public abstract class EntityService {
    */
   public abstract ListUrnsResult listUrns(@Nonnull final String entityName, final int start, final int count);
 
+  /**
+   * Lists the entity URNs found in storage, one page at a time, in ascending urn order. Unlike
+   * {@link #listUrns(String, int, int)}, the cost of each page does not grow with its offset.
+   *
+   * @param entityName the name associated with the entity
+   * @param scrollId the scroll id returned with the previous page, or null to fetch the first page
+   * @param count the count
+   */
+  public abstract ScrollResult scrollUrns(@Nonnull final String entityName, @Nullable final String scrollId,
+      final int count);
+
   /**
    * Default implementations. Subclasses should feel free to override if it's more efficient to do so.
    */
@@ -536,6 +650,27 @@ public abstract class EntityService {
   public void produceMetadataChangeLog(@Nonnull final Urn urn, AspectSpec aspectSpec,
       @Nonnull final MetadataChangeLog metadataChangeLog) {
     _producer.produceMetadataChangeLog(urn, aspectSpec, metadataChangeLog);
+    notifyChangeListeners(urn);
+  }
+
+  /**
+   * Registers a listener called with the urn of an entity each time a change of one of its aspects is committed, i.e.
+   * for every {@link MetadataChangeLog} produced by this service. Used to evict the entity from in-process caches.
+   *
+   * <p>Listeners are called synchronously on the writing thread, and must not throw.
+   */
+  public void addChangeListener(@Nonnull final Consumer<Urn> listener) {
+    _changeListeners.add(listener);
+  }
+
+  private void notifyChangeListeners(@Nonnull final Urn urn) {
+    for (Consumer<Urn> listener : _changeListeners) {
+      try {
+        listener.accept(urn);
+      } catch (RuntimeException e) {
+        log.error("Change listener failed for urn {}", urn, e);
+      }
+    }
   }
 
   public void produceMetadataChangeLog(@Nonnull final Urn urn, @Nonnull String entityName, @Nonnull String aspectName,
@@ -0,0 +1,10 @@
+package com.linkedin.metadata.entity;
+
+/**
+ * Exception thrown when a metadata change is rejected because the aspect is not at the expected version.
+ */
+public class PreconditionFailedException extends RuntimeException {
+  public PreconditionFailedException(final String message) {
+    super(message);
+  }
+}
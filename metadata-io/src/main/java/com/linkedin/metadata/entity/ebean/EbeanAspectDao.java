@@ -373,6 +373,36 @@ public class EbeanAspectDao {
     return toListResult(urns, null, pagedList, start);
   }
 
+  /**
+   * Lists the urns having the given (key) aspect in ascending order, starting after the given urn. Unlike
+   * {@link #listUrns(String, int, int)}, this does not scan past the skipped rows nor count the total, which keeps the
+   * cost of each page constant when walking through all urns.
+   */
+  @Nonnull
+  public List<String> listUrnsAfter(
+      @Nonnull final String aspectName,
+      @Nullable final String lastUrn,
+      final int pageSize) {
+    validateConnection();
+
+    ExpressionList<EbeanAspectV2> query = _server.find(EbeanAspectV2.class)
+        .select(EbeanAspectV2.KEY_ID)
+        .where()
+        .eq(EbeanAspectV2.ASPECT_COLUMN, aspectName)
+        .eq(EbeanAspectV2.VERSION_COLUMN, ASPECT_LATEST_VERSION);
+    if (lastUrn != null) {
+      query = query.gt(EbeanAspectV2.URN_COLUMN, lastUrn);
+    }
+    return query
+        .orderBy()
+        .asc(EbeanAspectV2.URN_COLUMN)
+        .setMaxRows(pageSize)
+        .findList()
+        .stream()
+        .map(entry -> entry.getKey().getUrn())
+        .collect(Collectors.toList());
+  }
+
   @Nonnull
   public ListResult<String> listAspectMetadata(
       @Nonnull final Urn urn,
@@ -549,9 +579,9 @@ public class EbeanAspectDao {
     auditStamp.setTime(aspect.getCreatedOn().getTime());
 
     try {
-      auditStamp.setActor(new Urn(aspect.getCreatedBy()));
+      auditStamp.setActor(Urn.createFromString(aspect.getCreatedBy()));
       if (aspect.getCreatedFor() != null) {
-        auditStamp.setImpersonator(new Urn(aspect.getCreatedFor()));
+        auditStamp.setImpersonator(Urn.createFromString(aspect.getCreatedFor()));
       }
     } catch (URISyntaxException e) {
       throw new RuntimeException(e);
@@ -18,6 +18,7 @@ import com.linkedin.metadata.aspect.VersionedAspect;
 import com.datahub.util.RecordUtils;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.ListResult;
+import com.linkedin.metadata.entity.PreconditionFailedException;
 import com.linkedin.metadata.entity.RollbackResult;
 import com.linkedin.metadata.entity.RollbackRunResult;
 import com.linkedin.metadata.event.EntityEventProducer;
@@ -26,6 +27,10 @@ import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.query.ListUrnsResult;
 import com.linkedin.metadata.run.AspectRowSummary;
+import com.linkedin.metadata.search.ScrollResult;
+import com.linkedin.metadata.search.SearchEntity;
+import com.linkedin.metadata.search.SearchEntityArray;
+import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.utils.EntityKeyUtils;
 import com.linkedin.metadata.utils.PegasusUtils;
 import com.linkedin.mxe.MetadataAuditOperation;
@@ -306,13 +311,21 @@ public class EbeanEntityService extends EntityService {
   @Nonnull
   protected UpdateAspectResult ingestAspectToLocalDB(@Nonnull final Urn urn, @Nonnull final String aspectName,
       @Nonnull final Function<Optional<RecordTemplate>, RecordTemplate> updateLambda,
-      @Nonnull final AuditStamp auditStamp, @Nonnull final SystemMetadata providedSystemMetadata) {
+      @Nonnull final AuditStamp auditStamp, @Nonnull final SystemMetadata providedSystemMetadata,
+      @Nullable final Long expectedVersion) {
 
     return _entityDao.runInTransactionWithRetry(() -> {
       final String urnStr = urn.toString();
       final EbeanAspectV2 latest = _entityDao.getLatestAspect(urnStr, aspectName);
       long nextVersion = _entityDao.getNextVersion(urnStr, aspectName);
 
+      // The next version is the number of values the aspect had, see getAspectVersion
+      if (expectedVersion != null && expectedVersion != nextVersion) {
+        throw new PreconditionFailedException(
+            String.format("Expected aspect %s of %s to be at version %s, but it is at version %s", aspectName, urn,
+                expectedVersion, nextVersion));
+      }
+
       return ingestAspectToLocalDBNoTransaction(urn, aspectName, updateLambda, auditStamp, providedSystemMetadata, latest, nextVersion);
     }, DEFAULT_MAX_TRANSACTION_RETRY);
   }
@@ -387,6 +400,11 @@ public class EbeanEntityService extends EntityService {
             MetadataAuditOperation.UPDATE, versionOfOld);
   }
 
+  @Override
+  public long getAspectVersion(@Nonnull final Urn urn, @Nonnull final String aspectName) {
+    return _entityDao.getNextVersion(urn.toString(), aspectName);
+  }
+
   @Override
   @Nonnull
   public RecordTemplate updateAspect(@Nonnull final Urn urn, @Nonnull final String entityName,
@@ -658,6 +676,45 @@ public class EbeanEntityService extends EntityService {
     return aspects.values().stream().anyMatch(aspect -> aspect != null);
   }
 
+  @Override
+  @Nonnull
+  public ScrollResult scrollUrns(@Nonnull final String entityName, @Nullable final String scrollId, final int count) {
+    log.debug("Invoked scrollUrns with entityName: {}, scrollId: {}, count: {}", entityName, scrollId, count);
+
+    // If a keyAspect exists, the entity exists.
+    final String keyAspectName = getEntityRegistry().getEntitySpec(entityName).getKeyAspectSpec().getName();
+    final String lastUrn = scrollId == null ? null : decodeUrnScrollId(scrollId);
+    final List<String> urns = _entityDao.listUrnsAfter(keyAspectName, lastUrn, count);
+
+    final ScrollResult result = new ScrollResult();
+    result.setPageSize(count);
+    if (count > 0 && urns.size() == count) {
+      // Urns are listed in ascending order, so the last urn of the page is where the next page starts.
+      result.setScrollId(ESUtils.encodeScrollId(new Object[]{urns.get(urns.size() - 1)}));
+    }
+
+    final SearchEntityArray entities = new SearchEntityArray();
+    for (String urn : urns) {
+      try {
+        entities.add(new SearchEntity().setEntity(Urn.createFromString(urn)));
+      } catch (URISyntaxException e) {
+        throw new IllegalArgumentException(String.format("Failed to convert urn %s found in db to Urn object.", urn),
+            e);
+      }
+    }
+    result.setEntities(entities);
+    return result;
+  }
+
+  @Nonnull
+  private static String decodeUrnScrollId(@Nonnull final String scrollId) {
+    final Object[] sortValues = ESUtils.decodeScrollId(scrollId);
+    if (sortValues.length != 1 || !(sortValues[0] instanceof String)) {
+      throw new IllegalArgumentException("Invalid scroll id " + scrollId);
+    }
+    return (String) sortValues[0];
+  }
+
   @Override
   @Nonnull
   public ListUrnsResult listUrns(@Nonnull final String entityName, final int start, final int count) {
@@ -2,11 +2,14 @@ package com.linkedin.metadata.graph;
 
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
 import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import static com.linkedin.metadata.search.utils.QueryUtils.*;
+
 public interface GraphService {
 
   /**
@@ -90,6 +93,20 @@ public interface GraphService {
       @Nonnull final List<String> relationshipTypes,
       @Nonnull final RelationshipFilter relationshipFilter);
 
+  /**
+   * Replaces the outgoing edges of the given relationship types of the given node with the given edges.
+   *
+   * The default implementation removes all the outgoing edges of the given relationship types, then adds the given
+   * ones. Implementations should override it if they can only apply the difference.
+   */
+  default void updateEdgesFromNode(
+      @Nonnull final Urn urn,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final List<Edge> edges) {
+    removeEdgesFromNode(urn, relationshipTypes, newRelationshipFilter(EMPTY_FILTER, RelationshipDirection.OUTGOING));
+    edges.forEach(this::addEdge);
+  }
+
   void configure();
 
   /**
@@ -0,0 +1,331 @@
+package com.linkedin.metadata.graph.cache;
+
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.RelatedEntity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * A compact in-memory adjacency list of the graph.
+ *
+ * <p>Urns, entity types and relationship types are interned to int ids. The outgoing and incoming edges of each node are
+ * kept in primitive int arrays of (relationship type id, neighbour id) pairs, so that the only per-edge cost is 16 bytes,
+ * whatever the length of the urns involved.
+ *
+ * <p>Node ids are never reused, even after a node is removed, which keeps the id of an urn stable while it is cached.
+ *
+ * <p>This class is not thread safe, see {@link CachingGraphService} for the locking.
+ */
+class AdjacencyGraph {
+
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int[] NO_EDGES = new int[0];
+
+  private final Map<String, Integer> _nodeIds = new HashMap<>();
+  private final Map<String, Integer> _entityTypeIds = new HashMap<>();
+  private final List<String> _entityTypes = new ArrayList<>();
+  private final Map<String, Integer> _relationshipTypeIds = new HashMap<>();
+  private final List<String> _relationshipTypes = new ArrayList<>();
+
+  private String[] _urns = new String[INITIAL_CAPACITY];
+  private int[] _nodeEntityTypes = new int[INITIAL_CAPACITY];
+  // Flattened (relationship type id, neighbour id) pairs per node, and the number of ints used in each array
+  private int[][] _outgoing = new int[INITIAL_CAPACITY][];
+  private int[] _outgoingSizes = new int[INITIAL_CAPACITY];
+  private int[][] _incoming = new int[INITIAL_CAPACITY][];
+  private int[] _incomingSizes = new int[INITIAL_CAPACITY];
+
+  private int _nodeCount;
+  private long _edgeCount;
+
+  /**
+   * Adds the given edge, unless it already exists.
+   *
+   * @return whether the edge was added
+   */
+  boolean addEdge(@Nonnull final Edge edge) {
+    final int source = internNode(edge.getSource().toString(), edge.getSource().getEntityType());
+    final int destination = internNode(edge.getDestination().toString(), edge.getDestination().getEntityType());
+    final int relationshipType = intern(edge.getRelationshipType(), _relationshipTypeIds, _relationshipTypes);
+
+    if (indexOfPair(_outgoing[source], _outgoingSizes[source], relationshipType, destination) >= 0) {
+      return false;
+    }
+    appendPair(_outgoing, _outgoingSizes, source, relationshipType, destination);
+    appendPair(_incoming, _incomingSizes, destination, relationshipType, source);
+    _edgeCount++;
+    return true;
+  }
+
+  /**
+   * Removes the edges of the given node along the given direction.
+   *
+   * @param relationshipTypes the relationship types of the edges to remove, or empty to remove all of them
+   */
+  void removeEdges(@Nonnull final String urn, @Nonnull final List<String> relationshipTypes, final boolean outgoing) {
+    final int node = getNodeId(urn);
+    if (node < 0) {
+      return;
+    }
+    final int[] relationshipTypeIds = toRelationshipTypeIds(relationshipTypes);
+    if (relationshipTypeIds != null && relationshipTypeIds.length == 0) {
+      // None of the relationship types is known, so there is nothing to remove
+      return;
+    }
+
+    final int[][] lists = outgoing ? _outgoing : _incoming;
+    final int[] sizes = outgoing ? _outgoingSizes : _incomingSizes;
+    final int[][] reverseLists = outgoing ? _incoming : _outgoing;
+    final int[] reverseSizes = outgoing ? _incomingSizes : _outgoingSizes;
+
+    final int[] pairs = lists[node];
+    int kept = 0;
+    for (int i = 0; i < sizes[node]; i += 2) {
+      if (matches(pairs[i], relationshipTypeIds)) {
+        removePair(reverseLists, reverseSizes, pairs[i + 1], pairs[i], node);
+        _edgeCount--;
+      } else {
+        pairs[kept++] = pairs[i];
+        pairs[kept++] = pairs[i + 1];
+      }
+    }
+    sizes[node] = kept;
+  }
+
+  /**
+   * Removes all the edges, incoming and outgoing, of the given node.
+   */
+  void removeNode(@Nonnull final String urn) {
+    removeEdges(urn, new ArrayList<>(), true);
+    removeEdges(urn, new ArrayList<>(), false);
+  }
+
+  void clear() {
+    _nodeIds.clear();
+    _entityTypeIds.clear();
+    _entityTypes.clear();
+    _relationshipTypeIds.clear();
+    _relationshipTypes.clear();
+    _urns = new String[INITIAL_CAPACITY];
+    _nodeEntityTypes = new int[INITIAL_CAPACITY];
+    _outgoing = new int[INITIAL_CAPACITY][];
+    _outgoingSizes = new int[INITIAL_CAPACITY];
+    _incoming = new int[INITIAL_CAPACITY][];
+    _incomingSizes = new int[INITIAL_CAPACITY];
+    _nodeCount = 0;
+    _edgeCount = 0;
+  }
+
+  /**
+   * @return the id of the given urn, or -1 if it is not part of the graph
+   */
+  int getNodeId(@Nonnull final String urn) {
+    final Integer id = _nodeIds.get(urn);
+    return id == null ? -1 : id;
+  }
+
+  @Nonnull
+  String getEntityType(final int node) {
+    return _entityTypes.get(_nodeEntityTypes[node]);
+  }
+
+  /**
+   * Lists the neighbours of the given node along the given direction, one per edge, in insertion order.
+   *
+   * @param relationshipTypes the relationship types of the edges to follow, or empty to follow all of them
+   * @param neighbourType the entity type of the neighbours to return, or null for any type
+   */
+  @Nonnull
+  List<RelatedEntity> getRelatedEntities(final int node, @Nonnull final List<String> relationshipTypes,
+      final boolean outgoing, @Nullable final String neighbourType) {
+    final int[] relationshipTypeIds = toRelationshipTypeIds(relationshipTypes);
+    final int neighbourTypeId = neighbourType == null ? -1 : _entityTypeIds.getOrDefault(neighbourType, -2);
+    if ((relationshipTypeIds != null && relationshipTypeIds.length == 0) || neighbourTypeId == -2) {
+      return new ArrayList<>();
+    }
+
+    final int[] pairs = outgoing ? _outgoing[node] : _incoming[node];
+    final int size = outgoing ? _outgoingSizes[node] : _incomingSizes[node];
+    final List<RelatedEntity> relatedEntities = new ArrayList<>(size / 2);
+    for (int i = 0; i < size; i += 2) {
+      final int neighbour = pairs[i + 1];
+      if (matches(pairs[i], relationshipTypeIds) && (neighbourTypeId < 0
+          || _nodeEntityTypes[neighbour] == neighbourTypeId)) {
+        relatedEntities.add(new RelatedEntity(_relationshipTypes.get(pairs[i]), _urns[neighbour]));
+      }
+    }
+    return relatedEntities;
+  }
+
+  /**
+   * Walks the graph breadth first from the given node along the given direction.
+   *
+   * @param relationshipTypes the relationship types of the edges to follow, or empty to follow all of them
+   * @param maxHops the max number of edges between the given node and the returned ones
+   * @param maxResults the max number of urns to return
+   * @return the urns reached, mapped to their distance in hops from the given node, closest first
+   */
+  @Nonnull
+  Map<String, Integer> traverse(final int node, @Nonnull final List<String> relationshipTypes, final boolean outgoing,
+      final int maxHops, final int maxResults) {
+    final Map<String, Integer> reached = new LinkedHashMap<>();
+    final int[] relationshipTypeIds = toRelationshipTypeIds(relationshipTypes);
+    if (relationshipTypeIds != null && relationshipTypeIds.length == 0) {
+      return reached;
+    }
+    final int[][] lists = outgoing ? _outgoing : _incoming;
+    final int[] sizes = outgoing ? _outgoingSizes : _incomingSizes;
+
+    final boolean[] visited = new boolean[_nodeCount];
+    visited[node] = true;
+    int[] frontier = new int[]{node};
+    for (int hop = 1; hop <= maxHops && frontier.length > 0; hop++) {
+      int[] next = new int[16];
+      int nextSize = 0;
+      for (int current : frontier) {
+        final int[] pairs = lists[current];
+        for (int i = 0; i < sizes[current]; i += 2) {
+          final int neighbour = pairs[i + 1];
+          if (visited[neighbour] || !matches(pairs[i], relationshipTypeIds)) {
+            continue;
+          }
+          visited[neighbour] = true;
+          reached.put(_urns[neighbour], hop);
+          if (reached.size() >= maxResults) {
+            return reached;
+          }
+          if (nextSize == next.length) {
+            next = Arrays.copyOf(next, nextSize * 2);
+          }
+          next[nextSize++] = neighbour;
+        }
+      }
+      frontier = Arrays.copyOf(next, nextSize);
+    }
+    return reached;
+  }
+
+  int getNodeCount() {
+    return _nodeCount;
+  }
+
+  long getEdgeCount() {
+    return _edgeCount;
+  }
+
+  /**
+   * Estimates the heap used by the graph, assuming compressed oops. Urn strings are counted once, since they are shared
+   * between the id map and the node array.
+   */
+  long estimateMemoryBytes() {
+    long bytes = 0;
+    // Node arrays, sized to their capacity
+    bytes += 6L * 4 * _urns.length;
+    for (int node = 0; node < _nodeCount; node++) {
+      bytes += 40 + 2L * _urns[node].length();
+      bytes += _outgoing[node] == null ? 0 : 16 + 4L * _outgoing[node].length;
+      bytes += _incoming[node] == null ? 0 : 16 + 4L * _incoming[node].length;
+    }
+    // Id map entries & boxed ids
+    bytes += 48L * _nodeIds.size();
+    return bytes;
+  }
+
+  private int internNode(@Nonnull final String urn, @Nonnull final String entityType) {
+    final Integer existing = _nodeIds.get(urn);
+    if (existing != null) {
+      return existing;
+    }
+    if (_nodeCount == _urns.length) {
+      final int capacity = _urns.length * 2;
+      _urns = Arrays.copyOf(_urns, capacity);
+      _nodeEntityTypes = Arrays.copyOf(_nodeEntityTypes, capacity);
+      _outgoing = Arrays.copyOf(_outgoing, capacity);
+      _outgoingSizes = Arrays.copyOf(_outgoingSizes, capacity);
+      _incoming = Arrays.copyOf(_incoming, capacity);
+      _incomingSizes = Arrays.copyOf(_incomingSizes, capacity);
+    }
+    final int node = _nodeCount++;
+    _urns[node] = urn;
+    _nodeEntityTypes[node] = intern(entityType, _entityTypeIds, _entityTypes);
+    _outgoing[node] = NO_EDGES;
+    _incoming[node] = NO_EDGES;
+    _nodeIds.put(urn, node);
+    return node;
+  }
+
+  private static int intern(@Nonnull final String value, @Nonnull final Map<String, Integer> ids,
+      @Nonnull final List<String> values) {
+    return ids.computeIfAbsent(value, ignored -> {
+      values.add(value);
+      return values.size() - 1;
+    });
+  }
+
+  /**
+   * @return the ids of the given relationship types which are known, or null to match all of them
+   */
+  @Nullable
+  private int[] toRelationshipTypeIds(@Nonnull final List<String> relationshipTypes) {
+    if (relationshipTypes.isEmpty()) {
+      return null;
+    }
+    return relationshipTypes.stream()
+        .map(_relationshipTypeIds::get)
+        .filter(id -> id != null)
+        .mapToInt(Integer::intValue)
+        .distinct()
+        .toArray();
+  }
+
+  private static boolean matches(final int relationshipType, @Nullable final int[] relationshipTypeIds) {
+    if (relationshipTypeIds == null) {
+      return true;
+    }
+    for (int id : relationshipTypeIds) {
+      if (id == relationshipType) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int indexOfPair(@Nonnull final int[] pairs, final int size, final int relationshipType,
+      final int neighbour) {
+    for (int i = 0; i < size; i += 2) {
+      if (pairs[i] == relationshipType && pairs[i + 1] == neighbour) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static void appendPair(@Nonnull final int[][] lists, @Nonnull final int[] sizes, final int node,
+      final int relationshipType, final int neighbour) {
+    int[] pairs = lists[node];
+    if (sizes[node] + 2 > pairs.length) {
+      pairs = Arrays.copyOf(pairs, Math.max(4, pairs.length * 2));
+      lists[node] = pairs;
+    }
+    pairs[sizes[node]++] = relationshipType;
+    pairs[sizes[node]++] = neighbour;
+  }
+
+  private static void removePair(@Nonnull final int[][] lists, @Nonnull final int[] sizes, final int node,
+      final int relationshipType, final int neighbour) {
+    final int[] pairs = lists[node];
+    final int index = indexOfPair(pairs, sizes[node], relationshipType, neighbour);
+    if (index < 0) {
+      return;
+    }
+    System.arraycopy(pairs, index + 2, pairs, index, sizes[node] - index - 2);
+    sizes[node] -= 2;
+  }
+}
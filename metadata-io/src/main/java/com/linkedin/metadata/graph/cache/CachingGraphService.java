@@ -0,0 +1,390 @@
+package com.linkedin.metadata.graph.cache;
+
+import com.codahale.metrics.Counter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.RelatedEntitiesResult;
+import com.linkedin.metadata.graph.RelatedEntity;
+import com.linkedin.metadata.graph.elastic.ElasticSearchGraphService;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import com.linkedin.metadata.query.filter.RelationshipFilter;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.*;
+
+
+/**
+ * A {@link GraphService} decorator answering the neighbour queries of lineage & relationship views from an in-memory
+ * {@link AdjacencyGraph}, rather than from the Elasticsearch graph index.
+ *
+ * <p>The cache is bootstrapped by scrolling through the graph index, rebuilt on a fixed interval, and kept current with
+ * the writes going through this service, e.g. the edge updates of an embedded MCL consumer. It should therefore only
+ * be used by processes consuming the MCLs themselves. Writes are always applied to the delegate first. Writes made by
+ * other processes, e.g. other replicas consuming other MCL partitions, are only reflected once the cache is rebuilt:
+ * their staleness is bounded by the refresh interval plus the duration of a rebuild. If rebuilds keep failing, queries fall back to the delegate once the cache is older than
+ * {@value #MAX_MISSED_REFRESHES} refresh intervals.
+ *
+ * <p>Edges written through this service may still be buffered by the bulk processor of the delegate while the graph
+ * index is scrolled, so the writes made within a replay window before a rebuild starts are replayed on the rebuilt
+ * cache, along with the writes made during the rebuild.
+ *
+ * <p>Only queries starting from a single urn along an outgoing or incoming direction, without a destination entity
+ * filter, are served from the cache. All other queries, as well as queries issued before the cache is ready or
+ * starting from an urn it does not know about, fall back to the delegate.
+ */
+@Slf4j
+public class CachingGraphService implements GraphService {
+
+  private static final String URN_FIELD = "urn";
+  private static final int MAX_MISSED_REFRESHES = 3;
+  private static final Comparator<RelatedEntity> RELATED_ENTITY_ORDER =
+      Comparator.comparing(RelatedEntity::getUrn).thenComparing(RelatedEntity::getRelationshipType);
+  public static final long DEFAULT_REPLAY_WINDOW_MILLIS = 60_000L;
+
+  private final ElasticSearchGraphService _delegate;
+  private final int _bootstrapBatchSize;
+  private final long _replayWindowMillis;
+  private final ReentrantReadWriteLock _lock = new ReentrantReadWriteLock();
+
+  // Guarded by _lock
+  private AdjacencyGraph _graph = new AdjacencyGraph();
+  // Writes applied while the graph is being rebuilt, to be replayed on the rebuilt graph. Guarded by _lock
+  private List<Consumer<AdjacencyGraph>> _pendingWrites;
+  // Writes applied within the replay window, with the time they were applied at, oldest first. Guarded by _lock
+  private final Deque<TimedWrite> _recentWrites = new ArrayDeque<>();
+  private volatile boolean _ready = false;
+  private volatile long _builtAtMillis;
+  // 0 when the cache is never rebuilt, in which case it never expires
+  private volatile long _maxAgeMillis = 0;
+
+  private final Counter _hitCounter = MetricUtils.counter(CachingGraphService.class, "hit");
+  private final Counter _missCounter = MetricUtils.counter(CachingGraphService.class, "miss");
+  private final Counter _unsupportedCounter = MetricUtils.counter(CachingGraphService.class, "unsupportedQuery");
+  private final Counter _staleCounter = MetricUtils.counter(CachingGraphService.class, "stale");
+
+  public CachingGraphService(@Nonnull final ElasticSearchGraphService delegate, final int bootstrapBatchSize) {
+    this(delegate, bootstrapBatchSize, DEFAULT_REPLAY_WINDOW_MILLIS);
+  }
+
+  /**
+   * @param replayWindowMillis how long writes are kept to be replayed on a rebuilt cache, which should exceed the time
+   *                           the bulk processor of the delegate takes to flush a write, retries included
+   */
+  public CachingGraphService(@Nonnull final ElasticSearchGraphService delegate, final int bootstrapBatchSize,
+      final long replayWindowMillis) {
+    _delegate = delegate;
+    _bootstrapBatchSize = bootstrapBatchSize;
+    _replayWindowMillis = replayWindowMillis;
+  }
+
+  /**
+   * Bootstraps the cache in the background, then rebuilds it on the given interval.
+   *
+   * @param refreshIntervalSeconds the interval between rebuilds, or 0 to only build the cache once, in which case
+   *                               writes made by other processes are never reflected
+   */
+  public void start(final long refreshIntervalSeconds) {
+    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("graph-cache-%d").setDaemon(true).build());
+    if (refreshIntervalSeconds > 0) {
+      _maxAgeMillis = TimeUnit.SECONDS.toMillis(refreshIntervalSeconds) * MAX_MISSED_REFRESHES;
+      executor.scheduleWithFixedDelay(this::rebuild, 0, refreshIntervalSeconds, TimeUnit.SECONDS);
+    } else {
+      executor.execute(this::rebuild);
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Rebuilds the cache from the graph index, and swaps it in once complete. Writes applied within the replay window
+   * before the rebuild, and writes applied in the meantime, are replayed on the rebuilt cache before the swap.
+   */
+  public void rebuild() {
+    final AdjacencyGraph graph = new AdjacencyGraph();
+    final long startMillis = System.currentTimeMillis();
+    applyWrite(ignored -> { }, true);
+    try {
+      _delegate.scrollEdges(_bootstrapBatchSize, graph::addEdge);
+      _lock.writeLock().lock();
+      try {
+        _pendingWrites.forEach(write -> write.accept(graph));
+        _graph = graph;
+        _builtAtMillis = startMillis;
+        _ready = true;
+      } finally {
+        _lock.writeLock().unlock();
+      }
+      log.info("Built the graph cache in {} ms. {}", System.currentTimeMillis() - startMillis,
+          getMemoryFootprintReport());
+    } catch (Exception e) {
+      log.error("Failed to build the graph cache, queries will keep being served by the graph index", e);
+    } finally {
+      _lock.writeLock().lock();
+      try {
+        _pendingWrites = null;
+      } finally {
+        _lock.writeLock().unlock();
+      }
+    }
+  }
+
+  public boolean isReady() {
+    return _ready;
+  }
+
+  /**
+   * @return whether the cache is ready, and was rebuilt recently enough to answer queries
+   */
+  private boolean isUsable() {
+    if (!_ready) {
+      return false;
+    }
+    if (_maxAgeMillis > 0 && System.currentTimeMillis() - _builtAtMillis > _maxAgeMillis) {
+      _staleCounter.inc();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Describes the number of nodes & edges held by the cache, and its estimated heap usage.
+   */
+  @Nonnull
+  public String getMemoryFootprintReport() {
+    _lock.readLock().lock();
+    try {
+      return String.format("Graph cache holds %s nodes and %s edges, using ~%s MB of heap", _graph.getNodeCount(),
+          _graph.getEdgeCount(), _graph.estimateMemoryBytes() / (1024 * 1024));
+    } finally {
+      _lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void addEdge(@Nonnull final Edge edge) {
+    _delegate.addEdge(edge);
+    applyWrite(graph -> graph.addEdge(edge), false);
+  }
+
+  @Nonnull
+  @Override
+  public RelatedEntitiesResult findRelatedEntities(@Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter, @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter, final int offset, final int count) {
+    final RelationshipDirection direction = relationshipFilter.getDirection();
+    final String sourceUrn = getSingleUrn(sourceEntityFilter);
+    if (!isUsable() || sourceUrn == null || !isEmptyFilter(destinationEntityFilter)
+        || direction == RelationshipDirection.UNDIRECTED) {
+      _unsupportedCounter.inc();
+      return _delegate.findRelatedEntities(sourceType, sourceEntityFilter, destinationType, destinationEntityFilter,
+          relationshipTypes, relationshipFilter, offset, count);
+    }
+
+    final List<RelatedEntity> relatedEntities;
+    _lock.readLock().lock();
+    try {
+      final int node = _graph.getNodeId(sourceUrn);
+      if (node < 0) {
+        relatedEntities = null;
+      } else if (isNotEmpty(sourceType) && !sourceType.equals(_graph.getEntityType(node))) {
+        relatedEntities = Collections.emptyList();
+      } else {
+        relatedEntities = _graph.getRelatedEntities(node, relationshipTypes,
+            direction == RelationshipDirection.OUTGOING, isNotEmpty(destinationType) ? destinationType : null);
+      }
+    } finally {
+      _lock.readLock().unlock();
+    }
+
+    if (relatedEntities == null) {
+      _missCounter.inc();
+      return _delegate.findRelatedEntities(sourceType, sourceEntityFilter, destinationType, destinationEntityFilter,
+          relationshipTypes, relationshipFilter, offset, count);
+    }
+    _hitCounter.inc();
+    // Each (related entity, relationship type) pair is a single edge of the source node. Order them like the graph
+    // index does, so that pages are the same whether they are served from the cache or not.
+    relatedEntities.sort(RELATED_ENTITY_ORDER);
+    final List<RelatedEntity> page = offset >= relatedEntities.size() ? Collections.emptyList()
+        : relatedEntities.subList(offset, Math.min(relatedEntities.size(), offset + count));
+    return new RelatedEntitiesResult(offset, page.size(), relatedEntities.size(), new ArrayList<>(page));
+  }
+
+  /**
+   * Finds the entities reachable from the given urn within a number of hops, along edges of the given relationship
+   * types in the given direction.
+   *
+   * @param relationshipTypes the relationship types of the edges to follow, or empty to follow all of them
+   * @param direction either {@link RelationshipDirection#OUTGOING} or {@link RelationshipDirection#INCOMING}
+   * @param maxHops the max number of edges between the given urn and the returned ones
+   * @param maxResults the max number of urns to return
+   * @return the urns reached, mapped to their distance in hops from the given urn, closest first
+   */
+  @Nonnull
+  public Map<String, Integer> findRelatedUrnsWithinHops(@Nonnull final Urn urn,
+      @Nonnull final List<String> relationshipTypes, @Nonnull final RelationshipDirection direction,
+      final int maxHops, final int maxResults) {
+    if (direction == RelationshipDirection.UNDIRECTED) {
+      throw new IllegalArgumentException("Multi-hop queries require an OUTGOING or INCOMING direction");
+    }
+    if (isUsable()) {
+      _lock.readLock().lock();
+      try {
+        final int node = _graph.getNodeId(urn.toString());
+        if (node >= 0) {
+          _hitCounter.inc();
+          return _graph.traverse(node, relationshipTypes, direction == RelationshipDirection.OUTGOING, maxHops,
+              maxResults);
+        }
+      } finally {
+        _lock.readLock().unlock();
+      }
+    }
+
+    // Fall back to one neighbour query per reached node
+    _missCounter.inc();
+    final Map<String, Integer> reached = new LinkedHashMap<>();
+    final RelationshipFilter relationshipFilter = new RelationshipFilter().setDirection(direction);
+    List<String> frontier = Collections.singletonList(urn.toString());
+    for (int hop = 1; hop <= maxHops && !frontier.isEmpty(); hop++) {
+      final List<String> next = new ArrayList<>();
+      for (String current : frontier) {
+        final RelatedEntitiesResult result = _delegate.findRelatedEntities(null, newFilter(URN_FIELD, current), null,
+            EMPTY_FILTER, relationshipTypes, relationshipFilter, 0, maxResults);
+        for (RelatedEntity relatedEntity : result.getEntities()) {
+          if (relatedEntity.getUrn().equals(urn.toString()) || reached.containsKey(relatedEntity.getUrn())) {
+            continue;
+          }
+          reached.put(relatedEntity.getUrn(), hop);
+          if (reached.size() >= maxResults) {
+            return reached;
+          }
+          next.add(relatedEntity.getUrn());
+        }
+      }
+      frontier = next;
+    }
+    return reached;
+  }
+
+  @Override
+  public void removeNode(@Nonnull final Urn urn) {
+    _delegate.removeNode(urn);
+    applyWrite(graph -> graph.removeNode(urn.toString()), false);
+  }
+
+  @Override
+  public void removeEdgesFromNode(@Nonnull final Urn urn, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    _delegate.removeEdgesFromNode(urn, relationshipTypes, relationshipFilter);
+    // Mirror the graph index, which treats UNDIRECTED like INCOMING
+    final boolean outgoing = relationshipFilter.getDirection() == RelationshipDirection.OUTGOING;
+    applyWrite(graph -> graph.removeEdges(urn.toString(), relationshipTypes, outgoing), false);
+  }
+
+  @Override
+  public void updateEdgesFromNode(@Nonnull final Urn urn, @Nonnull final List<String> relationshipTypes,
+      @Nonnull final List<Edge> edges) {
+    _delegate.updateEdgesFromNode(urn, relationshipTypes, edges);
+    applyWrite(graph -> {
+      graph.removeEdges(urn.toString(), relationshipTypes, true);
+      edges.forEach(graph::addEdge);
+    }, false);
+  }
+
+  @Override
+  public void configure() {
+    _delegate.configure();
+  }
+
+  @Override
+  public void clear() {
+    _delegate.clear();
+    applyWrite(AdjacencyGraph::clear, false);
+  }
+
+  /**
+   * Applies a write to the cache, and records it to be replayed on the graph being rebuilt, if any.
+   *
+   * @param startRebuild whether a rebuild is starting, from which point writes must be recorded, starting with the
+   *                     writes within the replay window
+   */
+  private void applyWrite(@Nonnull final Consumer<AdjacencyGraph> write, final boolean startRebuild) {
+    final long nowMillis = System.currentTimeMillis();
+    _lock.writeLock().lock();
+    try {
+      while (!_recentWrites.isEmpty() && _recentWrites.peekFirst().getTimeMillis() < nowMillis - _replayWindowMillis) {
+        _recentWrites.pollFirst();
+      }
+      if (startRebuild) {
+        _pendingWrites = new ArrayList<>();
+        _recentWrites.forEach(recentWrite -> _pendingWrites.add(recentWrite.getWrite()));
+        return;
+      }
+      write.accept(_graph);
+      _recentWrites.addLast(new TimedWrite(nowMillis, write));
+      if (_pendingWrites != null) {
+        _pendingWrites.add(write);
+      }
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the urn the given filter is restricted to, or null if it is not restricted to a single urn
+   */
+  @Nullable
+  private static String getSingleUrn(@Nonnull final Filter filter) {
+    if (!filter.hasOr() || filter.getOr().size() != 1) {
+      return null;
+    }
+    final ConjunctiveCriterion conjunction = filter.getOr().get(0);
+    if (conjunction.getAnd().size() != 1) {
+      return null;
+    }
+    final Criterion criterion = conjunction.getAnd().get(0);
+    if (!URN_FIELD.equals(criterion.getField()) || criterion.getCondition() != Condition.EQUAL) {
+      return null;
+    }
+    return criterion.getValue();
+  }
+
+  private static boolean isEmptyFilter(@Nonnull final Filter filter) {
+    return filter.hasOr() && filter.getOr().stream().allMatch(conjunction -> conjunction.getAnd().isEmpty());
+  }
+
+  private static boolean isNotEmpty(@Nullable final String value) {
+    return value != null && !value.isEmpty();
+  }
+
+  @Value
+  private static class TimedWrite {
+    long timeMillis;
+    Consumer<AdjacencyGraph> write;
+  }
+}
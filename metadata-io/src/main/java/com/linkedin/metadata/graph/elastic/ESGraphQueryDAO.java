@@ -10,7 +10,9 @@ import com.linkedin.metadata.query.filter.RelationshipFilter;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +23,12 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 
 import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
 
@@ -33,6 +40,10 @@ import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDE
 @RequiredArgsConstructor
 public class ESGraphQueryDAO {
 
+  public static final String RELATED_ENTITIES_AGGREGATION = "relatedEntities";
+  public static final String URN_SOURCE = "urn";
+  public static final String RELATIONSHIP_TYPE_SOURCE = "relationshipType";
+
   private final RestHighLevelClient client;
   private final IndexConvention indexConvention;
 
@@ -55,6 +66,14 @@ public class ESGraphQueryDAO {
     rootQuery.must(orQuery);
   }
 
+  /**
+   * Gets a batch of the distinct (related entity, relationship type) pairs matching the query, as the buckets of the
+   * {@value #RELATED_ENTITIES_AGGREGATION} composite aggregation, ordered by urn then relationship type. Passing the
+   * after key of a batch as afterKey gets the next one.
+   *
+   * @param afterKey the after key of the previous batch, or null for the first batch
+   * @param batchSize the max number of pairs to return
+   */
   public SearchResponse getSearchResponse(
       @Nullable final String sourceType,
       @Nonnull  final Filter sourceEntityFilter,
@@ -62,14 +81,13 @@ public class ESGraphQueryDAO {
       @Nonnull final Filter destinationEntityFilter,
       @Nonnull final List<String> relationshipTypes,
       @Nonnull final RelationshipFilter relationshipFilter,
-      final int offset,
-      final int count) {
+      @Nullable final Map<String, Object> afterKey,
+      final int batchSize) {
     SearchRequest searchRequest = new SearchRequest();
 
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
 
-    searchSourceBuilder.from(offset);
-    searchSourceBuilder.size(count);
+    searchSourceBuilder.size(0);
 
     BoolQueryBuilder finalQuery = buildQuery(
         sourceType,
@@ -82,6 +100,19 @@ public class ESGraphQueryDAO {
 
     searchSourceBuilder.query(finalQuery);
 
+    // Edges from several source entities may lead to the same related entity through the same relationship type, so
+    // edges are grouped by distinct pair, which pagination & the total apply to.
+    final String destinationNode =
+        relationshipFilter.getDirection() == RelationshipDirection.OUTGOING ? "destination" : "source";
+    final CompositeAggregationBuilder pairs = AggregationBuilders.composite(RELATED_ENTITIES_AGGREGATION, Arrays.asList(
+        new TermsValuesSourceBuilder(URN_SOURCE).field(destinationNode + ".urn"),
+        new TermsValuesSourceBuilder(RELATIONSHIP_TYPE_SOURCE).field("relationshipType")))
+        .size(batchSize);
+    if (afterKey != null) {
+      pairs.aggregateAfter(afterKey);
+    }
+    searchSourceBuilder.aggregation(pairs);
+
     searchRequest.source(searchSourceBuilder);
 
     searchRequest.indices(indexConvention.getIndexName(INDEX_NAME));
@@ -95,6 +126,38 @@ public class ESGraphQueryDAO {
     return null;
   }
 
+  /**
+   * Gets a page of all the edges of the graph, sorted by source urn, relationship type & destination urn, which
+   * uniquely identify an edge. Passing the sort values of the last hit of a page as searchAfter gets the next one.
+   *
+   * @param searchAfter sort values of the last hit of the previous page, or null for the first page
+   * @param count the max number of edges to return
+   */
+  public SearchResponse scrollEdges(@Nullable final Object[] searchAfter, final int count) {
+    SearchRequest searchRequest = new SearchRequest();
+
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+    searchSourceBuilder.query(QueryBuilders.matchAllQuery());
+    searchSourceBuilder.size(count);
+    searchSourceBuilder.sort(new FieldSortBuilder("source.urn").order(SortOrder.ASC));
+    searchSourceBuilder.sort(new FieldSortBuilder("relationshipType").order(SortOrder.ASC));
+    searchSourceBuilder.sort(new FieldSortBuilder("destination.urn").order(SortOrder.ASC));
+    if (searchAfter != null) {
+      searchSourceBuilder.searchAfter(searchAfter);
+    }
+
+    searchRequest.source(searchSourceBuilder);
+
+    searchRequest.indices(indexConvention.getIndexName(INDEX_NAME));
+
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esScroll").time()) {
+      return client.search(searchRequest, RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      log.error("Failed to scroll the graph edges", e);
+    }
+    return null;
+  }
+
   public static BoolQueryBuilder buildQuery(
       @Nullable final String sourceType,
       @Nonnull  final Filter sourceEntityFilter,
@@ -19,18 +19,17 @@ import com.linkedin.metadata.query.filter.RelationshipFilter;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
@@ -40,13 +39,14 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.reindex.DeleteByQueryRequest;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
 
 
 @Slf4j
 @RequiredArgsConstructor
 public class ElasticSearchGraphService implements GraphService {
 
-  private static final int MAX_ELASTIC_RESULT = 10000;
   private final RestHighLevelClient searchClient;
   private final IndexConvention _indexConvention;
   private final ESGraphWriteDAO _graphWriteDAO;
@@ -56,6 +56,17 @@ public class ElasticSearchGraphService implements GraphService {
   private static final String DOC_DELIMETER = "--";
   public static final String INDEX_NAME = "graph_service_v1";
   private static final Map<String, Object> EMPTY_HASH = new HashMap<>();
+  // Number of distinct related entities fetched per request of the composite aggregation
+  private static final int RELATED_ENTITIES_BATCH_SIZE = 1000;
+  // Getting a digest instance is costly compared to hashing a doc id, so each thread reuses its own
+  private static final ThreadLocal<MessageDigest> MD5_DIGEST = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      log.error("MD5 is not available, falling back to raw doc ids", e);
+      return null;
+    }
+  });
 
   private String toDocument(@Nonnull final Edge edge) {
     final ObjectNode searchDocument = JsonNodeFactory.instance.objectNode();
@@ -79,15 +90,13 @@ public class ElasticSearchGraphService implements GraphService {
     String rawDocId =
         edge.getSource().toString() + DOC_DELIMETER + edge.getRelationshipType() + DOC_DELIMETER + edge.getDestination().toString();
 
-    try {
-      byte[] bytesOfRawDocID = rawDocId.getBytes(StandardCharsets.UTF_8);
-      MessageDigest md = MessageDigest.getInstance("MD5");
-      byte[] thedigest = md.digest(bytesOfRawDocID);
-      return Base64.getEncoder().encodeToString(thedigest);
-    } catch (NoSuchAlgorithmException e) {
-      e.printStackTrace();
+    final MessageDigest md = MD5_DIGEST.get();
+    if (md == null) {
       return rawDocId;
     }
+    byte[] bytesOfRawDocID = rawDocId.getBytes(StandardCharsets.UTF_8);
+    byte[] thedigest = md.digest(bytesOfRawDocID);
+    return Base64.getEncoder().encodeToString(thedigest);
   }
 
   public void addEdge(@Nonnull final Edge edge) {
@@ -107,42 +116,77 @@ public class ElasticSearchGraphService implements GraphService {
       final int offset,
       final int count) {
 
-    final RelationshipDirection relationshipDirection = relationshipFilter.getDirection();
-    String destinationNode = relationshipDirection == RelationshipDirection.OUTGOING ? "destination" : "source";
+    // One bucket per distinct (related entity, relationship type) pair, ordered by urn then relationship type. All the
+    // pairs are walked through, batch by batch, to collect the requested page and count the total.
+    final List<RelatedEntity> relationships = new ArrayList<>();
+    int totalCount = 0;
+    Map<String, Object> afterKey = null;
+    do {
+      final SearchResponse response = _graphReadDAO.getSearchResponse(
+          sourceType,
+          sourceEntityFilter,
+          destinationType,
+          destinationEntityFilter,
+          relationshipTypes,
+          relationshipFilter,
+          afterKey,
+          RELATED_ENTITIES_BATCH_SIZE
+      );
 
-    SearchResponse response = _graphReadDAO.getSearchResponse(
-        sourceType,
-        sourceEntityFilter,
-        destinationType,
-        destinationEntityFilter,
-        relationshipTypes,
-        relationshipFilter,
-        offset,
-        count
-    );
-
-    if (response == null) {
-      return new RelatedEntitiesResult(offset, 0, 0, ImmutableList.of());
-    }
+      if (response == null || response.getAggregations() == null) {
+        return new RelatedEntitiesResult(offset, 0, 0, ImmutableList.of());
+      }
 
-    int totalCount = (int) response.getHits().getTotalHits().value;
-    final List<RelatedEntity> relationships = Arrays.stream(response.getHits().getHits())
-        .map(hit -> {
-          final String urnStr = ((HashMap<String, String>) hit.getSourceAsMap().getOrDefault(destinationNode, EMPTY_HASH)).getOrDefault("urn", null);
-          final String relationshipType = (String) hit.getSourceAsMap().get("relationshipType");
-          if (urnStr == null || relationshipType == null) {
-            log.error(String.format(
-                "Found null urn string or relationship type in Elastic index. urnStr: %s, relationshipType: %s", urnStr, relationshipType));
-            return null;
-          }
-          return new RelatedEntity(relationshipType, urnStr);
-        })
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
+      final CompositeAggregation pairs = response.getAggregations().get(ESGraphQueryDAO.RELATED_ENTITIES_AGGREGATION);
+      for (CompositeAggregation.Bucket bucket : pairs.getBuckets()) {
+        if (totalCount >= offset && relationships.size() < count) {
+          relationships.add(new RelatedEntity((String) bucket.getKey().get(ESGraphQueryDAO.RELATIONSHIP_TYPE_SOURCE),
+              (String) bucket.getKey().get(ESGraphQueryDAO.URN_SOURCE)));
+        }
+        totalCount++;
+      }
+      afterKey = pairs.getBuckets().size() == RELATED_ENTITIES_BATCH_SIZE ? pairs.afterKey() : null;
+    } while (afterKey != null);
 
     return new RelatedEntitiesResult(offset, relationships.size(), totalCount, relationships);
   }
 
+  /**
+   * Walks through all the edges of the graph, one page at a time.
+   *
+   * @param batchSize the number of edges fetched per page
+   * @param consumer called with each edge of the graph
+   */
+  public void scrollEdges(final int batchSize, @Nonnull final Consumer<Edge> consumer) {
+    Object[] searchAfter = null;
+    do {
+      final SearchResponse response = _graphReadDAO.scrollEdges(searchAfter, batchSize);
+      if (response == null) {
+        throw new IllegalStateException("Failed to scroll the edges of the graph index");
+      }
+      final SearchHit[] hits = response.getHits().getHits();
+      for (SearchHit hit : hits) {
+        final Map<String, Object> document = hit.getSourceAsMap();
+        final String sourceUrn =
+            ((Map<String, String>) document.getOrDefault("source", EMPTY_HASH)).getOrDefault("urn", null);
+        final String destinationUrn =
+            ((Map<String, String>) document.getOrDefault("destination", EMPTY_HASH)).getOrDefault("urn", null);
+        final String relationshipType = (String) document.get("relationshipType");
+        if (sourceUrn == null || destinationUrn == null || relationshipType == null) {
+          log.error(String.format("Found null urn string or relationship type in Elastic index. document: %s", document));
+          continue;
+        }
+        try {
+          consumer.accept(
+              new Edge(Urn.createFromString(sourceUrn), Urn.createFromString(destinationUrn), relationshipType));
+        } catch (URISyntaxException e) {
+          log.error(String.format("Found invalid urn in Elastic index. document: %s", document));
+        }
+      }
+      searchAfter = hits.length == batchSize ? hits[hits.length - 1].getSortValues() : null;
+    } while (searchAfter != null);
+  }
+
   private Filter createUrnFilter(@Nonnull final Urn urn) {
     Filter filter = new Filter();
     CriterionArray criterionArray = new CriterionArray();
@@ -185,6 +229,8 @@ public class ElasticSearchGraphService implements GraphService {
     return;
   }
 
+  // updateEdgesFromNode keeps the default remove then add, rather than diffing with the edges read back from the index:
+  // searches only see refreshed documents, so edges still buffered by the bulk processor would be missed.
   public void removeEdgesFromNode(
       @Nonnull final Urn urn,
       @Nonnull final List<String> relationshipTypes,
@@ -74,6 +74,23 @@ public interface EntitySearchService {
   SearchResult filter(@Nonnull String entityName, @Nullable Filter filters, @Nullable SortCriterion sortCriterion,
       int from, int size);
 
+  /**
+   * Gets a page of documents that match the given search request, continuing after the page identified by the scroll
+   * id. Unlike {@link #search} and {@link #filter}, scrolling is not bounded by the search window, and is meant for
+   * walking through all matching documents.
+   *
+   * @param entityName name of the entity
+   * @param input the search input text, or empty to only apply the filters
+   * @param filters the request map with fields and values to be applied as filters to the search query
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param scrollId the scroll id returned with the previous page, or null to fetch the first page
+   * @param size number of search hits to return
+   * @return a {@link ScrollResult} that contains a page of matched documents and the scroll id of the next page
+   */
+  @Nonnull
+  ScrollResult scroll(@Nonnull String entityName, @Nonnull String input, @Nullable Filter filters,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int size);
+
   /**
    * Returns a list of suggestions given type ahead query.
    *
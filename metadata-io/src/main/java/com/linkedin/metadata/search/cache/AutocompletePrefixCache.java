@@ -0,0 +1,107 @@
+package com.linkedin.metadata.search.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.metadata.query.AutoCompleteResult;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.search.elasticsearch.query.request.AutocompleteRequestHandler;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * A bounded LRU cache of autocomplete suggestions, keyed by entity, filter, limit and query.
+ *
+ * <p>The values of every hit are cached rather than the suggestions, which are the first value of every hit matching
+ * the query. Suggestions are complete when the query matched no more documents than the limit. A query extending the
+ * query of complete suggestions is served by filtering their hits, without querying elasticsearch, since a value
+ * matching a query also matches its prefixes. Typing in the search bar thus only queries elasticsearch until
+ * suggestions fit the limit.
+ */
+public class AutocompletePrefixCache {
+
+  private final Cache<Key, Suggestions> _cache;
+  private final boolean _enabled;
+
+  /**
+   * @param maxSize the max number of cached queries, or 0 to disable caching.
+   * @param ttlSeconds how long suggestions are cached.
+   */
+  public AutocompletePrefixCache(long maxSize, long ttlSeconds) {
+    _enabled = maxSize > 0;
+    _cache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).build();
+  }
+
+  public static AutocompletePrefixCache disabled() {
+    return new AutocompletePrefixCache(0, 0);
+  }
+
+  @Value
+  private static class Key {
+    String entityName;
+    @Nullable
+    Filter filter;
+    int limit;
+    String query;
+  }
+
+  @Value
+  public static class Suggestions {
+    // The values of the autocomplete-enabled fields of every hit
+    List<List<String>> hitValues;
+    // Whether no other value matches the query
+    boolean complete;
+  }
+
+  /**
+   * Returns the suggestions of the given query, either cached or derived from the complete suggestions of one of its
+   * prefixes, or loads them through the given supplier.
+   */
+  @Nonnull
+  public AutoCompleteResult get(@Nonnull String entityName, @Nonnull String query, @Nullable Filter filter, int limit,
+      @Nonnull Supplier<Suggestions> loader) {
+    if (!_enabled) {
+      return toResult(query, loader.get());
+    }
+    final String normalizedQuery = query.trim().toLowerCase();
+    final Key key = new Key(entityName, filter, limit, normalizedQuery);
+    final Suggestions cached = _cache.getIfPresent(key);
+    if (cached != null) {
+      MetricUtils.counter(this.getClass(), "hit").inc();
+      return toResult(query, cached);
+    }
+
+    for (int length = normalizedQuery.length() - 1; length > 0; length--) {
+      final Suggestions prefixSuggestions =
+          _cache.getIfPresent(new Key(entityName, filter, limit, normalizedQuery.substring(0, length)));
+      if (prefixSuggestions != null && prefixSuggestions.isComplete()) {
+        MetricUtils.counter(this.getClass(), "prefixHit").inc();
+        final Suggestions suggestions = new Suggestions(prefixSuggestions.getHitValues()
+            .stream()
+            .filter(values -> values.stream()
+                .anyMatch(value -> AutocompleteRequestHandler.matchesPrefix(value, normalizedQuery)))
+            .collect(Collectors.toList()), true);
+        _cache.put(key, suggestions);
+        return toResult(query, suggestions);
+      }
+    }
+
+    MetricUtils.counter(this.getClass(), "miss").inc();
+    final Suggestions suggestions = loader.get();
+    _cache.put(key, suggestions);
+    return toResult(query, suggestions);
+  }
+
+  @Nonnull
+  private static AutoCompleteResult toResult(@Nonnull String query, @Nonnull Suggestions suggestions) {
+    return new AutoCompleteResult().setQuery(query)
+        .setSuggestions(new StringArray(AutocompleteRequestHandler.getSuggestions(suggestions.getHitValues(), query)));
+  }
+}
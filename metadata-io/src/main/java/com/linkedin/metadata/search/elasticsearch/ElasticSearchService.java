@@ -6,6 +6,7 @@ import com.linkedin.metadata.query.AutoCompleteResult;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
@@ -76,6 +77,16 @@ public class ElasticSearchService implements EntitySearchService {
     return esSearchDAO.filter(entityName, filters, sortCriterion, from, size);
   }
 
+  @Nonnull
+  @Override
+  public ScrollResult scroll(@Nonnull String entityName, @Nonnull String input, @Nullable Filter filters,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int size) {
+    log.debug(String.format(
+        "Scrolling Search documents entityName: %s, input: %s, filters: %s, sortCriterion: %s, scrollId: %s, size: %s",
+        entityName, input, filters, sortCriterion, scrollId, size));
+    return esSearchDAO.scroll(entityName, input, filters, sortCriterion, scrollId, size);
+  }
+
   @Nonnull
   @Override
   public AutoCompleteResult autoComplete(@Nonnull String entityName, @Nonnull String query, @Nullable String field,
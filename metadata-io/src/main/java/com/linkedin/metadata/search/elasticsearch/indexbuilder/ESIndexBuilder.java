@@ -2,46 +2,167 @@ package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.MapDifference;
 import com.google.common.collect.Maps;
+import com.linkedin.metadata.search.elasticsearch.update.BulkListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
-import lombok.RequiredArgsConstructor;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
-import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksRequest;
-import org.elasticsearch.action.admin.cluster.node.tasks.list.ListTasksResponse;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
 import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
 import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.client.GetAliasesResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.GetIndexResponse;
 import org.elasticsearch.client.indices.GetMappingsRequest;
+import org.elasticsearch.client.indices.PutIndexTemplateRequest;
+import org.elasticsearch.client.tasks.CancelTasksRequest;
+import org.elasticsearch.client.tasks.GetTaskRequest;
+import org.elasticsearch.client.tasks.GetTaskResponse;
 import org.elasticsearch.client.tasks.TaskSubmissionResponse;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.AbstractBulkByScrollRequest;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.elasticsearch.index.reindex.DeleteByQueryRequest;
 import org.elasticsearch.index.reindex.ReindexRequest;
+import org.elasticsearch.tasks.TaskId;
 
+/**
+ * Creates indices, and reindexes them online when their mappings or settings change.
+ *
+ * <p>While an index is reindexed, {@link com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO} writes to both
+ * the index and its new copy. Once the reindex task completes, the documents written since it started are reindexed
+ * again, so that the copy holds their latest version. The index is then frozen: the writes of this process are held,
+ * and other writes are rejected by a write block. The documents written during the first catch-up are caught up on,
+ * the alias is swapped to the copy, and the held writes are released to it.
+ *
+ * <p>Only the writes of this process are dual-written and held, so reindexing assumes it is the only writer of the
+ * index while it runs. The upserts of other writers, e.g. other replicas, are still caught up on as they are
+ * timestamped, but their deletes are lost, and their writes fail while the index is frozen. A write of this process
+ * racing with the freeze may be rejected by the write block too, but it is applied to the copy as well, so it is only
+ * lost if the reindex fails.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class ESIndexBuilder {
 
   private final RestHighLevelClient searchClient;
   private final int numShards;
   private final int numReplicas;
   private final int numRetries;
+  // Number of slices of reindex tasks, or 0 to let elasticsearch pick one per shard
+  private final int reindexSlices;
+  // Max number of documents reindexed per second, unthrottled if not positive
+  private final float reindexRequestsPerSecond;
+  private final long reindexTimeoutMinutes;
+  // The processor the writes to the indices are sent through, which are held while an index is frozen, if set
+  @Nullable
+  private final BulkProcessor bulkProcessor;
 
   private static final List<String> SETTINGS_TO_COMPARE = ImmutableList.of("number_of_shards", "number_of_replicas");
+  private static final int DEFAULT_REINDEX_SLICES = AbstractBulkByScrollRequest.AUTO_SLICES;
+  private static final float DEFAULT_REINDEX_REQUESTS_PER_SECOND = -1;
+  private static final long DEFAULT_REINDEX_TIMEOUT_MINUTES = 60;
+  private static final long REINDEX_POLL_INTERVAL_MS = 5000;
+  // Writes are timestamped before being queued in the bulk processor, so the catch-up pass looks back further than
+  // the start of the reindex
+  private static final long CATCH_UP_LOOKBACK_MS = TimeUnit.MINUTES.toMillis(1);
+  private static final int DELETE_BATCH_SIZE = 1000;
+  private static final long FLUSH_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+  private static final String WRITE_BLOCK_SETTING = "index.blocks.write";
+
+  // The copy being built of every index under reindex
+  private final Map<String, String> dualWriteIndices = new ConcurrentHashMap<>();
+  // The ids of the documents deleted from every index under reindex
+  private final Map<String, Set<String>> deletedDocIds = new ConcurrentHashMap<>();
+  // The writes held while every index under reindex is frozen, guarded by their list
+  private final Map<String, List<DocWriteRequest<?>>> heldWrites = new ConcurrentHashMap<>();
+
+  public ESIndexBuilder(RestHighLevelClient searchClient, int numShards, int numReplicas, int numRetries) {
+    this(searchClient, numShards, numReplicas, numRetries, DEFAULT_REINDEX_SLICES,
+        DEFAULT_REINDEX_REQUESTS_PER_SECOND, DEFAULT_REINDEX_TIMEOUT_MINUTES, null);
+  }
+
+  /**
+   * @param bulkProcessor the processor the writes to the indices are sent through, whose listener must be
+   *                      {@link BulkListener}, or null to neither hold nor flush writes while swapping an index
+   */
+  public ESIndexBuilder(RestHighLevelClient searchClient, int numShards, int numReplicas, int numRetries,
+      int reindexSlices, float reindexRequestsPerSecond, long reindexTimeoutMinutes,
+      @Nullable BulkProcessor bulkProcessor) {
+    this.searchClient = searchClient;
+    this.numShards = numShards;
+    this.numReplicas = numReplicas;
+    this.numRetries = numRetries;
+    this.reindexSlices = reindexSlices;
+    this.reindexRequestsPerSecond = reindexRequestsPerSecond;
+    this.reindexTimeoutMinutes = reindexTimeoutMinutes;
+    this.bulkProcessor = bulkProcessor;
+  }
+
+  /**
+   * Returns the copy of the given index being built by an ongoing reindex, which writes to the index must also be
+   * applied to, if any.
+   */
+  @Nullable
+  public String getDualWriteIndex(@Nonnull String indexName) {
+    return dualWriteIndices.get(indexName);
+  }
+
+  /**
+   * Records that the given document was deleted from the given index, so that it is deleted again from the copy of
+   * the index once reindexed, in case the reindex task copied it before its deletion.
+   */
+  public void recordDeletedDocument(@Nonnull String indexName, @Nonnull String docId) {
+    Set<String> docIds = deletedDocIds.get(indexName);
+    if (docIds != null) {
+      docIds.add(docId);
+    }
+  }
+
+  /**
+   * Holds the given write to the given index until its alias is swapped if the index is frozen, in which case it must
+   * not be sent.
+   *
+   * @return whether the write was held
+   */
+  public boolean holdWrite(@Nonnull String indexName, @Nonnull DocWriteRequest<?> request) {
+    List<DocWriteRequest<?>> writes = heldWrites.get(indexName);
+    if (writes == null) {
+      return false;
+    }
+    synchronized (writes) {
+      // The writes may have been released since
+      if (heldWrites.get(indexName) != writes) {
+        return false;
+      }
+      writes.add(request);
+      return true;
+    }
+  }
 
   public void buildIndex(String indexName, Map<String, Object> mappings, Map<String, Object> settings)
       throws IOException {
@@ -90,86 +211,274 @@ public class ESIndexBuilder {
 
     String tempIndexName = indexName + "_" + System.currentTimeMillis();
     createIndex(tempIndexName, mappings, finalSettings);
+    // Writes are applied to both indices from now on, so that the reindex task and the catch-up pass cannot miss them
+    long reindexStartTime = System.currentTimeMillis();
+    deletedDocIds.put(indexName, ConcurrentHashMap.newKeySet());
+    dualWriteIndices.put(indexName, tempIndexName);
+    boolean frozen = false;
     try {
-      TaskSubmissionResponse reindexTask;
-      reindexTask = searchClient.submitReindexTask(new ReindexRequest().setSourceIndices(indexName).setDestIndex(tempIndexName),
-              RequestOptions.DEFAULT);
+      ReindexRequest reindexRequest = new ReindexRequest().setSourceIndices(indexName)
+          .setDestIndex(tempIndexName)
+          .setSlices(reindexSlices);
+      if (reindexRequestsPerSecond > 0) {
+        reindexRequest.setRequestsPerSecond(reindexRequestsPerSecond);
+      }
+      TaskSubmissionResponse reindexTask = searchClient.submitReindexTask(reindexRequest, RequestOptions.DEFAULT);
+      waitForTask(reindexTask.getTask(), indexName, tempIndexName);
+      long catchUpStartTime = System.currentTimeMillis();
+      catchUp(indexName, tempIndexName, mappings, reindexStartTime);
 
-      // wait up to 5 minutes for the task to complete
-      long startTime = System.currentTimeMillis();
-      long millisToWait60Minutes = 1000 * 60 * 60;
-      Boolean reindexTaskCompleted = false;
-
-      while ((System.currentTimeMillis() - startTime) < millisToWait60Minutes) {
-        log.info("Reindexing from {} to {} in progress...", indexName, tempIndexName);
-        ListTasksRequest request = new ListTasksRequest();
-        ListTasksResponse tasks = searchClient.tasks().list(request, RequestOptions.DEFAULT);
-        if (tasks.getTasks().stream().noneMatch(task -> task.getTaskId().toString().equals(reindexTask.getTask()))) {
-          log.info("Reindexing {} to {} task has completed, will now check if reindex was successful", indexName, tempIndexName);
-          reindexTaskCompleted = true;
+      // Freeze the index, so that the last catch-up leaves nothing behind
+      if (bulkProcessor != null) {
+        heldWrites.put(indexName, new ArrayList<>());
+      }
+      if (!flushWrites()) {
+        throw new RuntimeException(String.format("Failed to flush the writes to %s before freezing it", indexName));
+      }
+      setWriteBlock(indexName, true);
+      frozen = true;
+      catchUp(indexName, tempIndexName, mappings, catchUpStartTime);
+
+      // Check whether reindex succeeded by comparing document count
+      // There can be some delay between the reindex finishing and count being fully up to date, so try multiple times
+      long originalCount = 0;
+      long reindexedCount = 0;
+      for (int i = 0; i < this.numRetries; i++) {
+        // Check if reindex succeeded by comparing document counts
+        originalCount = getCount(indexName);
+        reindexedCount = getCount(tempIndexName);
+        if (originalCount == reindexedCount) {
           break;
         }
         try {
-          Thread.sleep(5000);
+          TimeUnit.SECONDS.sleep(1);
         } catch (InterruptedException e) {
-          log.info("Trouble sleeping while reindexing {} to {}: Exception {}. Retrying...", indexName, tempIndexName, e.toString());
+          Thread.currentThread().interrupt();
+          throw new RuntimeException(String.format("Reindex from %s to %s interrupted", indexName, tempIndexName), e);
         }
       }
-      if (!reindexTaskCompleted) {
-        throw new RuntimeException(String.format("Reindex from %s to %s failed-- task exceeded 60 minute limit", indexName, tempIndexName));
+
+      if (originalCount != reindexedCount) {
+        log.info("Post-reindex document count is different, source_doc_count: {} reindex_doc_count: {}", originalCount,
+            reindexedCount);
+        throw new RuntimeException(String.format("Reindex from %s to %s failed", indexName, tempIndexName));
       }
+
+      log.info("Reindex from {} to {} succeeded", indexName, tempIndexName);
+      swapAlias(indexName, tempIndexName);
     } catch (Exception e) {
       log.info("Failed to reindex {} to {}: Exception {}", indexName, tempIndexName, e.toString());
-      searchClient.indices().delete(new DeleteIndexRequest().indices(tempIndexName), RequestOptions.DEFAULT);
+      // Clean up even if interrupted, by restoring the interrupt flag once done
+      boolean interrupted = Thread.interrupted();
+      try {
+        // Stop dual writes and send the queued ones first, so that they do not recreate the deleted index
+        dualWriteIndices.remove(indexName);
+        flushWrites();
+        searchClient.indices().delete(new DeleteIndexRequest().indices(tempIndexName), RequestOptions.DEFAULT);
+        if (frozen) {
+          setWriteBlock(indexName, false);
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
       throw e;
+    } finally {
+      dualWriteIndices.remove(indexName);
+      deletedDocIds.remove(indexName);
+      // The alias resolves to the copy if it was swapped, or to the original index otherwise
+      releaseHeldWrites(indexName);
     }
+    log.info("Finished setting up {}", indexName);
+  }
 
-    // Check whether reindex succeeded by comparing document count
-    // There can be some delay between the reindex finishing and count being fully up to date, so try multiple times
-    long originalCount = 0;
-    long reindexedCount = 0;
-    for (int i = 0; i < this.numRetries; i++) {
-      // Check if reindex succeeded by comparing document counts
-      originalCount = getCount(indexName);
-      reindexedCount = getCount(tempIndexName);
-      if (originalCount == reindexedCount) {
-        break;
+  /**
+   * Waits for the given reindex task to complete, by polling the get task API. The task is cancelled if it times out
+   * or the wait is interrupted.
+   */
+  private void waitForTask(String task, String indexName, String tempIndexName) throws IOException {
+    TaskId taskId = new TaskId(task);
+    long startTime = System.currentTimeMillis();
+    long timeoutMillis = TimeUnit.MINUTES.toMillis(reindexTimeoutMinutes);
+    while ((System.currentTimeMillis() - startTime) < timeoutMillis) {
+      Optional<GetTaskResponse> response = searchClient.tasks()
+          .get(new GetTaskRequest(taskId.getNodeId(), taskId.getId()), RequestOptions.DEFAULT);
+      if (!response.isPresent()) {
+        throw new RuntimeException(String.format("Reindex from %s to %s failed-- task %s not found", indexName,
+            tempIndexName, task));
+      }
+      if (response.get().isCompleted()) {
+        log.info("Reindexing {} to {} task has completed, will now check if reindex was successful", indexName,
+            tempIndexName);
+        return;
       }
+      log.info("Reindexing from {} to {} in progress: {}", indexName, tempIndexName,
+          response.get().getTaskInfo().getStatus());
       try {
-        TimeUnit.SECONDS.sleep(1);
+        Thread.sleep(REINDEX_POLL_INTERVAL_MS);
       } catch (InterruptedException e) {
+        cancelTask(taskId);
         Thread.currentThread().interrupt();
+        throw new RuntimeException(String.format("Reindex from %s to %s interrupted", indexName, tempIndexName), e);
+      }
+    }
+    cancelTask(taskId);
+    throw new RuntimeException(String.format("Reindex from %s to %s failed-- task exceeded %d minute limit", indexName,
+        tempIndexName, reindexTimeoutMinutes));
+  }
+
+  /**
+   * Cancels the given task, so that it does not recreate the copy of the index once deleted.
+   */
+  private void cancelTask(TaskId taskId) {
+    try {
+      searchClient.tasks()
+          .cancel(new CancelTasksRequest.Builder().withTaskId(
+              new org.elasticsearch.client.tasks.TaskId(taskId.getNodeId(), taskId.getId())).build(),
+              RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      log.warn("Failed to cancel task {}: Exception {}", taskId, e.toString());
+    }
+  }
+
+  /**
+   * Applies the writes made to the given index since the reindex started to its copy, in case the reindex task
+   * overwrote them with older versions of their documents, or copied documents deleted since.
+   */
+  private void catchUp(String indexName, String tempIndexName, Map<String, Object> mappings, long reindexStartTime)
+      throws IOException {
+    Set<String> docIds = deletedDocIds.get(indexName);
+    List<String> replayedDocIds = new ArrayList<>(docIds);
+    for (List<String> batch : Iterables.partition(replayedDocIds, DELETE_BATCH_SIZE)) {
+      searchClient.deleteByQuery(new DeleteByQueryRequest(tempIndexName).setQuery(
+          QueryBuilders.idsQuery().addIds(batch.toArray(new String[0]))).setRefresh(true), RequestOptions.DEFAULT);
+    }
+    docIds.removeAll(replayedDocIds);
+
+    // Only indices whose documents are timestamped on write can be caught up on; others are not dual-written to
+    Object properties = mappings.get("properties");
+    if (!(properties instanceof Map) || !((Map<?, ?>) properties).containsKey(MappingsBuilder.LAST_WRITTEN_FIELD)) {
+      return;
+    }
+    long since = reindexStartTime - CATCH_UP_LOOKBACK_MS;
+    searchClient.indices().refresh(new RefreshRequest(indexName), RequestOptions.DEFAULT);
+    BulkByScrollResponse response = searchClient.reindex(new ReindexRequest().setSourceIndices(indexName)
+        .setDestIndex(tempIndexName)
+        .setSourceQuery(QueryBuilders.rangeQuery(MappingsBuilder.LAST_WRITTEN_FIELD).gte(since))
+        .setSlices(reindexSlices)
+        .setRefresh(true), RequestOptions.DEFAULT);
+    if (!response.getBulkFailures().isEmpty() || !response.getSearchFailures().isEmpty()) {
+      throw new RuntimeException(String.format("Catching up on writes from %s to %s failed: %s", indexName,
+          tempIndexName, response));
+    }
+    log.info("Caught up on {} documents written to {} since {}", response.getTotal(), indexName, since);
+  }
+
+  /**
+   * Sends the writes queued in the bulk processor, and waits for them to complete.
+   *
+   * @return whether they completed
+   */
+  private boolean flushWrites() {
+    if (bulkProcessor == null) {
+      return true;
+    }
+    bulkProcessor.flush();
+    try {
+      if (BulkListener.getInstance().awaitPendingBulks(FLUSH_TIMEOUT_MS)) {
+        return true;
       }
+      log.warn("Timed out waiting for bulk requests to complete");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Interrupted waiting for bulk requests to complete");
     }
+    return false;
+  }
 
-    if (originalCount != reindexedCount) {
-      log.info("Post-reindex document count is different, source_doc_count: {} reindex_doc_count: {}", originalCount,
-          reindexedCount);
-      searchClient.indices().delete(new DeleteIndexRequest().indices(tempIndexName), RequestOptions.DEFAULT);
-      throw new RuntimeException(String.format("Reindex from %s to %s failed", indexName, tempIndexName));
+  /**
+   * Sends the writes held while the given index was frozen, if any.
+   */
+  private void releaseHeldWrites(String indexName) {
+    List<DocWriteRequest<?>> writes = heldWrites.get(indexName);
+    if (writes == null) {
+      return;
+    }
+    synchronized (writes) {
+      heldWrites.remove(indexName);
+      writes.forEach(bulkProcessor::add);
     }
+    log.info("Released {} writes held while {} was frozen", writes.size(), indexName);
+  }
 
-    log.info("Reindex from {} to {} succeeded", indexName, tempIndexName);
+  private void setWriteBlock(String indexName, boolean blocked) throws IOException {
+    UpdateSettingsRequest request =
+        new UpdateSettingsRequest(indexName).settings(Settings.builder().put(WRITE_BLOCK_SETTING, blocked));
+    searchClient.indices().putSettings(request, RequestOptions.DEFAULT);
+  }
+
+  /**
+   * Points the alias with the given name to the given index, and deletes the indices it pointed to, in one atomic
+   * request so that the alias always resolves.
+   */
+  private void swapAlias(String indexName, String tempIndexName) throws IOException {
     String indexNamePattern = indexName + "_*";
     // Check if the original index is aliased or not
     GetAliasesResponse aliasesResponse = searchClient.indices()
         .getAlias(new GetAliasesRequest(indexName).indices(indexNamePattern), RequestOptions.DEFAULT);
-    // If not aliased, delete the original index
-    if (aliasesResponse.getAliases().isEmpty()) {
-      searchClient.indices().delete(new DeleteIndexRequest().indices(indexName), RequestOptions.DEFAULT);
-    } else {
-      searchClient.indices()
-          .delete(new DeleteIndexRequest().indices(aliasesResponse.getAliases().keySet().toArray(new String[0])),
-              RequestOptions.DEFAULT);
-    }
-
-    // Add alias for the new index
-    AliasActions removeAction = AliasActions.remove().alias(indexName).index(indexNamePattern);
+    // If not aliased, the original index is deleted
+    String[] oldIndices = aliasesResponse.getAliases().isEmpty() ? new String[]{indexName}
+        : aliasesResponse.getAliases().keySet().toArray(new String[0]);
+    AliasActions removeAction = AliasActions.removeIndex().indices(oldIndices);
     AliasActions addAction = AliasActions.add().alias(indexName).index(tempIndexName);
     searchClient.indices()
         .updateAliases(new IndicesAliasesRequest().addAliasAction(removeAction).addAliasAction(addAction),
             RequestOptions.DEFAULT);
-    log.info("Finished setting up {}", indexName);
+  }
+
+  /**
+   * Creates or updates the index template applying the given mappings & settings to every new index matching the given
+   * pattern. Existing indices are left untouched.
+   */
+  public void buildTemplate(String templateName, String indexPattern, Map<String, Object> mappings,
+      Map<String, Object> settings) throws IOException {
+    Map<String, Object> baseSettings = new HashMap<>(settings);
+    baseSettings.put("number_of_shards", numShards);
+    baseSettings.put("number_of_replicas", numReplicas);
+
+    PutIndexTemplateRequest putTemplateRequest = new PutIndexTemplateRequest(templateName);
+    putTemplateRequest.patterns(Collections.singletonList(indexPattern));
+    putTemplateRequest.mapping(mappings);
+    putTemplateRequest.settings(ImmutableMap.of("index", baseSettings));
+    searchClient.indices().putTemplate(putTemplateRequest, RequestOptions.DEFAULT);
+    log.info("Updated index template {} for pattern {}", templateName, indexPattern);
+  }
+
+  /**
+   * Returns the indices matching the given pattern, keyed by the name they are addressed with, i.e. their alias if
+   * they were reindexed by {@link #buildIndex} and their own name otherwise.
+   */
+  public Map<String, String> getIndices(String indexPattern) throws IOException {
+    GetIndexResponse response = searchClient.indices()
+        .get(new GetIndexRequest(indexPattern).indicesOptions(IndicesOptions.lenientExpandOpen()),
+            RequestOptions.DEFAULT);
+    Map<String, String> indices = new HashMap<>();
+    for (String index : response.getIndices()) {
+      String name = response.getAliases()
+          .getOrDefault(index, Collections.emptyList())
+          .stream()
+          .map(alias -> alias.alias())
+          .findFirst()
+          .orElse(index);
+      indices.put(name, index);
+    }
+    return indices;
+  }
+
+  public void deleteIndex(String indexName) throws IOException {
+    searchClient.indices().delete(new DeleteIndexRequest().indices(indexName), RequestOptions.DEFAULT);
+    log.info("Deleted index {}", indexName);
   }
 
   private long getCount(@Nonnull String indexName) throws IOException {
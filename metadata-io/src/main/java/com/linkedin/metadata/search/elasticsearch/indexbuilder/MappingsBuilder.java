@@ -1,9 +1,11 @@
 package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation.FieldType;
+import com.linkedin.metadata.search.features.RankingFeature;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
@@ -13,17 +15,36 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MappingsBuilder {
 
+  // Epoch millis of the last write of a document, used to catch up on writes made while an index is reindexed
+  public static final String LAST_WRITTEN_FIELD = "lastWrittenTimestamp";
+  // Search-as-you-type field the values of every autocomplete-enabled field are copied to
+  public static final String AUTOCOMPLETE_FIELD = "autocomplete";
+
   private MappingsBuilder() {
   }
 
   public static Map<String, Object> getMappings(@Nonnull final EntitySpec entitySpec) {
     Map<String, Object> mappings = new HashMap<>();
     mappings.put("urn", getMappingsForUrn());
+    mappings.put(LAST_WRITTEN_FIELD, ImmutableMap.of("type", "date"));
+    // max_shingle_size is always returned by elasticsearch, so it is set to its default to keep mappings comparable
+    mappings.put(AUTOCOMPLETE_FIELD, ImmutableMap.of("type", "search_as_you_type", "max_shingle_size", 3));
     entitySpec.getSearchableFieldSpecs()
         .forEach(searchableFieldSpec -> mappings.putAll(getMappingsForField(searchableFieldSpec)));
+    mappings.put(RankingFeature.FIELD, getMappingsForRankingFeatures());
     return ImmutableMap.of("properties", mappings);
   }
 
+  private static Map<String, Object> getMappingsForRankingFeatures() {
+    Map<String, Object> properties = new HashMap<>();
+    for (RankingFeature feature : RankingFeature.values()) {
+      properties.put(feature.getName(), ImmutableMap.of("type", "float"));
+    }
+    properties.put(RankingFeature.COMPUTED_AT_FIELD, ImmutableMap.of("type", "date"));
+    // The type of object fields is not returned by elasticsearch, so it is omitted to keep mappings comparable
+    return ImmutableMap.of("properties", properties);
+  }
+
   private static Map<String, Object> getMappingsForUrn() {
     return ImmutableMap.<String, Object>builder().put("type", "keyword").build();
   }
@@ -80,6 +101,9 @@ public class MappingsBuilder {
     } else {
       log.info("FieldType {} has no mappings implemented", fieldType);
     }
+    if (searchableFieldSpec.getSearchableAnnotation().isEnableAutocomplete()) {
+      mappingForField.put("copy_to", ImmutableList.of(AUTOCOMPLETE_FIELD));
+    }
     mappings.put(searchableFieldSpec.getSearchableAnnotation().getFieldName(), mappingForField);
 
     searchableFieldSpec.getSearchableAnnotation()
@@ -7,9 +7,13 @@ import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.query.AutoCompleteResult;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
+import com.linkedin.metadata.search.cache.AutocompletePrefixCache;
 import com.linkedin.metadata.search.elasticsearch.query.request.AutocompleteRequestHandler;
 import com.linkedin.metadata.search.elasticsearch.query.request.SearchRequestHandler;
+import com.linkedin.metadata.search.ranker.BackendRanker;
+import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import io.opentelemetry.extension.annotations.WithSpan;
@@ -17,8 +21,8 @@ import java.io.IOException;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
@@ -30,12 +34,31 @@ import org.elasticsearch.client.core.CountRequest;
  * A search DAO for Elasticsearch backend.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class ESSearchDAO {
 
   private final EntityRegistry entityRegistry;
   private final RestHighLevelClient client;
   private final IndexConvention indexConvention;
+  private final AutocompletePrefixCache autocompleteCache;
+  private final BackendRanker backendRanker;
+
+  public ESSearchDAO(EntityRegistry entityRegistry, RestHighLevelClient client, IndexConvention indexConvention) {
+    this(entityRegistry, client, indexConvention, AutocompletePrefixCache.disabled());
+  }
+
+  public ESSearchDAO(EntityRegistry entityRegistry, RestHighLevelClient client, IndexConvention indexConvention,
+      AutocompletePrefixCache autocompleteCache) {
+    this(entityRegistry, client, indexConvention, autocompleteCache, BackendRanker.NONE);
+  }
+
+  public ESSearchDAO(EntityRegistry entityRegistry, RestHighLevelClient client, IndexConvention indexConvention,
+      AutocompletePrefixCache autocompleteCache, BackendRanker backendRanker) {
+    this.entityRegistry = entityRegistry;
+    this.client = client;
+    this.indexConvention = indexConvention;
+    this.autocompleteCache = autocompleteCache;
+    this.backendRanker = backendRanker;
+  }
 
   public long docCount(@Nonnull String entityName) {
     EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
@@ -84,6 +107,10 @@ public class ESSearchDAO {
     final SearchRequest searchRequest = SearchRequestHandler.getBuilder(entitySpec)
         .getSearchRequest(finalInput, postFilters, sortCriterion, from, size);
     searchRequest.indices(indexConvention.getIndexName(entitySpec));
+    // Rank within elasticsearch, so that ranking applies before pagination. Explicit sorts do not use scores.
+    if (sortCriterion == null) {
+      searchRequest.source().query(backendRanker.rank(searchRequest.source().query()));
+    }
     searchRequestTimer.stop();
     // Step 2: execute the query and extract results, validated against document model as well
     return executeAndExtract(entitySpec, searchRequest, from, size);
@@ -108,6 +135,35 @@ public class ESSearchDAO {
     return executeAndExtract(entitySpec, searchRequest, from, size);
   }
 
+  /**
+   * Gets a page of documents matching the given search request, continuing after the page identified by the scroll id.
+   * Unlike {@link #search}, scrolling is not bounded by the search window, so it can be used to walk all matches.
+   *
+   * @param input the search input text, or empty to only apply the filters
+   * @param filters the request map with fields and values to be applied as filters to the search query
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param scrollId the scroll id returned with the previous page, or null for the first page
+   * @param size number of search hits to return
+   * @return a {@link ScrollResult} that contains a page of matched documents and the scroll id of the next page
+   */
+  @Nonnull
+  public ScrollResult scroll(@Nonnull String entityName, @Nonnull String input, @Nullable Filter filters,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int size) {
+    final String finalInput = input.isEmpty() ? "*" : input;
+    EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
+    final Object[] searchAfter = scrollId == null ? null : ESUtils.decodeScrollId(scrollId);
+    final SearchRequest searchRequest = SearchRequestHandler.getBuilder(entitySpec)
+        .getScrollRequest(finalInput, filters, sortCriterion, searchAfter, size);
+    searchRequest.indices(indexConvention.getIndexName(entitySpec));
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esScroll").time()) {
+      final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
+      return SearchRequestHandler.getBuilder(entitySpec).extractScrollResult(searchResponse, size);
+    } catch (Exception e) {
+      log.error("Scroll query failed", e);
+      throw new ESQueryException("Scroll query failed:", e);
+    }
+  }
+
   /**
    * Returns a list of suggestions given type ahead query.
    *
@@ -125,10 +181,26 @@ public class ESSearchDAO {
     try {
       EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
       AutocompleteRequestHandler builder = AutocompleteRequestHandler.getBuilder(entitySpec);
-      SearchRequest req = builder.getSearchRequest(query, field, requestParams, limit);
-      req.indices(indexConvention.getIndexName(entitySpec));
-      SearchResponse searchResponse = client.search(req, RequestOptions.DEFAULT);
-      return builder.extractResult(searchResponse, query);
+      if (field != null && !field.isEmpty()) {
+        SearchRequest req = builder.getSearchRequest(query, field, requestParams, limit);
+        req.indices(indexConvention.getIndexName(entitySpec));
+        SearchResponse searchResponse = client.search(req, RequestOptions.DEFAULT);
+        return builder.extractResult(searchResponse, query, field);
+      }
+      // Only suggestions of the default fields are prefix matches, which the cache can derive from one another
+      return autocompleteCache.get(entityName, query, requestParams, limit, () -> {
+        SearchRequest req = builder.getSearchRequest(query, null, requestParams, limit);
+        req.indices(indexConvention.getIndexName(entitySpec));
+        try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esAutocomplete").time()) {
+          SearchResponse searchResponse = client.search(req, RequestOptions.DEFAULT);
+          TotalHits totalHits = searchResponse.getHits().getTotalHits();
+          boolean complete = totalHits != null && totalHits.relation == TotalHits.Relation.EQUAL_TO
+              && totalHits.value <= limit;
+          return new AutocompletePrefixCache.Suggestions(builder.extractHitValues(searchResponse), complete);
+        } catch (IOException e) {
+          throw new ESQueryException("Auto complete query failed:", e);
+        }
+      });
     } catch (Exception e) {
       log.error("Auto complete query failed:" + e.getMessage());
       throw new ESQueryException("Auto complete query failed:", e);
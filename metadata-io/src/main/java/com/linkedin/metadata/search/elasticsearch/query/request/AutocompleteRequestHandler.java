@@ -7,7 +7,12 @@ import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation;
 import com.linkedin.metadata.query.AutoCompleteResult;
 import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.MappingsBuilder;
 import com.linkedin.metadata.search.utils.ESUtils;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -15,12 +20,19 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
 import org.elasticsearch.index.query.Operator;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -30,10 +42,22 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 
 
+/**
+ * Builds autocomplete requests and extracts their results.
+ *
+ * <p>By default, the query prefix matches the search-as-you-type field the autocomplete-enabled fields are copied to,
+ * and the suggestion of every hit is the first of these fields' values which the query prefix matches, read from
+ * the source. Values are matched against the query in Java the way elasticsearch matches them, so that the values of
+ * the hits of a query can also be matched against longer queries. Autocompleting a given field instead runs an ngram
+ * query on that field, and reads the suggestions from its highlights.
+ */
 @Slf4j
 public class AutocompleteRequestHandler {
 
   private static final String ANALYZER = "word_delimited";
+  private static final String AUTOCOMPLETE_FIELD = MappingsBuilder.AUTOCOMPLETE_FIELD;
+  // The analyzer of the search-as-you-type field, i.e. the standard analyzer of elasticsearch, without stop words
+  private static final Analyzer AUTOCOMPLETE_ANALYZER = new StandardAnalyzer(CharArraySet.EMPTY_SET);
   private final List<String> _defaultAutocompleteFields;
 
   private static final Map<EntitySpec, AutocompleteRequestHandler> AUTOCOMPLETE_QUERY_BUILDER_BY_ENTITY_NAME =
@@ -58,13 +82,32 @@ public class AutocompleteRequestHandler {
     SearchRequest searchRequest = new SearchRequest();
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
     searchSourceBuilder.size(limit);
-    searchSourceBuilder.query(getQuery(input, field));
     searchSourceBuilder.postFilter(ESUtils.buildFilterQuery(filter));
-    searchSourceBuilder.highlighter(getHighlights(field));
+    if (isFieldRequest(field)) {
+      searchSourceBuilder.query(getQuery(input, field));
+      searchSourceBuilder.highlighter(getHighlights(field));
+    } else {
+      searchSourceBuilder.query(getPrefixQuery(input));
+      searchSourceBuilder.fetchSource(_defaultAutocompleteFields.toArray(new String[0]), null);
+    }
     searchRequest.source(searchSourceBuilder);
     return searchRequest;
   }
 
+  private static boolean isFieldRequest(@Nullable String field) {
+    return field != null && !field.isEmpty();
+  }
+
+  private QueryBuilder getPrefixQuery(@Nonnull String query) {
+    BoolQueryBuilder finalQuery = QueryBuilders.boolQuery();
+    // Every term must match, the last one as a prefix
+    finalQuery.must(QueryBuilders.multiMatchQuery(query, AUTOCOMPLETE_FIELD, AUTOCOMPLETE_FIELD + "._2gram",
+        AUTOCOMPLETE_FIELD + "._3gram").type(MultiMatchQueryBuilder.Type.BOOL_PREFIX).operator(Operator.AND));
+
+    finalQuery.mustNot(QueryBuilders.matchQuery("removed", true));
+    return finalQuery;
+  }
+
   private QueryBuilder getQuery(@Nonnull String query, @Nullable String field) {
     BoolQueryBuilder finalQuery = QueryBuilders.boolQuery();
     // Search for exact matches with higher boost and ngram matches
@@ -93,26 +136,116 @@ public class AutocompleteRequestHandler {
   }
 
   private List<String> getAutocompleteFields(@Nullable String field) {
-    if (field != null && !field.isEmpty()) {
+    if (isFieldRequest(field)) {
       return ImmutableList.of(field);
     }
     return _defaultAutocompleteFields;
   }
 
-  public AutoCompleteResult extractResult(@Nonnull SearchResponse searchResponse, @Nonnull String input) {
+  public AutoCompleteResult extractResult(@Nonnull SearchResponse searchResponse, @Nonnull String input,
+      @Nullable String field) {
+    if (!isFieldRequest(field)) {
+      return new AutoCompleteResult().setQuery(input)
+          .setSuggestions(new StringArray(getSuggestions(extractHitValues(searchResponse), input)));
+    }
     Set<String> results = new LinkedHashSet<>();
     for (SearchHit hit : searchResponse.getHits()) {
-      Optional<String> matchedFieldValue = hit.getHighlightFields()
-          .entrySet()
-          .stream()
-          .findFirst()
-          .map(entry -> entry.getValue().getFragments()[0].string());
+      Optional<String> matchedFieldValue = getHighlightedValue(hit);
       if (matchedFieldValue.isPresent()) {
         results.add(matchedFieldValue.get());
       } else {
-        log.info("No highlighted field for query {}, hit {}", input, hit);
+        log.info("No matching field for query {}, hit {}", input, hit);
       }
     }
     return new AutoCompleteResult().setQuery(input).setSuggestions(new StringArray(results));
   }
+
+  /**
+   * Returns the values of the autocomplete-enabled fields of every hit of a default autocomplete request, read from
+   * the source.
+   */
+  @Nonnull
+  public List<List<String>> extractHitValues(@Nonnull SearchResponse searchResponse) {
+    List<List<String>> hitValues = new ArrayList<>();
+    for (SearchHit hit : searchResponse.getHits()) {
+      Map<String, Object> source = hit.getSourceAsMap();
+      hitValues.add(source == null ? new ArrayList<>() : _defaultAutocompleteFields.stream()
+          .flatMap(fieldName -> toStrings(source.get(fieldName)))
+          .collect(Collectors.toList()));
+    }
+    return hitValues;
+  }
+
+  /**
+   * Returns the distinct suggestions of the given hits for the given query, i.e. the first value of every hit which the
+   * query matches.
+   */
+  @Nonnull
+  public static List<String> getSuggestions(@Nonnull List<List<String>> hitValues, @Nonnull String input) {
+    List<String> queryTokens = tokenize(input);
+    Set<String> results = new LinkedHashSet<>();
+    for (List<String> values : hitValues) {
+      Optional<String> matchedValue =
+          values.stream().filter(value -> matches(tokenize(value), queryTokens)).findFirst();
+      if (matchedValue.isPresent()) {
+        results.add(matchedValue.get());
+      } else {
+        log.info("No matching field for query {}, values {}", input, values);
+      }
+    }
+    return new ArrayList<>(results);
+  }
+
+  private static Optional<String> getHighlightedValue(@Nonnull SearchHit hit) {
+    return hit.getHighlightFields()
+        .entrySet()
+        .stream()
+        .findFirst()
+        .map(entry -> entry.getValue().getFragments()[0].string());
+  }
+
+  private static Stream<String> toStrings(@Nullable Object value) {
+    if (value instanceof Collection) {
+      return ((Collection<?>) value).stream().flatMap(AutocompleteRequestHandler::toStrings);
+    }
+    return value == null ? Stream.empty() : Stream.of(value.toString());
+  }
+
+  /**
+   * Returns whether the given value matches the query like the bool prefix query on the search-as-you-type field: every
+   * word of the query but the last is a word of the value, and the last one is a prefix of a word of the value. A value
+   * matching a query also matches every prefix of that query.
+   */
+  public static boolean matchesPrefix(@Nonnull String value, @Nonnull String query) {
+    return matches(tokenize(value), tokenize(query));
+  }
+
+  private static boolean matches(@Nonnull List<String> valueTokens, @Nonnull List<String> queryTokens) {
+    for (int i = 0; i < queryTokens.size(); i++) {
+      String queryToken = queryTokens.get(i);
+      boolean isLast = i == queryTokens.size() - 1;
+      if (valueTokens.stream()
+          .noneMatch(valueToken -> isLast ? valueToken.startsWith(queryToken) : valueToken.equals(queryToken))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Splits the text into the words elasticsearch indexes for the search-as-you-type field
+  private static List<String> tokenize(@Nonnull String text) {
+    List<String> tokens = new ArrayList<>();
+    try (TokenStream tokenStream = AUTOCOMPLETE_ANALYZER.tokenStream(AUTOCOMPLETE_FIELD, text)) {
+      CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+      tokenStream.reset();
+      while (tokenStream.incrementToken()) {
+        tokens.add(term.toString());
+      }
+      tokenStream.end();
+    } catch (IOException e) {
+      // Only thrown by readers of streams, not of strings
+      throw new UncheckedIOException(e);
+    }
+    return tokens;
+  }
 }
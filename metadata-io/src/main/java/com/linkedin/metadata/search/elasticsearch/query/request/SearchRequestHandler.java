@@ -14,6 +14,7 @@ import com.linkedin.metadata.search.AggregationMetadataArray;
 import com.linkedin.metadata.search.FilterValueArray;
 import com.linkedin.metadata.search.MatchedField;
 import com.linkedin.metadata.search.MatchedFieldArray;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchEntityArray;
 import com.linkedin.metadata.search.SearchResult;
@@ -37,6 +38,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.common.text.Text;
@@ -163,6 +165,48 @@ public class SearchRequestHandler {
     return searchRequest;
   }
 
+  /**
+   * Constructs a request for one page of a scroll over the search results. Rather than paging by offset, which is
+   * bounded by the search window, pages are fetched with search_after the sort values of the last hit of the previous
+   * page. The sort order always ends with the urn, so that it is stable across pages.
+   *
+   * @param input the search input text, or * to only apply the filters
+   * @param filter the search filter
+   * @param sortCriterion {@link SortCriterion} to be applied to the search results
+   * @param searchAfter sort values of the last hit of the previous page, or null for the first page
+   * @param size the number of search hits to return
+   * @return a valid search request
+   */
+  @Nonnull
+  @WithSpan
+  public SearchRequest getScrollRequest(@Nonnull String input, @Nullable Filter filter,
+      @Nullable SortCriterion sortCriterion, @Nullable Object[] searchAfter, int size) {
+    SearchRequest searchRequest = new SearchRequest();
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+
+    searchSourceBuilder.size(size);
+    searchSourceBuilder.fetchSource("urn", null);
+
+    BoolQueryBuilder filterQuery = getFilterQuery(filter);
+    if ("*".equals(input)) {
+      searchSourceBuilder.query(filterQuery);
+    } else {
+      searchSourceBuilder.query(QueryBuilders.boolQuery().must(getQuery(input)).must(filterQuery));
+    }
+    ESUtils.buildSortOrder(searchSourceBuilder, sortCriterion);
+    if (searchAfter != null) {
+      searchSourceBuilder.searchAfter(searchAfter);
+      // The total is only reported with the first page
+      searchSourceBuilder.trackTotalHits(false);
+    } else {
+      searchSourceBuilder.trackTotalHits(true);
+    }
+    searchRequest.source(searchSourceBuilder);
+    log.debug("Scroll request is: " + searchRequest.toString());
+
+    return searchRequest;
+  }
+
   /**
    * Get search request to aggregate and get document counts per field value
    *
@@ -223,6 +267,21 @@ public class SearchRequestHandler {
         .setNumEntities(totalCount);
   }
 
+  @WithSpan
+  public ScrollResult extractScrollResult(@Nonnull SearchResponse searchResponse, int size) {
+    final SearchHit[] hits = searchResponse.getHits().getHits();
+    final ScrollResult scrollResult = new ScrollResult().setEntities(new SearchEntityArray(getResults(searchResponse)))
+        .setPageSize(size);
+    if (size > 0 && hits.length == size) {
+      scrollResult.setScrollId(ESUtils.encodeScrollId(hits[hits.length - 1].getSortValues()));
+    }
+    final TotalHits totalHits = searchResponse.getHits().getTotalHits();
+    if (totalHits != null && totalHits.relation == TotalHits.Relation.EQUAL_TO) {
+      scrollResult.setNumEntities((int) totalHits.value);
+    }
+    return scrollResult;
+  }
+
   @Nonnull
   private List<MatchedField> extractMatchedFields(@Nonnull Map<String, HighlightField> highlightedFields) {
     // Keep track of unique field values that matched for a given field name
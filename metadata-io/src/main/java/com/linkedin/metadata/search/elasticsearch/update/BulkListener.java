@@ -1,5 +1,13 @@
 package com.linkedin.metadata.search.elasticsearch.update;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
@@ -10,13 +18,47 @@ import org.elasticsearch.action.bulk.BulkResponse;
 public class BulkListener implements BulkProcessor.Listener {
   private static final BulkListener INSTANCE = new BulkListener();
 
+  private final List<Consumer<BulkRequest>> _afterBulkHandlers = new CopyOnWriteArrayList<>();
+  // The bulk requests sent and not completed yet, guarded by itself
+  private final Set<BulkRequest> _pendingBulks = Collections.newSetFromMap(new IdentityHashMap<>());
+
   public static BulkListener getInstance() {
     return INSTANCE;
   }
 
+  /**
+   * Registers a handler called with each bulk request once it completed, whether it succeeded or not.
+   */
+  public void addAfterBulkHandler(@Nonnull Consumer<BulkRequest> handler) {
+    _afterBulkHandlers.add(handler);
+  }
+
+  /**
+   * Waits for the bulk requests sent so far to complete, e.g. after a flush of the bulk processor.
+   *
+   * @return whether they completed before the timeout
+   */
+  public boolean awaitPendingBulks(long timeoutMillis) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    synchronized (_pendingBulks) {
+      final Set<BulkRequest> awaited = new HashSet<>(_pendingBulks);
+      while (!awaited.isEmpty()) {
+        final long remainingMillis = deadline - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+          return false;
+        }
+        _pendingBulks.wait(remainingMillis);
+        awaited.retainAll(_pendingBulks);
+      }
+    }
+    return true;
+  }
+
   @Override
   public void beforeBulk(long executionId, BulkRequest request) {
-
+    synchronized (_pendingBulks) {
+      _pendingBulks.add(request);
+    }
   }
 
   @Override
@@ -28,10 +70,26 @@ public class BulkListener implements BulkProcessor.Listener {
       log.info("Successfully fed bulk request. Number of events: " + response.getItems().length + " Took time ms: "
               + response.getIngestTookInMillis());
     }
+    handleAfterBulk(request);
   }
 
   @Override
   public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
     log.info("Error feeding bulk request. No retries left", failure);
+    handleAfterBulk(request);
+  }
+
+  private void handleAfterBulk(BulkRequest request) {
+    synchronized (_pendingBulks) {
+      _pendingBulks.remove(request);
+      _pendingBulks.notifyAll();
+    }
+    for (Consumer<BulkRequest> handler : _afterBulkHandlers) {
+      try {
+        handler.accept(request);
+      } catch (RuntimeException e) {
+        log.error("Failed to handle completed bulk request", e);
+      }
+    }
   }
 }
@@ -1,11 +1,13 @@
 package com.linkedin.metadata.search.elasticsearch.update;
 
 import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
 import javax.annotation.Nonnull;
-import lombok.RequiredArgsConstructor;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
@@ -20,27 +22,50 @@ import org.elasticsearch.index.reindex.DeleteByQueryRequest;
 
 
 @Slf4j
-@RequiredArgsConstructor
 public class ESWriteDAO {
 
   private final EntityRegistry entityRegistry;
   private final RestHighLevelClient searchClient;
   private final IndexConvention indexConvention;
   private final BulkProcessor bulkProcessor;
+  // Writes are also applied to the copies of the indices it is reindexing, or held while it swaps them, if set
+  @Nullable
+  private final ESIndexBuilder indexBuilder;
+
+  public ESWriteDAO(EntityRegistry entityRegistry, RestHighLevelClient searchClient, IndexConvention indexConvention,
+      BulkProcessor bulkProcessor) {
+    this(entityRegistry, searchClient, indexConvention, bulkProcessor, null);
+  }
+
+  public ESWriteDAO(EntityRegistry entityRegistry, RestHighLevelClient searchClient, IndexConvention indexConvention,
+      BulkProcessor bulkProcessor, @Nullable ESIndexBuilder indexBuilder) {
+    this.entityRegistry = entityRegistry;
+    this.searchClient = searchClient;
+    this.indexConvention = indexConvention;
+    this.bulkProcessor = bulkProcessor;
+    this.indexBuilder = indexBuilder;
+  }
 
   /**
    * Updates or inserts the given search document.
    *
    * @param entityName name of the entity
-   * @param document the document to update / insert
+   * @param document the document to update / insert, stamped with the time of the write by
+   *                 {@link com.linkedin.metadata.search.transformer.SearchDocumentTransformer} for reindexing to catch
+   *                 up on it
    * @param docId the ID of the document
    */
   public void upsertDocument(@Nonnull String entityName, @Nonnull String document, @Nonnull String docId) {
     final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
-    final IndexRequest indexRequest = new IndexRequest(indexName).id(docId).source(document, XContentType.JSON);
-    final UpdateRequest updateRequest =
-        new UpdateRequest(indexName, docId).doc(document, XContentType.JSON).detectNoop(false).upsert(indexRequest);
-    bulkProcessor.add(updateRequest);
+    final UpdateRequest upsertRequest = buildUpsertRequest(indexName, document, docId);
+    if (holdWrite(indexName, upsertRequest)) {
+      return;
+    }
+    bulkProcessor.add(upsertRequest);
+    final String dualWriteIndex = getDualWriteIndex(indexName);
+    if (dualWriteIndex != null) {
+      bulkProcessor.add(buildUpsertRequest(dualWriteIndex, document, docId));
+    }
   }
 
   /**
@@ -51,7 +76,31 @@ public class ESWriteDAO {
    */
   public void deleteDocument(@Nonnull String entityName, @Nonnull String docId) {
     final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
-    bulkProcessor.add(new DeleteRequest(indexName).id(docId));
+    final DeleteRequest deleteRequest = new DeleteRequest(indexName).id(docId);
+    if (holdWrite(indexName, deleteRequest)) {
+      return;
+    }
+    bulkProcessor.add(deleteRequest);
+    final String dualWriteIndex = getDualWriteIndex(indexName);
+    if (dualWriteIndex != null) {
+      indexBuilder.recordDeletedDocument(indexName, docId);
+      bulkProcessor.add(new DeleteRequest(dualWriteIndex).id(docId));
+    }
+  }
+
+  private static UpdateRequest buildUpsertRequest(@Nonnull String indexName, @Nonnull String document,
+      @Nonnull String docId) {
+    final IndexRequest indexRequest = new IndexRequest(indexName).id(docId).source(document, XContentType.JSON);
+    return new UpdateRequest(indexName, docId).doc(document, XContentType.JSON).detectNoop(false).upsert(indexRequest);
+  }
+
+  @Nullable
+  private String getDualWriteIndex(@Nonnull String indexName) {
+    return indexBuilder == null ? null : indexBuilder.getDualWriteIndex(indexName);
+  }
+
+  private boolean holdWrite(@Nonnull String indexName, @Nonnull DocWriteRequest<?> request) {
+    return indexBuilder != null && indexBuilder.holdWrite(indexName, request);
   }
 
   /**
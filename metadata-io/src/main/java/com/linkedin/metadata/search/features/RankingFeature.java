@@ -0,0 +1,42 @@
+package com.linkedin.metadata.search.features;
+
+import javax.annotation.Nonnull;
+
+
+/**
+ * Features computed offline for every search document, stored under {@link #FIELD} so that the search backend can rank
+ * documents with them before paginating.
+ */
+public enum RankingFeature {
+  USAGE_COUNT("usageCount"), // Number of queries run against the entity over the lookback window
+  RECENCY("recency"), // Exponential decay of the age of the last usage of the entity, 1 if used just now
+  OWNERSHIP_COMPLETENESS("ownershipCompleteness"), // 0 without owners, 1 with a backup owner
+  SEARCH_CLICK_COUNT("searchClickCount"); // Number of times the entity was clicked in search results
+
+  // Object field of search documents holding the ranking features
+  public static final String FIELD = "rankingFeatures";
+  // Epoch millis of the run of the feature computation that last wrote the features of a document
+  public static final String COMPUTED_AT_FIELD = "computedAt";
+
+  private final String _name;
+
+  RankingFeature(@Nonnull String name) {
+    _name = name;
+  }
+
+  /**
+   * Returns the name of the feature within {@link #FIELD}.
+   */
+  @Nonnull
+  public String getName() {
+    return _name;
+  }
+
+  /**
+   * Returns the path of the feature in search documents.
+   */
+  @Nonnull
+  public String getFieldPath() {
+    return FIELD + "." + _name;
+  }
+}
@@ -0,0 +1,314 @@
+package com.linkedin.metadata.search.features;
+
+import com.datahub.util.exception.ESQueryException;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.datahubusage.DataHubUsageEventConstants;
+import com.linkedin.metadata.datahubusage.DataHubUsageEventType;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.MappingsBuilder;
+import com.linkedin.metadata.search.utils.ESUtils;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.elasticsearch.index.reindex.UpdateByQueryRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.metrics.Max;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import static com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder.IS_EXPLODED_FIELD;
+import static com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder.TIMESTAMP_MILLIS_FIELD;
+import static com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder.URN_FIELD;
+
+
+/**
+ * Computes the {@link RankingFeature}s of search documents offline, and writes them into the entity indices.
+ *
+ * <p>Usage counts and recency are aggregated from the dataset usage statistics, and search click counts from the
+ * tracking events of the DataHub usage index, over a lookback window. Ownership completeness is derived from the owners
+ * of each search document within elasticsearch. Documents without usage nor clicks in the window have their features
+ * reset, so that entities which stopped being used stop being boosted.
+ */
+@Slf4j
+public class RankingFeatureService {
+
+  public static final String USAGE_ENTITY_NAME = "dataset";
+  public static final String USAGE_ASPECT_NAME = "datasetUsageStatistics";
+  public static final String USAGE_COUNT_FIELD = "totalSqlQueries";
+  public static final String DATAHUB_USAGE_INDEX = "datahub_usage_event";
+  public static final String OWNERS_FIELD = "owners";
+  // Number of owners at which ownership is complete: an owner and a backup
+  public static final int COMPLETE_OWNER_COUNT = 2;
+
+  private static final String URN_AGG_NAME = "urn";
+  private static final String COUNT_AGG_NAME = "count";
+  private static final String LAST_USED_AGG_NAME = "lastUsed";
+  private static final int AGG_PAGE_SIZE = 1000;
+  private static final int BULK_SIZE = 1000;
+
+  // Resets the features of documents not written by the current run, and computes their ownership completeness. It
+  // touches every document, so it does not stamp their last written time: the catch-up of a reindex would copy all of
+  // them again, and the features are recomputed by the next run anyway. Documents whose features are unchanged are
+  // not rewritten.
+  private static final String UPDATE_DOCUMENTS_SCRIPT = "def features = ctx._source." + RankingFeature.FIELD + ";"
+      + "boolean changed = false;"
+      + "if (features == null) {"
+      + "  features = new HashMap(); ctx._source." + RankingFeature.FIELD + " = features; changed = true;"
+      + "}"
+      + "if ((features." + RankingFeature.COMPUTED_AT_FIELD + " == null"
+      + " || features." + RankingFeature.COMPUTED_AT_FIELD + " < params.now)"
+      + " && (changed || features." + RankingFeature.USAGE_COUNT.getName() + " != 0"
+      + " || features." + RankingFeature.RECENCY.getName() + " != 0"
+      + " || features." + RankingFeature.SEARCH_CLICK_COUNT.getName() + " != 0)) {"
+      + "  features." + RankingFeature.USAGE_COUNT.getName() + " = 0;"
+      + "  features." + RankingFeature.RECENCY.getName() + " = 0;"
+      + "  features." + RankingFeature.SEARCH_CLICK_COUNT.getName() + " = 0;"
+      + "  features." + RankingFeature.COMPUTED_AT_FIELD + " = params.now;"
+      + "  changed = true;"
+      + "}"
+      + "def owners = ctx._source." + OWNERS_FIELD + ";"
+      + "int ownerCount = owners == null ? 0 : (owners instanceof List ? owners.size() : 1);"
+      + "double ownershipCompleteness = Math.min(1.0, ownerCount / (double) params.completeOwnerCount);"
+      + "if (features." + RankingFeature.OWNERSHIP_COMPLETENESS.getName() + " != ownershipCompleteness) {"
+      + "  features." + RankingFeature.OWNERSHIP_COMPLETENESS.getName() + " = ownershipCompleteness;"
+      + "  changed = true;"
+      + "}"
+      + "if (!changed) { ctx.op = 'noop'; }";
+
+  private final RestHighLevelClient _searchClient;
+  private final IndexConvention _indexConvention;
+  private final EntityRegistry _entityRegistry;
+  private final TimeseriesIndexPartitioner _partitioner;
+  private final long _lookbackMillis;
+  private final double _recencyHalfLifeMillis;
+
+  /**
+   * @param partitioner the partitioner of the timeseries aspect indices, which usage statistics are read from.
+   * @param lookbackDays the number of days of usage and clicks the features are computed from.
+   * @param recencyHalfLifeDays the number of days after which the recency of an entity is halved.
+   */
+  public RankingFeatureService(@Nonnull RestHighLevelClient searchClient, @Nonnull IndexConvention indexConvention,
+      @Nonnull EntityRegistry entityRegistry, @Nonnull TimeseriesIndexPartitioner partitioner, int lookbackDays,
+      double recencyHalfLifeDays) {
+    _searchClient = searchClient;
+    _indexConvention = indexConvention;
+    _entityRegistry = entityRegistry;
+    _partitioner = partitioner;
+    _lookbackMillis = TimeUnit.DAYS.toMillis(lookbackDays);
+    _recencyHalfLifeMillis = TimeUnit.DAYS.toMillis(1) * recencyHalfLifeDays;
+  }
+
+  /**
+   * Returns the usage, recency and search click features of every entity used or clicked within the lookback window
+   * ending at the given time.
+   */
+  @Nonnull
+  public Map<String, Map<RankingFeature, Double>> computeFeatures(long nowMillis) {
+    final Map<String, Map<RankingFeature, Double>> features = new HashMap<>();
+    final long sinceMillis = nowMillis - _lookbackMillis;
+
+    final BoolQueryBuilder usageQuery = QueryBuilders.boolQuery()
+        .filter(QueryBuilders.rangeQuery(TIMESTAMP_MILLIS_FIELD).gte(sinceMillis))
+        .mustNot(QueryBuilders.termQuery(IS_EXPLODED_FIELD, true));
+    aggregateByUrn(_partitioner.getSearchIndexNames(
+        _indexConvention.getTimeseriesAspectIndexName(USAGE_ENTITY_NAME, USAGE_ASPECT_NAME), sinceMillis, nowMillis),
+        URN_FIELD, usageQuery, USAGE_COUNT_FIELD, TIMESTAMP_MILLIS_FIELD, (urn, bucket) -> {
+          final Map<RankingFeature, Double> urnFeatures =
+              features.computeIfAbsent(urn, key -> new EnumMap<>(RankingFeature.class));
+          urnFeatures.put(RankingFeature.USAGE_COUNT, ((Sum) bucket.getAggregations().get(COUNT_AGG_NAME)).getValue());
+          urnFeatures.put(RankingFeature.RECENCY,
+              getRecency(nowMillis, ((Max) bucket.getAggregations().get(LAST_USED_AGG_NAME)).getValue()));
+        });
+
+    final BoolQueryBuilder clickQuery = QueryBuilders.boolQuery()
+        .filter(QueryBuilders.termQuery(DataHubUsageEventConstants.TYPE,
+            DataHubUsageEventType.SEARCH_RESULT_CLICK_EVENT.getType()))
+        .filter(QueryBuilders.rangeQuery(DataHubUsageEventConstants.TIMESTAMP).gte(sinceMillis));
+    aggregateByUrn(new String[]{_indexConvention.getIndexName(DATAHUB_USAGE_INDEX)},
+        DataHubUsageEventConstants.ENTITY_URN + ESUtils.KEYWORD_SUFFIX, clickQuery, null,
+        DataHubUsageEventConstants.TIMESTAMP,
+        (urn, bucket) -> features.computeIfAbsent(urn, key -> new EnumMap<>(RankingFeature.class))
+            .put(RankingFeature.SEARCH_CLICK_COUNT, (double) bucket.getDocCount()));
+    return features;
+  }
+
+  /**
+   * Writes the given features into the search documents of their entities, and updates the features of every other
+   * search document. Entities without a search document are skipped.
+   *
+   * @param features the features of entities, keyed by urn, as returned by {@link #computeFeatures}.
+   * @param nowMillis the time of the run, which must increase from run to run.
+   * @return the number of search documents the given features were written into.
+   */
+  public int writeFeatures(@Nonnull Map<String, Map<RankingFeature, Double>> features, long nowMillis) {
+    int written = 0;
+    BulkRequest bulkRequest = new BulkRequest();
+    for (Map.Entry<String, Map<RankingFeature, Double>> entry : features.entrySet()) {
+      final UpdateRequest updateRequest = buildUpdateRequest(entry.getKey(), entry.getValue(), nowMillis);
+      if (updateRequest != null) {
+        bulkRequest.add(updateRequest);
+      }
+      if (bulkRequest.numberOfActions() >= BULK_SIZE) {
+        written += executeBulk(bulkRequest);
+        bulkRequest = new BulkRequest();
+      }
+    }
+    if (bulkRequest.numberOfActions() > 0) {
+      written += executeBulk(bulkRequest);
+    }
+    updateDocuments(nowMillis);
+    return written;
+  }
+
+  /**
+   * Returns the recency of an entity last used at the given time: 1 if used just now, halved every half life.
+   */
+  public double getRecency(long nowMillis, double lastUsedMillis) {
+    if (Double.isInfinite(lastUsedMillis)) {
+      return 0;
+    }
+    return Math.pow(0.5, Math.max(0, nowMillis - lastUsedMillis) / _recencyHalfLifeMillis);
+  }
+
+  private void aggregateByUrn(@Nonnull String[] indexNames, @Nonnull String urnField, @Nonnull BoolQueryBuilder query,
+      String countField, @Nonnull String timestampField,
+      @Nonnull BiConsumer<String, CompositeAggregation.Bucket> consumer) {
+    Map<String, Object> afterKey = null;
+    do {
+      final CompositeAggregationBuilder aggregation = AggregationBuilders.composite(URN_AGG_NAME,
+          Collections.singletonList(new TermsValuesSourceBuilder(URN_AGG_NAME).field(urnField)))
+          .size(AGG_PAGE_SIZE)
+          .subAggregation(AggregationBuilders.max(LAST_USED_AGG_NAME).field(timestampField));
+      if (countField != null) {
+        aggregation.subAggregation(AggregationBuilders.sum(COUNT_AGG_NAME).field(countField));
+      }
+      if (afterKey != null) {
+        aggregation.aggregateAfter(afterKey);
+      }
+      final SearchRequest searchRequest = new SearchRequest(indexNames).source(
+          new SearchSourceBuilder().query(query).size(0).aggregation(aggregation));
+      // The usage indices and their partitions only exist once usage was ingested
+      searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+      final SearchResponse searchResponse;
+      try {
+        searchResponse = _searchClient.search(searchRequest, RequestOptions.DEFAULT);
+      } catch (IOException e) {
+        final String indices = String.join(",", indexNames);
+        log.error("Failed to aggregate ranking features from indices {}", indices, e);
+        throw new ESQueryException(String.format("Failed to aggregate ranking features from indices %s", indices), e);
+      }
+      if (searchResponse.getAggregations() == null) {
+        return;
+      }
+      final CompositeAggregation result = searchResponse.getAggregations().get(URN_AGG_NAME);
+      if (result == null) {
+        return;
+      }
+      result.getBuckets().forEach(bucket -> consumer.accept(bucket.getKey().get(URN_AGG_NAME).toString(), bucket));
+      afterKey = result.getBuckets().size() < AGG_PAGE_SIZE ? null : result.afterKey();
+    } while (afterKey != null);
+  }
+
+  private UpdateRequest buildUpdateRequest(@Nonnull String urnStr, @Nonnull Map<RankingFeature, Double> features,
+      long nowMillis) {
+    final Urn urn;
+    final String docId;
+    try {
+      urn = Urn.createFromString(urnStr);
+      docId = URLEncoder.encode(urnStr, "UTF-8");
+    } catch (URISyntaxException | UnsupportedEncodingException e) {
+      log.warn("Skipping ranking features of invalid urn {}", urnStr);
+      return null;
+    }
+    final String indexName;
+    try {
+      indexName = _indexConvention.getIndexName(_entityRegistry.getEntitySpec(urn.getEntityType()));
+    } catch (IllegalArgumentException e) {
+      log.warn("Skipping ranking features of urn {} of unknown entity type", urnStr);
+      return null;
+    }
+    final Map<String, Object> featureDocument = new HashMap<>();
+    for (RankingFeature feature : new RankingFeature[]{RankingFeature.USAGE_COUNT, RankingFeature.RECENCY,
+        RankingFeature.SEARCH_CLICK_COUNT}) {
+      featureDocument.put(feature.getName(), features.getOrDefault(feature, 0.0));
+    }
+    featureDocument.put(RankingFeature.COMPUTED_AT_FIELD, nowMillis);
+    // Partial update without upsert, merged into the existing features so that ownership completeness is kept. Only
+    // documents with new features are stamped, so that the catch-up of a reindex copies their features.
+    return new UpdateRequest(indexName, docId).doc(
+        ImmutableMap.of(RankingFeature.FIELD, featureDocument, MappingsBuilder.LAST_WRITTEN_FIELD, nowMillis));
+  }
+
+  private int executeBulk(@Nonnull BulkRequest bulkRequest) {
+    final BulkResponse bulkResponse;
+    try {
+      bulkResponse = _searchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      log.error("Failed to write ranking features", e);
+      throw new ESQueryException("Failed to write ranking features", e);
+    }
+    int written = 0;
+    for (BulkItemResponse item : bulkResponse.getItems()) {
+      if (!item.isFailed()) {
+        written++;
+      } else if (item.status() != RestStatus.NOT_FOUND) {
+        throw new ESQueryException(String.format("Failed to write ranking features of document %s: %s", item.getId(),
+            item.getFailureMessage()));
+      }
+    }
+    return written;
+  }
+
+  private void updateDocuments(long nowMillis) {
+    final UpdateByQueryRequest request = new UpdateByQueryRequest(_indexConvention.getAllEntityIndicesPattern());
+    request.setScript(new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, UPDATE_DOCUMENTS_SCRIPT,
+        ImmutableMap.of("now", nowMillis, "completeOwnerCount", COMPLETE_OWNER_COUNT)));
+    // Documents updated concurrently keep their update, and get their features on the next run
+    request.setConflicts("proceed");
+    request.setRefresh(true);
+    request.setTimeout(TimeValue.timeValueMinutes(10));
+    try {
+      final BulkByScrollResponse response = _searchClient.updateByQuery(request, RequestOptions.DEFAULT);
+      if (!response.getBulkFailures().isEmpty()) {
+        throw new ESQueryException(
+            String.format("Failed to update ranking features: %s", response.getBulkFailures().get(0).getMessage()));
+      }
+      log.info("Updated ranking features of {} search documents, {} unchanged, {} version conflicts",
+          response.getUpdated(), response.getNoops(), response.getVersionConflicts());
+    } catch (IOException e) {
+      log.error("Failed to update ranking features", e);
+      throw new ESQueryException("Failed to update ranking features", e);
+    }
+  }
+}
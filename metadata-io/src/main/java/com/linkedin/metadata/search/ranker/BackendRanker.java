@@ -0,0 +1,23 @@
+package com.linkedin.metadata.search.ranker;
+
+import javax.annotation.Nonnull;
+import org.elasticsearch.index.query.QueryBuilder;
+
+
+/**
+ * Ranker applied by the search backend itself, before results are paginated. Unlike {@link SearchRanker}, which
+ * re-ranks the entities of a page in memory, it can bring results from any page onto the first one.
+ */
+public interface BackendRanker {
+
+  /**
+   * Ranker keeping the scores of the search backend.
+   */
+  BackendRanker NONE = query -> query;
+
+  /**
+   * Returns a query matching the same documents as the given query, scored for ranking.
+   */
+  @Nonnull
+  QueryBuilder rank(@Nonnull QueryBuilder query);
+}
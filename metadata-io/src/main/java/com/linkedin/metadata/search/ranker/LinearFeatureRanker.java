@@ -0,0 +1,120 @@
+package com.linkedin.metadata.search.ranker;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.search.features.RankingFeature;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.elasticsearch.common.lucene.search.function.CombineFunction;
+import org.elasticsearch.common.lucene.search.function.FieldValueFactorFunction;
+import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.functionscore.FunctionScoreQueryBuilder;
+import org.elasticsearch.index.query.functionscore.ScoreFunctionBuilders;
+
+
+/**
+ * Ranker multiplying the score of the search backend by a linear combination of the ranking features of documents.
+ *
+ * <p>The score of a document is {@code backendScore * (1 + sum(weight * modifier(feature)))}, where counts are
+ * dampened with log1p, so that a few very popular entities do not drown the relevance of the query. Documents without
+ * features keep the score of the search backend. Weights are learned offline and loaded from a JSON object mapping
+ * feature names to weights.
+ */
+public class LinearFeatureRanker implements BackendRanker {
+
+  public static final Map<RankingFeature, Double> DEFAULT_WEIGHTS = ImmutableMap.of(
+      RankingFeature.USAGE_COUNT, 0.5,
+      RankingFeature.RECENCY, 0.5,
+      RankingFeature.OWNERSHIP_COMPLETENESS, 0.25,
+      RankingFeature.SEARCH_CLICK_COUNT, 1.0);
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final Map<RankingFeature, Double> _weights;
+
+  public LinearFeatureRanker() {
+    this(DEFAULT_WEIGHTS);
+  }
+
+  public LinearFeatureRanker(@Nonnull Map<RankingFeature, Double> weights) {
+    weights.forEach((feature, weight) -> {
+      // Elasticsearch rejects negative scores
+      if (weight < 0) {
+        throw new IllegalArgumentException(String.format("Weight of feature %s must not be negative", feature));
+      }
+    });
+    _weights = new EnumMap<>(RankingFeature.class);
+    _weights.putAll(weights);
+  }
+
+  /**
+   * Loads the weights of the ranker from the given JSON file, e.g. {"usageCount": 0.5, "searchClickCount": 1.0}.
+   * Features missing from the file are not used for ranking.
+   */
+  @Nonnull
+  public static LinearFeatureRanker fromJson(@Nonnull File file) throws IOException {
+    final Map<String, Double> weightsByName = OBJECT_MAPPER.readValue(file, new TypeReference<Map<String, Double>>() {
+    });
+    final Map<RankingFeature, Double> weights = new EnumMap<>(RankingFeature.class);
+    weightsByName.forEach((name, weight) -> weights.put(Arrays.stream(RankingFeature.values())
+        .filter(feature -> feature.getName().equals(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown ranking feature: %s", name))), weight));
+    return new LinearFeatureRanker(weights);
+  }
+
+  @Nonnull
+  public Map<RankingFeature, Double> getWeights() {
+    return _weights;
+  }
+
+  @Nonnull
+  @Override
+  public QueryBuilder rank(@Nonnull QueryBuilder query) {
+    final List<FunctionScoreQueryBuilder.FilterFunctionBuilder> functions = new ArrayList<>();
+    // Constant term, so that documents without features keep their score
+    functions.add(new FunctionScoreQueryBuilder.FilterFunctionBuilder(ScoreFunctionBuilders.weightFactorFunction(1)));
+    _weights.forEach((feature, weight) -> {
+      if (weight > 0) {
+        functions.add(new FunctionScoreQueryBuilder.FilterFunctionBuilder(
+            ScoreFunctionBuilders.fieldValueFactorFunction(feature.getFieldPath())
+                .modifier(getModifier(feature))
+                .missing(0)
+                .setWeight(weight.floatValue())));
+      }
+    });
+    return QueryBuilders.functionScoreQuery(query,
+        functions.toArray(new FunctionScoreQueryBuilder.FilterFunctionBuilder[0]))
+        .scoreMode(FunctionScoreQuery.ScoreMode.SUM)
+        .boostMode(CombineFunction.MULTIPLY);
+  }
+
+  /**
+   * Returns the factor applied to the score of the search backend for a document with the given features, as computed
+   * by the search backend.
+   */
+  public double getScoreFactor(@Nonnull Map<RankingFeature, Double> features) {
+    double factor = 1;
+    for (Map.Entry<RankingFeature, Double> entry : _weights.entrySet()) {
+      final double value = features.getOrDefault(entry.getKey(), 0.0);
+      factor += entry.getValue() * (getModifier(entry.getKey()) == FieldValueFactorFunction.Modifier.LOG1P
+          ? Math.log10(1 + value) : value);
+    }
+    return factor;
+  }
+
+  @Nonnull
+  private static FieldValueFactorFunction.Modifier getModifier(@Nonnull RankingFeature feature) {
+    return feature == RankingFeature.USAGE_COUNT || feature == RankingFeature.SEARCH_CLICK_COUNT
+        ? FieldValueFactorFunction.Modifier.LOG1P : FieldValueFactorFunction.Modifier.NONE;
+  }
+}
@@ -12,6 +12,7 @@ import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation.FieldType;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.MappingsBuilder;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +35,19 @@ public class SearchDocumentTransformer {
       final RecordTemplate snapshot,
       final EntitySpec entitySpec,
       final Boolean forDelete
+  ) {
+    return transformSnapshot(snapshot, entitySpec, forDelete, System.currentTimeMillis());
+  }
+
+  /**
+   * Transforms the given snapshot into a search document, stamped with the given time of its write, which reindexing
+   * catches up on writes from.
+   */
+  public Optional<String> transformSnapshot(
+      final RecordTemplate snapshot,
+      final EntitySpec entitySpec,
+      final Boolean forDelete,
+      final long lastWrittenTimestamp
   ) {
     final Map<SearchableFieldSpec, List<Object>> extractedFields =
         FieldExtractor.extractFieldsFromSnapshot(snapshot, entitySpec, AspectSpec::getSearchableFieldSpecs);
@@ -42,6 +56,7 @@ public class SearchDocumentTransformer {
     }
     final ObjectNode searchDocument = JsonNodeFactory.instance.objectNode();
     searchDocument.put("urn", snapshot.data().get("urn").toString());
+    searchDocument.put(MappingsBuilder.LAST_WRITTEN_FIELD, lastWrittenTimestamp);
     extractedFields.forEach((key, value) -> setValue(key, value, searchDocument, forDelete));
     return Optional.of(searchDocument.toString());
   }
@@ -51,6 +66,20 @@ public class SearchDocumentTransformer {
       final RecordTemplate aspect,
       final AspectSpec aspectSpec,
       final Boolean forDelete
+  ) {
+    return transformAspect(urn, aspect, aspectSpec, forDelete, System.currentTimeMillis());
+  }
+
+  /**
+   * Transforms the given aspect into a search document, stamped with the given time of its write, which reindexing
+   * catches up on writes from.
+   */
+  public Optional<String> transformAspect(
+      final Urn urn,
+      final RecordTemplate aspect,
+      final AspectSpec aspectSpec,
+      final Boolean forDelete,
+      final long lastWrittenTimestamp
   ) {
     final Map<SearchableFieldSpec, List<Object>> extractedFields =
         FieldExtractor.extractFields(aspect, aspectSpec.getSearchableFieldSpecs());
@@ -59,6 +88,7 @@ public class SearchDocumentTransformer {
     }
     final ObjectNode searchDocument = JsonNodeFactory.instance.objectNode();
     searchDocument.put("urn", urn.toString());
+    searchDocument.put(MappingsBuilder.LAST_WRITTEN_FIELD, lastWrittenTimestamp);
     extractedFields.forEach((key, value) -> setValue(key, value, searchDocument, forDelete));
     return Optional.of(searchDocument.toString());
   }
@@ -1,10 +1,15 @@
 package com.linkedin.metadata.search.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +37,8 @@ public class ESUtils {
    */
   private static final String ELASTICSEARCH_REGEXP_RESERVED_CHARACTERS = "?+*|{}[]()#@&<>~";
 
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
   private ESUtils() {
 
   }
@@ -185,6 +192,37 @@ public class ESUtils {
     }
   }
 
+  /**
+   * Encodes the sort values of the last hit of a page into an opaque scroll id, used as search_after of the next page.
+   *
+   * @param sortValues sort values of the last hit returned
+   * @return url safe scroll id
+   */
+  @Nonnull
+  public static String encodeScrollId(@Nonnull Object[] sortValues) {
+    try {
+      return Base64.getUrlEncoder()
+          .encodeToString(OBJECT_MAPPER.writeValueAsString(sortValues).getBytes(StandardCharsets.UTF_8));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Failed to encode scroll id from sort values " + Arrays.toString(sortValues), e);
+    }
+  }
+
+  /**
+   * Decodes a scroll id created by {@link #encodeScrollId(Object[])} back into search_after sort values.
+   *
+   * @param scrollId scroll id returned with the previous page
+   * @return sort values to search after
+   */
+  @Nonnull
+  public static Object[] decodeScrollId(@Nonnull String scrollId) {
+    try {
+      return OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(scrollId), Object[].class);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid scroll id " + scrollId, e);
+    }
+  }
+
   /**
    * Escapes the Elasticsearch reserved characters in the given input string.
    *
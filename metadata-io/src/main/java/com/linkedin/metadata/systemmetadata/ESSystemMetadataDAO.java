@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.bulk.BulkProcessor;
@@ -115,6 +116,20 @@ public class ESSystemMetadataDAO {
   }
 
   public SearchResponse findByParams(Map<String, String> searchParams) {
+    // this is the max page size elastic will return
+    return findByParams(searchParams, null, 10000);
+  }
+
+  /**
+   * Finds one page of the documents matching all the given params. Documents are sorted by urn & aspect, so that
+   * walking through all of them only requires passing the sort values of the last hit of a page as searchAfter of the
+   * next, without being limited by the max result window.
+   *
+   * @param searchParams field values the documents must match
+   * @param searchAfter sort values of the last hit of the previous page, or null for the first page
+   * @param pageSize the max number of documents to return
+   */
+  public SearchResponse findByParams(Map<String, String> searchParams, @Nullable Object[] searchAfter, int pageSize) {
     SearchRequest searchRequest = new SearchRequest();
 
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
@@ -124,8 +139,12 @@ public class ESSystemMetadataDAO {
         .forEach(entry -> finalQuery.must(QueryBuilders.termQuery(entry.getKey(), entry.getValue())));
     searchSourceBuilder.query(finalQuery);
 
-    // this is the max page size elastic will return
-    searchSourceBuilder.size(10000);
+    searchSourceBuilder.size(pageSize);
+    searchSourceBuilder.sort(new FieldSortBuilder("urn").order(SortOrder.ASC));
+    searchSourceBuilder.sort(new FieldSortBuilder("aspect").order(SortOrder.ASC));
+    if (searchAfter != null) {
+      searchSourceBuilder.searchAfter(searchAfter);
+    }
 
     searchRequest.source(searchSourceBuilder);
 
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
@@ -29,7 +30,7 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.reindex.DeleteByQueryRequest;
-import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.aggregations.bucket.terms.ParsedStringTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.metrics.ParsedMax;
@@ -45,6 +46,8 @@ public class ElasticSearchSystemMetadataService implements SystemMetadataService
   private final ESIndexBuilder _indexBuilder;
 
   private static final String DOC_DELIMETER = "--";
+  // Number of documents fetched per search_after page when listing all the aspects matching some params
+  static final int FIND_PAGE_SIZE = 1000;
   public static final String INDEX_NAME = "system_metadata_service_v1";
   private static final String FIELD_URN = "urn";
   private static final String FIELD_ASPECT = "aspect";
@@ -110,28 +113,34 @@ public class ElasticSearchSystemMetadataService implements SystemMetadataService
   }
 
   private List<AspectRowSummary> findByParams(Map<String, String> systemMetaParams) {
-    SearchResponse searchResponse = _esDAO.findByParams(systemMetaParams);
-    if (searchResponse != null) {
-      SearchHits hits = searchResponse.getHits();
-      List<AspectRowSummary> summaries = Arrays.stream(hits.getHits()).map(hit -> {
-        Map<String, Object> values = hit.getSourceAsMap();
-        AspectRowSummary summary = new AspectRowSummary();
-        summary.setRunId((String) values.get(FIELD_RUNID));
-        summary.setAspectName((String) values.get(FIELD_ASPECT));
-        summary.setUrn((String) values.get(FIELD_URN));
-        Object timestamp = values.get(FIELD_LAST_UPDATED);
-        if (timestamp instanceof Long) {
-          summary.setTimestamp((Long) timestamp);
-        } else if (timestamp instanceof Integer) {
-          summary.setTimestamp(Long.valueOf((Integer) timestamp));
-        }
-        summary.setKeyAspect(((String) values.get(FIELD_ASPECT)).endsWith("Key"));
-        return summary;
-      }).collect(Collectors.toList());
-      return summaries;
-    } else {
-      return Collections.emptyList();
+    final List<AspectRowSummary> summaries = new ArrayList<>();
+    Object[] searchAfter = null;
+    do {
+      final SearchResponse searchResponse = _esDAO.findByParams(systemMetaParams, searchAfter, FIND_PAGE_SIZE);
+      if (searchResponse == null) {
+        break;
+      }
+      final SearchHit[] hits = searchResponse.getHits().getHits();
+      Arrays.stream(hits).map(this::toAspectRowSummary).forEach(summaries::add);
+      searchAfter = hits.length == FIND_PAGE_SIZE ? hits[hits.length - 1].getSortValues() : null;
+    } while (searchAfter != null);
+    return summaries;
+  }
+
+  private AspectRowSummary toAspectRowSummary(SearchHit hit) {
+    Map<String, Object> values = hit.getSourceAsMap();
+    AspectRowSummary summary = new AspectRowSummary();
+    summary.setRunId((String) values.get(FIELD_RUNID));
+    summary.setAspectName((String) values.get(FIELD_ASPECT));
+    summary.setUrn((String) values.get(FIELD_URN));
+    Object timestamp = values.get(FIELD_LAST_UPDATED);
+    if (timestamp instanceof Long) {
+      summary.setTimestamp((Long) timestamp);
+    } else if (timestamp instanceof Integer) {
+      summary.setTimestamp(Long.valueOf((Integer) timestamp));
     }
+    summary.setKeyAspect(((String) values.get(FIELD_ASPECT)).endsWith("Key"));
+    return summary;
   }
 
   @Override
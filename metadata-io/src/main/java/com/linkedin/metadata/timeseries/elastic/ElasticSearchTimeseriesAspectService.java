@@ -6,6 +6,9 @@ import com.datahub.util.exception.ESQueryException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.ByteString;
 import com.linkedin.metadata.aspect.EnvelopedAspect;
@@ -17,6 +20,8 @@ import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
 import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
 import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectIndexBuilders;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.timeseries.elastic.query.AggregatedStatsCache;
 import com.linkedin.metadata.timeseries.elastic.query.ESAggregatedStatsDAO;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
@@ -29,14 +34,19 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
@@ -60,18 +70,44 @@ public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectSer
   private final IndexConvention _indexConvention;
   private final BulkProcessor _bulkProcessor;
   private final TimeseriesAspectIndexBuilders _indexBuilders;
+  private final TimeseriesIndexPartitioner _partitioner;
   private final RestHighLevelClient _searchClient;
   private final ESAggregatedStatsDAO _esAggregatedStatsDAO;
+  // The urn of each document queued in the bulk processor, until the request writing it is flushed.
+  private final Cache<DocWriteRequest<?>, String> _queuedUrns = CacheBuilder.newBuilder().weakKeys().build();
 
   public ElasticSearchTimeseriesAspectService(@Nonnull RestHighLevelClient searchClient,
       @Nonnull IndexConvention indexConvention, @Nonnull TimeseriesAspectIndexBuilders indexBuilders,
       @Nonnull EntityRegistry entityRegistry, @Nonnull BulkProcessor bulkProcessor) {
+    this(searchClient, indexConvention, indexBuilders, entityRegistry, bulkProcessor, AggregatedStatsCache.disabled());
+  }
+
+  public ElasticSearchTimeseriesAspectService(@Nonnull RestHighLevelClient searchClient,
+      @Nonnull IndexConvention indexConvention, @Nonnull TimeseriesAspectIndexBuilders indexBuilders,
+      @Nonnull EntityRegistry entityRegistry, @Nonnull BulkProcessor bulkProcessor,
+      @Nonnull AggregatedStatsCache aggregatedStatsCache) {
     _indexConvention = indexConvention;
     _indexBuilders = indexBuilders;
     _searchClient = searchClient;
     _bulkProcessor = bulkProcessor;
+    _partitioner = indexBuilders.getPartitioner();
 
-    _esAggregatedStatsDAO = new ESAggregatedStatsDAO(indexConvention, searchClient, entityRegistry);
+    _esAggregatedStatsDAO =
+        new ESAggregatedStatsDAO(indexConvention, searchClient, entityRegistry, _partitioner, aggregatedStatsCache);
+  }
+
+  /**
+   * Periodically deletes the partitions of the timeseries aspect indices which are older than the retention period, on
+   * a background thread. Does nothing if partitioning or retention is disabled.
+   */
+  public void startRetention(final long intervalSeconds) {
+    if (!_partitioner.hasRetention() || intervalSeconds <= 0) {
+      return;
+    }
+    Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("timeseries-retention-%d").setDaemon(true).build())
+        .scheduleWithFixedDelay(_indexBuilders::deleteExpiredPartitions, intervalSeconds, intervalSeconds,
+            TimeUnit.SECONDS);
   }
 
   private static EnvelopedAspect parseDocument(@Nonnull SearchHit doc) {
@@ -103,18 +139,39 @@ public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectSer
   @Override
   public void configure() {
     _indexBuilders.buildAll();
+    _indexBuilders.deleteExpiredPartitions();
   }
 
   @Override
   public void upsertDocument(@Nonnull String entityName, @Nonnull String aspectName, @Nonnull String docId,
       @Nonnull JsonNode document) {
-    String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    String indexName = _partitioner.getWriteIndexName(
+        _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName),
+        document.get(MappingsBuilder.TIMESTAMP_MILLIS_FIELD).asLong());
     final IndexRequest indexRequest =
         new IndexRequest(indexName).id(docId).source(document.toString(), XContentType.JSON);
     final UpdateRequest updateRequest = new UpdateRequest(indexName, docId).doc(document.toString(), XContentType.JSON)
         .detectNoop(false)
         .upsert(indexRequest);
+    final String urn = document.get(MappingsBuilder.URN_FIELD).asText();
+    _queuedUrns.put(updateRequest, urn);
     _bulkProcessor.add(updateRequest);
+    _esAggregatedStatsDAO.invalidate(urn);
+  }
+
+  /**
+   * Evicts the cached aggregations of the urns whose documents were written by the given bulk request, to be called by
+   * the listener of the bulk processor once the request completed, whether it succeeded or not. Aggregations computed
+   * before that, while the documents were queued, may have been cached in the meantime.
+   */
+  public void onBulkFlushed(@Nonnull BulkRequest request) {
+    for (DocWriteRequest<?> docWriteRequest : request.requests()) {
+      final String urn = _queuedUrns.getIfPresent(docWriteRequest);
+      if (urn != null) {
+        _queuedUrns.invalidate(docWriteRequest);
+        _esAggregatedStatsDAO.invalidate(urn);
+      }
+    }
   }
 
   @Override
@@ -152,7 +209,10 @@ public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectSer
     searchRequest.source(searchSourceBuilder);
 
     String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
-    searchRequest.indices(indexName);
+    searchRequest.indices(_partitioner.getSearchIndexNames(indexName, startTimeMillis, endTimeMillis));
+    if (_partitioner.isEnabled()) {
+      searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+    }
 
     log.debug("Search request is: " + searchRequest);
     SearchHits hits;
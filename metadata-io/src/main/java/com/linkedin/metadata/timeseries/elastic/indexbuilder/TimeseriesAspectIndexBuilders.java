@@ -7,25 +7,45 @@ import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
 import java.util.Collections;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 
 @Slf4j
-@RequiredArgsConstructor
 public class TimeseriesAspectIndexBuilders {
   private final ESIndexBuilder _indexBuilder;
   private final EntityRegistry _entityRegistry;
   private final IndexConvention _indexConvention;
+  @Getter
+  private final TimeseriesIndexPartitioner _partitioner;
+
+  public TimeseriesAspectIndexBuilders(@Nonnull ESIndexBuilder indexBuilder, @Nonnull EntityRegistry entityRegistry,
+      @Nonnull IndexConvention indexConvention) {
+    this(indexBuilder, entityRegistry, indexConvention, TimeseriesIndexPartitioner.disabled());
+  }
+
+  public TimeseriesAspectIndexBuilders(@Nonnull ESIndexBuilder indexBuilder, @Nonnull EntityRegistry entityRegistry,
+      @Nonnull IndexConvention indexConvention, @Nonnull TimeseriesIndexPartitioner partitioner) {
+    _indexBuilder = indexBuilder;
+    _entityRegistry = entityRegistry;
+    _indexConvention = indexConvention;
+    _partitioner = partitioner;
+  }
 
   public void buildAll() {
     for (EntitySpec entitySpec : _entityRegistry.getEntitySpecs().values()) {
       for (AspectSpec aspectSpec : entitySpec.getAspectSpecs()) {
         if (aspectSpec.isTimeseries()) {
           try {
-            _indexBuilder.buildIndex(
-                _indexConvention.getTimeseriesAspectIndexName(entitySpec.getName(), aspectSpec.getName()),
-                MappingsBuilder.getMappings(aspectSpec), Collections.emptyMap());
+            final String indexName =
+                _indexConvention.getTimeseriesAspectIndexName(entitySpec.getName(), aspectSpec.getName());
+            if (_partitioner.isEnabled()) {
+              buildPartitions(indexName, aspectSpec);
+            } else {
+              _indexBuilder.buildIndex(indexName, MappingsBuilder.getMappings(aspectSpec), Collections.emptyMap());
+            }
           } catch (IOException e) {
             log.error("Issue while building timeseries field index for entity {} aspect {}", entitySpec.getName(),
                 aspectSpec.getName());
@@ -35,4 +55,44 @@ public class TimeseriesAspectIndexBuilders {
       }
     }
   }
+
+  /**
+   * Deletes the partitions of every timeseries aspect index which are older than the retention period.
+   */
+  public void deleteExpiredPartitions() {
+    if (!_partitioner.hasRetention()) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    for (EntitySpec entitySpec : _entityRegistry.getEntitySpecs().values()) {
+      for (AspectSpec aspectSpec : entitySpec.getAspectSpecs()) {
+        if (aspectSpec.isTimeseries()) {
+          final String indexName =
+              _indexConvention.getTimeseriesAspectIndexName(entitySpec.getName(), aspectSpec.getName());
+          try {
+            for (Map.Entry<String, String> partition : _indexBuilder.getIndices(
+                _partitioner.getPartitionPattern(indexName)).entrySet()) {
+              if (_partitioner.isExpired(indexName, partition.getKey(), now)) {
+                _indexBuilder.deleteIndex(partition.getValue());
+              }
+            }
+          } catch (IOException e) {
+            log.error("Issue while deleting expired partitions of timeseries index {}", indexName, e);
+          }
+        }
+      }
+    }
+  }
+
+  private void buildPartitions(@Nonnull String indexName, @Nonnull AspectSpec aspectSpec) throws IOException {
+    final Map<String, Object> mappings = MappingsBuilder.getMappings(aspectSpec);
+    // Partitions are created on their first write, from the template. Existing ones are migrated like regular indices.
+    _indexBuilder.buildTemplate(indexName, _partitioner.getPartitionPattern(indexName), mappings,
+        Collections.emptyMap());
+    for (String partition : _indexBuilder.getIndices(_partitioner.getPartitionPattern(indexName)).keySet()) {
+      if (partition.startsWith(indexName + "_")) {
+        _indexBuilder.buildIndex(partition, mappings, Collections.emptyMap());
+      }
+    }
+  }
 }
@@ -0,0 +1,237 @@
+package com.linkedin.metadata.timeseries.elastic.indexbuilder;
+
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * Maps timeseries aspect documents to time-bucketed backing indices, and queries to the buckets overlapping their time
+ * range.
+ *
+ * <p>A partition of the timeseries aspect index 'base' is named 'base_yyyy_MM' (or 'base_yyyy_MM_dd' for daily
+ * partitions), based on the UTC timestampMillis of its documents. Since the docId of a timeseries document includes its
+ * timestamp, upserts of the same document always land in the same partition. The un-partitioned index 'base' is always
+ * included in the searched indices, so that documents written before partitioning was enabled remain visible.
+ */
+public class TimeseriesIndexPartitioner {
+
+  private static final String TIMESTAMP_FIELD = MappingsBuilder.TIMESTAMP_MILLIS_FIELD;
+
+  public enum Granularity {
+    NONE(null, null),
+    DAY("yyyy_MM_dd", ChronoUnit.DAYS),
+    MONTH("yyyy_MM", ChronoUnit.MONTHS);
+
+    private final DateTimeFormatter _formatter;
+    private final ChronoUnit _unit;
+
+    Granularity(@Nullable String pattern, @Nullable ChronoUnit unit) {
+      _formatter = pattern == null ? null : DateTimeFormatter.ofPattern(pattern).withZone(ZoneOffset.UTC);
+      _unit = unit;
+    }
+  }
+
+  private final Granularity _granularity;
+  private final long _retentionDays;
+  private final int _maxQueryPartitions;
+
+  /**
+   * @param granularity the size of each partition, or NONE to write every document into a single index.
+   * @param retentionDays the number of days after which a partition is deleted, or 0 to keep partitions forever.
+   * @param maxQueryPartitions the max number of partitions a query is routed to before it falls back to all of them.
+   */
+  public TimeseriesIndexPartitioner(@Nonnull Granularity granularity, long retentionDays, int maxQueryPartitions) {
+    _granularity = granularity;
+    _retentionDays = retentionDays;
+    _maxQueryPartitions = maxQueryPartitions;
+  }
+
+  public static TimeseriesIndexPartitioner disabled() {
+    return new TimeseriesIndexPartitioner(Granularity.NONE, 0, 0);
+  }
+
+  public boolean isEnabled() {
+    return _granularity != Granularity.NONE;
+  }
+
+  public boolean hasRetention() {
+    return isEnabled() && _retentionDays > 0;
+  }
+
+  /**
+   * Returns the pattern matching every partition of the given timeseries aspect index.
+   */
+  @Nonnull
+  public String getPartitionPattern(@Nonnull String baseIndexName) {
+    return baseIndexName + "_*";
+  }
+
+  /**
+   * Returns the index a document with the given timestamp should be written into.
+   */
+  @Nonnull
+  public String getWriteIndexName(@Nonnull String baseIndexName, long timestampMillis) {
+    if (!isEnabled()) {
+      return baseIndexName;
+    }
+    return getPartitionName(baseIndexName, truncate(timestampMillis));
+  }
+
+  /**
+   * Returns the indices to search for documents within the given time range. Either bound may be absent.
+   *
+   * <p>Partitions which do not exist are expected to be ignored by the search request, e.g. via lenient indices options.
+   */
+  @Nonnull
+  public String[] getSearchIndexNames(@Nonnull String baseIndexName, @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    if (!isEnabled()) {
+      return new String[]{baseIndexName};
+    }
+    if (startTimeMillis == null || endTimeMillis == null || startTimeMillis > endTimeMillis) {
+      return new String[]{baseIndexName, getPartitionPattern(baseIndexName)};
+    }
+    final List<String> indexNames = new ArrayList<>();
+    indexNames.add(baseIndexName);
+    final LocalDate end = truncate(endTimeMillis);
+    for (LocalDate partition = truncate(startTimeMillis); !partition.isAfter(end);
+        partition = partition.plus(1, _granularity._unit)) {
+      if (indexNames.size() > _maxQueryPartitions) {
+        return new String[]{baseIndexName, getPartitionPattern(baseIndexName)};
+      }
+      indexNames.add(getPartitionName(baseIndexName, partition));
+    }
+    return indexNames.toArray(new String[0]);
+  }
+
+  /**
+   * Returns the indices to search for documents matching the given filter, pruning partitions outside of the time range
+   * set on timestampMillis by every clause of the filter.
+   */
+  @Nonnull
+  public String[] getSearchIndexNames(@Nonnull String baseIndexName, @Nullable Filter filter) {
+    if (!isEnabled()) {
+      return new String[]{baseIndexName};
+    }
+    final TimeRange timeRange = getTimeRange(filter);
+    return getSearchIndexNames(baseIndexName, timeRange.getStartTimeMillis(), timeRange.getEndTimeMillis());
+  }
+
+  /**
+   * Returns whether the given partition of the given timeseries aspect index only holds documents older than the
+   * retention period. Indices which are not partitions of the base index are never expired.
+   */
+  public boolean isExpired(@Nonnull String baseIndexName, @Nonnull String partitionName, long nowMillis) {
+    if (!hasRetention()) {
+      return false;
+    }
+    return parsePartition(baseIndexName, partitionName).map(partition -> {
+      final long partitionEndMillis =
+          partition.plus(1, _granularity._unit).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+      return partitionEndMillis <= nowMillis - ChronoUnit.DAYS.getDuration().toMillis() * _retentionDays;
+    }).orElse(false);
+  }
+
+  @Nonnull
+  private Optional<LocalDate> parsePartition(@Nonnull String baseIndexName, @Nonnull String partitionName) {
+    final String prefix = baseIndexName + "_";
+    if (!partitionName.startsWith(prefix)) {
+      return Optional.empty();
+    }
+    final String suffix = partitionName.substring(prefix.length());
+    try {
+      if (_granularity == Granularity.MONTH) {
+        return Optional.of(LocalDate.parse(suffix + "_01", Granularity.DAY._formatter));
+      }
+      return Optional.of(LocalDate.parse(suffix, _granularity._formatter));
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Nonnull
+  private String getPartitionName(@Nonnull String baseIndexName, @Nonnull LocalDate partition) {
+    return baseIndexName + "_" + _granularity._formatter.format(partition);
+  }
+
+  @Nonnull
+  private LocalDate truncate(long timestampMillis) {
+    final LocalDate date = Instant.ofEpochMilli(timestampMillis).atZone(ZoneOffset.UTC).toLocalDate();
+    return _granularity == Granularity.MONTH ? date.withDayOfMonth(1) : date;
+  }
+
+  /**
+   * Extracts the widest timestampMillis range covered by the given filter. A bound is only set when every clause of
+   * the filter sets it.
+   */
+  @Nonnull
+  public static TimeRange getTimeRange(@Nullable Filter filter) {
+    if (filter == null) {
+      return new TimeRange(null, null);
+    }
+    if (filter.getOr() != null && !filter.getOr().isEmpty()) {
+      Long start = Long.MAX_VALUE;
+      Long end = Long.MIN_VALUE;
+      for (ConjunctiveCriterion conjunction : filter.getOr()) {
+        final TimeRange clauseRange = getTimeRange(conjunction.getAnd());
+        start = start == null || clauseRange.getStartTimeMillis() == null ? null
+            : Math.min(start, clauseRange.getStartTimeMillis());
+        end = end == null || clauseRange.getEndTimeMillis() == null ? null
+            : Math.max(end, clauseRange.getEndTimeMillis());
+      }
+      return new TimeRange(start, end);
+    }
+    if (filter.getCriteria() != null) {
+      return getTimeRange(filter.getCriteria());
+    }
+    return new TimeRange(null, null);
+  }
+
+  @Nonnull
+  private static TimeRange getTimeRange(@Nonnull CriterionArray criteria) {
+    Long start = null;
+    Long end = null;
+    for (Criterion criterion : criteria) {
+      if (!TIMESTAMP_FIELD.equals(criterion.getField())) {
+        continue;
+      }
+      final long value;
+      try {
+        value = Long.parseLong(criterion.getValue().trim());
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      final Condition condition = criterion.getCondition();
+      if (condition == Condition.GREATER_THAN || condition == Condition.GREATER_THAN_OR_EQUAL_TO
+          || condition == Condition.EQUAL) {
+        start = start == null ? value : Math.max(start, value);
+      }
+      if (condition == Condition.LESS_THAN || condition == Condition.LESS_THAN_OR_EQUAL_TO
+          || condition == Condition.EQUAL) {
+        end = end == null ? value : Math.min(end, value);
+      }
+    }
+    return new TimeRange(start, end);
+  }
+
+  @Value
+  public static class TimeRange {
+    Long startTimeMillis;
+    Long endTimeMillis;
+  }
+}
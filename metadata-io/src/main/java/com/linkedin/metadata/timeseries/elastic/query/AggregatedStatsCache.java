@@ -0,0 +1,257 @@
+package com.linkedin.metadata.timeseries.elastic.query;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.timeseries.AggregationSpec;
+import com.linkedin.timeseries.GenericTable;
+import com.linkedin.timeseries.GroupingBucket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * A bounded cache of {@link ESAggregatedStatsDAO#getAggregatedStats} results, keyed by the normalized aggregation
+ * request.
+ *
+ * <p>Results of windows ending in the past ("historical") are kept for the historical TTL, while results of windows
+ * touching now ("recent") are kept for the much shorter recent TTL. The timestamp bounds of recent windows are rounded
+ * down to the recent TTL in the cache key only, so that the sliding windows of repeated requests (e.g. "last 30 days")
+ * share the same cache entry, which is computed over the exact window of the request which loaded it, at the price of
+ * a window shifted by at most the recent TTL.
+ *
+ * <p>Results filtered on a urn are evicted when a timeseries document written for that urn by this process is flushed,
+ * and are not cached until the write is visible to searches. Documents written by other processes, e.g. a standalone
+ * MAE consumer, do not evict anything: their results are only refreshed when they expire, so the TTLs bound how stale
+ * they may be.
+ */
+public class AggregatedStatsCache {
+
+  private static final String URN_FIELD = MappingsBuilder.URN_FIELD;
+  private static final String TIMESTAMP_FIELD = MappingsBuilder.TIMESTAMP_MILLIS_FIELD;
+  // How long flushed documents may take to be visible to searches: the default index refresh interval, with margin.
+  private static final long INDEX_REFRESH_MILLIS = 2000;
+
+  private final Cache<String, CachedTable> _cache;
+  private final Map<String, Set<String>> _keysByUrn = new ConcurrentHashMap<>();
+  private final AtomicLong _invalidations = new AtomicLong();
+  // The urns written recently enough for the write not to be visible to searches yet, whose results are not cached.
+  private final Cache<String, Boolean> _recentlyWrittenUrns;
+  private final long _recentTtlMillis;
+  private final long _historicalTtlMillis;
+  private final boolean _enabled;
+
+  /**
+   * @param maxSize the max number of cached results, or 0 to disable caching.
+   * @param recentTtlSeconds how long results of windows touching now are cached.
+   * @param historicalTtlSeconds how long results of windows ending in the past are cached.
+   */
+  public AggregatedStatsCache(long maxSize, long recentTtlSeconds, long historicalTtlSeconds) {
+    _enabled = maxSize > 0;
+    _recentTtlMillis = Math.max(TimeUnit.SECONDS.toMillis(recentTtlSeconds), 1);
+    _historicalTtlMillis = TimeUnit.SECONDS.toMillis(historicalTtlSeconds);
+    _cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Math.max(_recentTtlMillis, _historicalTtlMillis), TimeUnit.MILLISECONDS)
+        .<String, CachedTable>removalListener(notification -> {
+          // Replaced entries are re-indexed under the same key by the put replacing them.
+          if (notification.getCause() != RemovalCause.REPLACED) {
+            unindex(notification.getKey(), notification.getValue());
+          }
+        })
+        .build();
+    _recentlyWrittenUrns =
+        CacheBuilder.newBuilder().expireAfterWrite(INDEX_REFRESH_MILLIS, TimeUnit.MILLISECONDS).build();
+  }
+
+  public static AggregatedStatsCache disabled() {
+    return new AggregatedStatsCache(0, 0, 0);
+  }
+
+  @Value
+  private static class CachedTable {
+    GenericTable table;
+    List<String> urns;
+    long expiresAtMillis;
+  }
+
+  /**
+   * Returns the cached result of the given aggregation request, or computes it through the given loader.
+   */
+  @Nonnull
+  public GenericTable get(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter, @Nullable GroupingBucket[] groupingBuckets,
+      @Nonnull Supplier<GenericTable> loader) {
+    if (!_enabled) {
+      return loader.get();
+    }
+    final long now = System.currentTimeMillis();
+    final Long endTimeMillis = TimeseriesIndexPartitioner.getTimeRange(filter).getEndTimeMillis();
+    final boolean recent = endTimeMillis == null || endTimeMillis > now - _recentTtlMillis;
+    final String key =
+        toKey(entityName, aspectName, aggregationSpecs, recent ? roundTimestamps(filter) : filter, groupingBuckets);
+
+    final CachedTable cached = _cache.getIfPresent(key);
+    if (cached != null && cached.getExpiresAtMillis() > now) {
+      MetricUtils.counter(this.getClass(), "hit").inc();
+      return cached.getTable();
+    }
+    MetricUtils.counter(this.getClass(), "miss").inc();
+
+    final long invalidations = _invalidations.get();
+    final GenericTable table = loader.get();
+    final List<String> urns = getUrns(filter);
+    // Skip caching results which may predate a write which happened while they were being computed, or which is not
+    // visible to searches yet.
+    if (_invalidations.get() == invalidations && urns.stream()
+        .noneMatch(urn -> _recentlyWrittenUrns.getIfPresent(urn) != null)) {
+      urns.forEach(urn -> _keysByUrn.computeIfAbsent(urn, u -> ConcurrentHashMap.newKeySet()).add(key));
+      _cache.put(key, new CachedTable(table, urns, now + (recent ? _recentTtlMillis : _historicalTtlMillis)));
+    }
+    return table;
+  }
+
+  /**
+   * Evicts the cached results filtered on the given urn, after timeseries documents were written for it, and stops
+   * caching its results until the documents are visible to searches.
+   */
+  public void invalidate(@Nonnull String urn) {
+    if (!_enabled) {
+      return;
+    }
+    _recentlyWrittenUrns.put(urn, true);
+    _invalidations.incrementAndGet();
+    final Set<String> keys = _keysByUrn.remove(urn);
+    if (keys != null) {
+      MetricUtils.counter(this.getClass(), "invalidated").inc(keys.size());
+      _cache.invalidateAll(keys);
+    }
+  }
+
+  public long size() {
+    return _cache.size();
+  }
+
+  private void unindex(@Nullable String key, @Nullable CachedTable cachedTable) {
+    if (key == null || cachedTable == null) {
+      return;
+    }
+    for (String urn : cachedTable.getUrns()) {
+      _keysByUrn.computeIfPresent(urn, (u, keys) -> {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+      });
+    }
+  }
+
+  /**
+   * Rounds the bounds set on timestampMillis down to a multiple of the recent TTL, to key the cache with.
+   */
+  @Nullable
+  private Filter roundTimestamps(@Nullable Filter filter) {
+    if (filter == null) {
+      return null;
+    }
+    final Filter rounded = new Filter();
+    if (filter.hasOr()) {
+      rounded.setOr(new ConjunctiveCriterionArray(filter.getOr()
+          .stream()
+          .map(conjunction -> new ConjunctiveCriterion().setAnd(roundTimestamps(conjunction.getAnd())))
+          .collect(Collectors.toList())));
+    }
+    if (filter.hasCriteria()) {
+      rounded.setCriteria(roundTimestamps(filter.getCriteria()));
+    }
+    return rounded;
+  }
+
+  @Nonnull
+  private CriterionArray roundTimestamps(@Nonnull CriterionArray criteria) {
+    return new CriterionArray(criteria.stream()
+        .map(criterion -> new Criterion().setField(criterion.getField())
+            .setCondition(criterion.getCondition())
+            .setValue(TIMESTAMP_FIELD.equals(criterion.getField()) ? roundTimestamp(criterion.getValue())
+                : criterion.getValue()))
+        .collect(Collectors.toList()));
+  }
+
+  @Nonnull
+  private String roundTimestamp(@Nonnull String timestamp) {
+    try {
+      final long value = Long.parseLong(timestamp.trim());
+      return String.valueOf(value - Math.floorMod(value, _recentTtlMillis));
+    } catch (NumberFormatException e) {
+      return timestamp;
+    }
+  }
+
+  /**
+   * Returns the conjunctive clauses of the filter, the same way {@code ESUtils.buildFilterQuery} reads them.
+   */
+  @Nonnull
+  private static Stream<CriterionArray> getClauses(@Nullable Filter filter) {
+    if (filter == null) {
+      return Stream.empty();
+    }
+    if (filter.hasOr()) {
+      return filter.getOr().stream().map(ConjunctiveCriterion::getAnd);
+    }
+    return filter.hasCriteria() ? Stream.of(filter.getCriteria()) : Stream.empty();
+  }
+
+  /**
+   * Returns the urns the filter matches on.
+   */
+  @Nonnull
+  private static List<String> getUrns(@Nullable Filter filter) {
+    return getClauses(filter).flatMap(criteria -> criteria.stream()
+        .filter(criterion -> URN_FIELD.equals(criterion.getField()) && criterion.getCondition() == Condition.EQUAL)
+        .map(Criterion::getValue)).distinct().collect(Collectors.toList());
+  }
+
+  /**
+   * Builds a key identifying the aggregation request regardless of the order of criteria within the filter.
+   */
+  @Nonnull
+  private static String toKey(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter,
+      @Nullable GroupingBucket[] groupingBuckets) {
+    final StringBuilder key = new StringBuilder(entityName).append('|').append(aspectName).append('|');
+    key.append(Arrays.stream(aggregationSpecs)
+        .map(spec -> spec.getAggregationType() + ":" + spec.getFieldPath())
+        .collect(Collectors.joining(",")));
+    key.append('|');
+    if (groupingBuckets != null) {
+      key.append(Arrays.stream(groupingBuckets)
+          .map(bucket -> bucket.getType() + ":" + bucket.getKey() + (bucket.hasTimeWindowSize() ? ":"
+              + bucket.getTimeWindowSize().getMultiple() + bucket.getTimeWindowSize().getUnit() : ""))
+          .collect(Collectors.joining(",")));
+    }
+    key.append('|');
+    key.append(getClauses(filter).map(criteria -> criteria.stream()
+        .map(criterion -> criterion.getField() + ":" + criterion.getCondition() + ":" + criterion.getValue())
+        .sorted()
+        .collect(Collectors.joining("&", "(", ")"))).sorted().collect(Collectors.joining("|")));
+    return key.toString();
+  }
+}
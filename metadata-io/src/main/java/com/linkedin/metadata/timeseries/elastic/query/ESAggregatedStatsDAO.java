@@ -12,6 +12,7 @@ import com.linkedin.metadata.models.TimeseriesFieldSpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.search.utils.ESUtils;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.timeseries.AggregationSpec;
 import com.linkedin.timeseries.GenericTable;
@@ -30,6 +31,7 @@ import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.index.query.BoolQueryBuilder;
@@ -63,12 +65,23 @@ public class ESAggregatedStatsDAO {
   private final IndexConvention _indexConvention;
   private final RestHighLevelClient _searchClient;
   private final EntityRegistry _entityRegistry;
+  private final TimeseriesIndexPartitioner _partitioner;
+  private final AggregatedStatsCache _cache;
 
   public ESAggregatedStatsDAO(@Nonnull IndexConvention indexConvention, @Nonnull RestHighLevelClient searchClient,
       @Nonnull EntityRegistry entityRegistry) {
+    this(indexConvention, searchClient, entityRegistry, TimeseriesIndexPartitioner.disabled(),
+        AggregatedStatsCache.disabled());
+  }
+
+  public ESAggregatedStatsDAO(@Nonnull IndexConvention indexConvention, @Nonnull RestHighLevelClient searchClient,
+      @Nonnull EntityRegistry entityRegistry, @Nonnull TimeseriesIndexPartitioner partitioner,
+      @Nonnull AggregatedStatsCache cache) {
     _indexConvention = indexConvention;
     _searchClient = searchClient;
     _entityRegistry = entityRegistry;
+    _partitioner = partitioner;
+    _cache = cache;
   }
 
   private static String toEsAggName(final String aggName) {
@@ -326,6 +339,21 @@ public class ESAggregatedStatsDAO {
   public GenericTable getAggregatedStats(@Nonnull String entityName, @Nonnull String aspectName,
       @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter,
       @Nullable GroupingBucket[] groupingBuckets) {
+    return _cache.get(entityName, aspectName, aggregationSpecs, filter, groupingBuckets,
+        () -> computeAggregatedStats(entityName, aspectName, aggregationSpecs, filter, groupingBuckets));
+  }
+
+  /**
+   * Evicts the cached aggregated metrics of the given urn, after new timeseries documents were written for it.
+   */
+  public void invalidate(@Nonnull String urn) {
+    _cache.invalidate(urn);
+  }
+
+  @Nonnull
+  private GenericTable computeAggregatedStats(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter,
+      @Nullable GroupingBucket[] groupingBuckets) {
 
     // Setup the filter query builder using the input filter provided.
     final BoolQueryBuilder filterQueryBuilder = ESUtils.buildFilterQuery(filter);
@@ -349,7 +377,11 @@ public class ESAggregatedStatsDAO {
     searchRequest.source(searchSourceBuilder);
 
     final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
-    searchRequest.indices(indexName);
+    // Only the partitions overlapping the timestampMillis range of the filter are searched, if partitioned.
+    searchRequest.indices(_partitioner.getSearchIndexNames(indexName, filter));
+    if (_partitioner.isEnabled()) {
+      searchRequest.indicesOptions(IndicesOptions.lenientExpandOpen());
+    }
 
     log.debug("Search request is: " + searchRequest);
 
@@ -0,0 +1,446 @@
+package com.linkedin.metadata.timeseries.rollup;
+
+import com.codahale.metrics.Timer;
+import com.datahub.util.RecordUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.linkedin.common.WindowDuration;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.dataset.DatasetUsageStatistics;
+import com.linkedin.metadata.aspect.EnvelopedAspect;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.usage.UsageQueryResult;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.action.update.UpdateResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.elasticsearch.index.reindex.DeleteByQueryRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.fetch.subphase.FetchSourceContext;
+import org.elasticsearch.search.sort.SortOrder;
+
+
+/**
+ * Stores the usage of each dataset pre-aggregated into day, week and month {@link UsageRollupBucket} documents.
+ *
+ * <p>Each event is added to the three buckets it falls in with a scripted partial update, so that concurrent updates
+ * are serialized by elasticsearch rather than by a read-modify-write. Re-emitted events replace their previous
+ * contribution: day buckets keep the users and fields contributed by each of their events, bounded by the number of
+ * events of a day, and return the replaced contribution so that it is subtracted from the week and month buckets.
+ *
+ * <p>The usage of a dataset is seeded from its raw datasetUsageStatistics documents the first time it is updated, so
+ * that it also covers the usage ingested before rollups were enabled. Buckets whose events are all older than the max
+ * age are deleted periodically.
+ */
+@Slf4j
+public class ElasticSearchUsageRollupService implements UsageRollupService {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  public static final String INDEX_NAME = "usage_rollup_v1";
+  // Durations of the buckets maintained. Queries of other durations are not served.
+  static final List<WindowDuration> DURATIONS =
+      ImmutableList.of(WindowDuration.DAY, WindowDuration.WEEK, WindowDuration.MONTH);
+  private static final List<String> METRICS = ImmutableList.of("uniqueUserCount", "totalSqlQueries", "topSqlQueries");
+  private static final String FIELD_URN = "urn";
+  private static final String FIELD_DURATION = "duration";
+  private static final String FIELD_BUCKET = "bucket";
+  private static final String FIELD_MAX_TIMESTAMP = "maxTimestampMillis";
+  private static final String FIELD_COVERED_SINCE = "coveredSinceMillis";
+  private static final String FIELD_EVENTS = "events";
+  private static final String FIELD_REPLACED = "replaced";
+  private static final String ENTITY_NAME = "dataset";
+  private static final String ASPECT_NAME = "datasetUsageStatistics";
+  private static final int RETRY_ON_CONFLICT = 5;
+  private static final int SEED_BATCH_SIZE = 500;
+  private static final int MAX_QUERY_BUCKETS = 1000;
+  private static final long EXPIRY_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+  static final int MAX_SEED_EVENTS = 10000;
+
+  // Adds an event to a bucket, first subtracting the contribution it replaces, which day buckets look up by the key of
+  // the event while week and month buckets are given. Users and fields are only removed once nothing is left of them,
+  // so that the subtraction of a contribution applied before its addition still cancels out.
+  private static final String UPDATE_SCRIPT = "def s = ctx._source; def c = params.contribution;"
+      + "def previous = params.previous;"
+      + "if (params.key != null) {"
+      + "  previous = s." + FIELD_EVENTS + "[params.key];"
+      + "  s." + FIELD_REPLACED + " = previous;"
+      + "  s." + FIELD_EVENTS + "[params.key] = ['users': c.users, 'fields': c.fields];"
+      + "}"
+      + "for (def counts : ['users', 'fields']) {"
+      + "  if (previous != null) {"
+      + "    for (def e : previous[counts].entrySet()) {"
+      + "      def count = s[counts][e.getKey()];"
+      + "      if (count == null) { count = ['count': 0, 'events': 0]; s[counts][e.getKey()] = count; }"
+      + "      count.count -= e.getValue(); count.events -= 1;"
+      + "    }"
+      + "  }"
+      + "  for (def e : c[counts].entrySet()) {"
+      + "    def count = s[counts][e.getKey()];"
+      + "    if (count == null) { count = ['count': 0, 'events': 0]; s[counts][e.getKey()] = count; }"
+      + "    count.count += e.getValue(); count.events += 1;"
+      + "  }"
+      + "  if (previous != null) {"
+      + "    for (def key : previous[counts].keySet()) {"
+      + "      def count = s[counts][key];"
+      + "      if (count != null && count.count == 0 && count.events == 0) { s[counts].remove(key); }"
+      + "    }"
+      + "  }"
+      + "}"
+      + "for (def e : c.emails.entrySet()) {"
+      + "  def count = s.users[e.getKey()];"
+      + "  if (count.emailTimestampMillis == null || c.timestampMillis >= count.emailTimestampMillis) {"
+      + "    count.email = e.getValue(); count.emailTimestampMillis = c.timestampMillis;"
+      + "  }"
+      + "}"
+      + "for (def metric : params.metrics) {"
+      + "  if (c[metric] != null && (s[metric] == null || c.timestampMillis >= s[metric].timestampMillis)) {"
+      + "    s[metric] = ['timestampMillis': c.timestampMillis, 'value': c[metric]];"
+      + "  }"
+      + "}"
+      + "if (s.minTimestampMillis == null || c.timestampMillis < s.minTimestampMillis) {"
+      + "  s.minTimestampMillis = c.timestampMillis;"
+      + "}"
+      + "if (s." + FIELD_MAX_TIMESTAMP + " == null || c.timestampMillis > s." + FIELD_MAX_TIMESTAMP + ") {"
+      + "  s." + FIELD_MAX_TIMESTAMP + " = c.timestampMillis;"
+      + "}"
+      + "if (c.truncated) { s.truncated = true; }";
+
+  private final RestHighLevelClient _searchClient;
+  private final IndexConvention _indexConvention;
+  private final ESIndexBuilder _indexBuilder;
+  private final TimeseriesAspectService _timeseriesAspectService;
+  private final boolean _enabled;
+  private final long _maxAgeMillis;
+  private final int _maxUsers;
+  private final int _maxFields;
+  private final AtomicLong _lastExpiryMillis = new AtomicLong();
+  int _maxSeedEvents = MAX_SEED_EVENTS;
+
+  /**
+   * @param enabled whether rollups are maintained & queried.
+   * @param maxAgeDays the number of days of usage kept in the rollups.
+   * @param maxUsers the max number of users kept per usage event. Queries over events exceeding it are not served.
+   * @param maxFields the max number of fields kept per usage event. Queries over events exceeding it are not served.
+   */
+  public ElasticSearchUsageRollupService(@Nonnull RestHighLevelClient searchClient,
+      @Nonnull IndexConvention indexConvention, @Nonnull ESIndexBuilder indexBuilder,
+      @Nonnull TimeseriesAspectService timeseriesAspectService, boolean enabled, int maxAgeDays, int maxUsers,
+      int maxFields) {
+    _searchClient = searchClient;
+    _indexConvention = indexConvention;
+    _indexBuilder = indexBuilder;
+    _timeseriesAspectService = timeseriesAspectService;
+    _enabled = enabled;
+    _maxAgeMillis = TimeUnit.DAYS.toMillis(maxAgeDays);
+    _maxUsers = maxUsers;
+    _maxFields = maxFields;
+  }
+
+  @Override
+  public void configure() {
+    if (!_enabled) {
+      return;
+    }
+    log.info("Setting up usage rollup index");
+    final Map<String, Object> properties = new HashMap<>();
+    for (String field : ImmutableList.of(FIELD_URN, FIELD_DURATION)) {
+      properties.put(field, ImmutableMap.of("type", "keyword"));
+    }
+    for (String field : ImmutableList.of(FIELD_BUCKET, "minTimestampMillis", FIELD_MAX_TIMESTAMP,
+        FIELD_COVERED_SINCE)) {
+      properties.put(field, ImmutableMap.of("type", "long"));
+    }
+    properties.put("truncated", ImmutableMap.of("type", "boolean"));
+    // Only read back from the source
+    for (String field : ImmutableList.<String>builder().addAll(METRICS)
+        .add("users", "fields", FIELD_EVENTS, FIELD_REPLACED)
+        .build()) {
+      properties.put(field, ImmutableMap.of("type", "object", "enabled", false));
+    }
+    final Map<String, Object> mappings = ImmutableMap.of("properties", properties);
+    try {
+      _indexBuilder.buildIndex(getIndexName(), mappings, Collections.emptyMap());
+    } catch (IOException e) {
+      throw new RuntimeException("Could not configure usage rollup index", e);
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return _enabled;
+  }
+
+  @Override
+  public void update(@Nonnull Urn urn, @Nonnull DatasetUsageStatistics usageStatistics) {
+    if (!_enabled) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    if (usageStatistics.getTimestampMillis() < now - _maxAgeMillis) {
+      return;
+    }
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "update").time()) {
+      if (!getCoveredSince(urn).isPresent()) {
+        seed(urn, now);
+      }
+      apply(urn, Collections.singletonList(usageStatistics));
+    } catch (IOException | ElasticsearchException e) {
+      log.error("Failed to update the usage rollup of {}", urn, e);
+    }
+    expireIfDue(now);
+  }
+
+  @Nonnull
+  @Override
+  public Optional<UsageQueryResult> query(@Nonnull Urn urn, @Nonnull WindowDuration duration,
+      @Nullable Long startTime, @Nullable Long endTime, @Nullable Integer maxBuckets) {
+    if (!_enabled) {
+      return Optional.empty();
+    }
+    Optional<UsageQueryResult> result = Optional.empty();
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "query").time()) {
+      if (startTime != null && DURATIONS.contains(duration)) {
+        final Optional<Long> coveredSince = getCoveredSince(urn);
+        if (coveredSince.isPresent()
+            && startTime >= Math.max(coveredSince.get(), System.currentTimeMillis() - _maxAgeMillis)) {
+          final Optional<List<UsageRollupBucket>> buckets = getBuckets(urn, duration, startTime, endTime);
+          if (buckets.isPresent()) {
+            result = UsageRollup.query(urn, duration, startTime, endTime, maxBuckets, buckets.get());
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to read the usage rollup of {}", urn, e);
+    }
+    MetricUtils.counter(this.getClass(), result.isPresent() ? "queryHit" : "queryMiss").inc();
+    return result;
+  }
+
+  /**
+   * Adds the given events to their day buckets, then to their week and month buckets along with the contributions
+   * they replaced in the day buckets.
+   *
+   * @return whether all the events were added.
+   */
+  private boolean apply(@Nonnull Urn urn, @Nonnull List<DatasetUsageStatistics> events) throws IOException {
+    final List<UsageRollup.Contribution> contributions = new ArrayList<>(events.size());
+    final BulkRequest dayRequest = new BulkRequest();
+    for (DatasetUsageStatistics event : events) {
+      final UsageRollup.Contribution contribution = UsageRollup.toContribution(event, _maxUsers, _maxFields);
+      contributions.add(contribution);
+      dayRequest.add(buildUpdateRequest(urn, WindowDuration.DAY, contribution, UsageRollup.getKey(event), null)
+          .fetchSource(new FetchSourceContext(true, new String[]{FIELD_REPLACED}, null)));
+    }
+    final BulkResponse dayResponse = _searchClient.bulk(dayRequest, RequestOptions.DEFAULT);
+
+    final BulkRequest rollupRequest = new BulkRequest();
+    for (int i = 0; i < contributions.size(); i++) {
+      final BulkItemResponse item = dayResponse.getItems()[i];
+      if (item.isFailed()) {
+        continue;
+      }
+      final Object replaced =
+          ((UpdateResponse) item.getResponse()).getGetResult().sourceAsMap().get(FIELD_REPLACED);
+      for (WindowDuration duration : DURATIONS.subList(1, DURATIONS.size())) {
+        rollupRequest.add(buildUpdateRequest(urn, duration, contributions.get(i), null, replaced));
+      }
+    }
+    final BulkResponse rollupResponse =
+        rollupRequest.numberOfActions() > 0 ? _searchClient.bulk(rollupRequest, RequestOptions.DEFAULT) : null;
+
+    if (dayResponse.hasFailures() || (rollupResponse != null && rollupResponse.hasFailures())) {
+      log.error("Failed to update the usage rollup of {}: {}", urn,
+          dayResponse.hasFailures() ? dayResponse.buildFailureMessage() : rollupResponse.buildFailureMessage());
+      MetricUtils.counter(this.getClass(), "updateFailure").inc();
+      return false;
+    }
+    return true;
+  }
+
+  @Nonnull
+  private UpdateRequest buildUpdateRequest(@Nonnull Urn urn, @Nonnull WindowDuration duration,
+      @Nonnull UsageRollup.Contribution contribution, @Nullable String key, @Nullable Object previous) {
+    final long bucket = UsageRollup.truncate(contribution.getTimestampMillis(), duration).toInstant().toEpochMilli();
+    final Map<String, Object> params = new HashMap<>();
+    params.put("contribution", OBJECT_MAPPER.convertValue(contribution, Map.class));
+    params.put("key", key);
+    params.put("previous", previous);
+    params.put("metrics", METRICS);
+
+    final Map<String, Object> document = new HashMap<>();
+    document.put(FIELD_URN, urn.toString());
+    document.put(FIELD_DURATION, duration.name());
+    document.put(FIELD_BUCKET, bucket);
+    document.put("users", Collections.emptyMap());
+    document.put("fields", Collections.emptyMap());
+    document.put("truncated", false);
+    if (key != null) {
+      document.put(FIELD_EVENTS, Collections.emptyMap());
+    }
+    return new UpdateRequest(getIndexName(), toBucketDocId(urn, duration, bucket))
+        .script(new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, UPDATE_SCRIPT, params))
+        .scriptedUpsert(true)
+        .upsert(document)
+        .retryOnConflict(RETRY_ON_CONFLICT);
+  }
+
+  /**
+   * Adds the raw usage documents within the max age to the buckets of a dataset, then records that its usage is
+   * covered. Events already added are replaced, so that concurrent seeds do not count them twice.
+   *
+   * <p>At most {@link #MAX_SEED_EVENTS} documents are fetched, the latest ones. When there are more, the rollups only
+   * cover the range after the oldest fetched event, as other events may share its timestamp, so that queries over
+   * older usage fall back to the raw documents.
+   */
+  private void seed(@Nonnull Urn urn, long now) throws IOException {
+    long coveredSinceMillis = now - _maxAgeMillis;
+    final List<EnvelopedAspect> aspects = _timeseriesAspectService.getAspectValues(urn, ENTITY_NAME, ASPECT_NAME,
+        coveredSinceMillis, null, _maxSeedEvents, false, null);
+    final List<DatasetUsageStatistics> events = new ArrayList<>(aspects.size());
+    long oldestTimestampMillis = Long.MAX_VALUE;
+    for (EnvelopedAspect aspect : aspects) {
+      final DatasetUsageStatistics usageStatistics = RecordUtils.toRecordTemplate(DatasetUsageStatistics.class,
+          aspect.getAspect().getValue().asString(StandardCharsets.UTF_8));
+      oldestTimestampMillis = Math.min(oldestTimestampMillis, usageStatistics.getTimestampMillis());
+      events.add(usageStatistics);
+    }
+    for (List<DatasetUsageStatistics> batch : Lists.partition(events, SEED_BATCH_SIZE)) {
+      if (!apply(urn, batch)) {
+        return;
+      }
+    }
+    if (aspects.size() >= _maxSeedEvents) {
+      log.warn("More than {} usage events to seed the usage rollup of {} from, only covering usage after {}",
+          _maxSeedEvents, urn, oldestTimestampMillis);
+      coveredSinceMillis = oldestTimestampMillis + 1;
+      MetricUtils.counter(this.getClass(), "seedTruncated").inc();
+    }
+    try {
+      _searchClient.index(new IndexRequest(getIndexName()).id(toCoverageDocId(urn))
+          .source(ImmutableMap.of(FIELD_URN, urn.toString(), FIELD_COVERED_SINCE, coveredSinceMillis))
+          .opType(DocWriteRequest.OpType.CREATE), RequestOptions.DEFAULT);
+    } catch (ElasticsearchException e) {
+      // Seeded concurrently
+      if (e.status() != RestStatus.CONFLICT) {
+        throw e;
+      }
+    }
+    MetricUtils.counter(this.getClass(), "seeded").inc();
+  }
+
+  /**
+   * Returns since when the usage of a dataset is covered by its buckets, or empty if it has not been seeded yet.
+   */
+  @Nonnull
+  private Optional<Long> getCoveredSince(@Nonnull Urn urn) throws IOException {
+    final GetResponse response =
+        _searchClient.get(new GetRequest(getIndexName(), toCoverageDocId(urn)), RequestOptions.DEFAULT);
+    return response.isExists()
+        ? Optional.of(((Number) response.getSourceAsMap().get(FIELD_COVERED_SINCE)).longValue()) : Optional.empty();
+  }
+
+  /**
+   * Returns the buckets of the given duration overlapping the range, or empty if there are too many of them.
+   */
+  @Nonnull
+  private Optional<List<UsageRollupBucket>> getBuckets(@Nonnull Urn urn, @Nonnull WindowDuration duration,
+      long startTime, @Nullable Long endTime) throws IOException {
+    final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(QueryBuilders.boolQuery()
+        .filter(QueryBuilders.termQuery(FIELD_URN, urn.toString()))
+        .filter(QueryBuilders.termQuery(FIELD_DURATION, duration.name()))
+        .filter(QueryBuilders.rangeQuery(FIELD_BUCKET)
+            .gte(UsageRollup.truncate(startTime, duration).toInstant().toEpochMilli())
+            .lte(endTime)))
+        .fetchSource(null, new String[]{FIELD_EVENTS, FIELD_REPLACED})
+        .sort(FIELD_BUCKET, SortOrder.ASC)
+        .size(MAX_QUERY_BUCKETS)
+        .trackTotalHits(true);
+    final SearchResponse response =
+        _searchClient.search(new SearchRequest(getIndexName()).source(searchSourceBuilder), RequestOptions.DEFAULT);
+    if (response.getHits().getTotalHits().value > MAX_QUERY_BUCKETS) {
+      return Optional.empty();
+    }
+    final List<UsageRollupBucket> buckets = new ArrayList<>();
+    for (SearchHit hit : response.getHits().getHits()) {
+      buckets.add(OBJECT_MAPPER.readValue(hit.getSourceAsString(), UsageRollupBucket.class));
+    }
+    return Optional.of(buckets);
+  }
+
+  /**
+   * Deletes the buckets whose events are all older than the max age, at most once per {@link #EXPIRY_INTERVAL_MILLIS}.
+   * Events older than the max age are no longer added, so that a bucket still receiving newer events is re-created
+   * with those only, which queries within the max age never tell apart.
+   */
+  private void expireIfDue(long now) {
+    final long lastExpiryMillis = _lastExpiryMillis.get();
+    if (now - lastExpiryMillis < EXPIRY_INTERVAL_MILLIS || !_lastExpiryMillis.compareAndSet(lastExpiryMillis, now)) {
+      return;
+    }
+    final DeleteByQueryRequest request = new DeleteByQueryRequest(getIndexName());
+    request.setQuery(QueryBuilders.rangeQuery(FIELD_MAX_TIMESTAMP).lt(now - _maxAgeMillis));
+    request.setConflicts("proceed");
+    _searchClient.deleteByQueryAsync(request, RequestOptions.DEFAULT, new ActionListener<BulkByScrollResponse>() {
+      @Override
+      public void onResponse(BulkByScrollResponse response) {
+        log.info("Deleted {} expired usage rollup buckets", response.getDeleted());
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        log.error("Failed to delete expired usage rollup buckets", e);
+      }
+    });
+  }
+
+  @Nonnull
+  private String getIndexName() {
+    return _indexConvention.getIndexName(INDEX_NAME);
+  }
+
+  @Nonnull
+  private static String toCoverageDocId(@Nonnull Urn urn) {
+    return DigestUtils.md5Hex(urn.toString());
+  }
+
+  @Nonnull
+  private static String toBucketDocId(@Nonnull Urn urn, @Nonnull WindowDuration duration, long bucket) {
+    return DigestUtils.md5Hex(urn.toString() + "|" + duration + "|" + bucket);
+  }
+}
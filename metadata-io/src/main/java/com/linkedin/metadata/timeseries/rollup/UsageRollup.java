@@ -0,0 +1,300 @@
+package com.linkedin.metadata.timeseries.rollup;
+
+import com.linkedin.common.WindowDuration;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.dataset.DatasetFieldUsageCounts;
+import com.linkedin.dataset.DatasetUsageStatistics;
+import com.linkedin.dataset.DatasetUserUsageCounts;
+import com.linkedin.timeseries.TimeWindowSize;
+import com.linkedin.usage.FieldUsageCounts;
+import com.linkedin.usage.FieldUsageCountsArray;
+import com.linkedin.usage.UsageAggregation;
+import com.linkedin.usage.UsageAggregationArray;
+import com.linkedin.usage.UsageAggregationMetrics;
+import com.linkedin.usage.UsageQueryResult;
+import com.linkedin.usage.UsageQueryResultAggregations;
+import com.linkedin.usage.UserUsageCounts;
+import com.linkedin.usage.UserUsageCountsArray;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Reduces {@link DatasetUsageStatistics} events to the values read by usage queries, and answers usage queries from
+ * {@link UsageRollupBucket}s, reproducing the semantics of the timeseries aggregations: the latest value of each metric
+ * per calendar bucket, and the sum of the counts of each user and field over the range.
+ */
+public class UsageRollup {
+
+  // Max number of terms returned by the timeseries aggregations the rollup stands in for.
+  private static final int MAX_TERM_BUCKETS = 24 * 60;
+
+  private UsageRollup() {
+  }
+
+  /**
+   * The usage reported by a single event, as added to the buckets it falls in.
+   */
+  @Data
+  @NoArgsConstructor
+  public static class Contribution {
+    private long timestampMillis;
+    private Integer uniqueUserCount;
+    private Integer totalSqlQueries;
+    private List<String> topSqlQueries;
+    private Map<String, Integer> users = new HashMap<>();
+    private Map<String, String> emails = new HashMap<>();
+    private Map<String, Integer> fields = new HashMap<>();
+    // Whether users or fields were dropped from this event to bound the size of the rollup.
+    private boolean truncated;
+  }
+
+  /**
+   * Reduces the given event to its contribution, keeping at most maxUsers users and maxFields fields, the ones with
+   * the highest counts.
+   */
+  @Nonnull
+  public static Contribution toContribution(@Nonnull DatasetUsageStatistics usage, int maxUsers, int maxFields) {
+    final Contribution contribution = new Contribution();
+    contribution.setTimestampMillis(usage.getTimestampMillis());
+    contribution.setUniqueUserCount(usage.getUniqueUserCount());
+    contribution.setTotalSqlQueries(usage.getTotalSqlQueries());
+    if (usage.hasTopSqlQueries()) {
+      contribution.setTopSqlQueries(new ArrayList<>(usage.getTopSqlQueries()));
+    }
+    if (usage.hasUserCounts()) {
+      for (DatasetUserUsageCounts userCounts : usage.getUserCounts()) {
+        contribution.getUsers().put(userCounts.getUser().toString(), userCounts.getCount());
+        if (userCounts.getUserEmail() != null) {
+          contribution.getEmails().put(userCounts.getUser().toString(), userCounts.getUserEmail());
+        }
+      }
+    }
+    if (usage.hasFieldCounts()) {
+      for (DatasetFieldUsageCounts fieldCounts : usage.getFieldCounts()) {
+        contribution.getFields().put(fieldCounts.getFieldPath(), fieldCounts.getCount());
+      }
+    }
+    if (contribution.getUsers().size() > maxUsers || contribution.getFields().size() > maxFields) {
+      contribution.setUsers(top(contribution.getUsers(), maxUsers));
+      contribution.getEmails().keySet().retainAll(contribution.getUsers().keySet());
+      contribution.setFields(top(contribution.getFields(), maxFields));
+      contribution.setTruncated(true);
+    }
+    return contribution;
+  }
+
+  /**
+   * Returns the key of the given event, the same as the one of its timeseries documents (timestamp, granularity &
+   * message id), so that re-emitted events replace their previous contribution.
+   */
+  @Nonnull
+  public static String getKey(@Nonnull DatasetUsageStatistics usage) {
+    final StringBuilder key = new StringBuilder().append(usage.getTimestampMillis());
+    if (usage.hasEventGranularity()) {
+      final TimeWindowSize granularity = usage.getEventGranularity();
+      key.append('-').append(granularity.getMultiple()).append(granularity.getUnit());
+    }
+    if (usage.hasMessageId()) {
+      key.append('-').append(usage.getMessageId());
+    }
+    return key.toString();
+  }
+
+  /**
+   * Answers a usage query from the buckets of the given duration overlapping its range, or returns empty when it
+   * cannot be answered exactly, i.e. when the range starts or ends between the events of a bucket, or includes
+   * truncated events. Only the latest maxBuckets buckets are returned, if set, while the aggregations cover the whole
+   * range.
+   */
+  @Nonnull
+  public static Optional<UsageQueryResult> query(@Nonnull Urn resource, @Nonnull WindowDuration duration,
+      long startTime, @Nullable Long endTime, @Nullable Integer maxBuckets,
+      @Nonnull List<UsageRollupBucket> rollupBuckets) {
+    final List<UsageRollupBucket> inRange = new ArrayList<>();
+    for (UsageRollupBucket bucket : rollupBuckets) {
+      if (bucket.getMinTimestampMillis() == null || bucket.getMaxTimestampMillis() < startTime || (endTime != null
+          && bucket.getMinTimestampMillis() > endTime)) {
+        continue;
+      }
+      if (bucket.getMinTimestampMillis() < startTime || (endTime != null && bucket.getMaxTimestampMillis() > endTime)
+          || bucket.isTruncated()) {
+        return Optional.empty();
+      }
+      inRange.add(bucket);
+    }
+    inRange.sort(Comparator.comparingLong(UsageRollupBucket::getBucket));
+
+    final Map<String, Long> userCounts = new TreeMap<>();
+    final Map<String, UsageRollupBucket.UserCount> userEmails = new HashMap<>();
+    final Map<String, Long> fieldCounts = new TreeMap<>();
+    for (UsageRollupBucket bucket : inRange) {
+      bucket.getUsers().forEach((user, count) -> {
+        // Users without events are left over by replaced events
+        if (count.getEvents() <= 0) {
+          return;
+        }
+        userCounts.merge(user, count.getCount(), Long::sum);
+        final UsageRollupBucket.UserCount latest = userEmails.get(user);
+        if (count.getEmail() != null && (latest == null
+            || count.getEmailTimestampMillis() >= latest.getEmailTimestampMillis())) {
+          userEmails.put(user, count);
+        }
+      });
+      bucket.getFields().forEach((field, count) -> {
+        if (count.getEvents() > 0) {
+          fieldCounts.merge(field, count.getCount(), Long::sum);
+        }
+      });
+    }
+    if (userCounts.size() > MAX_TERM_BUCKETS || fieldCounts.size() > MAX_TERM_BUCKETS) {
+      return Optional.empty();
+    }
+
+    final UsageAggregationArray buckets = getBuckets(inRange, resource, duration);
+    final UsageQueryResultAggregations aggregations = new UsageQueryResultAggregations();
+    final UserUsageCountsArray users = new UserUsageCountsArray();
+    userCounts.forEach((user, count) -> {
+      final UserUsageCounts userUsageCounts =
+          new UserUsageCounts().setUser(UrnUtils.getUrn(user)).setCount(count.intValue());
+      if (userEmails.containsKey(user)) {
+        userUsageCounts.setUserEmail(userEmails.get(user).getEmail());
+      }
+      users.add(userUsageCounts);
+    });
+    aggregations.setUsers(users);
+    aggregations.setUniqueUserCount(users.size());
+    final FieldUsageCountsArray fields = new FieldUsageCountsArray();
+    fieldCounts.forEach(
+        (field, count) -> fields.add(new FieldUsageCounts().setFieldName(field).setCount(count.intValue())));
+    aggregations.setFields(fields);
+    Integer totalQueryCount = null;
+    for (UsageAggregation bucket : buckets) {
+      if (bucket.getMetrics().getTotalSqlQueries() != null) {
+        totalQueryCount = (totalQueryCount == null ? 0 : totalQueryCount) + bucket.getMetrics().getTotalSqlQueries();
+      }
+    }
+    if (totalQueryCount != null) {
+      aggregations.setTotalSqlQueries(totalQueryCount);
+    }
+    return Optional.of(
+        new UsageQueryResult().setBuckets(latestBuckets(buckets, maxBuckets)).setAggregations(aggregations));
+  }
+
+  /**
+   * Keeps the latest maxBuckets of the given buckets, sorted by time, or all of them if maxBuckets is not set.
+   */
+  @Nonnull
+  public static UsageAggregationArray latestBuckets(@Nonnull UsageAggregationArray buckets,
+      @Nullable Integer maxBuckets) {
+    if (maxBuckets == null || buckets.size() <= maxBuckets) {
+      return buckets;
+    }
+    return new UsageAggregationArray(buckets.subList(buckets.size() - Math.max(maxBuckets, 0), buckets.size()));
+  }
+
+  /**
+   * Builds one bucket per calendar window between the first and last rollup bucket, holding the latest value of each
+   * metric within the window, like a date histogram does.
+   */
+  @Nonnull
+  private static UsageAggregationArray getBuckets(@Nonnull List<UsageRollupBucket> sortedBuckets,
+      @Nonnull Urn resource, @Nonnull WindowDuration duration) {
+    final UsageAggregationArray buckets = new UsageAggregationArray();
+    if (sortedBuckets.isEmpty()) {
+      return buckets;
+    }
+    final Map<Long, UsageAggregationMetrics> metricsByBucket = new HashMap<>();
+    for (UsageRollupBucket bucket : sortedBuckets) {
+      final UsageAggregationMetrics metrics = new UsageAggregationMetrics();
+      if (bucket.getUniqueUserCount() != null) {
+        metrics.setUniqueUserCount(bucket.getUniqueUserCount().getValue());
+      }
+      if (bucket.getTotalSqlQueries() != null) {
+        metrics.setTotalSqlQueries(bucket.getTotalSqlQueries().getValue());
+      }
+      if (bucket.getTopSqlQueries() != null) {
+        metrics.setTopSqlQueries(new StringArray(bucket.getTopSqlQueries().getValue()));
+      }
+      metricsByBucket.put(bucket.getBucket(), metrics);
+    }
+    final ZonedDateTime last = truncate(sortedBuckets.get(sortedBuckets.size() - 1).getBucket(), duration);
+    for (ZonedDateTime bucket = truncate(sortedBuckets.get(0).getBucket(), duration); !bucket.isAfter(last);
+        bucket = next(bucket, duration)) {
+      final long bucketMillis = bucket.toInstant().toEpochMilli();
+      buckets.add(new UsageAggregation().setBucket(bucketMillis)
+          .setDuration(duration)
+          .setResource(resource)
+          .setMetrics(metricsByBucket.getOrDefault(bucketMillis, new UsageAggregationMetrics())));
+    }
+    return buckets;
+  }
+
+  /**
+   * Returns the start of the calendar bucket of the given duration the timestamp falls in, in UTC. Weeks start on
+   * Monday, like in elasticsearch date histograms.
+   */
+  @Nonnull
+  static ZonedDateTime truncate(long timestampMillis, @Nonnull WindowDuration duration) {
+    final ZonedDateTime time = Instant.ofEpochMilli(timestampMillis).atZone(ZoneOffset.UTC);
+    switch (duration) {
+      case HOUR:
+        return time.truncatedTo(ChronoUnit.HOURS);
+      case DAY:
+        return time.truncatedTo(ChronoUnit.DAYS);
+      case WEEK:
+        return time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH:
+        return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+      case YEAR:
+        return time.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+      default:
+        throw new IllegalArgumentException("Unsupported duration value" + duration);
+    }
+  }
+
+  @Nonnull
+  private static ZonedDateTime next(@Nonnull ZonedDateTime bucket, @Nonnull WindowDuration duration) {
+    switch (duration) {
+      case HOUR:
+        return bucket.plusHours(1);
+      case DAY:
+        return bucket.plusDays(1);
+      case WEEK:
+        return bucket.plusWeeks(1);
+      case MONTH:
+        return bucket.plusMonths(1);
+      case YEAR:
+        return bucket.plusYears(1);
+      default:
+        throw new IllegalArgumentException("Unsupported duration value" + duration);
+    }
+  }
+
+  @Nonnull
+  private static Map<String, Integer> top(@Nonnull Map<String, Integer> counts, int limit) {
+    return counts.entrySet()
+        .stream()
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+        .limit(limit)
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+}
@@ -0,0 +1,60 @@
+package com.linkedin.metadata.timeseries.rollup;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * The pre-aggregated usage of a dataset within one calendar bucket (day, week or month), i.e. a usage rollup document.
+ *
+ * <p>Users and fields hold the sum of their counts over the events of the bucket, along with the number of events
+ * they appear in, and metrics their latest value. Buckets are updated by {@link ElasticSearchUsageRollupService} with
+ * a scripted partial update, and only read back here.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UsageRollupBucket {
+
+  private long bucket;
+  private Long minTimestampMillis;
+  private Long maxTimestampMillis;
+  // Whether users or fields were dropped from an event of the bucket to bound the size of the rollup.
+  private boolean truncated;
+  private Latest<Integer> uniqueUserCount;
+  private Latest<Integer> totalSqlQueries;
+  private Latest<List<String>> topSqlQueries;
+  private Map<String, UserCount> users = new HashMap<>();
+  private Map<String, FieldCount> fields = new HashMap<>();
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Latest<T> {
+    private long timestampMillis;
+    private T value;
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class UserCount {
+    private long count;
+    private int events;
+    private String email;
+    private Long emailTimestampMillis;
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class FieldCount {
+    private long count;
+    private int events;
+  }
+}
@@ -0,0 +1,36 @@
+package com.linkedin.metadata.timeseries.rollup;
+
+import com.linkedin.common.WindowDuration;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.dataset.DatasetUsageStatistics;
+import com.linkedin.usage.UsageQueryResult;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Maintains pre-aggregated {@link UsageRollupBucket}s of the datasetUsageStatistics timeseries aspect, which answer
+ * the common usage queries without aggregating the raw timeseries documents with a {@link TimeseriesUsageAggregator}.
+ */
+public interface UsageRollupService {
+
+  void configure();
+
+  boolean isEnabled();
+
+  /**
+   * Adds a datasetUsageStatistics event to the buckets of the given dataset.
+   */
+  void update(@Nonnull Urn urn, @Nonnull DatasetUsageStatistics usageStatistics);
+
+  /**
+   * Answers a usage query from the buckets of the given dataset, or returns empty if they cannot answer it, in
+   * which case the raw timeseries documents should be aggregated instead.
+   *
+   * @param maxBuckets the max number of buckets returned, the latest ones, or null for all of them.
+   */
+  @Nonnull
+  Optional<UsageQueryResult> query(@Nonnull Urn urn, @Nonnull WindowDuration duration, @Nullable Long startTime,
+      @Nullable Long endTime, @Nullable Integer maxBuckets);
+}
@@ -0,0 +1,109 @@
+package com.linkedin.metadata.entity;
+
+import com.linkedin.common.GlobalTags;
+import com.linkedin.common.Owner;
+import com.linkedin.common.OwnerArray;
+import com.linkedin.common.Ownership;
+import com.linkedin.common.OwnershipType;
+import com.linkedin.common.TagAssociation;
+import com.linkedin.common.TagAssociationArray;
+import com.linkedin.common.urn.TagUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
+import com.linkedin.mxe.AspectPatch;
+import com.linkedin.schema.EditableSchemaFieldInfo;
+import com.linkedin.schema.EditableSchemaMetadata;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static com.linkedin.metadata.utils.AspectPatchBuilder.*;
+
+
+public class AspectPatchUtilsTest {
+
+  @Test
+  public void testAddCreatesMissingArray() throws Exception {
+    AspectPatch patch = new AspectPatchBuilder()
+        .add(path("tags"), new TagAssociation().setTag(TagUrn.createFromString("urn:li:tag:pii")))
+        .build();
+
+    GlobalTags result = AspectPatchUtils.applyPatch(null, patch, GlobalTags.class);
+
+    Assert.assertEquals(result.getTags().size(), 1);
+    Assert.assertEquals(result.getTags().get(0).getTag().toString(), "urn:li:tag:pii");
+  }
+
+  @Test
+  public void testAddSkipsExistingElement() throws Exception {
+    GlobalTags tags = new GlobalTags().setTags(new TagAssociationArray(
+        new TagAssociation().setTag(TagUrn.createFromString("urn:li:tag:pii"))));
+    AspectPatch patch = new AspectPatchBuilder()
+        .add(path("tags"), new TagAssociation().setTag(TagUrn.createFromString("urn:li:tag:pii")))
+        .add(path("tags"), new TagAssociation().setTag(TagUrn.createFromString("urn:li:tag:gold")))
+        .build();
+
+    GlobalTags result = AspectPatchUtils.applyPatch(tags, patch, GlobalTags.class);
+
+    Assert.assertEquals(result.getTags().size(), 2);
+    // The patched value is a copy
+    Assert.assertEquals(tags.getTags().size(), 1);
+  }
+
+  @Test
+  public void testRemoveByKeyFields() throws Exception {
+    Urn owner = Urn.createFromString("urn:li:corpuser:datahub");
+    Ownership ownership = new Ownership().setOwners(new OwnerArray(
+        new Owner().setOwner(owner).setType(OwnershipType.DATAOWNER),
+        new Owner().setOwner(Urn.createFromString("urn:li:corpuser:other")).setType(OwnershipType.DATAOWNER)));
+    AspectPatch patch = new AspectPatchBuilder()
+        .remove(path("owners"), new Owner().setOwner(owner), "owner")
+        .build();
+
+    Ownership result = AspectPatchUtils.applyPatch(ownership, patch, Ownership.class);
+
+    Assert.assertEquals(result.getOwners().size(), 1);
+    Assert.assertEquals(result.getOwners().get(0).getOwner().toString(), "urn:li:corpuser:other");
+  }
+
+  @Test
+  public void testSetCreatesSelectedElement() {
+    AspectPatch patch = new AspectPatchBuilder()
+        .set(path("editableSchemaFieldInfo", selector("fieldPath", "a/b"), "description"), "first")
+        .set(path("editableSchemaFieldInfo", selector("fieldPath", "a/b"), "description"), "second")
+        .build();
+
+    EditableSchemaMetadata result = AspectPatchUtils.applyPatch(null, patch, EditableSchemaMetadata.class);
+
+    Assert.assertEquals(result.getEditableSchemaFieldInfo().size(), 1);
+    EditableSchemaFieldInfo fieldInfo = result.getEditableSchemaFieldInfo().get(0);
+    Assert.assertEquals(fieldInfo.getFieldPath(), "a/b");
+    Assert.assertEquals(fieldInfo.getDescription(), "second");
+  }
+
+  @Test
+  public void testUnset() {
+    EditableSchemaMetadata metadata = AspectPatchUtils.applyPatch(null, new AspectPatchBuilder()
+        .set(path("editableSchemaFieldInfo", selector("fieldPath", "id"), "description"), "description")
+        .build(), EditableSchemaMetadata.class);
+    AspectPatch patch = new AspectPatchBuilder()
+        .unset(path("editableSchemaFieldInfo", selector("fieldPath", "id"), "description"))
+        .build();
+
+    EditableSchemaMetadata result = AspectPatchUtils.applyPatch(metadata, patch, EditableSchemaMetadata.class);
+
+    Assert.assertFalse(result.getEditableSchemaFieldInfo().get(0).hasDescription());
+  }
+
+  @Test
+  public void testInvalidPatchThrows() throws Exception {
+    AspectPatch invalidPath = new AspectPatchBuilder()
+        .add("tags", new TagAssociation().setTag(TagUrn.createFromString("urn:li:tag:pii")))
+        .build();
+    Assert.assertThrows(ValidationException.class,
+        () -> AspectPatchUtils.applyPatch(null, invalidPath, GlobalTags.class));
+
+    AspectPatch invalidValue = new AspectPatchBuilder().set(path("tags"), "pii").build();
+    Assert.assertThrows(ValidationException.class,
+        () -> AspectPatchUtils.applyPatch(null, invalidValue, GlobalTags.class));
+  }
+}
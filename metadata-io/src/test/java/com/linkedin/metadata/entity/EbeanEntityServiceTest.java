@@ -5,8 +5,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.AuditStamp;
+import com.linkedin.common.GlobalTags;
 import com.linkedin.common.Status;
+import com.linkedin.common.TagAssociation;
 import com.linkedin.common.urn.CorpuserUrn;
+import com.linkedin.common.urn.TagUrn;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.template.DataTemplateUtil;
@@ -37,10 +40,16 @@ import com.linkedin.metadata.models.registry.EntityRegistryException;
 import com.linkedin.metadata.models.registry.MergedEntityRegistry;
 import com.linkedin.metadata.query.ListUrnsResult;
 import com.linkedin.metadata.run.AspectRowSummary;
+import com.linkedin.metadata.search.ScrollResult;
+import com.linkedin.metadata.search.SearchEntity;
+import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.snapshot.CorpUserSnapshot;
 import com.linkedin.metadata.snapshot.Snapshot;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
 import com.linkedin.metadata.utils.EntityKeyUtils;
+import com.linkedin.metadata.utils.GenericAspectUtils;
 import com.linkedin.metadata.utils.PegasusUtils;
+import com.linkedin.mxe.AspectPatch;
 import com.linkedin.mxe.GenericAspect;
 import com.linkedin.mxe.MetadataAuditOperation;
 import com.linkedin.mxe.MetadataChangeLog;
@@ -68,7 +77,14 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static com.linkedin.metadata.utils.AspectPatchBuilder.path;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -78,6 +94,7 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 
 
@@ -103,7 +120,8 @@ public class EbeanEntityServiceTest {
     DataSourceConfig dataSourceConfig = new DataSourceConfig();
     dataSourceConfig.setUsername("tester");
     dataSourceConfig.setPassword("");
-    dataSourceConfig.setUrl("jdbc:h2:mem:;IGNORECASE=TRUE;");
+    // Named, so that concurrent transactions share the database
+    dataSourceConfig.setUrl(String.format("jdbc:h2:mem:%s;IGNORECASE=TRUE;", UUID.randomUUID()));
     dataSourceConfig.setDriver("org.h2.Driver");
 
     ServerConfig serverConfig = new ServerConfig();
@@ -563,6 +581,28 @@ public class EbeanEntityServiceTest {
     verifyNoMoreInteractions(_mockProducer);
   }
 
+  @Test
+  public void testChangeListenerNotifiedOnChangeOnly() throws Exception {
+    Urn entityUrn = Urn.createFromString("urn:li:corpuser:test");
+    List<Urn> changedUrns = new ArrayList<>();
+    _entityService.addChangeListener(changedUrns::add);
+
+    CorpUserInfo writeAspect = createCorpUserInfo("email@test.com");
+    String aspectName = PegasusUtils.getAspectNameFromSchema(writeAspect.schema());
+
+    _entityService.ingestAspect(entityUrn, aspectName, writeAspect, TEST_AUDIT_STAMP, null);
+    assertEquals(changedUrns, Collections.singletonList(entityUrn));
+
+    // Same value: nothing is committed, so listeners are not notified.
+    _entityService.ingestAspect(entityUrn, aspectName, createCorpUserInfo("email@test.com"), TEST_AUDIT_STAMP,
+        null);
+    assertEquals(changedUrns, Collections.singletonList(entityUrn));
+
+    _entityService.ingestAspect(entityUrn, aspectName, createCorpUserInfo("other@test.com"), TEST_AUDIT_STAMP,
+        null);
+    assertEquals(changedUrns, Arrays.asList(entityUrn, entityUrn));
+  }
+
   @Test
   public void testIngestListLatestAspects() throws Exception {
     Urn entityUrn1 = Urn.createFromString("urn:li:corpuser:test1");
@@ -897,6 +937,68 @@ public class EbeanEntityServiceTest {
     assertEquals(entityUrn3.toString(), batch2.getEntities().get(0).toString());
   }
 
+  @Test
+  public void testIngestScrollUrns() throws Exception {
+    SystemMetadata metadata1 = new SystemMetadata();
+    metadata1.setLastObserved(1625792689);
+    metadata1.setRunId("run-123");
+
+    String aspectName = PegasusUtils.getAspectNameFromSchema(new CorpUserKey().schema());
+
+    List<Urn> entityUrns = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      Urn entityUrn = Urn.createFromString("urn:li:corpuser:test" + i);
+      _entityService.ingestAspect(entityUrn, aspectName, createCorpUserKey(entityUrn), TEST_AUDIT_STAMP, metadata1);
+      entityUrns.add(entityUrn);
+    }
+
+    ScrollResult page1 = _entityService.scrollUrns("corpuser", null, 2);
+    assertEquals(page1.getPageSize().intValue(), 2);
+    assertEquals(getUrns(page1), entityUrns.subList(0, 2));
+    assertNotNull(page1.getScrollId());
+    // The scroll id is encoded as the scroll id of a search, not the raw last urn
+    assertEquals(ESUtils.decodeScrollId(page1.getScrollId()), new Object[]{entityUrns.get(1).toString()});
+
+    ScrollResult page2 = _entityService.scrollUrns("corpuser", page1.getScrollId(), 2);
+    assertEquals(getUrns(page2), entityUrns.subList(2, 4));
+    assertNotNull(page2.getScrollId());
+
+    ScrollResult page3 = _entityService.scrollUrns("corpuser", page2.getScrollId(), 2);
+    assertEquals(getUrns(page3), entityUrns.subList(4, 5));
+    assertNull(page3.getScrollId());
+  }
+
+  @Test
+  public void testScrollUrnsEndingOnFullPage() throws Exception {
+    SystemMetadata metadata1 = new SystemMetadata();
+    metadata1.setLastObserved(1625792689);
+    metadata1.setRunId("run-123");
+
+    String aspectName = PegasusUtils.getAspectNameFromSchema(new CorpUserKey().schema());
+
+    Urn entityUrn1 = Urn.createFromString("urn:li:corpuser:test1");
+    Urn entityUrn2 = Urn.createFromString("urn:li:corpuser:test2");
+    _entityService.ingestAspect(entityUrn1, aspectName, createCorpUserKey(entityUrn1), TEST_AUDIT_STAMP, metadata1);
+    _entityService.ingestAspect(entityUrn2, aspectName, createCorpUserKey(entityUrn2), TEST_AUDIT_STAMP, metadata1);
+
+    ScrollResult page1 = _entityService.scrollUrns("corpuser", null, 2);
+    assertEquals(getUrns(page1), ImmutableList.of(entityUrn1, entityUrn2));
+    assertNotNull(page1.getScrollId());
+
+    // A full last page can not tell there is nothing after it, so the next one is empty
+    ScrollResult page2 = _entityService.scrollUrns("corpuser", page1.getScrollId(), 2);
+    assertTrue(page2.getEntities().isEmpty());
+    assertNull(page2.getScrollId());
+  }
+
+  @Test
+  public void testScrollUrnsRejectsInvalidScrollId() {
+    assertThrows(IllegalArgumentException.class,
+        () -> _entityService.scrollUrns("corpuser", "urn:li:corpuser:test1", 2));
+    assertThrows(IllegalArgumentException.class,
+        () -> _entityService.scrollUrns("corpuser", ESUtils.encodeScrollId(new Object[]{1L, "a"}), 2));
+  }
+
   @Test
   public void testRetention() throws Exception {
     Urn entityUrn = Urn.createFromString("urn:li:corpuser:test1");
@@ -952,6 +1054,111 @@ public class EbeanEntityServiceTest {
     assertEquals(_entityService.listLatestAspects(entityUrn.getEntityType(), aspectName2, 0, 10).getTotalCount(), 1);
   }
 
+  @Test
+  public void testIngestPatch() throws Exception {
+    Urn entityUrn = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:foo,bar,PROD)");
+    AspectSpec globalTagsSpec = _testEntityRegistry.getEntitySpec("dataset").getAspectSpec("globalTags");
+
+    _entityService.ingestProposal(createPatchProposal(entityUrn, "globalTags",
+        new AspectPatchBuilder().add(path("tags"), createTag("pii")).build()), TEST_AUDIT_STAMP);
+    VersionedAspect readAspect1 = _entityService.getVersionedAspect(entityUrn, "globalTags", 0);
+    assertEquals(getTagNames(readAspect1.getAspect().getGlobalTags()), ImmutableList.of("pii"));
+    assertEquals(_entityService.getAspectVersion(entityUrn, "globalTags"), 1L);
+
+    // Patches apply to the latest value
+    _entityService.ingestProposal(createPatchProposal(entityUrn, "globalTags",
+        new AspectPatchBuilder().add(path("tags"), createTag("gold")).expectedVersion(1).build()), TEST_AUDIT_STAMP);
+    VersionedAspect readAspect2 = _entityService.getVersionedAspect(entityUrn, "globalTags", 0);
+    assertEquals(getTagNames(readAspect2.getAspect().getGlobalTags()), ImmutableList.of("pii", "gold"));
+    assertEquals(_entityService.getAspectVersion(entityUrn, "globalTags"), 2L);
+    assertEquals(getTagNames((GlobalTags) _entityService.getAspect(entityUrn, "globalTags", 1)),
+        ImmutableList.of("pii"));
+    // Reads do not come with the version of the aspect, which is read on its own when needed
+    assertFalse(readAspect2.hasAspectVersion());
+
+    // Consumers receive the patched values as upserts
+    ArgumentCaptor<MetadataChangeLog> mclCaptor = ArgumentCaptor.forClass(MetadataChangeLog.class);
+    verify(_mockProducer, times(2)).produceMetadataChangeLog(Mockito.eq(entityUrn), Mockito.eq(globalTagsSpec),
+        mclCaptor.capture());
+    MetadataChangeLog mcl = mclCaptor.getValue();
+    assertEquals(mcl.getChangeType(), ChangeType.UPSERT);
+    assertEquals(getTagNames(GenericAspectUtils.deserializeAspect(mcl.getAspect().getValue(),
+        mcl.getAspect().getContentType(), GlobalTags.class)), ImmutableList.of("pii", "gold"));
+  }
+
+  @Test
+  public void testIngestPatchVersionMismatch() throws Exception {
+    Urn entityUrn = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:foo,bar,PROD)");
+
+    assertThrows(PreconditionFailedException.class, () -> _entityService.ingestProposal(
+        createPatchProposal(entityUrn, "globalTags",
+            new AspectPatchBuilder().add(path("tags"), createTag("pii")).expectedVersion(1).build()),
+        TEST_AUDIT_STAMP));
+    assertNull(_entityService.getLatestAspect(entityUrn, "globalTags"));
+
+    // A missing aspect is at version 0
+    _entityService.ingestProposal(createPatchProposal(entityUrn, "globalTags",
+        new AspectPatchBuilder().add(path("tags"), createTag("pii")).expectedVersion(0).build()), TEST_AUDIT_STAMP);
+    assertThrows(PreconditionFailedException.class, () -> _entityService.ingestProposal(
+        createPatchProposal(entityUrn, "globalTags",
+            new AspectPatchBuilder().add(path("tags"), createTag("gold")).expectedVersion(0).build()),
+        TEST_AUDIT_STAMP));
+    assertEquals(getTagNames((GlobalTags) _entityService.getLatestAspect(entityUrn, "globalTags")),
+        ImmutableList.of("pii"));
+    assertEquals(_entityService.getAspectVersion(entityUrn, "globalTags"), 1L);
+  }
+
+  @Test
+  public void testConcurrentPatches() throws Exception {
+    // The generated schema has no primary key, which concurrent writes of an aspect rely on
+    _server.createSqlUpdate("alter table metadata_aspect_v2 add constraint pk_metadata_aspect_v2 "
+        + "primary key (urn, aspect, version)").execute();
+    Urn entityUrn = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:foo,bar,PROD)");
+    // Every conflicting transaction follows a committed one, so each patch is retried at most once per other patch
+    List<String> tagNames = ImmutableList.of("a", "b", "c", "d");
+
+    ExecutorService executor = Executors.newFixedThreadPool(tagNames.size());
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> patches = new ArrayList<>();
+    for (String tagName : tagNames) {
+      AspectPatch patch = new AspectPatchBuilder().add(path("tags"), createTag(tagName)).build();
+      patches.add(executor.submit(() -> {
+        start.await();
+        return _entityService.ingestProposal(createPatchProposal(entityUrn, "globalTags", patch), TEST_AUDIT_STAMP);
+      }));
+    }
+    start.countDown();
+    for (Future<?> patch : patches) {
+      patch.get();
+    }
+    executor.shutdown();
+
+    GlobalTags globalTags = (GlobalTags) _entityService.getLatestAspect(entityUrn, "globalTags");
+    assertEquals(new HashSet<>(getTagNames(globalTags)), new HashSet<>(tagNames));
+    assertEquals(_entityService.getAspectVersion(entityUrn, "globalTags"), (long) tagNames.size());
+  }
+
+  @Nonnull
+  private static MetadataChangeProposal createPatchProposal(Urn entityUrn, String aspectName, AspectPatch patch) {
+    MetadataChangeProposal proposal = new MetadataChangeProposal();
+    proposal.setEntityUrn(entityUrn);
+    proposal.setEntityType(entityUrn.getEntityType());
+    proposal.setAspectName(aspectName);
+    proposal.setAspect(GenericAspectUtils.serializeAspect(patch));
+    proposal.setChangeType(ChangeType.PATCH);
+    return proposal;
+  }
+
+  @Nonnull
+  private static TagAssociation createTag(String name) throws Exception {
+    return new TagAssociation().setTag(TagUrn.createFromString("urn:li:tag:" + name));
+  }
+
+  @Nonnull
+  private static List<String> getTagNames(GlobalTags globalTags) {
+    return globalTags.getTags().stream().map(tag -> tag.getTag().getName()).collect(Collectors.toList());
+  }
+
   @Nonnull
   private com.linkedin.entity.Entity createCorpUserEntity(Urn entityUrn, String email) throws Exception {
     CorpuserUrn corpuserUrn = CorpuserUrn.createFromUrn(entityUrn);
@@ -967,6 +1174,11 @@ public class EbeanEntityServiceTest {
     return entity;
   }
 
+  @Nonnull
+  private static List<Urn> getUrns(ScrollResult scrollResult) {
+    return scrollResult.getEntities().stream().map(SearchEntity::getEntity).collect(Collectors.toList());
+  }
+
   @Nonnull
   private RecordTemplate createCorpUserKey(Urn urn) throws Exception {
     return EntityKeyUtils.convertUrnToEntityKey(urn, new CorpUserKey().schema());
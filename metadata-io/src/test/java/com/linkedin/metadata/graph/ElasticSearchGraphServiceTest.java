@@ -11,8 +11,8 @@ import com.linkedin.metadata.query.filter.RelationshipFilter;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
-import java.util.Comparator;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.annotation.Nonnull;
 import org.apache.http.HttpHost;
@@ -29,6 +29,7 @@ import org.testng.annotations.Test;
 
 import static com.linkedin.metadata.DockerTestUtils.checkContainerEngine;
 import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
+import static com.linkedin.metadata.search.utils.QueryUtils.EMPTY_FILTER;
 import static org.testng.Assert.assertEquals;
 
 
@@ -97,22 +98,6 @@ public class ElasticSearchGraphServiceTest extends GraphServiceTestBase {
     ElasticSearchTestUtils.syncAfterWrite(_searchClient, _indexName);
   }
 
-  @Override
-  protected void assertEqualsAnyOrder(RelatedEntitiesResult actual, RelatedEntitiesResult expected) {
-    // https://github.com/linkedin/datahub/issues/3115
-    // ElasticSearchGraphService produces duplicates, which is here ignored until fixed
-    // actual.count and actual.total not tested due to duplicates
-    assertEquals(actual.start, expected.start);
-    assertEqualsAnyOrder(actual.entities, expected.entities, RELATED_ENTITY_COMPARATOR);
-  }
-
-  @Override
-  protected <T> void assertEqualsAnyOrder(List<T> actual, List<T> expected, Comparator<T> comparator) {
-    // https://github.com/linkedin/datahub/issues/3115
-    // ElasticSearchGraphService produces duplicates, which is here ignored until fixed
-    assertEquals(new HashSet<>(actual), new HashSet<>(expected));
-  }
-
   @Override
   public void testFindRelatedEntitiesSourceEntityFilter(Filter sourceEntityFilter, List<String> relationshipTypes,
       RelationshipFilter relationships, List<RelatedEntity> expectedRelatedEntities) throws Exception {
@@ -203,16 +188,27 @@ public class ElasticSearchGraphServiceTest extends GraphServiceTestBase {
   }
 
   @Test
-  @Override
-  public void testConcurrentRemoveEdgesFromNode() {
-    // https://github.com/linkedin/datahub/issues/3118
-    throw new SkipException("ElasticSearchGraphService produces duplicates");
-  }
-
-  @Test
-  @Override
-  public void testConcurrentRemoveNodes() {
-    // https://github.com/linkedin/datahub/issues/3118
-    throw new SkipException("ElasticSearchGraphService produces duplicates");
+  public void testFindRelatedEntitiesPaginatesDistinctRelatedEntities() throws Exception {
+    GraphService service = getPopulatedGraphService();
+    List<String> relationshipTypes = Arrays.asList(downstreamOf, hasOwner, knowsUser);
+
+    // 9 edges, of which dataset two, user one & user two are reached several times through the same relationship type
+    List<RelatedEntity> expected = Arrays.asList(downstreamOfDatasetOneRelatedEntity,
+        downstreamOfDatasetTwoRelatedEntity, hasOwnerUserOneRelatedEntity, hasOwnerUserTwoRelatedEntity,
+        knowsUserOneRelatedEntity, knowsUserTwoRelatedEntity);
+
+    RelatedEntitiesResult firstPage = service.findRelatedEntities(anyType, EMPTY_FILTER, anyType, EMPTY_FILTER,
+        relationshipTypes, outgoingRelationships, 0, 4);
+    RelatedEntitiesResult secondPage = service.findRelatedEntities(anyType, EMPTY_FILTER, anyType, EMPTY_FILTER,
+        relationshipTypes, outgoingRelationships, 4, 4);
+
+    assertEquals(firstPage.getCount(), 4);
+    assertEquals(firstPage.getTotal(), 6);
+    assertEquals(secondPage.getStart(), 4);
+    assertEquals(secondPage.getCount(), 2);
+    assertEquals(secondPage.getTotal(), 6);
+    List<RelatedEntity> actual = new ArrayList<>(firstPage.getEntities());
+    actual.addAll(secondPage.getEntities());
+    assertEqualsAnyOrder(actual, expected, RELATED_ENTITY_COMPARATOR);
   }
 }
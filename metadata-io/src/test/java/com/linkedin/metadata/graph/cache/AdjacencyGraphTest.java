@@ -0,0 +1,101 @@
+package com.linkedin.metadata.graph.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.RelatedEntity;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class AdjacencyGraphTest {
+
+  private static final String DOWNSTREAM_OF = "DownstreamOf";
+  private static final String HAS_OWNER = "HasOwner";
+
+  private Urn _datasetOne;
+  private Urn _datasetTwo;
+  private Urn _datasetThree;
+  private Urn _userOne;
+  private AdjacencyGraph _graph;
+
+  @BeforeMethod
+  public void setup() throws URISyntaxException {
+    _datasetOne = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,one,PROD)");
+    _datasetTwo = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,two,PROD)");
+    _datasetThree = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,three,PROD)");
+    _userOne = Urn.createFromString("urn:li:corpuser:one");
+
+    _graph = new AdjacencyGraph();
+    _graph.addEdge(new Edge(_datasetOne, _datasetTwo, DOWNSTREAM_OF));
+    _graph.addEdge(new Edge(_datasetTwo, _datasetThree, DOWNSTREAM_OF));
+    _graph.addEdge(new Edge(_datasetOne, _userOne, HAS_OWNER));
+  }
+
+  @Test
+  public void testAddEdgeIgnoresDuplicates() {
+    assertFalse(_graph.addEdge(new Edge(_datasetOne, _datasetTwo, DOWNSTREAM_OF)));
+    assertEquals(_graph.getEdgeCount(), 3);
+    assertEquals(_graph.getNodeCount(), 4);
+  }
+
+  @Test
+  public void testGetRelatedEntities() {
+    final int datasetOne = _graph.getNodeId(_datasetOne.toString());
+    final int datasetTwo = _graph.getNodeId(_datasetTwo.toString());
+
+    assertEquals(_graph.getRelatedEntities(datasetOne, ImmutableList.of(DOWNSTREAM_OF), true, null),
+        ImmutableList.of(new RelatedEntity(DOWNSTREAM_OF, _datasetTwo.toString())));
+    assertEquals(_graph.getRelatedEntities(datasetOne, Collections.emptyList(), true, null),
+        ImmutableList.of(new RelatedEntity(DOWNSTREAM_OF, _datasetTwo.toString()),
+            new RelatedEntity(HAS_OWNER, _userOne.toString())));
+    assertEquals(_graph.getRelatedEntities(datasetOne, Collections.emptyList(), true, "corpuser"),
+        ImmutableList.of(new RelatedEntity(HAS_OWNER, _userOne.toString())));
+    assertEquals(_graph.getRelatedEntities(datasetTwo, ImmutableList.of(DOWNSTREAM_OF), false, null),
+        ImmutableList.of(new RelatedEntity(DOWNSTREAM_OF, _datasetOne.toString())));
+    assertTrue(_graph.getRelatedEntities(datasetOne, ImmutableList.of("Unknown"), true, null).isEmpty());
+    assertEquals(_graph.getNodeId("urn:li:corpuser:unknown"), -1);
+  }
+
+  @Test
+  public void testRemoveEdges() {
+    _graph.removeEdges(_datasetOne.toString(), ImmutableList.of(DOWNSTREAM_OF), true);
+
+    final int datasetOne = _graph.getNodeId(_datasetOne.toString());
+    final int datasetTwo = _graph.getNodeId(_datasetTwo.toString());
+    assertEquals(_graph.getRelatedEntities(datasetOne, Collections.emptyList(), true, null),
+        ImmutableList.of(new RelatedEntity(HAS_OWNER, _userOne.toString())));
+    assertTrue(_graph.getRelatedEntities(datasetTwo, Collections.emptyList(), false, null).isEmpty());
+    assertEquals(_graph.getEdgeCount(), 2);
+  }
+
+  @Test
+  public void testRemoveNode() {
+    _graph.removeNode(_datasetTwo.toString());
+
+    final int datasetOne = _graph.getNodeId(_datasetOne.toString());
+    final int datasetThree = _graph.getNodeId(_datasetThree.toString());
+    assertEquals(_graph.getRelatedEntities(datasetOne, Collections.emptyList(), true, null),
+        ImmutableList.of(new RelatedEntity(HAS_OWNER, _userOne.toString())));
+    assertTrue(_graph.getRelatedEntities(datasetThree, Collections.emptyList(), false, null).isEmpty());
+    assertEquals(_graph.getEdgeCount(), 1);
+  }
+
+  @Test
+  public void testTraverse() {
+    final int datasetOne = _graph.getNodeId(_datasetOne.toString());
+    final int datasetThree = _graph.getNodeId(_datasetThree.toString());
+
+    assertEquals(_graph.traverse(datasetOne, ImmutableList.of(DOWNSTREAM_OF), true, 3, 100),
+        ImmutableMap.of(_datasetTwo.toString(), 1, _datasetThree.toString(), 2));
+    assertEquals(_graph.traverse(datasetOne, ImmutableList.of(DOWNSTREAM_OF), true, 1, 100),
+        ImmutableMap.of(_datasetTwo.toString(), 1));
+    assertEquals(_graph.traverse(datasetThree, ImmutableList.of(DOWNSTREAM_OF), false, 3, 1),
+        ImmutableMap.of(_datasetTwo.toString(), 1));
+  }
+}
@@ -0,0 +1,109 @@
+package com.linkedin.metadata.graph.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.RelatedEntitiesResult;
+import com.linkedin.metadata.graph.RelatedEntity;
+import com.linkedin.metadata.graph.elastic.ElasticSearchGraphService;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import com.linkedin.metadata.query.filter.RelationshipFilter;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class CachingGraphServiceTest {
+
+  private static final String DOWNSTREAM_OF = "DownstreamOf";
+
+  private Urn _datasetOne;
+  private Urn _datasetTwo;
+  private Urn _datasetThree;
+  private ElasticSearchGraphService _delegate;
+  // The edges held by the graph index
+  private List<Edge> _indexedEdges;
+
+  @BeforeMethod
+  public void setup() throws URISyntaxException {
+    _datasetOne = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,one,PROD)");
+    _datasetTwo = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,two,PROD)");
+    _datasetThree = Urn.createFromString("urn:li:dataset:(urn:li:dataPlatform:hive,three,PROD)");
+    _indexedEdges = new ArrayList<>();
+    _indexedEdges.add(new Edge(_datasetOne, _datasetTwo, DOWNSTREAM_OF));
+
+    _delegate = mock(ElasticSearchGraphService.class);
+    doAnswer(invocation -> {
+      final Consumer<Edge> consumer = invocation.getArgument(1);
+      _indexedEdges.forEach(consumer);
+      return null;
+    }).when(_delegate).scrollEdges(anyInt(), any());
+  }
+
+  @Test
+  public void testRebuildPicksUpEdgesWrittenByOtherProcesses() {
+    CachingGraphService service = new CachingGraphService(_delegate, 100);
+    service.rebuild();
+    assertEquals(findDownstreams(service), ImmutableList.of(new RelatedEntity(DOWNSTREAM_OF, _datasetTwo.toString())));
+
+    _indexedEdges.add(new Edge(_datasetOne, _datasetThree, DOWNSTREAM_OF));
+    service.rebuild();
+
+    assertEquals(findDownstreams(service), ImmutableList.of(new RelatedEntity(DOWNSTREAM_OF, _datasetThree.toString()),
+        new RelatedEntity(DOWNSTREAM_OF, _datasetTwo.toString())));
+  }
+
+  @Test
+  public void testRebuildReplaysRecentWritesNotYetIndexed() {
+    CachingGraphService service = new CachingGraphService(_delegate, 100);
+    service.rebuild();
+
+    // The edge is still buffered by the bulk processor, so the graph index does not return it yet
+    service.addEdge(new Edge(_datasetOne, _datasetThree, DOWNSTREAM_OF));
+    service.rebuild();
+
+    assertEquals(findDownstreams(service), ImmutableList.of(new RelatedEntity(DOWNSTREAM_OF, _datasetThree.toString()),
+        new RelatedEntity(DOWNSTREAM_OF, _datasetTwo.toString())));
+  }
+
+  @Test
+  public void testRebuildDoesNotReplayWritesOutsideOfReplayWindow() throws InterruptedException {
+    CachingGraphService service = new CachingGraphService(_delegate, 100, 1);
+    service.rebuild();
+
+    service.addEdge(new Edge(_datasetOne, _datasetThree, DOWNSTREAM_OF));
+    Thread.sleep(10);
+    service.rebuild();
+
+    assertEquals(findDownstreams(service), ImmutableList.of(new RelatedEntity(DOWNSTREAM_OF, _datasetTwo.toString())));
+  }
+
+  @Test
+  public void testRebuildEvictsRemovedNodes() {
+    CachingGraphService service = new CachingGraphService(_delegate, 100, 0);
+    service.rebuild();
+    assertFalse(findDownstreams(service).isEmpty());
+
+    _indexedEdges.clear();
+    service.rebuild();
+
+    // The urn is no longer known to the cache, so the query falls back to the graph index
+    assertTrue(findDownstreams(service).isEmpty());
+    verify(_delegate, times(1)).findRelatedEntities(any(), any(), any(), any(), any(), any(), anyInt(), anyInt());
+  }
+
+  private List<RelatedEntity> findDownstreams(CachingGraphService service) {
+    final RelatedEntitiesResult result = service.findRelatedEntities(null, newFilter("urn", _datasetOne.toString()),
+        null, EMPTY_FILTER, ImmutableList.of(DOWNSTREAM_OF),
+        new RelationshipFilter().setDirection(RelationshipDirection.OUTGOING), 0, 10);
+    return result == null ? new ArrayList<>() : result.getEntities();
+  }
+}
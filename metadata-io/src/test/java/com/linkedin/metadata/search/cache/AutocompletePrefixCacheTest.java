@@ -0,0 +1,117 @@
+package com.linkedin.metadata.search.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.metadata.query.AutoCompleteResult;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+public class AutocompletePrefixCacheTest {
+
+  private static final List<String> VALUES = ImmutableList.of("Sample Hive Dataset", "Sample Kafka Dataset", "samples");
+  // One hit per value
+  private static final List<List<String>> HITS =
+      VALUES.stream().map(ImmutableList::of).collect(Collectors.toList());
+
+  @Test
+  public void testCompleteSuggestionsServeLongerQueries() {
+    AutocompletePrefixCache cache = new AutocompletePrefixCache(100, 60);
+    AtomicInteger loads = new AtomicInteger();
+
+    AutoCompleteResult result = cache.get("dataset", "sam", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(HITS, true);
+    });
+    assertEquals(result.getQuery(), "sam");
+    assertEquals(result.getSuggestions(), VALUES);
+
+    result = cache.get("dataset", "Sample Hi", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(HITS, true);
+    });
+    assertEquals(result.getQuery(), "Sample Hi");
+    assertEquals(result.getSuggestions(), ImmutableList.of("Sample Hive Dataset"));
+    assertEquals(loads.get(), 1);
+
+    // Other entities, filters and limits are cached separately
+    cache.get("chart", "sample", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(ImmutableList.of(), true);
+    });
+    cache.get("dataset", "sample", null, 5, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(ImmutableList.of(), true);
+    });
+    assertEquals(loads.get(), 3);
+  }
+
+  @Test
+  public void testIncompleteSuggestionsOnlyServeTheSameQuery() {
+    AutocompletePrefixCache cache = new AutocompletePrefixCache(100, 60);
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get("dataset", "sam", null, 3, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(HITS, false);
+    });
+    cache.get("dataset", "SAM ", null, 3, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(HITS, false);
+    });
+    assertEquals(loads.get(), 1);
+
+    AutoCompleteResult result = cache.get("dataset", "sample k", null, 3, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(ImmutableList.of(ImmutableList.of("Sample Kafka Dataset")), true);
+    });
+    assertEquals(result.getSuggestions(), ImmutableList.of("Sample Kafka Dataset"));
+    assertEquals(loads.get(), 2);
+  }
+
+  @Test
+  public void testLongerQueriesMatchOtherValuesOfHits() {
+    AutocompletePrefixCache cache = new AutocompletePrefixCache(100, 60);
+    AtomicInteger loads = new AtomicInteger();
+    final List<List<String>> hits = ImmutableList.of(ImmutableList.of("sample_dataset", "Sample Hive Dataset"),
+        ImmutableList.of("Sample Kafka Dataset", "sample kafka topic"));
+
+    AutoCompleteResult result = cache.get("dataset", "sam", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(hits, true);
+    });
+    assertEquals(result.getSuggestions(), ImmutableList.of("sample_dataset", "Sample Kafka Dataset"));
+
+    // The first value of the first hit is a single word, which the second word of the query doesn't match
+    result = cache.get("dataset", "sample hi", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(ImmutableList.of(), true);
+    });
+    assertEquals(result.getSuggestions(), ImmutableList.of("Sample Hive Dataset"));
+
+    result = cache.get("dataset", "sample kafka t", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(ImmutableList.of(), true);
+    });
+    assertEquals(result.getSuggestions(), ImmutableList.of("sample kafka topic"));
+    assertEquals(loads.get(), 1);
+  }
+
+  @Test
+  public void testDisabledCache() {
+    AutocompletePrefixCache cache = AutocompletePrefixCache.disabled();
+    AtomicInteger loads = new AtomicInteger();
+    cache.get("dataset", "sam", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(HITS, true);
+    });
+    cache.get("dataset", "sam", null, 10, () -> {
+      loads.incrementAndGet();
+      return new AutocompletePrefixCache.Suggestions(HITS, true);
+    });
+    assertEquals(loads.get(), 2);
+  }
+}
@@ -8,6 +8,8 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.browse.BrowseResult;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.ScrollResult;
+import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
@@ -16,9 +18,14 @@ import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
 import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
 import com.linkedin.metadata.search.elasticsearch.update.BulkListener;
 import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
+import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.apache.http.HttpHost;
 import org.apache.http.impl.nio.reactor.IOReactorConfig;
@@ -39,6 +46,9 @@ import org.testng.annotations.Test;
 import static com.linkedin.metadata.DockerTestUtils.checkContainerEngine;
 import static com.linkedin.metadata.ElasticSearchTestUtils.syncAfterWrite;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
 
 
 public class ElasticSearchServiceTest {
@@ -180,4 +190,48 @@ public class ElasticSearchServiceTest {
     assertEquals(_elasticSearchService.docCount(ENTITY_NAME), 0);
     assertEquals(_elasticSearchService.aggregateByValue(ENTITY_NAME, "textField", null, 10).size(), 0);
   }
+
+  @Test
+  public void testScroll() throws Exception {
+    List<Urn> urns = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      Urn urn = new TestEntityUrn("test", "testUrn" + i, "VALUE_" + i);
+      ObjectNode document = JsonNodeFactory.instance.objectNode();
+      document.set("urn", JsonNodeFactory.instance.textNode(urn.toString()));
+      document.set("keyPart1", JsonNodeFactory.instance.textNode("test"));
+      _elasticSearchService.upsertDocument(ENTITY_NAME, document.toString(), urn.toString());
+      urns.add(urn);
+    }
+    syncAfterWrite(_searchClient);
+
+    ScrollResult page1 = _elasticSearchService.scroll(ENTITY_NAME, "", null, null, null, 2);
+    assertEquals(page1.getNumEntities().intValue(), 5);
+    assertNotNull(page1.getScrollId());
+    // The scroll id decodes back into the sort values of the last hit, which end with its urn
+    Object[] sortValues = ESUtils.decodeScrollId(page1.getScrollId());
+    assertEquals(sortValues[sortValues.length - 1], getUrns(page1).get(1).toString());
+
+    ScrollResult page2 = _elasticSearchService.scroll(ENTITY_NAME, "", null, null, page1.getScrollId(), 2);
+    assertNotNull(page2.getScrollId());
+    ScrollResult page3 = _elasticSearchService.scroll(ENTITY_NAME, "", null, null, page2.getScrollId(), 2);
+    assertNull(page3.getScrollId());
+
+    List<Urn> scrolled = new ArrayList<>();
+    scrolled.addAll(getUrns(page1));
+    scrolled.addAll(getUrns(page2));
+    scrolled.addAll(getUrns(page3));
+    // Every document is returned exactly once
+    assertEquals(scrolled.size(), 5);
+    assertEquals(new HashSet<>(scrolled), new HashSet<>(urns));
+  }
+
+  @Test
+  public void testScrollRejectsInvalidScrollId() {
+    assertThrows(IllegalArgumentException.class,
+        () -> _elasticSearchService.scroll(ENTITY_NAME, "", null, null, "not a scroll id", 2));
+  }
+
+  private static List<Urn> getUrns(ScrollResult scrollResult) {
+    return scrollResult.getEntities().stream().map(SearchEntity::getEntity).collect(Collectors.toList());
+  }
 }
@@ -0,0 +1,241 @@
+package com.linkedin.metadata.search.elasticsearch.indexbuilder;
+
+import com.datahub.test.Snapshot;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest;
+import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.metadata.DockerTestUtils.checkContainerEngine;
+import static com.linkedin.metadata.ElasticSearchTestUtils.syncAfterWrite;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+
+public class ESIndexBuilderTest {
+
+  private static final String IMAGE_NAME = "docker.elastic.co/elasticsearch/elasticsearch:7.9.3";
+  private static final int HTTP_PORT = 9200;
+  private static final String ENTITY_NAME = "testEntity";
+  // Enough documents for the throttled reindex task to take a few seconds, during which the tests write
+  private static final int NUM_DOCUMENTS = 2000;
+  private static final float REINDEX_REQUESTS_PER_SECOND = 500;
+
+  private static final Map<String, Object> MAPPINGS = ImmutableMap.of("properties",
+      ImmutableMap.of(MappingsBuilder.LAST_WRITTEN_FIELD, ImmutableMap.of("type", "date"), "name",
+          ImmutableMap.of("type", "keyword")));
+  private static final Map<String, Object> NEW_MAPPINGS = ImmutableMap.of("properties",
+      ImmutableMap.of(MappingsBuilder.LAST_WRITTEN_FIELD, ImmutableMap.of("type", "date"), "name",
+          ImmutableMap.of("type", "keyword"), "description", ImmutableMap.of("type", "text")));
+
+  private ElasticsearchContainer _elasticsearchContainer;
+  private RestHighLevelClient _searchClient;
+  private BulkProcessor _bulkProcessor;
+  private ESIndexBuilder _indexBuilder;
+  private ESWriteDAO _writeDAO;
+  private String _indexName;
+
+  @BeforeTest
+  public void setup() {
+    _elasticsearchContainer = new ElasticsearchContainer(IMAGE_NAME);
+    checkContainerEngine(_elasticsearchContainer.getDockerClient());
+    _elasticsearchContainer.start();
+    _searchClient = buildRestClient();
+    _bulkProcessor = ElasticSearchServiceTest.getBulkProcessor(_searchClient);
+    _indexBuilder = buildIndexBuilder(60);
+
+    EntityRegistry entityRegistry = new SnapshotEntityRegistry(new Snapshot());
+    IndexConvention indexConvention = new IndexConventionImpl(null);
+    _indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(ENTITY_NAME));
+    _writeDAO = new ESWriteDAO(entityRegistry, _searchClient, indexConvention, _bulkProcessor, _indexBuilder);
+  }
+
+  @BeforeMethod
+  public void createIndex() throws Exception {
+    _searchClient.indices()
+        .delete(new DeleteIndexRequest(_indexName + "*").indicesOptions(IndicesOptions.lenientExpandOpen()),
+            RequestOptions.DEFAULT);
+    _indexBuilder.buildIndex(_indexName, MAPPINGS, Collections.emptyMap());
+    BulkRequest bulkRequest = new BulkRequest().setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+    for (int i = 0; i < NUM_DOCUMENTS; i++) {
+      bulkRequest.add(
+          new IndexRequest(_indexName).id(String.valueOf(i)).source(document("name" + i), XContentType.JSON));
+    }
+    _searchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+  }
+
+  @Nonnull
+  private RestHighLevelClient buildRestClient() {
+    final RestClientBuilder builder =
+        RestClient.builder(new HttpHost("localhost", _elasticsearchContainer.getMappedPort(HTTP_PORT), "http"))
+            .setHttpClientConfigCallback(httpAsyncClientBuilder -> httpAsyncClientBuilder.setDefaultIOReactorConfig(
+                IOReactorConfig.custom().setIoThreadCount(1).build()));
+
+    builder.setRequestConfigCallback(requestConfigBuilder -> requestConfigBuilder.
+        setConnectionRequestTimeout(3000));
+
+    return new RestHighLevelClient(builder);
+  }
+
+  private ESIndexBuilder buildIndexBuilder(long reindexTimeoutMinutes) {
+    return new ESIndexBuilder(_searchClient, 1, 1, 3, 1, REINDEX_REQUESTS_PER_SECOND, reindexTimeoutMinutes,
+        _bulkProcessor);
+  }
+
+  @AfterTest
+  public void tearDown() {
+    _elasticsearchContainer.stop();
+  }
+
+  @Test
+  public void testReindexAppliesWritesMadeDuringReindex() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<?> reindex = executor.submit(() -> {
+      _indexBuilder.buildIndex(_indexName, NEW_MAPPINGS, Collections.emptyMap());
+      return null;
+    });
+    waitForDualWriteIndex();
+
+    _writeDAO.upsertDocument(ENTITY_NAME, document("updated"), "0");
+    _writeDAO.upsertDocument(ENTITY_NAME, document("new"), "new");
+    // The reindex task may copy the document before its deletion, which is then replayed on the copy
+    _writeDAO.deleteDocument(ENTITY_NAME, "1");
+    reindex.get();
+    executor.shutdown();
+    syncAfterWrite(_searchClient);
+
+    // The alias points to the copy, and the original index was deleted
+    Map<String, String> indices = _indexBuilder.getIndices(_indexName + "*");
+    assertEquals(indices.size(), 1);
+    assertNotEquals(indices.get(_indexName), _indexName);
+    assertNull(_indexBuilder.getDualWriteIndex(_indexName));
+
+    assertEquals(getDocument("0").getSourceAsMap().get("name"), "updated");
+    assertEquals(getDocument("new").getSourceAsMap().get("name"), "new");
+    assertFalse(getDocument("1").isExists());
+    assertEquals(getCount(), NUM_DOCUMENTS);
+  }
+
+  @Test
+  public void testReindexCatchesUpOnWritesOfOtherWriters() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<?> reindex = executor.submit(() -> {
+      _indexBuilder.buildIndex(_indexName, NEW_MAPPINGS, Collections.emptyMap());
+      return null;
+    });
+    waitForDualWriteIndex();
+
+    // Written to the original index only, as by another process
+    _searchClient.index(new IndexRequest(_indexName).id("0")
+        .source(document("updated"), XContentType.JSON)
+        .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE), RequestOptions.DEFAULT);
+    reindex.get();
+    executor.shutdown();
+    syncAfterWrite(_searchClient);
+
+    assertNotEquals(_indexBuilder.getIndices(_indexName + "*").get(_indexName), _indexName);
+    assertEquals(getDocument("0").getSourceAsMap().get("name"), "updated");
+    assertEquals(getCount(), NUM_DOCUMENTS);
+  }
+
+  @Test
+  public void testReindexSwapsAliasAgain() throws Exception {
+    _indexBuilder.buildIndex(_indexName, NEW_MAPPINGS, Collections.emptyMap());
+    String copy = _indexBuilder.getIndices(_indexName + "*").get(_indexName);
+    _indexBuilder.buildIndex(_indexName, MAPPINGS, Collections.emptyMap());
+
+    // The alias points to the new copy, and the previous one was deleted
+    Map<String, String> indices = _indexBuilder.getIndices(_indexName + "*");
+    assertEquals(indices.size(), 1);
+    assertNotEquals(indices.get(_indexName), copy);
+    assertEquals(getCount(), NUM_DOCUMENTS);
+  }
+
+  @Test
+  public void testFailedReindexDeletesCopy() throws Exception {
+    ESIndexBuilder indexBuilder = buildIndexBuilder(0);
+    assertThrows(RuntimeException.class,
+        () -> indexBuilder.buildIndex(_indexName, NEW_MAPPINGS, Collections.emptyMap()));
+
+    assertEquals(_indexBuilder.getIndices(_indexName + "*"), ImmutableMap.of(_indexName, _indexName));
+    assertNull(indexBuilder.getDualWriteIndex(_indexName));
+    assertEquals(getCount(), NUM_DOCUMENTS);
+  }
+
+  @Test
+  public void testInterruptedReindexDeletesCopy() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Boolean> reindex = executor.submit(() -> {
+      try {
+        _indexBuilder.buildIndex(_indexName, NEW_MAPPINGS, Collections.emptyMap());
+        return false;
+      } catch (RuntimeException e) {
+        return Thread.currentThread().isInterrupted();
+      }
+    });
+    waitForDualWriteIndex();
+    TimeUnit.SECONDS.sleep(1);
+    executor.shutdownNow();
+
+    // The reindex is aborted with the interrupt flag restored
+    assertTrue(reindex.get());
+    assertEquals(_indexBuilder.getIndices(_indexName + "*"), ImmutableMap.of(_indexName, _indexName));
+    assertNull(_indexBuilder.getDualWriteIndex(_indexName));
+  }
+
+  private void waitForDualWriteIndex() throws InterruptedException {
+    for (int i = 0; i < 300 && _indexBuilder.getDualWriteIndex(_indexName) == null; i++) {
+      TimeUnit.MILLISECONDS.sleep(100);
+    }
+    assertNotNull(_indexBuilder.getDualWriteIndex(_indexName), "Reindex did not start");
+  }
+
+  private GetResponse getDocument(String docId) throws Exception {
+    return _searchClient.get(new GetRequest(_indexName, docId), RequestOptions.DEFAULT);
+  }
+
+  private long getCount() throws Exception {
+    return _searchClient.count(new CountRequest(_indexName), RequestOptions.DEFAULT).getCount();
+  }
+
+  private static String document(String name) {
+    return String.format("{\"name\":\"%s\",\"%s\":%d}", name, MappingsBuilder.LAST_WRITTEN_FIELD,
+        System.currentTimeMillis());
+  }
+}
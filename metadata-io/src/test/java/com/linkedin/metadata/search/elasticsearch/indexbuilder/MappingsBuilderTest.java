@@ -1,7 +1,9 @@
 package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.linkedin.metadata.TestEntitySpecBuilder;
+import com.linkedin.metadata.search.features.RankingFeature;
 import java.util.Map;
 import org.testng.annotations.Test;
 
@@ -17,9 +19,17 @@ public class MappingsBuilderTest {
     Map<String, Object> result = MappingsBuilder.getMappings(TestEntitySpecBuilder.getSpec());
     assertEquals(result.size(), 1);
     Map<String, Object> properties = (Map<String, Object>) result.get("properties");
-    assertEquals(properties.size(), 12);
+    assertEquals(properties.size(), 15);
     assertEquals(properties.get("urn"), ImmutableMap.of("type", "keyword"));
+    assertEquals(properties.get(MappingsBuilder.LAST_WRITTEN_FIELD), ImmutableMap.of("type", "date"));
+    assertEquals(properties.get(MappingsBuilder.AUTOCOMPLETE_FIELD),
+        ImmutableMap.of("type", "search_as_you_type", "max_shingle_size", 3));
     assertTrue(properties.containsKey("browsePaths"));
+    Map<String, Object> rankingFeatures =
+        (Map<String, Object>) ((Map<String, Object>) properties.get(RankingFeature.FIELD)).get("properties");
+    assertEquals(rankingFeatures.size(), RankingFeature.values().length + 1);
+    assertEquals(rankingFeatures.get(RankingFeature.USAGE_COUNT.getName()), ImmutableMap.of("type", "float"));
+    assertEquals(rankingFeatures.get(RankingFeature.COMPUTED_AT_FIELD), ImmutableMap.of("type", "date"));
     // KEYWORD
     assertEquals(properties.get("keyPart3"), ImmutableMap.of("type", "keyword", "normalizer", "keyword_normalizer"));
     assertEquals(properties.get("customProperties"),
@@ -38,6 +48,11 @@ public class MappingsBuilderTest {
     assertEquals(nestedArrayArrayFieldSubfields.size(), 1);
     assertTrue(nestedArrayArrayFieldSubfields.containsKey("delimited"));
 
+    // TEXT with enableAutocomplete
+    Map<String, Object> keyPart1 = (Map<String, Object>) properties.get("keyPart1");
+    assertEquals(keyPart1.get("copy_to"), ImmutableList.of(MappingsBuilder.AUTOCOMPLETE_FIELD));
+    assertFalse(nestedArrayStringField.containsKey("copy_to"));
+
     // TEXT with addToFilters
     Map<String, Object> textField = (Map<String, Object>) properties.get("textFieldOverride");
     assertEquals(textField.get("type"), "keyword");
@@ -1,11 +1,13 @@
 package com.linkedin.metadata.search.elasticsearch.query.request;
 
+import com.google.common.collect.ImmutableSet;
 import com.linkedin.metadata.TestEntitySpecBuilder;
 import java.util.List;
 import java.util.Map;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
 import org.elasticsearch.index.query.Operator;
 import org.elasticsearch.index.query.QueryStringQueryBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -13,6 +15,8 @@ import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 
@@ -27,21 +31,33 @@ public class AutocompleteRequestHandlerTest {
     assertEquals(sourceBuilder.size(), 10);
     BoolQueryBuilder query = (BoolQueryBuilder) sourceBuilder.query();
     assertEquals(query.must().size(), 1);
-    QueryStringQueryBuilder autocompleteQuery = (QueryStringQueryBuilder) query.must().get(0);
+    MultiMatchQueryBuilder autocompleteQuery = (MultiMatchQueryBuilder) query.must().get(0);
     Map<String, Float> queryFields = autocompleteQuery.fields();
-    assertTrue(queryFields.containsKey("keyPart1"));
-    assertTrue(queryFields.containsKey("keyPart1.ngram"));
-    assertEquals(autocompleteQuery.analyzer(), "word_delimited");
-    assertEquals(autocompleteQuery.defaultOperator(), Operator.AND);
+    assertEquals(queryFields.keySet(), ImmutableSet.of("autocomplete", "autocomplete._2gram", "autocomplete._3gram"));
+    assertEquals(autocompleteQuery.type(), MultiMatchQueryBuilder.Type.BOOL_PREFIX);
+    assertEquals(autocompleteQuery.operator(), Operator.AND);
     assertEquals(query.mustNot().size(), 1);
     MatchQueryBuilder removedFilter = (MatchQueryBuilder) query.mustNot().get(0);
     assertEquals(removedFilter.fieldName(), "removed");
     assertEquals(removedFilter.value(), true);
-    HighlightBuilder highlightBuilder = sourceBuilder.highlighter();
-    List<HighlightBuilder.Field> highlightedFields = highlightBuilder.fields();
-    assertEquals(highlightedFields.size(), 2);
-    assertEquals(highlightedFields.get(0).name(), "keyPart1");
-    assertEquals(highlightedFields.get(1).name(), "keyPart1.*");
+    assertNull(sourceBuilder.highlighter());
+    assertEquals(sourceBuilder.fetchSource().includes(), new String[]{"keyPart1"});
+  }
+
+  @Test
+  public void testMatchesPrefix() {
+    assertTrue(AutocompleteRequestHandler.matchesPrefix("Sample Hive Dataset", "sample"));
+    assertTrue(AutocompleteRequestHandler.matchesPrefix("Sample Hive Dataset", "hive da"));
+    assertTrue(AutocompleteRequestHandler.matchesPrefix("Sample-Hive Dataset", "HIVE"));
+    assertTrue(AutocompleteRequestHandler.matchesPrefix("Sample Hive Dataset", " "));
+    assertFalse(AutocompleteRequestHandler.matchesPrefix("Sample Hive Dataset", "ample"));
+    assertFalse(AutocompleteRequestHandler.matchesPrefix("Sample Hive Dataset", "sample kafka"));
+    // Words are split like the standard analyzer of the search-as-you-type field splits them
+    assertTrue(AutocompleteRequestHandler.matchesPrefix("sample_hive_dataset", "sample_h"));
+    assertFalse(AutocompleteRequestHandler.matchesPrefix("sample_hive_dataset", "hive"));
+    assertTrue(AutocompleteRequestHandler.matchesPrefix("db.sample_table", "db.s"));
+    // Only the last word of the query is a prefix
+    assertFalse(AutocompleteRequestHandler.matchesPrefix("Sample Hive Dataset", "sam hive"));
   }
 
   @Test
@@ -0,0 +1,69 @@
+package com.linkedin.metadata.search.ranker;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.search.features.RankingFeature;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.elasticsearch.common.lucene.search.function.CombineFunction;
+import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.functionscore.FieldValueFactorFunctionBuilder;
+import org.elasticsearch.index.query.functionscore.FunctionScoreQueryBuilder;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+public class LinearFeatureRankerTest {
+
+  @Test
+  public void testRank() {
+    LinearFeatureRanker ranker = new LinearFeatureRanker(
+        ImmutableMap.of(RankingFeature.USAGE_COUNT, 0.5, RankingFeature.RECENCY, 0.0));
+    QueryBuilder query = QueryBuilders.matchAllQuery();
+    FunctionScoreQueryBuilder result = (FunctionScoreQueryBuilder) ranker.rank(query);
+    assertEquals(result.query(), query);
+    assertEquals(result.scoreMode(), FunctionScoreQuery.ScoreMode.SUM);
+    assertEquals(result.boostMode(), CombineFunction.MULTIPLY);
+    // Constant term and usage count, features without weight are skipped
+    assertEquals(result.filterFunctionBuilders().length, 2);
+    FieldValueFactorFunctionBuilder usageFunction =
+        (FieldValueFactorFunctionBuilder) result.filterFunctionBuilders()[1].getScoreFunction();
+    assertEquals(usageFunction.fieldName(), "rankingFeatures.usageCount");
+    assertEquals(usageFunction.getWeight().floatValue(), 0.5f);
+    assertEquals(usageFunction.missing().doubleValue(), 0.0);
+  }
+
+  @Test
+  public void testScoreFactor() {
+    LinearFeatureRanker ranker = new LinearFeatureRanker();
+    assertEquals(ranker.getScoreFactor(ImmutableMap.of()), 1.0);
+    assertEquals(ranker.getScoreFactor(
+        ImmutableMap.of(RankingFeature.USAGE_COUNT, 999.0, RankingFeature.OWNERSHIP_COMPLETENESS, 1.0)), 2.75, 1e-9);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNegativeWeight() {
+    new LinearFeatureRanker(ImmutableMap.of(RankingFeature.RECENCY, -1.0));
+  }
+
+  @Test
+  public void testFromJson() throws Exception {
+    File file = File.createTempFile("weights", ".json");
+    file.deleteOnExit();
+    Files.write(file.toPath(), "{\"searchClickCount\": 2.0, \"recency\": 0.1}".getBytes(StandardCharsets.UTF_8));
+    LinearFeatureRanker ranker = LinearFeatureRanker.fromJson(file);
+    assertEquals(ranker.getWeights(),
+        ImmutableMap.of(RankingFeature.SEARCH_CLICK_COUNT, 2.0, RankingFeature.RECENCY, 0.1));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testFromJsonUnknownFeature() throws Exception {
+    File file = File.createTempFile("weights", ".json");
+    file.deleteOnExit();
+    Files.write(file.toPath(), "{\"unknown\": 1.0}".getBytes(StandardCharsets.UTF_8));
+    LinearFeatureRanker.fromJson(file);
+  }
+}
@@ -0,0 +1,291 @@
+package com.linkedin.metadata.search.ranker;
+
+import com.datahub.test.Snapshot;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.urn.TestEntityUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.datahubusage.DataHubUsageEventConstants;
+import com.linkedin.metadata.datahubusage.DataHubUsageEventType;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.SearchEntity;
+import com.linkedin.metadata.search.SearchResult;
+import com.linkedin.metadata.search.cache.AutocompletePrefixCache;
+import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.MappingsBuilder;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.SettingsBuilder;
+import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
+import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
+import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
+import com.linkedin.metadata.search.features.Features;
+import com.linkedin.metadata.search.features.RankingFeature;
+import com.linkedin.metadata.search.features.RankingFeatureService;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.metadata.DockerTestUtils.checkContainerEngine;
+import static com.linkedin.metadata.ElasticSearchTestUtils.syncAfterWrite;
+import static com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest.getBulkProcessor;
+import static com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest.getIndexBuilder;
+import static org.testng.Assert.assertEquals;
+
+
+/**
+ * Scores a fixed set of queries against a local index fixture, with the ranking features computed by the
+ * {@link RankingFeatureService} from fixture usage statistics and search click events, and checks that the ranker
+ * orders and scores results as expected.
+ */
+public class SearchRankingHarnessTest {
+
+  private static final String IMAGE_NAME = "docker.elastic.co/elasticsearch/elasticsearch:7.9.3";
+  private static final int HTTP_PORT = 9200;
+  private static final String ENTITY_NAME = "testEntity";
+  private static final long NOW = 1640995200000L;
+
+  // Documents of the fixture, which all match the queries equally. Without ranking, ties are ordered by urn.
+  private static final Urn UNUSED = new TestEntityUrn("fixture", "a_unused", "VALUE_1");
+  private static final Urn OWNED = new TestEntityUrn("fixture", "b_owned", "VALUE_1");
+  private static final Urn QUERIED = new TestEntityUrn("fixture", "c_queried", "VALUE_1");
+  private static final Urn CLICKED = new TestEntityUrn("fixture", "d_clicked", "VALUE_1");
+  private static final Map<Urn, Integer> OWNER_COUNTS = ImmutableMap.of(UNUSED, 0, OWNED, 2, QUERIED, 0, CLICKED, 1);
+  // 1000 queries over 2 usage buckets, last used a week ago
+  private static final List<Map<String, Object>> USAGE_FIXTURE = ImmutableList.of(
+      ImmutableMap.<String, Object>of("urn", QUERIED.toString(), "timestampMillis", NOW - TimeUnit.DAYS.toMillis(14),
+          "totalSqlQueries", 400, "isExploded", false),
+      ImmutableMap.<String, Object>of("urn", QUERIED.toString(), "timestampMillis", NOW - TimeUnit.DAYS.toMillis(7),
+          "totalSqlQueries", 600, "isExploded", false),
+      // Outside of the lookback window
+      ImmutableMap.<String, Object>of("urn", CLICKED.toString(), "timestampMillis", NOW - TimeUnit.DAYS.toMillis(60),
+          "totalSqlQueries", 100000, "isExploded", false));
+  // Usage statistics are written into monthly partitions of the usage index
+  private static final TimeseriesIndexPartitioner PARTITIONER =
+      new TimeseriesIndexPartitioner(TimeseriesIndexPartitioner.Granularity.MONTH, 0, 36);
+  private static final int CLICK_COUNT = 50;
+  private static final List<String> QUERIES = ImmutableList.of("fixture", "");
+
+  private ElasticsearchContainer _elasticsearchContainer;
+  private RestHighLevelClient _searchClient;
+  private EntityRegistry _entityRegistry;
+  private IndexConvention _indexConvention;
+  private ElasticSearchService _elasticSearchService;
+  private ESSearchDAO _rankedSearchDAO;
+  private LinearFeatureRanker _ranker;
+  private RankingFeatureService _rankingFeatureService;
+
+  @BeforeTest
+  public void setup() throws Exception {
+    _entityRegistry = new SnapshotEntityRegistry(new Snapshot());
+    _indexConvention = new IndexConventionImpl(null);
+    _elasticsearchContainer = new ElasticsearchContainer(IMAGE_NAME);
+    checkContainerEngine(_elasticsearchContainer.getDockerClient());
+    _elasticsearchContainer.start();
+    _searchClient = buildRestClient();
+    _elasticSearchService = buildService();
+    _elasticSearchService.configure();
+    _ranker = new LinearFeatureRanker();
+    _rankedSearchDAO = new ESSearchDAO(_entityRegistry, _searchClient, _indexConvention,
+        AutocompletePrefixCache.disabled(), _ranker);
+    _rankingFeatureService =
+        new RankingFeatureService(_searchClient, _indexConvention, _entityRegistry, PARTITIONER, 30, 7);
+    loadFixture();
+  }
+
+  @Nonnull
+  private RestHighLevelClient buildRestClient() {
+    final RestClientBuilder builder =
+        RestClient.builder(new HttpHost("localhost", _elasticsearchContainer.getMappedPort(HTTP_PORT), "http"))
+            .setHttpClientConfigCallback(httpAsyncClientBuilder -> httpAsyncClientBuilder.setDefaultIOReactorConfig(
+                IOReactorConfig.custom().setIoThreadCount(1).build()));
+    return new RestHighLevelClient(builder);
+  }
+
+  @Nonnull
+  private ElasticSearchService buildService() {
+    EntityIndexBuilders indexBuilders = new EntityIndexBuilders(getIndexBuilder(_searchClient), _entityRegistry,
+        _indexConvention, new SettingsBuilder(Collections.emptyList()));
+    ESSearchDAO searchDAO = new ESSearchDAO(_entityRegistry, _searchClient, _indexConvention);
+    ESBrowseDAO browseDAO = new ESBrowseDAO(_entityRegistry, _searchClient, _indexConvention);
+    ESWriteDAO writeDAO =
+        new ESWriteDAO(_entityRegistry, _searchClient, _indexConvention, getBulkProcessor(_searchClient));
+    return new ElasticSearchService(indexBuilders, searchDAO, browseDAO, writeDAO);
+  }
+
+  private void loadFixture() throws Exception {
+    for (Map.Entry<Urn, Integer> entry : OWNER_COUNTS.entrySet()) {
+      ObjectNode document = JsonNodeFactory.instance.objectNode();
+      document.put("urn", entry.getKey().toString());
+      document.put("keyPart1", "fixture");
+      document.put("textFieldOverride", "fixture document");
+      ArrayNode owners = document.putArray("owners");
+      for (int i = 0; i < entry.getValue(); i++) {
+        owners.add("urn:li:corpuser:owner" + i);
+      }
+      _elasticSearchService.upsertDocument(ENTITY_NAME, document.toString(),
+          URLEncoder.encode(entry.getKey().toString(), "UTF-8"));
+    }
+
+    final String usageIndex = _indexConvention.getTimeseriesAspectIndexName(RankingFeatureService.USAGE_ENTITY_NAME,
+        RankingFeatureService.USAGE_ASPECT_NAME);
+    final Set<String> usagePartitions = USAGE_FIXTURE.stream()
+        .map(usage -> PARTITIONER.getWriteIndexName(usageIndex, (long) usage.get("timestampMillis")))
+        .collect(Collectors.toSet());
+    for (String usagePartition : usagePartitions) {
+      _searchClient.indices().create(new CreateIndexRequest(usagePartition).mapping(ImmutableMap.of("properties",
+          ImmutableMap.of("urn", ImmutableMap.of("type", "keyword"), "timestampMillis", ImmutableMap.of("type", "date"),
+              "totalSqlQueries", ImmutableMap.of("type", "long"), "isExploded", ImmutableMap.of("type", "boolean")))),
+          RequestOptions.DEFAULT);
+    }
+    for (Map<String, Object> usage : USAGE_FIXTURE) {
+      final String usagePartition = PARTITIONER.getWriteIndexName(usageIndex, (long) usage.get("timestampMillis"));
+      _searchClient.index(new IndexRequest(usagePartition).source(usage), RequestOptions.DEFAULT);
+    }
+
+    final String usageEventIndex = _indexConvention.getIndexName(RankingFeatureService.DATAHUB_USAGE_INDEX);
+    _searchClient.indices().create(new CreateIndexRequest(usageEventIndex).mapping(ImmutableMap.of("properties",
+        ImmutableMap.of(DataHubUsageEventConstants.TYPE, ImmutableMap.of("type", "keyword"),
+            DataHubUsageEventConstants.TIMESTAMP, ImmutableMap.of("type", "date")))), RequestOptions.DEFAULT);
+    for (int i = 0; i < CLICK_COUNT; i++) {
+      ObjectNode event = JsonNodeFactory.instance.objectNode();
+      event.put(DataHubUsageEventConstants.TYPE, DataHubUsageEventType.SEARCH_RESULT_CLICK_EVENT.getType());
+      event.put(DataHubUsageEventConstants.TIMESTAMP, NOW - TimeUnit.HOURS.toMillis(i));
+      event.put(DataHubUsageEventConstants.ENTITY_URN, CLICKED.toString());
+      _searchClient.index(new IndexRequest(usageEventIndex).source(event.toString(), XContentType.JSON),
+          RequestOptions.DEFAULT);
+    }
+    // Clicks of other event types and of entities without search document are ignored
+    ObjectNode viewEvent = JsonNodeFactory.instance.objectNode();
+    viewEvent.put(DataHubUsageEventConstants.TYPE, DataHubUsageEventType.ENTITY_VIEW_EVENT.getType());
+    viewEvent.put(DataHubUsageEventConstants.TIMESTAMP, NOW);
+    viewEvent.put(DataHubUsageEventConstants.ENTITY_URN, UNUSED.toString());
+    _searchClient.index(new IndexRequest(usageEventIndex).source(viewEvent.toString(), XContentType.JSON),
+        RequestOptions.DEFAULT);
+    ObjectNode missingEvent = JsonNodeFactory.instance.objectNode();
+    missingEvent.put(DataHubUsageEventConstants.TYPE, DataHubUsageEventType.SEARCH_RESULT_CLICK_EVENT.getType());
+    missingEvent.put(DataHubUsageEventConstants.TIMESTAMP, NOW);
+    missingEvent.put(DataHubUsageEventConstants.ENTITY_URN,
+        new TestEntityUrn("fixture", "missing", "VALUE_1").toString());
+    _searchClient.index(new IndexRequest(usageEventIndex).source(missingEvent.toString(), XContentType.JSON),
+        RequestOptions.DEFAULT);
+    syncAfterWrite(_searchClient);
+  }
+
+  @AfterTest
+  public void tearDown() {
+    _elasticsearchContainer.stop();
+  }
+
+  @Test
+  public void testRankingHarness() throws Exception {
+    // Before features are computed, ranking keeps the order and scores of the search backend
+    for (String query : QUERIES) {
+      assertEquals(getUrns(_rankedSearchDAO.search(ENTITY_NAME, query, null, null, 0, 10)),
+          ImmutableList.of(UNUSED, OWNED, QUERIED, CLICKED));
+    }
+
+    final Map<String, Map<RankingFeature, Double>> features = _rankingFeatureService.computeFeatures(NOW);
+    assertEquals(features.size(), 3);
+    assertEquals(features.get(QUERIED.toString()).get(RankingFeature.USAGE_COUNT), 1000.0);
+    assertEquals(features.get(QUERIED.toString()).get(RankingFeature.RECENCY), 0.5, 1e-9);
+    assertEquals(features.get(CLICKED.toString()), ImmutableMap.of(RankingFeature.SEARCH_CLICK_COUNT, 50.0));
+    final Object unusedLastWritten = getSource(UNUSED).get(MappingsBuilder.LAST_WRITTEN_FIELD);
+    assertEquals(_rankingFeatureService.writeFeatures(features, NOW), 2);
+    syncAfterWrite(_searchClient);
+    // Only documents with new features count as written, e.g. for the catch-up of a reindex
+    assertEquals(getSource(UNUSED).get(MappingsBuilder.LAST_WRITTEN_FIELD), unusedLastWritten);
+    assertEquals(getSource(QUERIED).get(MappingsBuilder.LAST_WRITTEN_FIELD), NOW);
+    assertEquals(getFeatures(OWNED).get(RankingFeature.OWNERSHIP_COMPLETENESS.getName()), 1.0);
+    assertEquals(getFeatures(CLICKED).get(RankingFeature.OWNERSHIP_COMPLETENESS.getName()), 0.5);
+    // Documents whose features are unchanged are not rewritten
+    final long unusedVersion = getDocument(UNUSED).getVersion();
+    _rankingFeatureService.writeFeatures(features, NOW);
+    syncAfterWrite(_searchClient);
+    assertEquals(getDocument(UNUSED).getVersion(), unusedVersion);
+
+    // Factors: clicked 1 + log10(51) + 0.25 * 0.5 = 2.83, queried 1 + 0.5 * log10(1001) + 0.5 * 0.5 = 2.75,
+    // owned 1 + 0.25 = 1.25, unused 1
+    final List<Urn> expected = ImmutableList.of(CLICKED, QUERIED, OWNED, UNUSED);
+    for (String query : QUERIES) {
+      final SearchResult baseline = _elasticSearchService.search(ENTITY_NAME, query, null, null, 0, 10);
+      final SearchResult ranked = _rankedSearchDAO.search(ENTITY_NAME, query, null, null, 0, 10);
+      assertEquals(getUrns(ranked), expected);
+      for (int i = 0; i < expected.size(); i++) {
+        final Urn urn = expected.get(i);
+        final Map<RankingFeature, Double> expectedFeatures = ImmutableMap.<RankingFeature, Double>builder()
+            .putAll(features.getOrDefault(urn.toString(), ImmutableMap.of()))
+            .put(RankingFeature.OWNERSHIP_COMPLETENESS, Math.min(1.0, OWNER_COUNTS.get(urn) / 2.0))
+            .build();
+        assertEquals(getScore(ranked, urn) / getScore(baseline, urn), _ranker.getScoreFactor(expectedFeatures), 1e-3);
+      }
+      // Ranking applies before pagination
+      assertEquals(getUrns(_rankedSearchDAO.search(ENTITY_NAME, query, null, null, 0, 1)),
+          ImmutableList.of(CLICKED));
+      assertEquals(getUrns(_rankedSearchDAO.search(ENTITY_NAME, query, null, null, 1, 1)),
+          ImmutableList.of(QUERIED));
+    }
+
+    // Features of entities no longer used nor clicked are reset by the next run
+    assertEquals(_rankingFeatureService.writeFeatures(ImmutableMap.of(), NOW + 1), 0);
+    syncAfterWrite(_searchClient);
+    for (String query : QUERIES) {
+      assertEquals(getUrns(_rankedSearchDAO.search(ENTITY_NAME, query, null, null, 0, 10)),
+          ImmutableList.of(OWNED, CLICKED, UNUSED, QUERIED));
+    }
+  }
+
+  private static List<Urn> getUrns(SearchResult result) {
+    return result.getEntities().stream().map(SearchEntity::getEntity).collect(Collectors.toList());
+  }
+
+  private static double getScore(SearchResult result, Urn urn) {
+    return result.getEntities()
+        .stream()
+        .filter(entity -> entity.getEntity().equals(urn))
+        .findFirst()
+        .map(entity -> entity.getFeatures().get(Features.Name.SEARCH_BACKEND_SCORE.toString()))
+        .orElseThrow(() -> new AssertionError("Missing result " + urn));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getFeatures(Urn urn) throws Exception {
+    return (Map<String, Object>) getSource(urn).get(RankingFeature.FIELD);
+  }
+
+  private Map<String, Object> getSource(Urn urn) throws Exception {
+    return getDocument(urn).getSourceAsMap();
+  }
+
+  private GetResponse getDocument(Urn urn) throws Exception {
+    final GetRequest request = new GetRequest(_indexConvention.getIndexName(_entityRegistry.getEntitySpec(ENTITY_NAME)),
+        URLEncoder.encode(urn.toString(), "UTF-8"));
+    return _searchClient.get(request, RequestOptions.DEFAULT);
+  }
+}
@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.linkedin.metadata.TestEntitySpecBuilder;
 import com.linkedin.metadata.TestEntityUtil;
 import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.MappingsBuilder;
 import java.io.IOException;
 import java.util.Optional;
 import org.testng.annotations.Test;
@@ -48,6 +49,7 @@ public class SearchDocumentTransformerTest {
     assertEquals(browsePaths.size(), 2);
     assertEquals(browsePaths.get(0).asText(), "/a/b/c");
     assertEquals(browsePaths.get(1).asText(), "d/e/f");
+    assertTrue(parsedJson.get(MappingsBuilder.LAST_WRITTEN_FIELD).isLong());
   }
 
   @Test
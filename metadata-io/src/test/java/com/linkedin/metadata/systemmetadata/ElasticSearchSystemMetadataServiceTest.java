@@ -1,11 +1,15 @@
 package com.linkedin.metadata.systemmetadata;
 
+import com.google.common.collect.ImmutableList;
 import com.linkedin.metadata.run.AspectRowSummary;
 import com.linkedin.metadata.run.IngestionRunSummary;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
 import com.linkedin.mxe.SystemMetadata;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nonnull;
 import org.apache.http.HttpHost;
@@ -13,6 +17,7 @@ import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.search.SearchHit;
 import org.testcontainers.elasticsearch.ElasticsearchContainer;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeMethod;
@@ -31,6 +36,7 @@ public class ElasticSearchSystemMetadataServiceTest {
   private RestHighLevelClient _searchClient;
   private final IndexConvention _indexConvention = new IndexConventionImpl(null);
   private final String _indexName = _indexConvention.getIndexName(INDEX_NAME);
+  private ESSystemMetadataDAO _dao;
   private ElasticSearchSystemMetadataService _client;
 
   private static final String IMAGE_NAME = "docker.elastic.co/elasticsearch/elasticsearch:7.9.3";
@@ -67,9 +73,9 @@ public class ElasticSearchSystemMetadataServiceTest {
 
   @Nonnull
   private ElasticSearchSystemMetadataService buildService() {
-    ESSystemMetadataDAO dao = new ESSystemMetadataDAO(_searchClient, _indexConvention,
+    _dao = new ESSystemMetadataDAO(_searchClient, _indexConvention,
         ElasticSearchServiceTest.getBulkProcessor(_searchClient));
-    return new ElasticSearchSystemMetadataService(_searchClient, _indexConvention, dao,
+    return new ElasticSearchSystemMetadataService(_searchClient, _indexConvention, _dao,
         ElasticSearchServiceTest.getIndexBuilder(_searchClient));
   }
 
@@ -161,6 +167,57 @@ public class ElasticSearchSystemMetadataServiceTest {
     rows.forEach(row -> assertEquals(row.getRunId(), "abc-456"));
   }
 
+  @Test
+  public void testFindByParamsPages() throws Exception {
+    SystemMetadata metadata1 = new SystemMetadata();
+    metadata1.setRunId("abc-123");
+    metadata1.setLastObserved(Long.valueOf(120L));
+
+    _client.insert(metadata1, "urn:li:chart:1", "chartKey");
+    _client.insert(metadata1, "urn:li:chart:1", "ChartInfo");
+    _client.insert(metadata1, "urn:li:chart:1", "Ownership");
+    _client.insert(metadata1, "urn:li:chart:2", "chartKey");
+    _client.insert(metadata1, "urn:li:chart:2", "Ownership");
+
+    syncAfterWrite(_searchClient, _indexName);
+
+    List<String> docs = new ArrayList<>();
+    Object[] searchAfter = null;
+    int pages = 0;
+    do {
+      SearchHit[] hits =
+          _dao.findByParams(Collections.singletonMap("runId", "abc-123"), searchAfter, 2).getHits().getHits();
+      Arrays.stream(hits).map(hit -> hit.getSourceAsMap().get("urn") + "/" + hit.getSourceAsMap().get("aspect"))
+          .forEach(docs::add);
+      searchAfter = hits.length == 2 ? hits[hits.length - 1].getSortValues() : null;
+      pages++;
+    } while (searchAfter != null);
+
+    assertEquals(pages, 3);
+    // Sorted by urn & aspect, so that each document is returned exactly once
+    assertEquals(docs, ImmutableList.of("urn:li:chart:1/ChartInfo", "urn:li:chart:1/Ownership",
+        "urn:li:chart:1/chartKey", "urn:li:chart:2/Ownership", "urn:li:chart:2/chartKey"));
+  }
+
+  @Test
+  public void testFindByRunIdPastOnePage() throws Exception {
+    SystemMetadata metadata1 = new SystemMetadata();
+    metadata1.setRunId("abc-123");
+    metadata1.setLastObserved(Long.valueOf(120L));
+
+    int numRows = ElasticSearchSystemMetadataService.FIND_PAGE_SIZE * 2 + 1;
+    for (int i = 0; i < numRows; i++) {
+      _client.insert(metadata1, "urn:li:chart:" + i, "chartKey");
+    }
+
+    syncAfterWrite(_searchClient, _indexName);
+
+    List<AspectRowSummary> rows = _client.findByRunId("abc-123");
+
+    assertEquals(rows.size(), numRows);
+    assertEquals(rows.stream().map(AspectRowSummary::getUrn).distinct().count(), numRows);
+  }
+
   @Test
   public void testDelete() throws Exception {
     SystemMetadata metadata1 = new SystemMetadata();
@@ -0,0 +1,60 @@
+package com.linkedin.metadata.timeseries.elastic;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectIndexBuilders;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.timeseries.elastic.query.AggregatedStatsCache;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+
+
+public class TimeseriesAspectCacheInvalidationTest {
+
+  private static final String URN = "urn:li:dataset:(urn:li:dataPlatform:hive,one,PROD)";
+
+  private BulkProcessor _bulkProcessor;
+  private AggregatedStatsCache _cache;
+  private ElasticSearchTimeseriesAspectService _service;
+
+  @BeforeMethod
+  public void setup() {
+    _bulkProcessor = mock(BulkProcessor.class);
+    _cache = mock(AggregatedStatsCache.class);
+    final TimeseriesAspectIndexBuilders indexBuilders = mock(TimeseriesAspectIndexBuilders.class);
+    when(indexBuilders.getPartitioner()).thenReturn(TimeseriesIndexPartitioner.disabled());
+    _service = new ElasticSearchTimeseriesAspectService(mock(RestHighLevelClient.class), new IndexConventionImpl(null),
+        indexBuilders, mock(EntityRegistry.class), _bulkProcessor, _cache);
+  }
+
+  @Test
+  public void testInvalidatesOnceFlushed() {
+    final ObjectNode document = JsonNodeFactory.instance.objectNode();
+    document.put(MappingsBuilder.URN_FIELD, URN);
+    document.put(MappingsBuilder.TIMESTAMP_MILLIS_FIELD, 1L);
+    _service.upsertDocument("dataset", "datasetProfile", "docId", document);
+    verify(_cache, times(1)).invalidate(URN);
+
+    final ArgumentCaptor<DocWriteRequest> queued = ArgumentCaptor.forClass(DocWriteRequest.class);
+    verify(_bulkProcessor).add(queued.capture());
+    // Other requests of the bulk request were not queued by the service
+    _service.onBulkFlushed(new BulkRequest().add(queued.getValue()).add(new UpdateRequest("index", "other")));
+    verify(_cache, times(2)).invalidate(URN);
+    verifyNoMoreInteractions(_cache);
+
+    // The urn is only invalidated after the first flush of the request
+    _service.onBulkFlushed(new BulkRequest().add(queued.getValue()));
+    verifyNoMoreInteractions(_cache);
+  }
+}
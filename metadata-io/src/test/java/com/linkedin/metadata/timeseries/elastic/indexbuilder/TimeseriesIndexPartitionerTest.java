@@ -0,0 +1,80 @@
+package com.linkedin.metadata.timeseries.elastic.indexbuilder;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class TimeseriesIndexPartitionerTest {
+
+  private static final String INDEX = "dataset_datasetprofileaspect_v1";
+  private static final long JAN_15 = millis(2021, 1, 15);
+  private static final long MAR_02 = millis(2021, 3, 2);
+
+  private final TimeseriesIndexPartitioner _monthly =
+      new TimeseriesIndexPartitioner(TimeseriesIndexPartitioner.Granularity.MONTH, 90, 12);
+
+  private static long millis(int year, int month, int day) {
+    return ZonedDateTime.of(year, month, day, 12, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  private static Criterion timestampCriterion(Condition condition, long value) {
+    return new Criterion().setField("timestampMillis").setCondition(condition).setValue(String.valueOf(value));
+  }
+
+  @Test
+  public void testDisabled() {
+    final TimeseriesIndexPartitioner disabled = TimeseriesIndexPartitioner.disabled();
+    assertEquals(disabled.getWriteIndexName(INDEX, JAN_15), INDEX);
+    assertEquals(disabled.getSearchIndexNames(INDEX, JAN_15, MAR_02), new String[]{INDEX});
+    assertFalse(disabled.isExpired(INDEX, INDEX + "_2000_01", JAN_15));
+  }
+
+  @Test
+  public void testWriteIndexName() {
+    assertEquals(_monthly.getWriteIndexName(INDEX, JAN_15), INDEX + "_2021_01");
+    assertEquals(new TimeseriesIndexPartitioner(TimeseriesIndexPartitioner.Granularity.DAY, 0, 12).getWriteIndexName(
+        INDEX, JAN_15), INDEX + "_2021_01_15");
+  }
+
+  @Test
+  public void testSearchIndexNames() {
+    assertEquals(_monthly.getSearchIndexNames(INDEX, JAN_15, MAR_02),
+        new String[]{INDEX, INDEX + "_2021_01", INDEX + "_2021_02", INDEX + "_2021_03"});
+    assertEquals(_monthly.getSearchIndexNames(INDEX, JAN_15, null), new String[]{INDEX, INDEX + "_*"});
+    assertEquals(_monthly.getSearchIndexNames(INDEX, millis(2010, 1, 1), MAR_02), new String[]{INDEX, INDEX + "_*"});
+  }
+
+  @Test
+  public void testSearchIndexNamesFromFilter() {
+    final Filter filter = new Filter().setOr(new ConjunctiveCriterionArray(ImmutableList.of(
+        new ConjunctiveCriterion().setAnd(new CriterionArray(ImmutableList.of(
+            timestampCriterion(Condition.GREATER_THAN_OR_EQUAL_TO, JAN_15),
+            timestampCriterion(Condition.LESS_THAN_OR_EQUAL_TO, JAN_15)))))));
+    assertEquals(_monthly.getSearchIndexNames(INDEX, filter), new String[]{INDEX, INDEX + "_2021_01"});
+
+    // A clause without an upper bound prevents pruning.
+    filter.getOr().add(new ConjunctiveCriterion().setAnd(new CriterionArray(ImmutableList.of(
+        timestampCriterion(Condition.GREATER_THAN, MAR_02)))));
+    assertEquals(_monthly.getSearchIndexNames(INDEX, filter), new String[]{INDEX, INDEX + "_*"});
+    assertEquals(_monthly.getSearchIndexNames(INDEX, (Filter) null), new String[]{INDEX, INDEX + "_*"});
+  }
+
+  @Test
+  public void testIsExpired() {
+    final long now = millis(2021, 6, 1);
+    assertTrue(_monthly.isExpired(INDEX, INDEX + "_2021_01", now));
+    assertFalse(_monthly.isExpired(INDEX, INDEX + "_2021_03", now));
+    assertFalse(_monthly.isExpired(INDEX, INDEX + "_1634567890123", now));
+    assertFalse(_monthly.isExpired(INDEX, "dataset_otheraspect_v1_2021_01", now));
+  }
+}
@@ -0,0 +1,136 @@
+package com.linkedin.metadata.timeseries.elastic.query;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.timeseries.AggregationSpec;
+import com.linkedin.timeseries.AggregationType;
+import com.linkedin.timeseries.GenericTable;
+import com.linkedin.timeseries.GroupingBucket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class AggregatedStatsCacheTest {
+
+  private static final String URN_ONE = "urn:li:dataset:(urn:li:dataPlatform:hive,one,PROD)";
+  private static final String URN_TWO = "urn:li:dataset:(urn:li:dataPlatform:hive,two,PROD)";
+  private static final AggregationSpec[] SPECS =
+      new AggregationSpec[]{new AggregationSpec().setAggregationType(AggregationType.SUM).setFieldPath("count")};
+  private static final GroupingBucket[] BUCKETS = new GroupingBucket[0];
+  private static final long HISTORICAL_END = 1_600_000_000_000L;
+
+  private AggregatedStatsCache _cache;
+  private List<Filter> _loadedFilters;
+
+  private static Filter filter(String urn, long start, long end) {
+    return new Filter().setCriteria(new CriterionArray(ImmutableList.of(
+        new Criterion().setField("urn").setCondition(Condition.EQUAL).setValue(urn),
+        new Criterion().setField("timestampMillis").setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(start)),
+        new Criterion().setField("timestampMillis").setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(end)))));
+  }
+
+  private GenericTable get(Filter filter) {
+    return _cache.get("dataset", "datasetProfile", SPECS, filter, BUCKETS, () -> load(filter));
+  }
+
+  private GenericTable load(Filter filter) {
+    _loadedFilters.add(filter);
+    return new GenericTable().setColumnNames(new StringArray()).setColumnTypes(new StringArray());
+  }
+
+  @BeforeMethod
+  public void setup() {
+    _cache = new AggregatedStatsCache(100, 60, 3600);
+    _loadedFilters = new ArrayList<>();
+  }
+
+  @Test
+  public void testHistoricalHitRegardlessOfCriteriaOrder() {
+    final Filter filter = filter(URN_ONE, HISTORICAL_END - 1000, HISTORICAL_END);
+    final Filter reordered = new Filter().setCriteria(new CriterionArray(ImmutableList.of(
+        filter.getCriteria().get(2), filter.getCriteria().get(0), filter.getCriteria().get(1))));
+
+    get(filter);
+    get(reordered);
+
+    assertEquals(_loadedFilters.size(), 1);
+    // Historical windows are queried as requested.
+    assertEquals(_loadedFilters.get(0), filter);
+    assertEquals(_cache.size(), 1);
+  }
+
+  @Test
+  public void testRecentWindowsShareRoundedKey() {
+    final long now = System.currentTimeMillis();
+    final long ttl = TimeUnit.SECONDS.toMillis(60);
+    final long end = now - Math.floorMod(now, ttl) + ttl - 1;
+    final Filter filter = filter(URN_ONE, end - TimeUnit.DAYS.toMillis(30), end);
+
+    get(filter);
+    get(filter(URN_ONE, end - TimeUnit.DAYS.toMillis(30) - 1, end - 1));
+
+    assertEquals(_loadedFilters.size(), 1);
+    // The window is only rounded in the cache key, and is queried as requested.
+    assertEquals(_loadedFilters.get(0), filter);
+  }
+
+  @Test
+  public void testInvalidateByUrn() {
+    get(filter(URN_ONE, HISTORICAL_END - 1000, HISTORICAL_END));
+    get(filter(URN_TWO, HISTORICAL_END - 1000, HISTORICAL_END));
+
+    _cache.invalidate(URN_ONE);
+    get(filter(URN_ONE, HISTORICAL_END - 1000, HISTORICAL_END));
+    get(filter(URN_TWO, HISTORICAL_END - 1000, HISTORICAL_END));
+
+    assertEquals(_loadedFilters.size(), 3);
+  }
+
+  @Test
+  public void testResultOfRacingLoadIsNotCached() {
+    final Filter filter = filter(URN_ONE, HISTORICAL_END - 1000, HISTORICAL_END);
+    _cache.get("dataset", "datasetProfile", SPECS, filter, BUCKETS, () -> {
+      _cache.invalidate(URN_ONE);
+      return load(filter);
+    });
+
+    get(filter);
+    assertEquals(_loadedFilters.size(), 2);
+  }
+
+  @Test
+  public void testResultOfRecentlyWrittenUrnIsNotCached() {
+    _cache.invalidate(URN_ONE);
+
+    // The write may not be visible to searches yet
+    get(filter(URN_ONE, HISTORICAL_END - 1000, HISTORICAL_END));
+    get(filter(URN_ONE, HISTORICAL_END - 1000, HISTORICAL_END));
+    get(filter(URN_TWO, HISTORICAL_END - 1000, HISTORICAL_END));
+    get(filter(URN_TWO, HISTORICAL_END - 1000, HISTORICAL_END));
+
+    assertEquals(_loadedFilters.size(), 3);
+  }
+
+  @Test
+  public void testDisabled() {
+    _cache = AggregatedStatsCache.disabled();
+    final Filter filter = filter(URN_ONE, HISTORICAL_END - 1000, HISTORICAL_END);
+
+    get(filter);
+    get(filter);
+
+    assertEquals(_loadedFilters.size(), 2);
+    assertEquals(_cache.size(), 0);
+  }
+}
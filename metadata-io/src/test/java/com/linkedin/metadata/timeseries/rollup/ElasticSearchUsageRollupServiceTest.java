@@ -0,0 +1,266 @@
+package com.linkedin.metadata.timeseries.rollup;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.common.WindowDuration;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.dataset.DatasetFieldUsageCounts;
+import com.linkedin.dataset.DatasetFieldUsageCountsArray;
+import com.linkedin.dataset.DatasetUsageStatistics;
+import com.linkedin.dataset.DatasetUserUsageCounts;
+import com.linkedin.dataset.DatasetUserUsageCountsArray;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.registry.ConfigEntityRegistry;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest;
+import com.linkedin.metadata.snapshot.Snapshot;
+import com.linkedin.metadata.timeseries.elastic.ElasticSearchTimeseriesAspectService;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectIndexBuilders;
+import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import com.linkedin.timeseries.CalendarInterval;
+import com.linkedin.timeseries.TimeWindowSize;
+import com.linkedin.usage.FieldUsageCounts;
+import com.linkedin.usage.FieldUsageCountsArray;
+import com.linkedin.usage.UsageQueryResult;
+import com.linkedin.usage.UserUsageCountsArray;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.metadata.DockerTestUtils.*;
+import static com.linkedin.metadata.ElasticSearchTestUtils.*;
+import static org.testng.Assert.*;
+
+
+public class ElasticSearchUsageRollupServiceTest {
+
+  private static final String IMAGE_NAME = "docker.elastic.co/elasticsearch/elasticsearch:7.9.3";
+  private static final int HTTP_PORT = 9200;
+  private static final String ENTITY_NAME = "dataset";
+  private static final String ASPECT_NAME = "datasetUsageStatistics";
+  private static final Urn USER_ONE = UrnUtils.getUrn("urn:li:corpuser:one");
+  private static final Urn USER_TWO = UrnUtils.getUrn("urn:li:corpuser:two");
+  private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+  // The first day of the month, three months ago, so that the usage spans whole weeks and months within the max age
+  private static final long START = ZonedDateTime.now(ZoneOffset.UTC)
+      .truncatedTo(ChronoUnit.DAYS)
+      .withDayOfMonth(1)
+      .minusMonths(3)
+      .toInstant()
+      .toEpochMilli();
+  private static final int DAYS = 40;
+
+  private ElasticsearchContainer _elasticsearchContainer;
+  private RestHighLevelClient _searchClient;
+  private ElasticSearchTimeseriesAspectService _timeseriesAspectService;
+  private AspectSpec _aspectSpec;
+  private ElasticSearchUsageRollupService _rollupService;
+  private TimeseriesUsageAggregator _aggregator;
+  private int _datasetCount;
+
+  @BeforeTest
+  public void setup() {
+    final EntityRegistry entityRegistry =
+        new ConfigEntityRegistry(Snapshot.class.getClassLoader().getResourceAsStream("entity-registry.yml"));
+    final IndexConvention indexConvention = new IndexConventionImpl(null);
+    _elasticsearchContainer = new ElasticsearchContainer(IMAGE_NAME);
+    checkContainerEngine(_elasticsearchContainer.getDockerClient());
+    _elasticsearchContainer.start();
+    _searchClient = buildRestClient();
+    _timeseriesAspectService = new ElasticSearchTimeseriesAspectService(_searchClient, indexConvention,
+        new TimeseriesAspectIndexBuilders(ElasticSearchServiceTest.getIndexBuilder(_searchClient), entityRegistry,
+            indexConvention), entityRegistry, ElasticSearchServiceTest.getBulkProcessor(_searchClient));
+    _timeseriesAspectService.configure();
+    _aspectSpec = entityRegistry.getEntitySpec(ENTITY_NAME).getAspectSpec(ASPECT_NAME);
+    _rollupService = buildRollupService(indexConvention);
+    _rollupService.configure();
+    _aggregator = new TimeseriesUsageAggregator(_timeseriesAspectService);
+  }
+
+  @Nonnull
+  private RestHighLevelClient buildRestClient() {
+    final RestClientBuilder builder =
+        RestClient.builder(new HttpHost("localhost", _elasticsearchContainer.getMappedPort(HTTP_PORT), "http"))
+            .setHttpClientConfigCallback(httpAsyncClientBuilder -> httpAsyncClientBuilder.setDefaultIOReactorConfig(
+                IOReactorConfig.custom().setIoThreadCount(1).build()));
+
+    builder.setRequestConfigCallback(requestConfigBuilder -> requestConfigBuilder.setConnectionRequestTimeout(3000));
+
+    return new RestHighLevelClient(builder);
+  }
+
+  @Nonnull
+  private ElasticSearchUsageRollupService buildRollupService(@Nonnull IndexConvention indexConvention) {
+    return new ElasticSearchUsageRollupService(_searchClient, indexConvention,
+        ElasticSearchServiceTest.getIndexBuilder(_searchClient), _timeseriesAspectService, true, 400, 100, 100);
+  }
+
+  @AfterTest
+  public void tearDown() {
+    _elasticsearchContainer.stop();
+  }
+
+  @Test
+  public void testMatchesRawAggregations() throws Exception {
+    final Urn dataset = newDataset();
+    for (int day = 0; day < DAYS; day++) {
+      ingest(dataset, usage(START + day * DAY_MILLIS, day, day + 1, day % 2), true);
+    }
+    // A second event within the same day, whose metrics are the latest ones of the day
+    ingest(dataset, usage(START + 5 * DAY_MILLIS + TimeUnit.HOURS.toMillis(12), 100, 3, 4), true);
+    syncAfterWrite(_searchClient);
+
+    for (WindowDuration duration : ElasticSearchUsageRollupService.DURATIONS) {
+      assertMatchesRaw(dataset, duration, START, null, null);
+      // Ending right before the bucket of day 35, which only the raw aggregations could split
+      final long endTime = UsageRollup.truncate(START + 35 * DAY_MILLIS, duration).toInstant().toEpochMilli() - 1;
+      assertMatchesRaw(dataset, duration, START, endTime, null);
+      assertMatchesRaw(dataset, duration, START, null, 2);
+    }
+  }
+
+  @Test
+  public void testReplacesReEmittedEvents() throws Exception {
+    final Urn dataset = newDataset();
+    for (int day = 0; day < 10; day++) {
+      ingest(dataset, usage(START + day * DAY_MILLIS, day, day + 1, 1), true);
+    }
+    // Re-emitted with other counts, which replace the previous ones in the raw documents too
+    ingest(dataset, usage(START + 3 * DAY_MILLIS, 30, 7, 0), true);
+    ingest(dataset, usage(START + 3 * DAY_MILLIS, 40, 8, 2), true);
+    syncAfterWrite(_searchClient);
+
+    for (WindowDuration duration : ElasticSearchUsageRollupService.DURATIONS) {
+      assertMatchesRaw(dataset, duration, START, null, null);
+    }
+  }
+
+  @Test
+  public void testSeedsFromRawDocuments() throws Exception {
+    final Urn dataset = newDataset();
+    // Ingested before rollups were enabled
+    for (int day = 0; day < 10; day++) {
+      ingest(dataset, usage(START + day * DAY_MILLIS, day, day + 1, 1), false);
+    }
+    syncAfterWrite(_searchClient);
+
+    ingest(dataset, usage(START + 10 * DAY_MILLIS, 10, 11, 1), true);
+    syncAfterWrite(_searchClient);
+
+    assertMatchesRaw(dataset, WindowDuration.DAY, START, null, null);
+    assertMatchesRaw(dataset, WindowDuration.MONTH, START, null, null);
+  }
+
+  @Test
+  public void testTruncatedSeedOnlyCoversFetchedEvents() throws Exception {
+    final Urn dataset = newDataset();
+    for (int day = 0; day < 6; day++) {
+      ingest(dataset, usage(START + day * DAY_MILLIS, day, day + 1, 1), false);
+    }
+    syncAfterWrite(_searchClient);
+
+    final ElasticSearchUsageRollupService rollupService = buildRollupService(new IndexConventionImpl(null));
+    rollupService._maxSeedEvents = 3;
+    rollupService.update(dataset, usage(START + 5 * DAY_MILLIS, 5, 6, 1));
+    syncAfterWrite(_searchClient);
+
+    // The latest 3 events were fetched, so that events sharing the timestamp of day 3 may not have been
+    final long oldestFetched = START + 3 * DAY_MILLIS;
+    assertEquals(rollupService.query(dataset, WindowDuration.DAY, oldestFetched, null, null), Optional.empty());
+    final UsageQueryResult result = rollupService.query(dataset, WindowDuration.DAY, oldestFetched + 1, null, null)
+        .get();
+    assertEquals(normalize(result), normalize(_aggregator.query(dataset.toString(), WindowDuration.DAY,
+        oldestFetched + 1, null, null)));
+  }
+
+  @Test
+  public void testRangeStartingWithinBucketIsNotServed() throws Exception {
+    final Urn dataset = newDataset();
+    ingest(dataset, usage(START, 1, 1, 1), true);
+    ingest(dataset, usage(START + TimeUnit.HOURS.toMillis(12), 2, 2, 2), true);
+    syncAfterWrite(_searchClient);
+
+    assertEquals(_rollupService.query(dataset, WindowDuration.DAY, START + 1, null, null), Optional.empty());
+    assertEquals(_rollupService.query(dataset, WindowDuration.DAY, START, START + 1, null), Optional.empty());
+    assertMatchesRaw(dataset, WindowDuration.DAY, START, START + DAY_MILLIS, null);
+    // Hourly buckets are not maintained
+    assertEquals(_rollupService.query(dataset, WindowDuration.HOUR, START, null, null), Optional.empty());
+  }
+
+  @Nonnull
+  private Urn newDataset() {
+    return UrnUtils.getUrn(
+        String.format("urn:li:dataset:(urn:li:dataPlatform:hive,testUsageRollup%d,PROD)", _datasetCount++));
+  }
+
+  private void ingest(@Nonnull Urn urn, @Nonnull DatasetUsageStatistics usage, boolean rollup) throws Exception {
+    TimeseriesAspectTransformer.transform(urn, usage, _aspectSpec, null)
+        .forEach((id, document) -> _timeseriesAspectService.upsertDocument(ENTITY_NAME, ASPECT_NAME, id, document));
+    if (rollup) {
+      _rollupService.update(urn, usage);
+    }
+  }
+
+  private void assertMatchesRaw(@Nonnull Urn urn, @Nonnull WindowDuration duration, long startTime,
+      @Nullable Long endTime, @Nullable Integer maxBuckets) {
+    final Optional<UsageQueryResult> rollupResult =
+        _rollupService.query(urn, duration, startTime, endTime, maxBuckets);
+    assertTrue(rollupResult.isPresent(), duration.toString());
+    assertEquals(normalize(rollupResult.get()),
+        normalize(_aggregator.query(urn.toString(), duration, startTime, endTime, maxBuckets)), duration.toString());
+  }
+
+  // Sorts the users and fields, whose order differs between the rollups and the raw aggregations
+  @Nonnull
+  private static UsageQueryResult normalize(@Nonnull UsageQueryResult result) {
+    final UsageQueryResult normalized;
+    try {
+      normalized = result.copy();
+    } catch (CloneNotSupportedException e) {
+      throw new RuntimeException(e);
+    }
+    normalized.getAggregations().setUsers(new UserUsageCountsArray(normalized.getAggregations().getUsers()
+        .stream()
+        .sorted(Comparator.comparing(users -> users.getUser().toString()))
+        .collect(Collectors.toList())));
+    normalized.getAggregations().setFields(new FieldUsageCountsArray(normalized.getAggregations().getFields()
+        .stream()
+        .sorted(Comparator.comparing(FieldUsageCounts::getFieldName))
+        .collect(Collectors.toList())));
+    return normalized;
+  }
+
+  @Nonnull
+  private static DatasetUsageStatistics usage(long timestamp, int totalSqlQueries, int userOneCount,
+      int userTwoCount) {
+    return new DatasetUsageStatistics().setTimestampMillis(timestamp)
+        .setEventGranularity(new TimeWindowSize().setUnit(CalendarInterval.DAY).setMultiple(1))
+        .setTotalSqlQueries(totalSqlQueries)
+        .setUniqueUserCount(2)
+        .setTopSqlQueries(new StringArray(ImmutableList.of("select " + totalSqlQueries)))
+        .setUserCounts(new DatasetUserUsageCountsArray(ImmutableList.of(
+            new DatasetUserUsageCounts().setUser(USER_ONE).setCount(userOneCount).setUserEmail("one@example.com"),
+            new DatasetUserUsageCounts().setUser(USER_TWO).setCount(userTwoCount))))
+        .setFieldCounts(new DatasetFieldUsageCountsArray(ImmutableList.of(
+            new DatasetFieldUsageCounts().setFieldPath("name").setCount(userOneCount + userTwoCount),
+            new DatasetFieldUsageCounts().setFieldPath("id").setCount(userOneCount))));
+  }
+}
@@ -0,0 +1,172 @@
+package com.linkedin.metadata.timeseries.rollup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.WindowDuration;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.dataset.DatasetFieldUsageCounts;
+import com.linkedin.dataset.DatasetFieldUsageCountsArray;
+import com.linkedin.dataset.DatasetUsageStatistics;
+import com.linkedin.dataset.DatasetUserUsageCounts;
+import com.linkedin.dataset.DatasetUserUsageCountsArray;
+import com.linkedin.timeseries.CalendarInterval;
+import com.linkedin.timeseries.TimeWindowSize;
+import com.linkedin.usage.FieldUsageCounts;
+import com.linkedin.usage.UsageAggregation;
+import com.linkedin.usage.UsageQueryResult;
+import com.linkedin.usage.UserUsageCounts;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class UsageRollupTest {
+
+  private static final Urn DATASET = UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,one,PROD)");
+  private static final String USER_ONE = "urn:li:corpuser:one";
+  private static final String USER_TWO = "urn:li:corpuser:two";
+  // Monday 2021-03-01, Tuesday 2021-03-02 & Wednesday 2021-03-03
+  private static final long MAR_01 = day(1);
+  private static final long MAR_02 = day(2);
+  private static final long MAR_03 = day(3);
+
+  private static long day(int dayOfMonth) {
+    return ZonedDateTime.of(2021, 3, dayOfMonth, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  // A day bucket of a single event at the start of the day
+  private static UsageRollupBucket bucket(long day, int totalSqlQueries, long userOneCount, long userTwoCount) {
+    final UsageRollupBucket bucket = new UsageRollupBucket();
+    bucket.setBucket(day);
+    bucket.setMinTimestampMillis(day);
+    bucket.setMaxTimestampMillis(day);
+    bucket.setTotalSqlQueries(new UsageRollupBucket.Latest<>(day, totalSqlQueries));
+    bucket.setTopSqlQueries(new UsageRollupBucket.Latest<>(day, ImmutableList.of("select " + day)));
+    bucket.getUsers().put(USER_ONE, new UsageRollupBucket.UserCount(userOneCount, 1, "one" + day, day));
+    bucket.getUsers().put(USER_TWO, new UsageRollupBucket.UserCount(userTwoCount, 1, null, null));
+    bucket.getFields().put("name", new UsageRollupBucket.FieldCount(userOneCount + userTwoCount, 1));
+    return bucket;
+  }
+
+  @Test
+  public void testToContribution() {
+    final DatasetUsageStatistics usage = new DatasetUsageStatistics().setTimestampMillis(MAR_01)
+        .setTotalSqlQueries(10)
+        .setTopSqlQueries(new StringArray(ImmutableList.of("select")))
+        .setUserCounts(new DatasetUserUsageCountsArray(ImmutableList.of(
+            new DatasetUserUsageCounts().setUser(UrnUtils.getUrn(USER_ONE)).setCount(1).setUserEmail("one"),
+            new DatasetUserUsageCounts().setUser(UrnUtils.getUrn(USER_TWO)).setCount(2))))
+        .setFieldCounts(new DatasetFieldUsageCountsArray(ImmutableList.of(
+            new DatasetFieldUsageCounts().setFieldPath("name").setCount(3))));
+
+    final UsageRollup.Contribution contribution = UsageRollup.toContribution(usage, 100, 100);
+    assertEquals(contribution.getTimestampMillis(), MAR_01);
+    assertEquals(contribution.getTotalSqlQueries().intValue(), 10);
+    assertNull(contribution.getUniqueUserCount());
+    assertEquals(contribution.getTopSqlQueries(), ImmutableList.of("select"));
+    assertEquals(contribution.getUsers(), ImmutableMap.of(USER_ONE, 1, USER_TWO, 2));
+    assertEquals(contribution.getEmails(), ImmutableMap.of(USER_ONE, "one"));
+    assertEquals(contribution.getFields(), ImmutableMap.of("name", 3));
+    assertFalse(contribution.isTruncated());
+
+    // The users with the highest counts are kept
+    final UsageRollup.Contribution truncated = UsageRollup.toContribution(usage, 1, 100);
+    assertEquals(truncated.getUsers(), ImmutableMap.of(USER_TWO, 2));
+    assertEquals(truncated.getEmails(), ImmutableMap.of());
+    assertTrue(truncated.isTruncated());
+  }
+
+  @Test
+  public void testKeyIdentifiesEvent() throws Exception {
+    final DatasetUsageStatistics usage = new DatasetUsageStatistics().setTimestampMillis(MAR_01)
+        .setEventGranularity(new TimeWindowSize().setUnit(CalendarInterval.DAY).setMultiple(1));
+
+    assertEquals(UsageRollup.getKey(usage), UsageRollup.getKey(new DatasetUsageStatistics().setTimestampMillis(MAR_01)
+        .setEventGranularity(new TimeWindowSize().setUnit(CalendarInterval.DAY).setMultiple(1))
+        .setTotalSqlQueries(1)));
+    assertNotEquals(UsageRollup.getKey(usage), UsageRollup.getKey(usage.copy().setMessageId("other")));
+    assertNotEquals(UsageRollup.getKey(usage), UsageRollup.getKey(
+        usage.copy().setEventGranularity(new TimeWindowSize().setUnit(CalendarInterval.HOUR).setMultiple(1))));
+  }
+
+  @Test
+  public void testQueryMergesBuckets() {
+    final UsageQueryResult result = UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01, null, null,
+        ImmutableList.of(bucket(MAR_03, 30, 5, 6), bucket(MAR_01, 10, 1, 2))).get();
+
+    // Empty days between the first & last bucket are returned, like with a date histogram.
+    assertEquals(result.getBuckets().stream().map(UsageAggregation::getBucket).collect(Collectors.toList()),
+        ImmutableList.of(MAR_01, MAR_02, MAR_03));
+    assertEquals(result.getBuckets().get(0).getMetrics().getTotalSqlQueries().intValue(), 10);
+    assertEquals(result.getBuckets().get(0).getMetrics().getTopSqlQueries(),
+        new StringArray(ImmutableList.of("select " + MAR_01)));
+    assertFalse(result.getBuckets().get(1).getMetrics().hasTotalSqlQueries());
+    assertEquals(result.getAggregations().getTotalSqlQueries().intValue(), 40);
+    assertEquals(result.getAggregations().getUniqueUserCount().intValue(), 2);
+    assertEquals(counts(result.getAggregations().getUsers()), ImmutableList.of(6, 8));
+    // The latest email of each user
+    assertEquals(result.getAggregations().getUsers().get(0).getUserEmail(), "one" + MAR_03);
+    assertFalse(result.getAggregations().getUsers().get(1).hasUserEmail());
+    assertEquals(result.getAggregations().getFields().stream().map(FieldUsageCounts::getCount)
+        .collect(Collectors.toList()), ImmutableList.of(14));
+  }
+
+  @Test
+  public void testUsersWithoutEventsAreDropped() {
+    final UsageRollupBucket bucket = bucket(MAR_01, 10, 1, 2);
+    // Left over by a replaced event, before the replacing one was added
+    bucket.getUsers().get(USER_TWO).setEvents(0);
+
+    final UsageQueryResult result =
+        UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01, null, null, ImmutableList.of(bucket)).get();
+    assertEquals(result.getAggregations().getUsers().stream().map(users -> users.getUser().toString())
+        .collect(Collectors.toList()), ImmutableList.of(USER_ONE));
+  }
+
+  @Test
+  public void testMaxBucketsKeepsLatestBuckets() {
+    final UsageQueryResult result = UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01, MAR_03, 2,
+        ImmutableList.of(bucket(MAR_01, 10, 1, 2), bucket(MAR_03, 30, 5, 6))).get();
+
+    assertEquals(result.getBuckets().stream().map(UsageAggregation::getBucket).collect(Collectors.toList()),
+        ImmutableList.of(MAR_02, MAR_03));
+    // The aggregations still cover the whole range
+    assertEquals(result.getAggregations().getTotalSqlQueries().intValue(), 40);
+  }
+
+  @Test
+  public void testBucketsWithoutEventsInRangeAreSkipped() {
+    final UsageQueryResult result = UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01 + 1, MAR_03 - 1, null,
+        ImmutableList.of(bucket(MAR_01, 10, 1, 2), bucket(MAR_02, 20, 3, 4), bucket(MAR_03, 30, 5, 6))).get();
+
+    assertEquals(result.getBuckets().stream().map(UsageAggregation::getBucket).collect(Collectors.toList()),
+        ImmutableList.of(MAR_02));
+    assertEquals(result.getAggregations().getTotalSqlQueries().intValue(), 20);
+  }
+
+  @Test
+  public void testPartiallyCoveredOrTruncatedBucketsAreNotServed() {
+    final UsageRollupBucket bucket = bucket(MAR_01, 10, 1, 2);
+    bucket.setMaxTimestampMillis(MAR_01 + TimeUnit.HOURS.toMillis(12));
+    final List<UsageRollupBucket> buckets = ImmutableList.of(bucket);
+
+    assertEquals(UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01 + 1, null, null, buckets), Optional.empty());
+    assertEquals(UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01, MAR_01 + 1, null, buckets), Optional.empty());
+    assertTrue(UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01, MAR_02, null, buckets).isPresent());
+
+    bucket.setTruncated(true);
+    assertEquals(UsageRollup.query(DATASET, WindowDuration.DAY, MAR_01, MAR_02, null, buckets), Optional.empty());
+  }
+
+  private static List<Integer> counts(List<UserUsageCounts> users) {
+    return users.stream().map(UserUsageCounts::getCount).collect(Collectors.toList());
+  }
+}
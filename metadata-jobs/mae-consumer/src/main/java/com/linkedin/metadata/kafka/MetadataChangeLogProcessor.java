@@ -6,6 +6,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.dataset.DatasetUsageStatistics;
 import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.gms.factory.common.GraphServiceFactory;
 import com.linkedin.gms.factory.common.SystemMetadataServiceFactory;
@@ -14,6 +15,7 @@ import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
 import com.linkedin.gms.factory.search.EntitySearchServiceFactory;
 import com.linkedin.gms.factory.search.SearchDocumentTransformerFactory;
 import com.linkedin.gms.factory.timeseries.TimeseriesAspectServiceFactory;
+import com.linkedin.gms.factory.timeseries.UsageRollupServiceFactory;
 import com.linkedin.metadata.EventUtils;
 import com.linkedin.metadata.extractor.FieldExtractor;
 import com.linkedin.metadata.graph.Edge;
@@ -30,6 +32,7 @@ import com.linkedin.metadata.search.EntitySearchService;
 import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
 import com.linkedin.metadata.systemmetadata.SystemMetadataService;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.rollup.UsageRollupService;
 import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
 import com.linkedin.metadata.utils.EntityKeyUtils;
 import com.linkedin.metadata.utils.GenericAspectUtils;
@@ -46,11 +49,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Import;
 import org.springframework.kafka.annotation.EnableKafka;
@@ -65,7 +71,7 @@ import static com.linkedin.metadata.search.utils.QueryUtils.*;
 @Conditional(MetadataChangeLogProcessorCondition.class)
 @Import({GraphServiceFactory.class, EntitySearchServiceFactory.class, TimeseriesAspectServiceFactory.class,
     EntityRegistryFactory.class, SystemMetadataServiceFactory.class, SearchDocumentTransformerFactory.class,
-    KafkaEventConsumerFactory.class})
+    KafkaEventConsumerFactory.class, UsageRollupServiceFactory.class})
 @EnableKafka
 public class MetadataChangeLogProcessor {
 
@@ -75,24 +81,32 @@ public class MetadataChangeLogProcessor {
   private final SystemMetadataService _systemMetadataService;
   private final EntityRegistry _entityRegistry;
   private final SearchDocumentTransformer _searchDocumentTransformer;
+  private final UsageRollupService _usageRollupService;
 
   private final Histogram kafkaLagStats = MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "kafkaLag"));
 
+  // Whether to skip index writes when the previous aspect value in the MCL shows that nothing indexed has changed
+  @Value("${MCL_SKIP_UNCHANGED_INDEX_WRITES:true}")
+  boolean _skipUnchangedIndexWrites = true;
+
   @Autowired
   public MetadataChangeLogProcessor(GraphService graphService, EntitySearchService entitySearchService,
       TimeseriesAspectService timeseriesAspectService, SystemMetadataService systemMetadataService,
-      EntityRegistry entityRegistry, SearchDocumentTransformer searchDocumentTransformer) {
+      EntityRegistry entityRegistry, SearchDocumentTransformer searchDocumentTransformer,
+      UsageRollupService usageRollupService) {
     _graphService = graphService;
     _entitySearchService = entitySearchService;
     _timeseriesAspectService = timeseriesAspectService;
     _systemMetadataService = systemMetadataService;
     _entityRegistry = entityRegistry;
     _searchDocumentTransformer = searchDocumentTransformer;
+    _usageRollupService = usageRollupService;
 
     _graphService.configure();
     _entitySearchService.configure();
     _systemMetadataService.configure();
     _timeseriesAspectService.configure();
+    _usageRollupService.configure();
   }
 
   @KafkaListener(id = "${METADATA_CHANGE_LOG_KAFKA_CONSUMER_GROUP_ID:generic-mae-consumer-job-client}", topics = {
@@ -142,9 +156,11 @@ public class MetadataChangeLogProcessor {
         updateTimeseriesFields(event.getEntityType(), event.getAspectName(), urn, aspect, aspectSpec,
             event.getSystemMetadata());
       } else {
-        updateSearchService(entitySpec.getName(), urn, aspectSpec, aspect);
-        updateGraphService(urn, aspectSpec, aspect);
-        updateSystemMetadata(event.getSystemMetadata(), urn, aspectSpec);
+        RecordTemplate previousAspect = getPreviousAspect(event, aspectSpec);
+        updateSearchService(entitySpec.getName(), urn, aspectSpec, aspect, previousAspect);
+        updateGraphService(urn, aspectSpec, aspect, previousAspect);
+        updateSystemMetadata(event.getSystemMetadata(), previousAspect == null ? null : event.getPreviousSystemMetadata(),
+            urn, aspectSpec);
       }
     } else if (event.getChangeType() == ChangeType.DELETE) {
       if (!event.hasAspectName() || !event.hasAspect()) {
@@ -171,6 +187,24 @@ public class MetadataChangeLogProcessor {
     }
   }
 
+  /**
+   * Returns the previous value of the aspect carried by the MCL, if any and if index writes of unchanged fields should be
+   * skipped. Index writes are never skipped when it is absent, e.g. for MCLs emitted while restoring indices.
+   */
+  @Nullable
+  private RecordTemplate getPreviousAspect(MetadataChangeLog event, AspectSpec aspectSpec) {
+    if (!_skipUnchangedIndexWrites || !event.hasPreviousAspectValue()) {
+      return null;
+    }
+    try {
+      return GenericAspectUtils.deserializeAspect(event.getPreviousAspectValue().getValue(),
+          event.getPreviousAspectValue().getContentType(), aspectSpec);
+    } catch (Exception e) {
+      log.warn("Failed to deserialize previous value of aspect {}: {}", aspectSpec.getName(), e.toString());
+      return null;
+    }
+  }
+
   private Pair<List<Edge>, Set<String>> getEdgesAndRelationshipTypesFromAspect(Urn urn, AspectSpec aspectSpec,
       RecordTemplate aspect) {
     final Set<String> relationshipTypesBeingAdded = new HashSet<>();
@@ -196,19 +230,30 @@ public class MetadataChangeLogProcessor {
   /**
    * Process snapshot and update graph index
    */
-  private void updateGraphService(Urn urn, AspectSpec aspectSpec, RecordTemplate aspect) {
+  private void updateGraphService(Urn urn, AspectSpec aspectSpec, RecordTemplate aspect,
+      @Nullable RecordTemplate previousAspect) {
     Pair<List<Edge>, Set<String>> edgeAndRelationTypes =
         getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, aspect);
 
     final List<Edge> edgesToAdd = edgeAndRelationTypes.getFirst();
     final Set<String> relationshipTypesBeingAdded = edgeAndRelationTypes.getSecond();
 
+    if (previousAspect != null && relationshipTypesBeingAdded.size() > 0) {
+      final Pair<List<Edge>, Set<String>> previousEdgeAndRelationTypes =
+          getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, previousAspect);
+      if (new HashSet<>(previousEdgeAndRelationTypes.getFirst()).equals(new HashSet<>(edgesToAdd))
+          && previousEdgeAndRelationTypes.getSecond().equals(relationshipTypesBeingAdded)) {
+        log.debug("Skipping graph update for urn {}, aspect {} as its edges have not changed", urn,
+            aspectSpec.getName());
+        MetricUtils.counter(this.getClass(), "graphWritesSkipped").inc();
+        return;
+      }
+    }
+
     log.info(String.format("Here's the relationship types found %s", relationshipTypesBeingAdded));
     if (relationshipTypesBeingAdded.size() > 0) {
       new Thread(() -> {
-        _graphService.removeEdgesFromNode(urn, new ArrayList<>(relationshipTypesBeingAdded),
-            newRelationshipFilter(new Filter().setOr(new ConjunctiveCriterionArray()), RelationshipDirection.OUTGOING));
-        edgesToAdd.forEach(edge -> _graphService.addEdge(edge));
+        _graphService.updateEdgesFromNode(urn, new ArrayList<>(relationshipTypesBeingAdded), edgesToAdd);
       }).start();
     }
   }
@@ -216,10 +261,13 @@ public class MetadataChangeLogProcessor {
   /**
    * Process snapshot and update search index
    */
-  private void updateSearchService(String entityName, Urn urn, AspectSpec aspectSpec, RecordTemplate aspect) {
+  private void updateSearchService(String entityName, Urn urn, AspectSpec aspectSpec, RecordTemplate aspect,
+      @Nullable RecordTemplate previousAspect) {
+    // Both documents are stamped with the same time of write, so that they are only compared on their searchable fields
+    final long lastWrittenTimestamp = System.currentTimeMillis();
     Optional<String> searchDocument;
     try {
-      searchDocument = _searchDocumentTransformer.transformAspect(urn, aspect, aspectSpec, false);
+      searchDocument = _searchDocumentTransformer.transformAspect(urn, aspect, aspectSpec, false, lastWrittenTimestamp);
     } catch (Exception e) {
       log.error("Error in getting documents from aspect: {} for aspect {}", e, aspectSpec.getName());
       return;
@@ -229,6 +277,15 @@ public class MetadataChangeLogProcessor {
       return;
     }
 
+    if (previousAspect != null && searchDocument.equals(
+        getPreviousSearchDocument(urn, aspectSpec, previousAspect, lastWrittenTimestamp))) {
+      // None of the searchable fields of the aspect have changed, so the indexed document would be identical
+      log.debug("Skipping search update for urn {}, aspect {} as its searchable fields have not changed", urn,
+          aspectSpec.getName());
+      MetricUtils.counter(this.getClass(), "searchWritesSkipped").inc();
+      return;
+    }
+
     String docId;
     try {
       docId = URLEncoder.encode(urn.toString(), "UTF-8");
@@ -240,6 +297,16 @@ public class MetadataChangeLogProcessor {
     _entitySearchService.upsertDocument(entityName, searchDocument.get(), docId);
   }
 
+  private Optional<String> getPreviousSearchDocument(Urn urn, AspectSpec aspectSpec, RecordTemplate previousAspect,
+      long lastWrittenTimestamp) {
+    try {
+      return _searchDocumentTransformer.transformAspect(urn, previousAspect, aspectSpec, false, lastWrittenTimestamp);
+    } catch (Exception e) {
+      log.warn("Error in getting documents from previous value of aspect {}: {}", aspectSpec.getName(), e.toString());
+      return Optional.empty();
+    }
+  }
+
   /**
    * Process snapshot and update timseries index
    */
@@ -255,9 +322,21 @@ public class MetadataChangeLogProcessor {
     documents.entrySet().forEach(document -> {
       _timeseriesAspectService.upsertDocument(entityType, aspectName, document.getKey(), document.getValue());
     });
+    if (aspect instanceof DatasetUsageStatistics) {
+      _usageRollupService.update(urn, (DatasetUsageStatistics) aspect);
+    }
   }
 
-  private void updateSystemMetadata(SystemMetadata systemMetadata, Urn urn, AspectSpec aspectSpec) {
+  private void updateSystemMetadata(SystemMetadata systemMetadata, @Nullable SystemMetadata previousSystemMetadata,
+      Urn urn, AspectSpec aspectSpec) {
+    if (previousSystemMetadata != null && systemMetadata != null
+        && Objects.equals(previousSystemMetadata.getRunId(), systemMetadata.getRunId())
+        && Objects.equals(previousSystemMetadata.getRegistryName(), systemMetadata.getRegistryName())
+        && Objects.equals(previousSystemMetadata.getRegistryVersion(), systemMetadata.getRegistryVersion())) {
+      // Only lastObserved may differ, which is not worth a write since rollbacks only rely on the run id
+      MetricUtils.counter(this.getClass(), "systemMetadataWritesSkipped").inc();
+      return;
+    }
     _systemMetadataService.insert(systemMetadata, urn.toString(), aspectSpec.getName());
   }
 
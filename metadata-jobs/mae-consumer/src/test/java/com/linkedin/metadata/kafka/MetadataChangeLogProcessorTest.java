@@ -0,0 +1,105 @@
+package com.linkedin.metadata.kafka;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.dataset.DatasetProperties;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
+import com.linkedin.metadata.systemmetadata.SystemMetadataService;
+import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.rollup.UsageRollupService;
+import com.linkedin.metadata.utils.GenericAspectUtils;
+import com.linkedin.mxe.GenericAspect;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.Topics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+
+
+public class MetadataChangeLogProcessorTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)";
+
+  private EntitySearchService _entitySearchService;
+  private MetadataChangeLogProcessor _processor;
+
+  @BeforeMethod
+  public void setup() {
+    _entitySearchService = mock(EntitySearchService.class);
+    _processor = new MetadataChangeLogProcessor(mock(GraphService.class), _entitySearchService,
+        mock(TimeseriesAspectService.class), mock(SystemMetadataService.class), SnapshotEntityRegistry.getInstance(),
+        new SearchDocumentTransformer(1000), mock(UsageRollupService.class));
+  }
+
+  @Test
+  public void testSkipsSearchWriteOfUnchangedSearchableFields() throws Exception {
+    // Only the tags, which are not searchable, have changed
+    consume(createEvent(createProperties("description").setTags(new StringArray("tag")),
+        GenericAspectUtils.serializeAspect(createProperties("description"))));
+
+    verify(_entitySearchService, never()).upsertDocument(anyString(), anyString(), anyString());
+  }
+
+  @Test
+  public void testWritesChangedSearchableFields() throws Exception {
+    consume(createEvent(createProperties("new description"),
+        GenericAspectUtils.serializeAspect(createProperties("description"))));
+
+    verify(_entitySearchService, times(1)).upsertDocument(eq("dataset"), contains("new description"), anyString());
+  }
+
+  @Test
+  public void testWritesWithoutPreviousValue() throws Exception {
+    consume(createEvent(createProperties("description"), null));
+
+    verify(_entitySearchService, times(1)).upsertDocument(eq("dataset"), contains("description"), anyString());
+  }
+
+  @Test
+  public void testWritesWithUndecodablePreviousValue() throws Exception {
+    final GenericAspect previousValue = new GenericAspect().setContentType(GenericAspectUtils.JSON)
+        .setValue(ByteString.copyString("not json", "UTF-8"));
+    consume(createEvent(createProperties("description"), previousValue));
+
+    verify(_entitySearchService, times(1)).upsertDocument(eq("dataset"), contains("description"), anyString());
+  }
+
+  @Test
+  public void testWritesUnchangedSearchableFieldsWhenSkippingIsDisabled() throws Exception {
+    _processor._skipUnchangedIndexWrites = false;
+    consume(createEvent(createProperties("description"),
+        GenericAspectUtils.serializeAspect(createProperties("description"))));
+
+    verify(_entitySearchService, times(1)).upsertDocument(eq("dataset"), contains("description"), anyString());
+  }
+
+  private void consume(MetadataChangeLog event) throws Exception {
+    _processor.consume(new ConsumerRecord<>(Topics.METADATA_CHANGE_LOG_VERSIONED, 0, 0, DATASET_URN,
+        EventUtils.pegasusToAvroMCL(event)));
+  }
+
+  private static MetadataChangeLog createEvent(DatasetProperties aspect, GenericAspect previousAspectValue)
+      throws Exception {
+    final MetadataChangeLog event = new MetadataChangeLog().setEntityType("dataset")
+        .setEntityUrn(Urn.createFromString(DATASET_URN))
+        .setChangeType(ChangeType.UPSERT)
+        .setAspectName("datasetProperties")
+        .setAspect(GenericAspectUtils.serializeAspect(aspect));
+    if (previousAspectValue != null) {
+      event.setPreviousAspectValue(previousAspectValue);
+    }
+    return event;
+  }
+
+  private static DatasetProperties createProperties(String description) {
+    return new DatasetProperties().setDescription(description);
+  }
+}
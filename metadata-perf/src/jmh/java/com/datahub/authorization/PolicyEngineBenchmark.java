@@ -0,0 +1,132 @@
+package com.datahub.authorization;
+
+import com.datahub.authentication.Actor;
+import com.datahub.authentication.ActorType;
+import com.datahub.authentication.Authentication;
+import com.linkedin.common.Owner;
+import com.linkedin.common.OwnerArray;
+import com.linkedin.common.Ownership;
+import com.linkedin.common.OwnershipType;
+import com.linkedin.common.UrnArray;
+import com.linkedin.common.urn.CorpuserUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.entity.Entity;
+import com.linkedin.entity.client.EntityClient;
+import com.linkedin.entity.client.OwnershipClient;
+import com.linkedin.identity.GroupMembership;
+import com.linkedin.metadata.aspect.Aspect;
+import com.linkedin.metadata.aspect.CorpUserAspect;
+import com.linkedin.metadata.aspect.CorpUserAspectArray;
+import com.linkedin.metadata.aspect.VersionedAspect;
+import com.linkedin.metadata.perf.BenchmarkFixtures;
+import com.linkedin.metadata.snapshot.CorpUserSnapshot;
+import com.linkedin.metadata.snapshot.Snapshot;
+import com.linkedin.policy.DataHubActorFilter;
+import com.linkedin.policy.DataHubPolicyInfo;
+import com.linkedin.policy.DataHubResourceFilter;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.linkedin.metadata.authorization.PoliciesConfig.*;
+
+
+/**
+ * Measures the evaluation of a metadata policy for an actor matching it as a user, through a group or as an owner of
+ * the resource. Groups and owners are served by an in-memory {@link EntityClient}.
+ */
+@State(Scope.Benchmark)
+public class PolicyEngineBenchmark {
+
+  private static final String PRIVILEGE = "EDIT_ENTITY_TAGS";
+  private static final int ACTORS_PER_POLICY = 20;
+
+  private PolicyEngine _policyEngine;
+  private Urn _actor;
+  private Optional<ResourceSpec> _resource;
+  private DataHubPolicyInfo _userPolicy;
+  private DataHubPolicyInfo _groupPolicy;
+  private DataHubPolicyInfo _ownerPolicy;
+
+  @Setup
+  public void setup() {
+    _actor = new CorpuserUrn("datahub");
+    final Urn group = BenchmarkFixtures.urn("urn:li:corpGroup:group_0");
+    _resource = Optional.of(new ResourceSpec("dataset", BenchmarkFixtures.DATASET_URN.toString()));
+
+    final GroupMembership groupMembership = new GroupMembership().setGroups(new UrnArray(group));
+    final CorpUserSnapshot user = new CorpUserSnapshot()
+        .setUrn(new CorpuserUrn("datahub"))
+        .setAspects(new CorpUserAspectArray(CorpUserAspect.create(groupMembership)));
+    final Entity userEntity = new Entity().setValue(Snapshot.create(user));
+    final Ownership ownership = new Ownership().setOwners(new OwnerArray(
+        new Owner().setOwner(BenchmarkFixtures.urn("urn:li:corpuser:other")).setType(OwnershipType.DATAOWNER),
+        new Owner().setOwner(_actor).setType(OwnershipType.DATAOWNER)));
+    final VersionedAspect ownershipAspect = new VersionedAspect().setAspect(Aspect.create(ownership));
+
+    final EntityClient entityClient = (EntityClient) Proxy.newProxyInstance(EntityClient.class.getClassLoader(),
+        new Class<?>[]{EntityClient.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "get":
+              return userEntity;
+            case "getAspect":
+              return ownershipAspect;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+    _policyEngine = new PolicyEngine(new Authentication(new Actor(ActorType.USER, "__datahub_system"), ""),
+        entityClient, new OwnershipClient(entityClient));
+
+    final UrnArray users = new UrnArray();
+    final UrnArray groups = new UrnArray();
+    for (int i = 1; i < ACTORS_PER_POLICY; i++) {
+      users.add(new CorpuserUrn("user_" + i));
+      groups.add(BenchmarkFixtures.urn("urn:li:corpGroup:group_" + i));
+    }
+    final UrnArray usersWithActor = new UrnArray(users);
+    usersWithActor.add(_actor);
+    final UrnArray groupsWithGroup = new UrnArray(groups);
+    groupsWithGroup.add(group);
+
+    _userPolicy = createPolicy(new DataHubActorFilter().setUsers(usersWithActor).setGroups(groups));
+    _groupPolicy = createPolicy(new DataHubActorFilter().setUsers(users).setGroups(groupsWithGroup));
+    _ownerPolicy = createPolicy(new DataHubActorFilter().setUsers(users).setResourceOwners(true));
+  }
+
+  @Benchmark
+  public boolean userMatch() {
+    return _policyEngine.evaluatePolicy(_userPolicy, _actor, PRIVILEGE, _resource).isGranted();
+  }
+
+  @Benchmark
+  public boolean groupMatch() {
+    return _policyEngine.evaluatePolicy(_groupPolicy, _actor, PRIVILEGE, _resource).isGranted();
+  }
+
+  @Benchmark
+  public boolean ownerMatch() {
+    return _policyEngine.evaluatePolicy(_ownerPolicy, _actor, PRIVILEGE, _resource).isGranted();
+  }
+
+  @Benchmark
+  public boolean privilegeMismatch() {
+    return _policyEngine.evaluatePolicy(_userPolicy, _actor, "EDIT_ENTITY_OWNERS", _resource).isGranted();
+  }
+
+  private static DataHubPolicyInfo createPolicy(DataHubActorFilter actorFilter) {
+    return new DataHubPolicyInfo()
+        .setType(METADATA_POLICY_TYPE)
+        .setState(ACTIVE_POLICY_STATE)
+        .setPrivileges(new StringArray(PRIVILEGE))
+        .setDisplayName("Benchmark policy")
+        .setDescription("Benchmark policy")
+        .setEditable(true)
+        .setActors(actorFilter.setAllUsers(false).setAllGroups(false))
+        .setResources(new DataHubResourceFilter().setType("dataset").setAllResources(true));
+  }
+}
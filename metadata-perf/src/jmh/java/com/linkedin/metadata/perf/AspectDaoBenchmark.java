@@ -0,0 +1,102 @@
+package com.linkedin.metadata.perf;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.entity.ebean.EbeanAspectDao;
+import com.linkedin.metadata.entity.ebean.EbeanAspectV2;
+import com.linkedin.metadata.entity.ebean.EbeanUtils;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import io.ebean.EbeanServer;
+import io.ebean.EbeanServerFactory;
+import io.ebean.config.ServerConfig;
+import io.ebean.datasource.DataSourceConfig;
+import java.net.URISyntaxException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import static com.linkedin.metadata.Constants.*;
+
+
+/**
+ * Measures reading a batch of aspects from an in-memory H2 aspect table and converting them into records, as done
+ * when fetching entities.
+ */
+@State(Scope.Benchmark)
+public class AspectDaoBenchmark {
+
+  private static final int BATCH_SIZE = 10;
+
+  @Param({BenchmarkFixtures.SCHEMA_METADATA, BenchmarkFixtures.UPSTREAM_LINEAGE})
+  public String aspectName;
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private EntityRegistry _entityRegistry;
+  private EbeanServer _server;
+  private EbeanAspectDao _aspectDao;
+  private Set<EbeanAspectV2.PrimaryKey> _keys;
+
+  @Setup
+  public void setup() {
+    _entityRegistry = SnapshotEntityRegistry.getInstance();
+    _server = EbeanServerFactory.create(createH2ServerConfig());
+    _aspectDao = new EbeanAspectDao(_server);
+
+    final String jsonAspect = EbeanUtils.toJsonAspect(BenchmarkFixtures.aspect(aspectName, size));
+    final Timestamp now = new Timestamp(System.currentTimeMillis());
+    _keys = new HashSet<>();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      final String urn = BenchmarkFixtures.datasetUrn("db.table_" + i).toString();
+      _aspectDao.saveLatestAspect(urn, aspectName, null, null, null, null, null, jsonAspect,
+          "urn:li:corpuser:datahub", null, now, null, ASPECT_LATEST_VERSION);
+      _keys.add(new EbeanAspectV2.PrimaryKey(urn, aspectName, ASPECT_LATEST_VERSION));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    _server.shutdown(false, false);
+  }
+
+  @Benchmark
+  public Map<EbeanAspectV2.PrimaryKey, EbeanAspectV2> batchGet() {
+    return _aspectDao.batchGet(_keys);
+  }
+
+  @Benchmark
+  public List<RecordTemplate> batchGetAspectRecords() throws URISyntaxException {
+    final List<RecordTemplate> records = new ArrayList<>(BATCH_SIZE);
+    for (EbeanAspectV2 aspect : _aspectDao.batchGet(_keys).values()) {
+      records.add(EbeanUtils.toAspectRecord(Urn.createFromString(aspect.getKey().getUrn()), aspect.getKey().getAspect(),
+          aspect.getMetadata(), _entityRegistry));
+    }
+    return records;
+  }
+
+  private static ServerConfig createH2ServerConfig() {
+    final DataSourceConfig dataSourceConfig = new DataSourceConfig();
+    dataSourceConfig.setUsername("tester");
+    dataSourceConfig.setPassword("");
+    dataSourceConfig.setUrl("jdbc:h2:mem:;IGNORECASE=TRUE;");
+    dataSourceConfig.setDriver("org.h2.Driver");
+
+    final ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setName("gma");
+    serverConfig.setDataSourceConfig(dataSourceConfig);
+    serverConfig.setDdlGenerate(true);
+    serverConfig.setDdlRun(true);
+    return serverConfig;
+  }
+}
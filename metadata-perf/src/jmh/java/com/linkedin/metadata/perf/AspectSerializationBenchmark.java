@@ -0,0 +1,55 @@
+package com.linkedin.metadata.perf;
+
+import com.datahub.util.RecordUtils;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.entity.ebean.EbeanUtils;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+/**
+ * Measures the conversion of aspects between records and the JSON stored in the aspect table.
+ */
+@State(Scope.Benchmark)
+public class AspectSerializationBenchmark {
+
+  @Param({BenchmarkFixtures.SCHEMA_METADATA, BenchmarkFixtures.UPSTREAM_LINEAGE})
+  public String aspectName;
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private EntityRegistry _entityRegistry;
+  private RecordTemplate _aspect;
+  private String _jsonAspect;
+
+  @Setup
+  public void setup() {
+    _entityRegistry = SnapshotEntityRegistry.getInstance();
+    _aspect = BenchmarkFixtures.aspect(aspectName, size);
+    _jsonAspect = EbeanUtils.toJsonAspect(_aspect);
+  }
+
+  @Benchmark
+  public String toJsonAspect() {
+    return EbeanUtils.toJsonAspect(_aspect);
+  }
+
+  @Benchmark
+  public RecordTemplate toRecordTemplate() {
+    return RecordUtils.toRecordTemplate(_aspect.getClass(), _jsonAspect);
+  }
+
+  /**
+   * Parses and validates the aspect, as done for every aspect read from the aspect table.
+   */
+  @Benchmark
+  public RecordTemplate toAspectRecord() {
+    return EbeanUtils.toAspectRecord(BenchmarkFixtures.DATASET_URN, aspectName, _jsonAspect, _entityRegistry);
+  }
+}
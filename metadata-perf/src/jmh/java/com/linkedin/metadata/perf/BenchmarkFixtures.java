@@ -0,0 +1,123 @@
+package com.linkedin.metadata.perf;
+
+import com.linkedin.common.AuditStamp;
+import com.linkedin.common.FabricType;
+import com.linkedin.common.GlobalTags;
+import com.linkedin.common.TagAssociation;
+import com.linkedin.common.TagAssociationArray;
+import com.linkedin.common.urn.DataPlatformUrn;
+import com.linkedin.common.urn.DatasetUrn;
+import com.linkedin.common.urn.TagUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.dataset.DatasetLineageType;
+import com.linkedin.dataset.Upstream;
+import com.linkedin.dataset.UpstreamArray;
+import com.linkedin.dataset.UpstreamLineage;
+import com.linkedin.schema.NumberType;
+import com.linkedin.schema.OtherSchema;
+import com.linkedin.schema.SchemaField;
+import com.linkedin.schema.SchemaFieldArray;
+import com.linkedin.schema.SchemaFieldDataType;
+import com.linkedin.schema.SchemaMetadata;
+import com.linkedin.schema.StringType;
+import java.net.URISyntaxException;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Realistic aspects of a dataset, of configurable size, shared by the benchmarks.
+ */
+public class BenchmarkFixtures {
+
+  public static final String SCHEMA_METADATA = "schemaMetadata";
+  public static final String UPSTREAM_LINEAGE = "upstreamLineage";
+
+  public static final DatasetUrn DATASET_URN = datasetUrn("db.benchmark_table");
+
+  private static final AuditStamp AUDIT_STAMP = new AuditStamp()
+      .setTime(1640995200000L)
+      .setActor(Urn.createFromTuple("corpuser", "datahub"));
+
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * Returns the aspect of the given name, with the given number of fields or upstreams.
+   */
+  @Nonnull
+  public static RecordTemplate aspect(@Nonnull String aspectName, int size) {
+    switch (aspectName) {
+      case SCHEMA_METADATA:
+        return schemaMetadata(size);
+      case UPSTREAM_LINEAGE:
+        return upstreamLineage(size);
+      default:
+        throw new IllegalArgumentException("Unsupported aspect " + aspectName);
+    }
+  }
+
+  /**
+   * Returns the schema of a wide table, whose nested fields are described and tagged as ingestion sources emit them.
+   */
+  @Nonnull
+  public static SchemaMetadata schemaMetadata(int fieldCount) {
+    final SchemaFieldArray fields = new SchemaFieldArray();
+    for (int i = 0; i < fieldCount; i++) {
+      final boolean numeric = i % 3 == 0;
+      final SchemaField field = new SchemaField()
+          .setFieldPath(String.format("[version=2.0].[type=struct].struct_%d.[type=%s].column_%d", i / 10,
+              numeric ? "long" : "string", i))
+          .setNativeDataType(numeric ? "bigint" : "varchar(255)")
+          .setType(new SchemaFieldDataType().setType(numeric
+              ? SchemaFieldDataType.Type.create(new NumberType())
+              : SchemaFieldDataType.Type.create(new StringType())))
+          .setNullable(i % 2 == 0)
+          .setDescription(String.format("Column %d of the benchmark table, holding the value of attribute %d", i, i));
+      if (i % 5 == 0) {
+        field.setGlobalTags(new GlobalTags().setTags(new TagAssociationArray(
+            new TagAssociation().setTag(new TagUrn("pii")),
+            new TagAssociation().setTag(new TagUrn("column_" + (i % 20))))));
+      }
+      fields.add(field);
+    }
+    return new SchemaMetadata()
+        .setSchemaName("db.benchmark_table")
+        .setPlatform(new DataPlatformUrn("hive"))
+        .setVersion(0L)
+        .setHash("")
+        .setCreated(AUDIT_STAMP)
+        .setLastModified(AUDIT_STAMP)
+        .setPlatformSchema(SchemaMetadata.PlatformSchema.create(new OtherSchema().setRawSchema("")))
+        .setFields(fields);
+  }
+
+  /**
+   * Returns the lineage of a table derived from many upstream tables.
+   */
+  @Nonnull
+  public static UpstreamLineage upstreamLineage(int upstreamCount) {
+    final UpstreamArray upstreams = new UpstreamArray();
+    for (int i = 0; i < upstreamCount; i++) {
+      upstreams.add(new Upstream()
+          .setDataset(datasetUrn("db.upstream_table_" + i))
+          .setType(i % 2 == 0 ? DatasetLineageType.TRANSFORMED : DatasetLineageType.COPY)
+          .setAuditStamp(AUDIT_STAMP));
+    }
+    return new UpstreamLineage().setUpstreams(upstreams);
+  }
+
+  @Nonnull
+  public static DatasetUrn datasetUrn(@Nonnull String name) {
+    return new DatasetUrn(new DataPlatformUrn("hive"), name, FabricType.PROD);
+  }
+
+  @Nonnull
+  public static Urn urn(@Nonnull String rawUrn) {
+    try {
+      return Urn.createFromString(rawUrn);
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.linkedin.metadata.perf;
+
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.registry.EntityRegistrySnapshot;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+/**
+ * Measures looking up entity specs by name through an {@link EntityRegistrySnapshot}, compared with lowercasing the
+ * name and looking it up in a hash map.
+ */
+@State(Scope.Benchmark)
+public class EntityRegistryLookupBenchmark {
+
+  private Map<String, EntitySpec> _entityNameToSpec;
+  private EntityRegistrySnapshot _snapshot;
+  // Names as callers pass them, in their original case
+  private String[] _entityNames;
+  private int _next;
+
+  @Setup
+  public void setup() {
+    _entityNameToSpec = SnapshotEntityRegistry.getInstance().getEntitySpecs();
+    _snapshot = new EntityRegistrySnapshot(0, _entityNameToSpec);
+    _entityNames = _entityNameToSpec.values().stream().map(EntitySpec::getName).toArray(String[]::new);
+  }
+
+  @Benchmark
+  public EntitySpec lowercaseMapLookup() {
+    return _entityNameToSpec.get(nextEntityName().toLowerCase());
+  }
+
+  @Benchmark
+  public EntitySpec snapshotLookup() {
+    return _snapshot.findEntitySpec(nextEntityName());
+  }
+
+  private String nextEntityName() {
+    final String entityName = _entityNames[_next];
+    _next = (_next + 1) % _entityNames.length;
+    return entityName;
+  }
+}
@@ -0,0 +1,53 @@
+package com.linkedin.metadata.perf;
+
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.metadata.utils.GenericAspectUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.SystemMetadata;
+import java.io.IOException;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+/**
+ * Measures the conversion of change log events between Pegasus and Avro, done for every event produced and consumed.
+ */
+@State(Scope.Benchmark)
+public class EventConversionBenchmark {
+
+  @Param({BenchmarkFixtures.SCHEMA_METADATA, BenchmarkFixtures.UPSTREAM_LINEAGE})
+  public String aspectName;
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private MetadataChangeLog _event;
+  private GenericRecord _record;
+
+  @Setup
+  public void setup() throws IOException {
+    _event = new MetadataChangeLog()
+        .setEntityType("dataset")
+        .setEntityUrn(BenchmarkFixtures.DATASET_URN)
+        .setChangeType(ChangeType.UPSERT)
+        .setAspectName(aspectName)
+        .setAspect(GenericAspectUtils.serializeAspect(BenchmarkFixtures.aspect(aspectName, size)))
+        .setSystemMetadata(new SystemMetadata().setLastObserved(1640995200000L).setRunId("benchmark"));
+    _record = EventUtils.pegasusToAvroMCL(_event);
+  }
+
+  @Benchmark
+  public GenericRecord pegasusToAvroMCL() throws IOException {
+    return EventUtils.pegasusToAvroMCL(_event);
+  }
+
+  @Benchmark
+  public MetadataChangeLog avroToPegasusMCL() throws IOException {
+    return EventUtils.avroToPegasusMCL(_record);
+  }
+}
@@ -0,0 +1,55 @@
+package com.linkedin.metadata.perf;
+
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.extractor.FieldExtractor;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.SearchableFieldSpec;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+/**
+ * Measures the extraction of searchable fields from aspects, and the search documents built from them on every
+ * change of an aspect.
+ */
+@State(Scope.Benchmark)
+public class SearchDocumentBenchmark {
+
+  // The default of elasticsearch.index.maxArrayLength
+  private static final int MAX_ARRAY_LENGTH = 1000;
+
+  @Param({BenchmarkFixtures.SCHEMA_METADATA, BenchmarkFixtures.UPSTREAM_LINEAGE})
+  public String aspectName;
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private SearchDocumentTransformer _transformer;
+  private AspectSpec _aspectSpec;
+  private RecordTemplate _aspect;
+
+  @Setup
+  public void setup() {
+    _transformer = new SearchDocumentTransformer(MAX_ARRAY_LENGTH);
+    _aspectSpec = SnapshotEntityRegistry.getInstance().getEntitySpec("dataset").getAspectSpec(aspectName);
+    _aspect = BenchmarkFixtures.aspect(aspectName, size);
+  }
+
+  @Benchmark
+  public Map<SearchableFieldSpec, List<Object>> extractFields() {
+    return FieldExtractor.extractFields(_aspect, _aspectSpec.getSearchableFieldSpecs());
+  }
+
+  @Benchmark
+  public Optional<String> transformAspect() {
+    return _transformer.transformAspect(BenchmarkFixtures.DATASET_URN, _aspect, _aspectSpec, false);
+  }
+}
@@ -0,0 +1,58 @@
+package com.linkedin.metadata.perf;
+
+import com.linkedin.common.urn.DatasetUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnCache;
+import java.net.URISyntaxException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+
+/**
+ * Measures parsing a working set of urns, with the {@link UrnCache} disabled and sized to fit the working set.
+ */
+@State(Scope.Benchmark)
+public class UrnParsingBenchmark {
+
+  private static final int URNS = 10000;
+
+  @Param({"0", "16384"})
+  public int cacheSize;
+
+  private String[] _rawUrns;
+  private int _next;
+
+  @Setup
+  public void setup() {
+    UrnCache.configure(cacheSize);
+    _rawUrns = new String[URNS];
+    for (int i = 0; i < URNS; i++) {
+      _rawUrns[i] = BenchmarkFixtures.datasetUrn("db.table_" + i).toString();
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    UrnCache.configure(UrnCache.DEFAULT_MAX_SIZE);
+  }
+
+  @Benchmark
+  public Urn createFromString() throws URISyntaxException {
+    return Urn.createFromString(nextRawUrn());
+  }
+
+  @Benchmark
+  public DatasetUrn createDatasetUrnFromString() throws URISyntaxException {
+    return DatasetUrn.createFromString(nextRawUrn());
+  }
+
+  private String nextRawUrn() {
+    final String rawUrn = _rawUrns[_next];
+    _next = (_next + 1) % URNS;
+    return rawUrn;
+  }
+}
@@ -3,8 +3,11 @@ package com.linkedin.gms.factory.common;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.graph.Neo4jGraphService;
+import com.linkedin.metadata.graph.cache.CachingGraphService;
 import com.linkedin.metadata.graph.elastic.ElasticSearchGraphService;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,6 +19,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 
 
+@Slf4j
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
 @Import({Neo4jGraphServiceFactory.class, ElasticSearchGraphServiceFactory.class})
@@ -31,6 +35,25 @@ public class GraphServiceFactory {
   @Value("${graphService.type}")
   private String graphServiceImpl;
 
+  @Value("${graphService.cache.enabled:false}")
+  private Boolean cacheEnabled;
+
+  @Value("${graphService.cache.bootstrapBatchSize:5000}")
+  private Integer cacheBootstrapBatchSize;
+
+  @Value("${graphService.cache.refreshIntervalSeconds:300}")
+  private Long cacheRefreshIntervalSeconds;
+
+  @Value("${graphService.cache.replayWindowSeconds:60}")
+  private Long cacheReplayWindowSeconds;
+
+  // Whether the MCL consumer writing the graph index runs in this process, see MetadataChangeLogProcessorCondition
+  @Value("${MAE_CONSUMER_ENABLED:false}")
+  private Boolean maeConsumerEnabled;
+
+  @Value("${MCL_CONSUMER_ENABLED:false}")
+  private Boolean mclConsumerEnabled;
+
   @Nonnull
   @DependsOn({"neo4jGraphService", "elasticSearchGraphService"})
   @Bean(name = "graphService")
@@ -39,6 +62,16 @@ public class GraphServiceFactory {
     if (graphServiceImpl.equalsIgnoreCase("neo4j")) {
       return _neo4jGraphService;
     } else if (graphServiceImpl.equalsIgnoreCase("elasticsearch")) {
+      if (cacheEnabled && !maeConsumerEnabled && !mclConsumerEnabled) {
+        // The edges written by a standalone MAE consumer would only be reflected on each rebuild
+        log.warn("Not enabling the graph cache, as graph writes are not made by an MCL consumer of this process");
+      } else if (cacheEnabled) {
+        final CachingGraphService cachingGraphService =
+            new CachingGraphService(_elasticSearchGraphService, cacheBootstrapBatchSize,
+                TimeUnit.SECONDS.toMillis(cacheReplayWindowSeconds));
+        cachingGraphService.start(cacheRefreshIntervalSeconds);
+        return cachingGraphService;
+      }
       return _elasticSearchGraphService;
     } else {
       throw new RuntimeException(
@@ -0,0 +1,29 @@
+package com.linkedin.gms.factory.common;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.linkedin.common.urn.UrnCache;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * Sizes the {@link UrnCache} shared by Urn parsing and exposes its hit rate as metrics.
+ */
+@Configuration
+public class UrnCacheFactory {
+
+  @Value("${urnCache.maxSize}")
+  private Integer maxSize;
+
+  @PostConstruct
+  protected void configure() {
+    UrnCache.configure(maxSize);
+    final MetricRegistry registry = MetricUtils.get();
+    registry.gauge(MetricRegistry.name(UrnCache.class, "hitCount"), () -> (Gauge<Long>) UrnCache.get()::getHitCount);
+    registry.gauge(MetricRegistry.name(UrnCache.class, "missCount"), () -> (Gauge<Long>) UrnCache.get()::getMissCount);
+    registry.gauge(MetricRegistry.name(UrnCache.class, "hitRate"), () -> (Gauge<Double>) UrnCache.get()::getHitRate);
+  }
+}
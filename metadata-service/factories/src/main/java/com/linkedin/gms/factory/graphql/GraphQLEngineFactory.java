@@ -4,6 +4,11 @@ import com.datahub.authentication.token.TokenService;
 import com.linkedin.datahub.graphql.GmsGraphQLEngine;
 import com.linkedin.datahub.graphql.GraphQLEngine;
 import com.linkedin.datahub.graphql.analytics.service.AnalyticsService;
+import com.linkedin.datahub.graphql.instrumentation.QueryCostInstrumentation;
+import com.linkedin.datahub.graphql.loader.DataLoaderSettings;
+import com.linkedin.datahub.graphql.loader.SharedLoadableTypeCache;
+import com.linkedin.datahub.graphql.preparsed.CachingPersistedQuerySupport;
+import com.linkedin.datahub.graphql.preparsed.LruPersistedQueryCache;
 import com.linkedin.entity.client.JavaEntityClient;
 import com.linkedin.gms.factory.auth.DataHubTokenServiceFactory;
 import com.linkedin.gms.factory.common.GitVersionFactory;
@@ -19,6 +24,10 @@ import com.linkedin.metadata.recommendation.RecommendationsService;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.version.GitVersion;
 import com.linkedin.usage.UsageClient;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -76,15 +85,101 @@ public class GraphQLEngineFactory {
   @Value("${platformAnalytics.enabled}") // TODO: Migrate to DATAHUB_ANALYTICS_ENABLED
   private Boolean isAnalyticsEnabled;
 
+  @Value("${graphQL.dataLoader.batchingEnabled}")
+  private String batchingEnabled;
+
+  @Value("${graphQL.dataLoader.maxBatchSizes}")
+  private String maxBatchSizes;
+
+  @Value("${graphQL.dataLoader.sharedCache.ttlSeconds}")
+  private String sharedCacheTtls;
+
+  @Value("${graphQL.dataLoader.sharedCache.maxSize}")
+  private Long sharedCacheMaxSize;
+
+  @Value("${graphQL.autoComplete.latencyBudgetMs}")
+  private Long autoCompleteLatencyBudgetMs;
+
+  @Value("${graphQL.queryCache.maxSize}")
+  private Long queryCacheMaxSize;
+
+  @Value("${graphQL.query.maxDepth}")
+  private Integer queryMaxDepth;
+
+  @Value("${graphQL.query.maxCost}")
+  private Long queryMaxCost;
+
+  @Value("${graphQL.query.fieldWeights}")
+  private String queryFieldWeights;
+
+  @Value("${graphQL.query.defaultCount}")
+  private Integer queryDefaultCount;
+
+  @Bean(name = "sharedLoadableTypeCache")
+  @Nonnull
+  protected SharedLoadableTypeCache getSharedLoadableTypeCache() {
+    final SharedLoadableTypeCache cache = new SharedLoadableTypeCache();
+    // Only writes committed by the entity service of this process are evicted, others expire after the ttl.
+    _entityService.addChangeListener(urn -> cache.invalidate(urn.toString()));
+    return cache;
+  }
+
   @Bean(name = "graphQLEngine")
   @Nonnull
   protected GraphQLEngine getInstance() {
-    if (isAnalyticsEnabled) {
-      return new GmsGraphQLEngine(_entityClient, _graphClient, _usageClient,
-          new AnalyticsService(elasticClient, indexConvention.getPrefix()), _entityService, _recommendationsService,
-          _tokenService, _entityRegistry, _gitVersion).builder().build();
+    final AnalyticsService analyticsService =
+        isAnalyticsEnabled ? new AnalyticsService(elasticClient, indexConvention.getPrefix()) : null;
+    return new GmsGraphQLEngine(_entityClient, _graphClient, _usageClient, analyticsService, _entityService,
+        _recommendationsService, _tokenService, _entityRegistry, _gitVersion, buildDataLoaderSettings(),
+        getSharedLoadableTypeCache(), autoCompleteLatencyBudgetMs).builder()
+        .setPreparsedDocumentProvider(new CachingPersistedQuerySupport(new LruPersistedQueryCache(queryCacheMaxSize)))
+        .addInstrumentation(buildQueryCostInstrumentation())
+        .build();
+  }
+
+  /**
+   * Builds the per-type data loader settings from comma separated lists of name:value pairs,
+   * e.g. "DataPlatform:3600,CorpUser:300".
+   */
+  private Map<String, DataLoaderSettings> buildDataLoaderSettings() {
+    final Map<String, String> batching = parseTypeValues(batchingEnabled);
+    final Map<String, String> batchSizes = parseTypeValues(maxBatchSizes);
+    final Map<String, String> ttls = parseTypeValues(sharedCacheTtls);
+    final Set<String> types = new HashSet<>(batching.keySet());
+    types.addAll(batchSizes.keySet());
+    types.addAll(ttls.keySet());
+
+    final Map<String, DataLoaderSettings> settings = new HashMap<>();
+    for (String type : types) {
+      settings.put(type, DataLoaderSettings.builder()
+          .batchingEnabled(Boolean.parseBoolean(batching.getOrDefault(type, "true")))
+          .maxBatchSize(Integer.parseInt(batchSizes.getOrDefault(type, "0")))
+          .sharedCacheTtlSeconds(Long.parseLong(ttls.getOrDefault(type, "0")))
+          .sharedCacheMaxSize(sharedCacheMaxSize)
+          .build());
+    }
+    return settings;
+  }
+
+  private QueryCostInstrumentation buildQueryCostInstrumentation() {
+    final Map<String, Integer> fieldWeights = new HashMap<>();
+    parseTypeValues(queryFieldWeights).forEach((field, weight) -> fieldWeights.put(field, Integer.parseInt(weight)));
+    return new QueryCostInstrumentation(queryMaxDepth, queryMaxCost, fieldWeights, queryDefaultCount);
+  }
+
+  private static Map<String, String> parseTypeValues(final String typeValues) {
+    final Map<String, String> result = new HashMap<>();
+    if (typeValues == null || typeValues.trim().isEmpty()) {
+      return result;
+    }
+    for (String typeValue : typeValues.split(",")) {
+      final String[] parts = typeValue.trim().split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException(
+            String.format("Invalid setting %s. Expected format is name:value", typeValue));
+      }
+      result.put(parts[0].trim(), parts[1].trim());
     }
-    return new GmsGraphQLEngine(_entityClient, _graphClient, _usageClient, null, _entityService,
-        _recommendationsService, _tokenService, _entityRegistry, _gitVersion).builder().build();
+    return result;
   }
 }
@@ -4,6 +4,7 @@ import com.linkedin.gms.factory.common.RestHighLevelClientFactory;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import javax.annotation.Nonnull;
+import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -15,13 +16,17 @@ import org.springframework.context.annotation.PropertySource;
 
 
 @Configuration
-@Import({RestHighLevelClientFactory.class})
+@Import({RestHighLevelClientFactory.class, ElasticSearchBulkProcessorFactory.class})
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
 public class ElasticSearchIndexBuilderFactory {
   @Autowired
   @Qualifier("elasticSearchRestHighLevelClient")
   private RestHighLevelClient searchClient;
 
+  @Autowired
+  @Qualifier("elasticSearchBulkProcessor")
+  private BulkProcessor bulkProcessor;
+
   @Value("${elasticsearch.index.numShards}")
   private Integer numShards;
 
@@ -31,9 +36,19 @@ public class ElasticSearchIndexBuilderFactory {
   @Value("${elasticsearch.index.numRetries}")
   private Integer numRetries;
 
+  @Value("${elasticsearch.index.reindex.slices}")
+  private Integer reindexSlices;
+
+  @Value("${elasticsearch.index.reindex.requestsPerSecond}")
+  private Float reindexRequestsPerSecond;
+
+  @Value("${elasticsearch.index.reindex.timeoutMinutes}")
+  private Long reindexTimeoutMinutes;
+
   @Bean(name = "elasticSearchIndexBuilder")
   @Nonnull
   protected ESIndexBuilder getInstance() {
-    return new ESIndexBuilder(searchClient, numShards, numReplicas, numRetries);
+    return new ESIndexBuilder(searchClient, numShards, numReplicas, numRetries, reindexSlices,
+        reindexRequestsPerSecond, reindexTimeoutMinutes, bulkProcessor);
   }
 }
\ No newline at end of file
@@ -1,17 +1,21 @@
 package com.linkedin.gms.factory.search;
 
 import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
+import com.linkedin.gms.factory.search.ranker.BackendRankerFactory;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.cache.AutocompletePrefixCache;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.SettingsBuilder;
 import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
 import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
 import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
+import com.linkedin.metadata.search.ranker.BackendRanker;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -20,7 +24,7 @@ import org.springframework.context.annotation.PropertySource;
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
-@Import({EntityRegistryFactory.class, SettingsBuilderFactory.class})
+@Import({EntityRegistryFactory.class, SettingsBuilderFactory.class, BackendRankerFactory.class})
 public class ElasticSearchServiceFactory {
   @Autowired
   @Qualifier("baseElasticSearchComponents")
@@ -34,16 +38,27 @@ public class ElasticSearchServiceFactory {
   @Qualifier("settingsBuilder")
   private SettingsBuilder settingsBuilder;
 
+  @Autowired
+  @Qualifier("backendRanker")
+  private BackendRanker backendRanker;
+
+  @Value("${searchService.autocompleteCache.maxSize}")
+  private Long autocompleteCacheMaxSize;
+
+  @Value("${searchService.autocompleteCache.ttlSeconds}")
+  private Long autocompleteCacheTtlSeconds;
+
   @Bean(name = "elasticSearchService")
   @Nonnull
   protected ElasticSearchService getInstance() {
     ESSearchDAO esSearchDAO =
-        new ESSearchDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention());
+        new ESSearchDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention(),
+            new AutocompletePrefixCache(autocompleteCacheMaxSize, autocompleteCacheTtlSeconds), backendRanker);
     return new ElasticSearchService(
         new EntityIndexBuilders(components.getIndexBuilder(), entityRegistry, components.getIndexConvention(),
             settingsBuilder), esSearchDAO,
         new ESBrowseDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention()),
         new ESWriteDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention(),
-            components.getBulkProcessor()));
+            components.getBulkProcessor(), components.getIndexBuilder()));
   }
 }
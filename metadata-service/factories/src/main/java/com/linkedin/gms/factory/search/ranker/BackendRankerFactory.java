@@ -0,0 +1,36 @@
+package com.linkedin.gms.factory.search.ranker;
+
+import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.search.ranker.BackendRanker;
+import com.linkedin.metadata.search.ranker.LinearFeatureRanker;
+import java.io.File;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+public class BackendRankerFactory {
+
+  @Value("${searchService.ranker.enabled}")
+  private Boolean enabled;
+
+  @Value("${searchService.ranker.weightsPath}")
+  private String weightsPath;
+
+  @Bean(name = "backendRanker")
+  @Nonnull
+  protected BackendRanker getInstance() throws IOException {
+    if (!enabled) {
+      return BackendRanker.NONE;
+    }
+    if (weightsPath == null || weightsPath.isEmpty()) {
+      return new LinearFeatureRanker();
+    }
+    return LinearFeatureRanker.fromJson(new File(weightsPath));
+  }
+}
@@ -4,11 +4,15 @@ import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
 import com.linkedin.gms.factory.search.BaseElasticSearchComponentsFactory;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.update.BulkListener;
 import com.linkedin.metadata.timeseries.elastic.ElasticSearchTimeseriesAspectService;
 import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectIndexBuilders;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import com.linkedin.metadata.timeseries.elastic.query.AggregatedStatsCache;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -17,7 +21,8 @@ import org.springframework.context.annotation.PropertySource;
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
-@Import({BaseElasticSearchComponentsFactory.class, EntityRegistryFactory.class})
+@Import({BaseElasticSearchComponentsFactory.class, EntityRegistryFactory.class,
+    TimeseriesIndexPartitionerFactory.class})
 public class ElasticSearchTimeseriesAspectServiceFactory {
   @Autowired
   @Qualifier("baseElasticSearchComponents")
@@ -27,11 +32,34 @@ public class ElasticSearchTimeseriesAspectServiceFactory {
   @Qualifier("entityRegistry")
   private EntityRegistry entityRegistry;
 
+  @Autowired
+  @Qualifier(TimeseriesIndexPartitionerFactory.TIMESERIES_INDEX_PARTITIONER_BEAN)
+  private TimeseriesIndexPartitioner partitioner;
+
+  @Value("${timeseriesAspectService.partitioning.retentionIntervalSeconds}")
+  private long partitionRetentionIntervalSeconds;
+
+  @Value("${timeseriesAspectService.aggregationCache.maxSize}")
+  private long aggregationCacheMaxSize;
+
+  @Value("${timeseriesAspectService.aggregationCache.recentTtlSeconds}")
+  private long aggregationCacheRecentTtlSeconds;
+
+  @Value("${timeseriesAspectService.aggregationCache.historicalTtlSeconds}")
+  private long aggregationCacheHistoricalTtlSeconds;
+
   @Bean(name = "elasticSearchTimeseriesAspectService")
   @Nonnull
   protected ElasticSearchTimeseriesAspectService getInstance() {
-    return new ElasticSearchTimeseriesAspectService(components.getSearchClient(), components.getIndexConvention(),
-        new TimeseriesAspectIndexBuilders(components.getIndexBuilder(), entityRegistry,
-            components.getIndexConvention()), entityRegistry, components.getBulkProcessor());
+    final ElasticSearchTimeseriesAspectService service =
+        new ElasticSearchTimeseriesAspectService(components.getSearchClient(), components.getIndexConvention(),
+            new TimeseriesAspectIndexBuilders(components.getIndexBuilder(), entityRegistry,
+                components.getIndexConvention(), partitioner), entityRegistry, components.getBulkProcessor(),
+            new AggregatedStatsCache(aggregationCacheMaxSize, aggregationCacheRecentTtlSeconds,
+                aggregationCacheHistoricalTtlSeconds));
+    // Evict cached aggregations once the documents written are flushed
+    BulkListener.getInstance().addAfterBulkHandler(service::onBulkFlushed);
+    service.startRetention(partitionRetentionIntervalSeconds);
+    return service;
   }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.linkedin.gms.factory.timeseries;
+
+import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesIndexPartitioner;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+
+/**
+ * Creates the {@link TimeseriesIndexPartitioner} mapping timeseries aspect indices to their partitions, shared by the
+ * timeseries aspect service and by the jobs reading timeseries aspect indices directly.
+ */
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+public class TimeseriesIndexPartitionerFactory {
+  public static final String TIMESERIES_INDEX_PARTITIONER_BEAN = "timeseriesIndexPartitioner";
+
+  @Value("${timeseriesAspectService.partitioning.granularity}")
+  private TimeseriesIndexPartitioner.Granularity partitionGranularity;
+
+  @Value("${timeseriesAspectService.partitioning.retentionDays}")
+  private long partitionRetentionDays;
+
+  @Value("${timeseriesAspectService.partitioning.maxQueryPartitions}")
+  private int maxQueryPartitions;
+
+  @Bean(name = TIMESERIES_INDEX_PARTITIONER_BEAN)
+  @Nonnull
+  protected TimeseriesIndexPartitioner getInstance() {
+    return new TimeseriesIndexPartitioner(partitionGranularity, partitionRetentionDays, maxQueryPartitions);
+  }
+}
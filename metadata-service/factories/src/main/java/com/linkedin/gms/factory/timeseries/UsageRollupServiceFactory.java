@@ -0,0 +1,49 @@
+package com.linkedin.gms.factory.timeseries;
+
+import com.linkedin.gms.factory.search.BaseElasticSearchComponentsFactory;
+import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.rollup.ElasticSearchUsageRollupService;
+import com.linkedin.metadata.timeseries.rollup.UsageRollupService;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({BaseElasticSearchComponentsFactory.class, TimeseriesAspectServiceFactory.class})
+public class UsageRollupServiceFactory {
+  @Autowired
+  @Qualifier("baseElasticSearchComponents")
+  private BaseElasticSearchComponentsFactory.BaseElasticSearchComponents components;
+
+  @Autowired
+  @Qualifier("timeseriesAspectService")
+  private TimeseriesAspectService timeseriesAspectService;
+
+  @Value("${usageRollup.enabled}")
+  private boolean enabled;
+
+  @Value("${usageRollup.maxAgeDays}")
+  private int maxAgeDays;
+
+  @Value("${usageRollup.maxUsersPerEvent}")
+  private int maxUsersPerEvent;
+
+  @Value("${usageRollup.maxFieldsPerEvent}")
+  private int maxFieldsPerEvent;
+
+  @Bean(name = "usageRollupService")
+  @Nonnull
+  protected UsageRollupService getInstance() {
+    return new ElasticSearchUsageRollupService(components.getSearchClient(), components.getIndexConvention(),
+        components.getIndexBuilder(), timeseriesAspectService, enabled, maxAgeDays, maxUsersPerEvent,
+        maxFieldsPerEvent);
+  }
+}
@@ -1,22 +1,41 @@
 package com.linkedin.metadata.boot;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 
 /**
  * Responsible for coordinating boot-time logic.
+ *
+ * <p>Blocking steps are executed one after the other, and asynchronous steps in parallel on a bounded pool of threads.
+ * The status of every step is tracked, and the service is ready once every required step succeeded.
  */
 @Slf4j
 @Component
 public class BootstrapManager {
 
+  private static final int DEFAULT_ASYNC_THREADS = 2;
+
   private final List<BootstrapStep> _bootSteps;
+  private final ExecutorService _asyncExecutor;
+  private final Map<String, BootstrapStepStatus> _statuses = new ConcurrentHashMap<>();
 
   public BootstrapManager(final List<BootstrapStep> bootSteps) {
+    this(bootSteps, DEFAULT_ASYNC_THREADS);
+  }
+
+  public BootstrapManager(final List<BootstrapStep> bootSteps, final int asyncThreads) {
     _bootSteps = bootSteps;
+    _asyncExecutor = Executors.newFixedThreadPool(asyncThreads,
+        new ThreadFactoryBuilder().setNameFormat("bootstrap-step-%d").setDaemon(true).build());
+    _bootSteps.forEach(step -> setStatus(step, BootstrapStepStatus.State.PENDING, null, null, null));
   }
 
   public void start() {
@@ -26,22 +45,53 @@ public class BootstrapManager {
       final BootstrapStep step = _bootSteps.get(i);
       if (step.getExecutionMode() == BootstrapStep.ExecutionMode.BLOCKING) {
         log.info("Executing bootstrap step {}/{} with name {}...", i + 1, _bootSteps.size(), step.name());
-        try {
-          step.execute();
-        } catch (Exception e) {
-          log.error(String.format("Caught exception while executing bootstrap step %s. Exiting...", step.name()), e);
+        if (!execute(step)) {
+          log.error("Bootstrap step {} failed. Exiting...", step.name());
           System.exit(1);
         }
       } else { // Async
         log.info("Starting asynchronous bootstrap step {}/{} with name {}...", i + 1, _bootSteps.size(), step.name());
-        CompletableFuture.runAsync(() -> {
-          try {
-            step.execute();
-          } catch (Exception e) {
-            log.error(String.format("Caught exception while executing bootstrap step %s. Exiting...", step.name()), e);
-          }
-        });
+        _asyncExecutor.submit(() -> execute(step));
       }
     }
   }
+
+  /**
+   * Returns the status of every step, in execution order.
+   */
+  public List<BootstrapStepStatus> getStepStatuses() {
+    return _bootSteps.stream().map(step -> _statuses.get(step.name())).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns whether every required step succeeded.
+   */
+  public boolean isReady() {
+    return getStepStatuses().stream()
+        .allMatch(status -> !status.isRequired() || status.getState() == BootstrapStepStatus.State.SUCCEEDED);
+  }
+
+  private boolean execute(final BootstrapStep step) {
+    final long startTime = System.currentTimeMillis();
+    setStatus(step, BootstrapStepStatus.State.RUNNING, startTime, null, null);
+    try {
+      step.execute();
+      final long duration = System.currentTimeMillis() - startTime;
+      log.info("Bootstrap step {} succeeded in {} ms", step.name(), duration);
+      setStatus(step, BootstrapStepStatus.State.SUCCEEDED, startTime, duration, null);
+      return true;
+    } catch (Exception e) {
+      log.error(String.format("Caught exception while executing bootstrap step %s", step.name()), e);
+      setStatus(step, BootstrapStepStatus.State.FAILED, startTime, System.currentTimeMillis() - startTime,
+          e.toString());
+      return false;
+    }
+  }
+
+  private void setStatus(final BootstrapStep step, final BootstrapStepStatus.State state, final Long startTimeMs,
+      final Long durationMs, final String error) {
+    _statuses.put(step.name(),
+        new BootstrapStepStatus(step.name(), step.getExecutionMode(), step.isRequired(), state, startTimeMs, durationMs,
+            error));
+  }
 }
@@ -26,6 +26,14 @@ public interface BootstrapStep {
     return ExecutionMode.BLOCKING;
   }
 
+  /**
+   * Whether the service is ready only once this step succeeded, whatever its execution mode. Steps are required by
+   * default.
+   */
+  default boolean isRequired() {
+    return true;
+  }
+
   enum ExecutionMode {
     // Block service from starting up while running the step
     BLOCKING,
@@ -0,0 +1,35 @@
+package com.linkedin.metadata.boot;
+
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * The status of a {@link BootstrapStep} within the current run of the service.
+ */
+@Value
+public class BootstrapStepStatus {
+
+  public enum State {
+    // Waiting for an earlier blocking step, or for a thread to run on
+    PENDING,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+  }
+
+  String name;
+  BootstrapStep.ExecutionMode executionMode;
+  // Whether the service is ready only once the step succeeded
+  boolean required;
+  State state;
+  // Epoch millis at which the step started, if it did
+  @Nullable
+  Long startTimeMs;
+  // How long the step took, once it ended
+  @Nullable
+  Long durationMs;
+  // Message of the exception the step failed with
+  @Nullable
+  String error;
+}
@@ -0,0 +1,108 @@
+package com.linkedin.metadata.boot;
+
+import com.linkedin.boot.BootstrapStepProgress;
+import com.linkedin.common.AuditStamp;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.key.DataHubBootstrapStepKey;
+import com.linkedin.metadata.utils.EntityKeyUtils;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * A boot-time step processing urns in ascending order, in batches read with keyset pagination.
+ *
+ * <p>The last processed urn is recorded in a {@link BootstrapStepProgress} aspect after every batch, so that a step
+ * interrupted by a restart resumes after it instead of starting over, and a completed step is not executed again.
+ */
+@Slf4j
+public abstract class ResumableBootstrapStep implements BootstrapStep {
+
+  protected final EntityService _entityService;
+  private final int _batchSize;
+
+  public ResumableBootstrapStep(@Nonnull final EntityService entityService, final int batchSize) {
+    _entityService = entityService;
+    _batchSize = batchSize;
+  }
+
+  /**
+   * Returns the next urns to process, in ascending order, after the given urn, or from the first urn if null.
+   */
+  @Nonnull
+  protected abstract List<Urn> getUrnsAfter(@Nullable String lastUrn, int batchSize) throws Exception;
+
+  /**
+   * Processes a batch of urns. Processing must be idempotent, as the batch of an interrupted step is processed again.
+   */
+  protected abstract void processBatch(@Nonnull List<Urn> urns) throws Exception;
+
+  /**
+   * Returns whether the step was already completed without recording its progress, e.g. by earlier versions of it.
+   */
+  protected boolean isCompletedWithoutProgress() throws Exception {
+    return false;
+  }
+
+  @Override
+  public void execute() throws Exception {
+    final Urn progressUrn = getProgressUrn();
+    BootstrapStepProgress progress = (BootstrapStepProgress) _entityService.getLatestAspect(progressUrn,
+        Constants.BOOTSTRAP_STEP_PROGRESS_ASPECT_NAME);
+    if (progress == null) {
+      if (isCompletedWithoutProgress()) {
+        log.info("{} was completed before progress was recorded. Skipping.", name());
+        saveProgress(progressUrn, new BootstrapStepProgress().setComplete(true));
+        return;
+      }
+      // Recorded before processing, so that a step interrupted in its first batch is not taken as completed
+      progress = new BootstrapStepProgress();
+      saveProgress(progressUrn, progress);
+    } else if (progress.isComplete()) {
+      log.info("{} was completed. Skipping.", name());
+      return;
+    } else {
+      log.info("Resuming {} after urn {}, {} urns were processed", name(), progress.getLastProcessedUrn(),
+          progress.getProcessedCount());
+    }
+
+    List<Urn> urns;
+    do {
+      urns = getUrnsAfter(progress.getLastProcessedUrn(), _batchSize);
+      if (!urns.isEmpty()) {
+        processBatch(urns);
+        progress = new BootstrapStepProgress().setLastProcessedUrn(urns.get(urns.size() - 1).toString())
+            .setProcessedCount(progress.getProcessedCount() + urns.size());
+        saveProgress(progressUrn, progress);
+        log.info("{} processed {} urns, up to {}", name(), progress.getProcessedCount(),
+            progress.getLastProcessedUrn());
+      }
+    } while (urns.size() == _batchSize);
+
+    saveProgress(progressUrn, progress.copy().setComplete(true));
+    log.info("{} completed after processing {} urns", name(), progress.getProcessedCount());
+  }
+
+  @Nonnull
+  private Urn getProgressUrn() {
+    return EntityKeyUtils.convertEntityKeyToUrn(new DataHubBootstrapStepKey().setId(name()),
+        Constants.DATAHUB_BOOTSTRAP_STEP_ENTITY_NAME);
+  }
+
+  private void saveProgress(@Nonnull final Urn progressUrn, @Nonnull final BootstrapStepProgress progress)
+      throws Exception {
+    progress.setLastUpdatedTimeMs(System.currentTimeMillis());
+    final AuditStamp auditStamp = new AuditStamp().setActor(Urn.createFromString(Constants.SYSTEM_ACTOR))
+        .setTime(progress.getLastUpdatedTimeMs());
+    // Overwrites the latest version in place, without emitting a change log, as progress is internal to GMS
+    _entityService.updateAspect(progressUrn, Constants.DATAHUB_BOOTSTRAP_STEP_ENTITY_NAME,
+        Constants.BOOTSTRAP_STEP_PROGRESS_ASPECT_NAME,
+        _entityService.getAspectSpec(Constants.DATAHUB_BOOTSTRAP_STEP_ENTITY_NAME,
+            Constants.BOOTSTRAP_STEP_PROGRESS_ASPECT_NAME).get(), progress, auditStamp,
+        Constants.ASPECT_LATEST_VERSION, false);
+  }
+}
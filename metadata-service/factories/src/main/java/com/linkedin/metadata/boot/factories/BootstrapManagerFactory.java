@@ -13,6 +13,7 @@ import io.ebean.EbeanServer;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -35,6 +36,12 @@ public class BootstrapManagerFactory {
   @Qualifier("ingestRetentionPoliciesStep")
   private IngestRetentionPoliciesStep _ingestRetentionPoliciesStep;
 
+  @Value("${bootstrap.asyncThreads}")
+  private Integer _asyncThreads;
+
+  @Value("${bootstrap.batchSize}")
+  private Integer _batchSize;
+
   @Bean(name = "bootstrapManager")
   @Scope("singleton")
   @Nonnull
@@ -43,8 +50,8 @@ public class BootstrapManagerFactory {
     final IngestPoliciesStep ingestPoliciesStep = new IngestPoliciesStep(_entityService);
     final IngestDataPlatformsStep ingestDataPlatformsStep = new IngestDataPlatformsStep(_entityService);
     final IngestDataPlatformInstancesStep ingestDataPlatformInstancesStep =
-        new IngestDataPlatformInstancesStep(_entityService, _server);
+        new IngestDataPlatformInstancesStep(_entityService, _server, _batchSize);
     return new BootstrapManager(ImmutableList.of(ingestRootUserStep, ingestPoliciesStep, ingestDataPlatformsStep,
-        ingestDataPlatformInstancesStep, _ingestRetentionPoliciesStep));
+        ingestDataPlatformInstancesStep, _ingestRetentionPoliciesStep), _asyncThreads);
   }
 }
\ No newline at end of file
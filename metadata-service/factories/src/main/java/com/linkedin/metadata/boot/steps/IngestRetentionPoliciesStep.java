@@ -36,6 +36,12 @@ public class IngestRetentionPoliciesStep implements BootstrapStep {
     return ExecutionMode.ASYNC;
   }
 
+  @Override
+  public boolean isRequired() {
+    // Retention only trims older versions of aspects, which does not change what the service serves
+    return false;
+  }
+
   @Override
   public String name() {
     return "IngestRetentionPoliciesStep";
@@ -0,0 +1,105 @@
+package com.linkedin.metadata.boot;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class BootstrapManagerTest {
+
+  @Test
+  public void testReadyOnceRequiredAsyncStepsSucceeded() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(2);
+    final BootstrapStep requiredStep = new TestStep("required", true, () -> {
+      release.await();
+      done.countDown();
+    });
+    final BootstrapStep optionalStep = new TestStep("optional", false, () -> {
+      done.countDown();
+      throw new IllegalStateException("Failed");
+    });
+    final BootstrapManager manager = new BootstrapManager(ImmutableList.of(requiredStep, optionalStep));
+
+    manager.start();
+    assertFalse(manager.isReady());
+
+    release.countDown();
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    // Statuses are set once steps return
+    waitForSteps(manager);
+
+    assertTrue(manager.isReady());
+    assertEquals(manager.getStepStatuses().get(0).getState(), BootstrapStepStatus.State.SUCCEEDED);
+    assertEquals(manager.getStepStatuses().get(1).getState(), BootstrapStepStatus.State.FAILED);
+    assertEquals(manager.getStepStatuses().get(1).getError(), "java.lang.IllegalStateException: Failed");
+  }
+
+  @Test
+  public void testNotReadyWhileRequiredAsyncStepFailed() throws Exception {
+    final BootstrapManager manager = new BootstrapManager(ImmutableList.of(new TestStep("required", true, () -> {
+      throw new IllegalStateException("Failed");
+    })));
+
+    assertFalse(manager.isReady());
+    assertEquals(manager.getStepStatuses().get(0).getState(), BootstrapStepStatus.State.PENDING);
+
+    manager.start();
+    waitForSteps(manager);
+
+    assertFalse(manager.isReady());
+    assertTrue(manager.getStepStatuses().get(0).isRequired());
+    assertEquals(manager.getStepStatuses().get(0).getExecutionMode(), BootstrapStep.ExecutionMode.ASYNC);
+  }
+
+  private static void waitForSteps(BootstrapManager manager) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (manager.getStepStatuses().stream().anyMatch(status -> status.getState() == BootstrapStepStatus.State.PENDING
+        || status.getState() == BootstrapStepStatus.State.RUNNING)) {
+      assertTrue(System.currentTimeMillis() < deadline, "Steps did not end");
+      Thread.sleep(10);
+    }
+  }
+
+  private interface Body {
+    void run() throws Exception;
+  }
+
+  private static class TestStep implements BootstrapStep {
+
+    private final String _name;
+    private final boolean _required;
+    private final Body _body;
+
+    TestStep(String name, boolean required, Body body) {
+      _name = name;
+      _required = required;
+      _body = body;
+    }
+
+    @Override
+    public String name() {
+      return _name;
+    }
+
+    @Override
+    public void execute() throws Exception {
+      _body.run();
+    }
+
+    @Nonnull
+    @Override
+    public ExecutionMode getExecutionMode() {
+      return ExecutionMode.ASYNC;
+    }
+
+    @Override
+    public boolean isRequired() {
+      return _required;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.linkedin.metadata.boot;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.boot.BootstrapStepProgress;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.models.AspectSpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class ResumableBootstrapStepTest {
+
+  private static final List<Urn> URNS = ImmutableList.of(
+      UrnUtils.getUrn("urn:li:corpuser:a"),
+      UrnUtils.getUrn("urn:li:corpuser:b"),
+      UrnUtils.getUrn("urn:li:corpuser:c"),
+      UrnUtils.getUrn("urn:li:corpuser:d"),
+      UrnUtils.getUrn("urn:li:corpuser:e"));
+
+  private EntityService _entityService;
+  // The progress recorded by the steps
+  private BootstrapStepProgress _progress;
+
+  @BeforeMethod
+  public void setup() {
+    _progress = null;
+    _entityService = mock(EntityService.class);
+    when(_entityService.getAspectSpec(Constants.DATAHUB_BOOTSTRAP_STEP_ENTITY_NAME,
+        Constants.BOOTSTRAP_STEP_PROGRESS_ASPECT_NAME)).thenReturn(Optional.of(mock(AspectSpec.class)));
+    when(_entityService.getLatestAspect(any(), eq(Constants.BOOTSTRAP_STEP_PROGRESS_ASPECT_NAME))).thenAnswer(
+        invocation -> _progress == null ? null : _progress.copy());
+    when(_entityService.updateAspect(any(), any(), any(), any(), any(), any(), anyLong(), anyBoolean())).thenAnswer(
+        invocation -> {
+          _progress = ((BootstrapStepProgress) invocation.getArgument(4)).copy();
+          return _progress;
+        });
+  }
+
+  @Test
+  public void testProcessesUrnsInBatches() throws Exception {
+    final TestStep step = new TestStep(null);
+    step.execute();
+
+    assertEquals(step.batches, ImmutableList.of(URNS.subList(0, 2), URNS.subList(2, 4), URNS.subList(4, 5)));
+    assertTrue(_progress.isComplete());
+    assertEquals(_progress.getProcessedCount().longValue(), 5L);
+    assertEquals(_progress.getLastProcessedUrn(), "urn:li:corpuser:e");
+  }
+
+  @Test
+  public void testResumesAfterLastProcessedBatch() throws Exception {
+    final TestStep interruptedStep = new TestStep(URNS.get(2));
+    assertThrows(IllegalStateException.class, interruptedStep::execute);
+    assertFalse(_progress.isComplete());
+    assertEquals(_progress.getProcessedCount().longValue(), 2L);
+    assertEquals(_progress.getLastProcessedUrn(), "urn:li:corpuser:b");
+
+    final TestStep step = new TestStep(null);
+    step.execute();
+
+    assertEquals(step.batches, ImmutableList.of(URNS.subList(2, 4), URNS.subList(4, 5)));
+    assertTrue(_progress.isComplete());
+    assertEquals(_progress.getProcessedCount().longValue(), 5L);
+  }
+
+  @Test
+  public void testInterruptedFirstBatchIsNotCompleted() throws Exception {
+    assertThrows(IllegalStateException.class, new TestStep(URNS.get(0))::execute);
+    assertFalse(_progress.isComplete());
+    assertFalse(_progress.hasLastProcessedUrn());
+
+    final TestStep step = new TestStep(null);
+    step.execute();
+
+    assertEquals(step.batches.size(), 3);
+  }
+
+  @Test
+  public void testSkipsCompletedStep() throws Exception {
+    new TestStep(null).execute();
+
+    final TestStep step = new TestStep(null);
+    step.execute();
+
+    assertTrue(step.batches.isEmpty());
+  }
+
+  @Test
+  public void testSkipsStepCompletedWithoutProgress() throws Exception {
+    final TestStep step = new TestStep(null) {
+      @Override
+      protected boolean isCompletedWithoutProgress() {
+        return true;
+      }
+    };
+    step.execute();
+
+    assertTrue(step.batches.isEmpty());
+    assertTrue(_progress.isComplete());
+  }
+
+  // Processes URNS in batches of 2, failing on the batch holding the given urn, if any
+  private class TestStep extends ResumableBootstrapStep {
+
+    private final Urn _failingUrn;
+    final List<List<Urn>> batches = new ArrayList<>();
+
+    TestStep(@Nullable Urn failingUrn) {
+      super(_entityService, 2);
+      _failingUrn = failingUrn;
+    }
+
+    @Override
+    public String name() {
+      return "TestStep";
+    }
+
+    @Nonnull
+    @Override
+    protected List<Urn> getUrnsAfter(@Nullable String lastUrn, int batchSize) {
+      return URNS.stream()
+          .filter(urn -> lastUrn == null || urn.toString().compareTo(lastUrn) > 0)
+          .limit(batchSize)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    protected void processBatch(@Nonnull List<Urn> urns) {
+      if (urns.contains(_failingUrn)) {
+        throw new IllegalStateException("Interrupted");
+      }
+      batches.add(urns);
+    }
+  }
+}
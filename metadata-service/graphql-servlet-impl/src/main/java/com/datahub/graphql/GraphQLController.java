@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linkedin.datahub.graphql.GraphQLEngine;
 import graphql.ExecutionResult;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
 import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -28,6 +29,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class GraphQLController {
 
+  private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
   public GraphQLController() {
     log.error("I created graphqlcontroller");
 
@@ -57,12 +60,28 @@ public class GraphQLController {
     }
 
     /*
-     * Extract "query" field
+     * Extract "extensions" map, which carries the sha256 hash of the query for persisted queries
+     */
+    JsonNode extensionsJson = bodyJson.get("extensions");
+    final Map<String, Object> extensions = (extensionsJson != null && !extensionsJson.isNull())
+      ? new ObjectMapper().convertValue(extensionsJson, new TypeReference<Map<String, Object>>() { })
+      : Collections.emptyMap();
+
+    /*
+     * Extract "query" field. It may be omitted when a persisted query hash is provided instead.
      */
     JsonNode queryJson = bodyJson.get("query");
-    if (queryJson == null) {
+    if ((queryJson == null || queryJson.isNull()) && !extensions.containsKey(PERSISTED_QUERY_EXTENSION)) {
       return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
     }
+    final String query = (queryJson == null || queryJson.isNull())
+      ? PersistedQuerySupport.PERSISTED_QUERY_MARKER
+      : queryJson.asText();
+
+    JsonNode operationNameJson = bodyJson.get("operationName");
+    final String operationName = (operationNameJson != null && !operationNameJson.isNull())
+      ? operationNameJson.asText()
+      : null;
 
     /*
      * Extract "variables" map
@@ -72,7 +91,7 @@ public class GraphQLController {
       ? new ObjectMapper().convertValue(variablesJson, new TypeReference<Map<String, Object>>() { })
       : Collections.emptyMap();
 
-    log.debug(String.format("Executing graphQL query: %s, variables: %s", queryJson, variables));
+    log.debug(String.format("Executing graphQL query: %s, variables: %s", query, variables));
 
     /*
      * Init QueryContext
@@ -87,17 +106,17 @@ public class GraphQLController {
       /*
        * Execute GraphQL Query
        */
-      ExecutionResult executionResult = _engine.execute(queryJson.asText(), variables, context);
+      ExecutionResult executionResult = _engine.execute(query, operationName, variables, extensions, context);
 
       if (executionResult.getErrors().size() != 0) {
         // There were GraphQL errors. Report in error logs.
         log.error(String.format("Errors while executing graphQL query: %s, result: %s, errors: %s",
-            queryJson,
+            query,
             executionResult.toSpecification(),
             executionResult.getErrors()));
       } else {
         log.debug(String.format("Executed graphQL query: %s, result: %s",
-            queryJson,
+            query,
             executionResult.toSpecification()));
       }
 
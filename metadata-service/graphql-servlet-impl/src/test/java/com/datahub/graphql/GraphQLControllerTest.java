@@ -0,0 +1,68 @@
+package com.datahub.graphql;
+
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.datahub.graphql.GraphQLEngine;
+import graphql.ExecutionResultImpl;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import java.util.Collections;
+import java.util.Map;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class GraphQLControllerTest {
+
+  private GraphQLController _controller;
+
+  @BeforeMethod
+  public void setup() {
+    _controller = new GraphQLController();
+    _controller._engine = mock(GraphQLEngine.class);
+    when(_controller._engine.execute(any(), any(), any(), any(), any())).thenReturn(
+        new ExecutionResultImpl(ImmutableMap.of("hello", "hi"), Collections.emptyList()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testExecutesPersistedQueryWithoutText() {
+    final ResponseEntity<String> response = post("{\"operationName\": \"hello\", "
+        + "\"extensions\": {\"persistedQuery\": {\"version\": 1, \"sha256Hash\": \"abc\"}}}");
+
+    assertEquals(response.getStatusCode(), HttpStatus.OK);
+    assertEquals(response.getBody(), "{\"data\":{\"hello\":\"hi\"}}");
+    final ArgumentCaptor<Map<String, Object>> extensions = ArgumentCaptor.forClass(Map.class);
+    verify(_controller._engine).execute(eq(PersistedQuerySupport.PERSISTED_QUERY_MARKER), eq("hello"),
+        eq(Collections.emptyMap()), extensions.capture(), any());
+    assertEquals(extensions.getValue(),
+        ImmutableMap.of("persistedQuery", ImmutableMap.of("version", 1, "sha256Hash", "abc")));
+  }
+
+  @Test
+  public void testExecutesQueryWithVariables() {
+    final ResponseEntity<String> response =
+        post("{\"query\": \"{ hello }\", \"variables\": {\"urn\": \"urn:li:corpuser:datahub\"}}");
+
+    assertEquals(response.getStatusCode(), HttpStatus.OK);
+    verify(_controller._engine).execute(eq("{ hello }"), isNull(),
+        eq(ImmutableMap.of("urn", "urn:li:corpuser:datahub")), eq(Collections.emptyMap()), any());
+  }
+
+  @Test
+  public void testRejectsRequestWithoutQueryOrHash() {
+    assertEquals(post("{\"variables\": {}}").getStatusCode(), HttpStatus.BAD_REQUEST);
+    assertEquals(post("not json").getStatusCode(), HttpStatus.BAD_REQUEST);
+    verifyZeroInteractions(_controller._engine);
+  }
+
+  private ResponseEntity<String> post(String body) {
+    return _controller.postGraphQL(new HttpEntity<>(body)).join();
+  }
+}
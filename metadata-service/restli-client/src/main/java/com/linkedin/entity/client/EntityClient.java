@@ -15,6 +15,7 @@ import com.linkedin.metadata.query.ListResult;
 import com.linkedin.metadata.query.ListUrnsResult;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.mxe.MetadataChangeProposal;
 import com.linkedin.mxe.SystemMetadata;
@@ -180,6 +181,17 @@ public interface EntityClient {
   public ListUrnsResult listUrns(@Nonnull final String entityName, final int start, final int count,
       @Nonnull final Authentication authentication) throws RemoteInvocationException;
 
+  /**
+   * Lists the urns existing for a particular Entity type, one page at a time.
+   *
+   * @param scrollId the cursor returned with the previous page, or null for the first page
+   * @param count max number of urns requested
+   * @return a page of {@link ScrollResult}, whose scrollId must be passed back to get the next page
+   */
+  @Nonnull
+  public ScrollResult scrollUrns(@Nonnull final String entityName, @Nullable final String scrollId, final int count,
+      @Nonnull final Authentication authentication) throws RemoteInvocationException;
+
   /**
    * Hard delete an entity with a particular urn.
    */
@@ -201,6 +213,24 @@ public interface EntityClient {
   public SearchResult filter(@Nonnull String entity, @Nonnull Filter filter, @Nullable SortCriterion sortCriterion,
       int start, int count, @Nonnull Authentication authentication) throws RemoteInvocationException;
 
+  /**
+   * Scrolls through all the entities matching a query and filters, one page at a time. Unlike search, scrolling is
+   * not limited by the max result window of the search index.
+   *
+   * @param entity entity type to scroll through
+   * @param input search query
+   * @param filter search filters
+   * @param sortCriterion sort criterion
+   * @param scrollId the cursor returned with the previous page, or null for the first page
+   * @param count max number of search results requested
+   * @return a page of {@link ScrollResult}, whose scrollId must be passed back to get the next page
+   * @throws RemoteInvocationException
+   */
+  @Nonnull
+  public ScrollResult scroll(@Nonnull String entity, @Nonnull String input, @Nullable Filter filter,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int count,
+      @Nonnull Authentication authentication) throws RemoteInvocationException;
+
   @Nullable
   public VersionedAspect getAspect(@Nonnull String urn, @Nonnull String aspect, @Nonnull Long version,
       @Nonnull Authentication authentication) throws RemoteInvocationException;
@@ -26,6 +26,7 @@ import com.linkedin.metadata.query.ListUrnsResult;
 import com.linkedin.metadata.resources.entity.AspectUtils;
 import com.linkedin.metadata.resources.entity.EntityResource;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.SearchService;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
@@ -310,6 +311,12 @@ public class JavaEntityClient implements EntityClient {
         return _entityService.listUrns(entityName, start, count);
     }
 
+    @Nonnull
+    public ScrollResult scrollUrns(@Nonnull final String entityName, @Nullable final String scrollId, final int count,
+        @Nonnull final Authentication authentication) throws RemoteInvocationException {
+        return _entityService.scrollUrns(entityName, scrollId, count);
+    }
+
     /**
      * Hard delete an entity with a particular urn.
      */
@@ -324,6 +331,14 @@ public class JavaEntityClient implements EntityClient {
         return _entitySearchService.filter(entity, filter, sortCriterion, start, count);
     }
 
+    @Nonnull
+    @Override
+    public ScrollResult scroll(@Nonnull String entity, @Nonnull String input, @Nullable Filter filter,
+        @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int count,
+        @Nonnull final Authentication authentication) throws RemoteInvocationException {
+        return _entitySearchService.scroll(entity, input, filter, sortCriterion, scrollId, count);
+    }
+
     @SneakyThrows
     @Override
     public VersionedAspect getAspect(@Nonnull String urn, @Nonnull String aspect, @Nonnull Long version,
@@ -23,6 +23,8 @@ import com.linkedin.entity.EntitiesDoIngestRequestBuilder;
 import com.linkedin.entity.EntitiesDoListRequestBuilder;
 import com.linkedin.entity.EntitiesDoListUrnsRequestBuilder;
 import com.linkedin.entity.EntitiesDoSearchAcrossEntitiesRequestBuilder;
+import com.linkedin.entity.EntitiesDoScrollRequestBuilder;
+import com.linkedin.entity.EntitiesDoScrollUrnsRequestBuilder;
 import com.linkedin.entity.EntitiesDoSearchRequestBuilder;
 import com.linkedin.entity.EntitiesDoSetWritableRequestBuilder;
 import com.linkedin.entity.EntitiesRequestBuilders;
@@ -40,6 +42,7 @@ import com.linkedin.metadata.query.ListResult;
 import com.linkedin.metadata.query.ListUrnsResult;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.mxe.MetadataChangeProposal;
 import com.linkedin.mxe.SystemMetadata;
@@ -401,6 +404,20 @@ public class RestliEntityClient extends BaseClient implements EntityClient {
     return sendClientRequest(requestBuilder, authentication).getEntity();
   }
 
+  /**
+   * Lists the urns existing for a particular Entity type, one page at a time.
+   */
+  @Nonnull
+  public ScrollResult scrollUrns(@Nonnull final String entityName, @Nullable final String scrollId, final int count,
+      @Nonnull final Authentication authentication) throws RemoteInvocationException {
+    EntitiesDoScrollUrnsRequestBuilder requestBuilder =
+        ENTITIES_REQUEST_BUILDERS.actionScrollUrns().entityParam(entityName).countParam(count);
+    if (scrollId != null) {
+      requestBuilder.scrollIdParam(scrollId);
+    }
+    return sendClientRequest(requestBuilder, authentication).getEntity();
+  }
+
   /**
    * Hard delete an entity with a particular urn.
    */
@@ -425,6 +442,27 @@ public class RestliEntityClient extends BaseClient implements EntityClient {
     return sendClientRequest(requestBuilder, authentication).getEntity();
   }
 
+  @Nonnull
+  @Override
+  public ScrollResult scroll(@Nonnull String entity, @Nonnull String input, @Nullable Filter filter,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int count,
+      @Nonnull final Authentication authentication) throws RemoteInvocationException {
+    EntitiesDoScrollRequestBuilder requestBuilder = ENTITIES_REQUEST_BUILDERS.actionScroll()
+        .entityParam(entity)
+        .inputParam(input)
+        .countParam(count);
+    if (filter != null) {
+      requestBuilder.filterParam(filter);
+    }
+    if (sortCriterion != null) {
+      requestBuilder.sortParam(sortCriterion);
+    }
+    if (scrollId != null) {
+      requestBuilder.scrollIdParam(scrollId);
+    }
+    return sendClientRequest(requestBuilder, authentication).getEntity();
+  }
+
   /**
    * Gets aspect at version for an entity
    *
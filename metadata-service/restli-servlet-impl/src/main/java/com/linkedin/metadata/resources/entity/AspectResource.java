@@ -1,6 +1,7 @@
 package com.linkedin.metadata.resources.entity;
 
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
 import com.linkedin.aspect.GetTimeseriesAspectValuesResponse;
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
@@ -8,6 +9,7 @@ import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.aspect.EnvelopedAspectArray;
 import com.linkedin.metadata.aspect.VersionedAspect;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.PreconditionFailedException;
 import com.linkedin.metadata.entity.ValidationException;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.restli.RestliUtil;
@@ -64,22 +66,35 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
   @Named("timeseriesAspectService")
   private TimeseriesAspectService _timeseriesAspectService;
 
+  @VisibleForTesting
+  void setEntityService(EntityService entityService) {
+    _entityService = entityService;
+  }
+
   /**
    * Retrieves the value for an entity that is made up of latest versions of specified aspects.
+   * The latest value comes with the version of the aspect that patches of it can expect if withAspectVersion is set.
    * TODO: Get rid of this and migrate to getAspect.
    */
   @RestMethod.Get
   @Nonnull
   @WithSpan
   public Task<AnyRecord> get(@Nonnull String urnStr, @QueryParam("aspect") @Optional @Nullable String aspectName,
-      @QueryParam("version") @Optional @Nullable Long version) throws URISyntaxException {
+      @QueryParam("version") @Optional @Nullable Long version,
+      @QueryParam("withAspectVersion") @Optional("false") boolean withAspectVersion) throws URISyntaxException {
     log.info("GET ASPECT urn: {} aspect: {} version: {}", urnStr, aspectName, version);
     final Urn urn = Urn.createFromString(urnStr);
     return RestliUtil.toTask(() -> {
+      // Read before the value, so that a concurrent write makes patches expecting it fail rather than overwrite it
+      final Long aspectVersion = withAspectVersion && Constants.ASPECT_LATEST_VERSION.equals(version)
+          ? _entityService.getAspectVersion(urn, aspectName) : null;
       final VersionedAspect aspect = _entityService.getVersionedAspect(urn, aspectName, version);
       if (aspect == null) {
         throw RestliUtil.resourceNotFoundException();
       }
+      if (aspectVersion != null) {
+        aspect.setAspectVersion(aspectVersion);
+      }
       return new AnyRecord(aspect.data());
     }, MetricRegistry.name(this.getClass(), "get"));
   }
@@ -138,6 +153,8 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
         return urn.toString();
       } catch (ValidationException e) {
         throw new RestLiServiceException(HttpStatus.S_422_UNPROCESSABLE_ENTITY, e.getMessage());
+      } catch (PreconditionFailedException e) {
+        throw new RestLiServiceException(HttpStatus.S_412_PRECONDITION_FAILED, e.getMessage());
       }
     }, MetricRegistry.name(this.getClass(), "ingestProposal"));
   }
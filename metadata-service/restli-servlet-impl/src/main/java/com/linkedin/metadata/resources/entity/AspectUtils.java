@@ -44,6 +44,8 @@ public class AspectUtils {
       MetadataChangeProposal original) {
     try {
       MetadataChangeProposal proposal = original.copy();
+      // Default aspects are proposed as a whole, even if the original proposal is a patch
+      proposal.setChangeType(ChangeType.UPSERT);
       GenericAspect genericAspect = GenericAspectUtils.serializeAspect(aspect);
       proposal.setAspect(genericAspect);
       proposal.setAspectName(aspectName);
@@ -23,6 +23,7 @@ import com.linkedin.metadata.run.AspectRowSummaryArray;
 import com.linkedin.metadata.run.DeleteEntityResponse;
 import com.linkedin.metadata.run.RollbackResponse;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.SearchService;
@@ -76,10 +77,13 @@ public class EntityResource extends CollectionResourceTaskTemplate<String, Entit
   private static final String ACTION_BATCH_INGEST = "batchIngest";
   private static final String ACTION_LIST_URNS = "listUrns";
   private static final String ACTION_FILTER = "filter";
+  private static final String ACTION_SCROLL = "scroll";
+  private static final String ACTION_SCROLL_URNS = "scrollUrns";
   private static final String PARAM_ENTITY = "entity";
   private static final String PARAM_ENTITIES = "entities";
   private static final String PARAM_COUNT = "count";
   private static final String PARAM_VALUE = "value";
+  private static final String PARAM_SCROLL_ID = "scrollId";
   private static final String SYSTEM_METADATA = "systemMetadata";
 
   private final Clock _clock = Clock.systemUTC();
@@ -230,6 +234,20 @@ public class EntityResource extends CollectionResourceTaskTemplate<String, Entit
         MetricRegistry.name(this.getClass(), "search"));
   }
 
+  @Action(name = ACTION_SCROLL)
+  @Nonnull
+  @WithSpan
+  public Task<ScrollResult> scroll(@ActionParam(PARAM_ENTITY) @Nonnull String entityName,
+      @ActionParam(PARAM_INPUT) @Nonnull String input, @ActionParam(PARAM_FILTER) @Optional @Nullable Filter filter,
+      @ActionParam(PARAM_SORT) @Optional @Nullable SortCriterion sortCriterion,
+      @ActionParam(PARAM_SCROLL_ID) @Optional @Nullable String scrollId, @ActionParam(PARAM_COUNT) int count) {
+
+    log.info("GET SCROLL RESULTS for {} with query {}", entityName, input);
+    return RestliUtil.toTask(
+        () -> _entitySearchService.scroll(entityName, input, filter, sortCriterion, scrollId, count),
+        MetricRegistry.name(this.getClass(), "scroll"));
+  }
+
   @Action(name = ACTION_SEARCH_ACROSS_ENTITIES)
   @Nonnull
   @WithSpan
@@ -405,6 +423,15 @@ public class EntityResource extends CollectionResourceTaskTemplate<String, Entit
     return RestliUtil.toTask(() -> _entityService.listUrns(entityName, start, count), "listUrns");
   }
 
+  @Action(name = ACTION_SCROLL_URNS)
+  @Nonnull
+  @WithSpan
+  public Task<ScrollResult> scrollUrns(@ActionParam(PARAM_ENTITY) @Nonnull String entityName,
+      @ActionParam(PARAM_SCROLL_ID) @Optional @Nullable String scrollId, @ActionParam(PARAM_COUNT) int count) {
+    log.info("SCROLL URNS for {} with count {}", entityName, count);
+    return RestliUtil.toTask(() -> _entityService.scrollUrns(entityName, scrollId, count), "scrollUrns");
+  }
+
   public static ListResult toListResult(final SearchResult searchResult) {
     if (searchResult == null) {
       return null;
@@ -0,0 +1,98 @@
+package com.linkedin.metadata.resources.entity;
+
+import com.linkedin.common.TagAssociation;
+import com.linkedin.common.urn.TagUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.aspect.VersionedAspect;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.PreconditionFailedException;
+import com.linkedin.metadata.key.DatasetKey;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.utils.AspectPatchBuilder;
+import com.linkedin.metadata.utils.GenericAspectUtils;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.restli.common.HttpStatus;
+import com.linkedin.restli.server.RestLiServiceException;
+import java.util.Collections;
+import org.mockito.InOrder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class AspectResourceTest {
+
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:foo,bar,PROD)";
+
+  private EntityService _entityService;
+  private AspectResource _resource;
+
+  @BeforeMethod
+  public void setup() {
+    _entityService = mock(EntityService.class);
+    final AspectSpec keyAspectSpec = mock(AspectSpec.class);
+    when(keyAspectSpec.getPegasusSchema()).thenReturn(new DatasetKey().schema());
+    when(_entityService.getKeyAspectSpec("dataset")).thenReturn(keyAspectSpec);
+    when(_entityService.generateDefaultAspectsIfMissing(any(), any())).thenReturn(Collections.emptyList());
+    _resource = new AspectResource();
+    _resource.setEntityService(_entityService);
+  }
+
+  @Test
+  public void testGetLatestWithAspectVersion() throws Exception {
+    final Urn urn = Urn.createFromString(DATASET_URN);
+    final VersionedAspect aspect = new VersionedAspect().setVersion(0L);
+    when(_entityService.getVersionedAspect(urn, "globalTags", 0L)).thenReturn(aspect);
+    when(_entityService.getAspectVersion(urn, "globalTags")).thenReturn(2L);
+
+    _resource.get(DATASET_URN, "globalTags", 0L, true);
+
+    // The version is read before the value, so that patches expecting it fail on a concurrent write
+    final InOrder inOrder = inOrder(_entityService);
+    inOrder.verify(_entityService).getAspectVersion(urn, "globalTags");
+    inOrder.verify(_entityService).getVersionedAspect(urn, "globalTags", 0L);
+    assertEquals(aspect.getAspectVersion().longValue(), 2L);
+  }
+
+  @Test
+  public void testGetWithoutAspectVersion() throws Exception {
+    final Urn urn = Urn.createFromString(DATASET_URN);
+    final VersionedAspect latest = new VersionedAspect().setVersion(0L);
+    final VersionedAspect older = new VersionedAspect().setVersion(1L);
+    when(_entityService.getVersionedAspect(urn, "globalTags", 0L)).thenReturn(latest);
+    when(_entityService.getVersionedAspect(urn, "globalTags", 1L)).thenReturn(older);
+
+    _resource.get(DATASET_URN, "globalTags", 0L, false);
+    // Older values do not come with the version of the aspect
+    _resource.get(DATASET_URN, "globalTags", 1L, true);
+
+    verify(_entityService, never()).getAspectVersion(any(), any());
+    assertFalse(latest.hasAspectVersion());
+    assertFalse(older.hasAspectVersion());
+  }
+
+  @Test
+  public void testFailedPreconditionIsPreconditionFailed() throws Exception {
+    final MetadataChangeProposal proposal = new MetadataChangeProposal();
+    proposal.setEntityUrn(Urn.createFromString(DATASET_URN));
+    proposal.setEntityType("dataset");
+    proposal.setAspectName("globalTags");
+    proposal.setAspect(GenericAspectUtils.serializeAspect(
+        new AspectPatchBuilder().add(AspectPatchBuilder.path("tags"),
+            new TagAssociation().setTag(TagUrn.createFromString("urn:li:tag:pii"))).expectedVersion(1).build()));
+    proposal.setChangeType(ChangeType.PATCH);
+    when(_entityService.ingestProposal(eq(proposal), any())).thenThrow(
+        new PreconditionFailedException("Expected aspect globalTags to be at version 1, but it is at version 2"));
+
+    try {
+      _resource.ingestProposal(proposal);
+      fail("Expected the proposal to be rejected");
+    } catch (RestLiServiceException e) {
+      assertEquals(e.getStatus(), HttpStatus.S_412_PRECONDITION_FAILED);
+    }
+  }
+}
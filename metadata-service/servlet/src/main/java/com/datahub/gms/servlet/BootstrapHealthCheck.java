@@ -0,0 +1,37 @@
+package com.datahub.gms.servlet;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedin.metadata.boot.BootstrapManager;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+
+// Return the status of boot steps, with a 200 once every required step succeeded and a 503 before
+public class BootstrapHealthCheck extends HttpServlet {
+
+  ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    WebApplicationContext ctx = WebApplicationContextUtils.getRequiredWebApplicationContext(req.getServletContext());
+    BootstrapManager bootstrapManager = (BootstrapManager) ctx.getBean("bootstrapManager");
+
+    boolean ready = bootstrapManager.isReady();
+    Map<String, Object> health = new HashMap<>();
+    health.put("ready", ready);
+    health.put("steps", bootstrapManager.getStepStatuses());
+
+    resp.setStatus(ready ? 200 : 503);
+    resp.setContentType("application/json");
+    PrintWriter out = resp.getWriter();
+    out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(health));
+    out.flush();
+  }
+}
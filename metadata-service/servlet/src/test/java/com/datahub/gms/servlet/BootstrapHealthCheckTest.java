@@ -0,0 +1,69 @@
+package com.datahub.gms.servlet;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.metadata.boot.BootstrapManager;
+import com.linkedin.metadata.boot.BootstrapStep;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.context.WebApplicationContext;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+
+public class BootstrapHealthCheckTest {
+
+  @Test
+  public void testUnavailableUntilRequiredStepsSucceeded() throws Exception {
+    final BootstrapManager manager = new BootstrapManager(ImmutableList.of(new BootstrapStep() {
+      @Override
+      public String name() {
+        return "TestStep";
+      }
+
+      @Override
+      public void execute() {
+      }
+    }));
+
+    JsonNode health = getHealth(manager, 503);
+    assertFalse(health.get("ready").asBoolean());
+    assertEquals(health.get("steps").get(0).get("state").asText(), "PENDING");
+    assertTrue(health.get("steps").get(0).get("required").asBoolean());
+    // Unset fields are left out
+    assertFalse(health.get("steps").get(0).has("startTimeMs"));
+
+    // Blocking steps are executed before start returns
+    manager.start();
+
+    health = getHealth(manager, 200);
+    assertTrue(health.get("ready").asBoolean());
+    assertEquals(health.get("steps").get(0).get("name").asText(), "TestStep");
+    assertEquals(health.get("steps").get(0).get("state").asText(), "SUCCEEDED");
+    assertTrue(health.get("steps").get(0).has("durationMs"));
+  }
+
+  private static JsonNode getHealth(BootstrapManager manager, int expectedStatus) throws Exception {
+    final WebApplicationContext context = mock(WebApplicationContext.class);
+    when(context.getBean("bootstrapManager")).thenReturn(manager);
+    final ServletContext servletContext = mock(ServletContext.class);
+    when(servletContext.getAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE)).thenReturn(context);
+    final HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getServletContext()).thenReturn(servletContext);
+    final HttpServletResponse response = mock(HttpServletResponse.class);
+    final StringWriter body = new StringWriter();
+    when(response.getWriter()).thenReturn(new PrintWriter(body));
+
+    new BootstrapHealthCheck().doGet(request, response);
+
+    verify(response).setStatus(expectedStatus);
+    verify(response).setContentType("application/json");
+    return new ObjectMapper().readTree(body.toString());
+  }
+}
@@ -22,6 +22,7 @@ public class Constants {
   public static final String DASHBOARD_ENTITY_NAME = "dashboard";
   public static final String DATA_FLOW_ENTITY_NAME = "dataFlow";
   public static final String DATA_JOB_ENTITY_NAME = "dataJob";
+  public static final String DATAHUB_BOOTSTRAP_STEP_ENTITY_NAME = "dataHubBootstrapStep";
 
   /**
    * Aspects
@@ -77,6 +78,9 @@ public class Constants {
   public static final String DATA_JOB_INPUT_OUTPUT_ASPECT_NAME = "dataJobInputOutput";
   public static final String EDITABLE_DATA_JOB_PROPERTIES_ASPECT_NAME = "editableDataJobProperties";
 
+  // DataHub Bootstrap Step
+  public static final String BOOTSTRAP_STEP_PROGRESS_ASPECT_NAME = "bootstrapStepProgress";
+
 
   /**
    * User Status
@@ -0,0 +1,124 @@
+package com.linkedin.metadata.utils;
+
+import com.datahub.util.RecordUtils;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.mxe.AspectPatch;
+import com.linkedin.mxe.AspectPatchOperation;
+import com.linkedin.mxe.AspectPatchOperationArray;
+import com.linkedin.mxe.AspectPatchOperationType;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Builds {@link AspectPatch}es, to be proposed with {@link GenericAspectUtils#serializeAspect(RecordTemplate)} as the
+ * aspect of a MetadataChangeProposal with changeType PATCH.
+ */
+public class AspectPatchBuilder {
+
+  private final AspectPatchOperationArray _operations = new AspectPatchOperationArray();
+  private Long _expectedVersion;
+
+  /**
+   * Adds the value to the array at the path, unless an element with the same key fields, or the same fields if none
+   * are given, exists.
+   */
+  @Nonnull
+  public AspectPatchBuilder add(@Nonnull final String path, @Nonnull final RecordTemplate value,
+      @Nonnull final String... keyFields) {
+    return addOperation(AspectPatchOperationType.ADD, path, RecordUtils.toJsonString(value), keyFields);
+  }
+
+  /**
+   * Removes the elements with the same key fields as the value, or the same fields if none are given, from the array at
+   * the path.
+   */
+  @Nonnull
+  public AspectPatchBuilder remove(@Nonnull final String path, @Nonnull final RecordTemplate value,
+      @Nonnull final String... keyFields) {
+    return addOperation(AspectPatchOperationType.REMOVE, path, RecordUtils.toJsonString(value), keyFields);
+  }
+
+  /**
+   * Sets the record field at the path to the value.
+   */
+  @Nonnull
+  public AspectPatchBuilder set(@Nonnull final String path, @Nonnull final RecordTemplate value) {
+    return addOperation(AspectPatchOperationType.SET, path, RecordUtils.toJsonString(value));
+  }
+
+  /**
+   * Sets the string field at the path to the value.
+   */
+  @Nonnull
+  public AspectPatchBuilder set(@Nonnull final String path, @Nonnull final String value) {
+    return addOperation(AspectPatchOperationType.SET, path, quote(value));
+  }
+
+  /**
+   * Unsets the optional field at the path.
+   */
+  @Nonnull
+  public AspectPatchBuilder unset(@Nonnull final String path) {
+    return addOperation(AspectPatchOperationType.SET, path, null);
+  }
+
+  /**
+   * Rejects the patch unless the aspect is at the given version when it is applied.
+   */
+  @Nonnull
+  public AspectPatchBuilder expectedVersion(final long expectedVersion) {
+    _expectedVersion = expectedVersion;
+    return this;
+  }
+
+  @Nonnull
+  public AspectPatch build() {
+    final AspectPatch patch = new AspectPatch().setOperations(_operations);
+    if (_expectedVersion != null) {
+      patch.setExpectedVersion(_expectedVersion);
+    }
+    return patch;
+  }
+
+  /**
+   * Returns the JSON pointer to the given field names and element selectors.
+   */
+  @Nonnull
+  public static String path(@Nonnull final String... segments) {
+    return Arrays.stream(segments)
+        .map(segment -> "/" + segment.replace("~", "~0").replace("/", "~1"))
+        .collect(Collectors.joining());
+  }
+
+  /**
+   * Returns a path segment selecting the element of an array of records with the given value of a field.
+   */
+  @Nonnull
+  public static String selector(@Nonnull final String field, @Nonnull final String value) {
+    return String.format("{%s:%s}", quote(field), quote(value));
+  }
+
+  @Nonnull
+  private AspectPatchBuilder addOperation(@Nonnull final AspectPatchOperationType op, @Nonnull final String path,
+      @Nullable final String value, @Nonnull final String... keyFields) {
+    final AspectPatchOperation operation = new AspectPatchOperation().setOp(op).setPath(path);
+    if (value != null) {
+      operation.setValue(value);
+    }
+    if (keyFields.length > 0) {
+      operation.setKeyFields(new StringArray(Arrays.asList(keyFields)));
+    }
+    _operations.add(operation);
+    return this;
+  }
+
+  @Nonnull
+  private static String quote(@Nonnull final String value) {
+    return "\"" + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + "\"";
+  }
+}